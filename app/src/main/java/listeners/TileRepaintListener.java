@@ -0,0 +1,74 @@
+package listeners;
+
+import render.Tile;
+import render.TileListener;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Перерисовывает на компоненте прямоугольники готовых тайлов рендерера.
+ * <p>
+ * Тайлы приходят из рабочих потоков очень часто (на панели 4K - тысячи тайлов 32x32 за кадр),
+ * поэтому события объединяются: прямоугольники тайлов собираются в одну общую область,
+ * и не чаще одного раза за {@code intervalMillis} в EDT выполняется один вызов
+ * {@link JComponent#repaint(int, int, int, int)} для этой области.
+ * </p>
+ * Предполагается, что изображение кадра рисуется на компоненте в точке (0, 0) без масштабирования,
+ * то есть координаты тайла совпадают с координатами компонента.
+ */
+public class TileRepaintListener implements TileListener {
+
+    /** Компонент, на котором отображается кадр. */
+    private final JComponent component;
+    /** Однократный таймер EDT, перерисовывающий накопленную область. */
+    private final Timer timer;
+    /** Накопленная область готовых тайлов (под защитой {@code this}) или {@code null}. */
+    private Rectangle dirty;
+    /** {@code true}, если перерисовка уже запланирована (под защитой {@code this}). */
+    private boolean scheduled;
+
+    /**
+     * Создает слушателя.
+     * @param component      Компонент для перерисовки. Не может быть null.
+     * @param intervalMillis Минимальный интервал между перерисовками в миллисекундах.
+     */
+    public TileRepaintListener(JComponent component, int intervalMillis) {
+        this.component = component;
+        this.timer = new Timer(intervalMillis, e -> flush());
+        this.timer.setRepeats(false);
+    }
+
+    /**
+     * Добавляет тайл в накопленную область и, если перерисовка еще не запланирована,
+     * планирует ее. Вызывается из рабочих потоков рендерера.
+     * @param tile   Готовый тайл.
+     * @param pixels Растр кадра (не используется: компонент рисует изображение целиком).
+     */
+    @Override
+    public void onTileComplete(Tile tile, int[] pixels) {
+        Rectangle bounds = new Rectangle(tile.getStartX(), tile.getStartY(), tile.getWidth(), tile.getHeight());
+        synchronized (this) {
+            dirty = (dirty == null) ? bounds : dirty.union(bounds);
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        // Таймер запускается в EDT: первая перерисовка - через интервал после первого тайла
+        SwingUtilities.invokeLater(timer::restart);
+    }
+
+    /** Перерисовывает накопленную область (в EDT). */
+    private void flush() {
+        Rectangle area;
+        synchronized (this) {
+            area = dirty;
+            dirty = null;
+            scheduled = false;
+        }
+        if (area != null) {
+            component.repaint(area.x, area.y, area.width, area.height);
+        }
+    }
+}
@@ -1,24 +1,43 @@
 // File: app/src/main/java/view/AnimationSettingsPanel.java
 package view;
 
+import services.ExportProfile;
+
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
 
 /**
  * Панель для настройки общих параметров генерируемой анимации,
- * таких как длительность сегмента и частота кадров (FPS).
+ * таких как длительность сегмента и частота кадров (FPS),
+ * и параметров экспорта ({@link ExportProfile}): разрешение, сглаживание, число потоков
+ * и режимы ускорения (перенос пикселей или зум-видео из слоев).
  */
 public class AnimationSettingsPanel extends JPanel {
 
+    /** Разрешения видео, предлагаемые в списке ({ширина, высота}). */
+    private static final int[][] RESOLUTIONS = {
+            {640, 480}, {800, 600}, {1280, 720}, {1920, 1080}, {2560, 1440}, {3840, 2160}
+    };
+    /** Коэффициенты суперсэмплинга, предлагаемые в списке. */
+    private static final Integer[] SUPERSAMPLING_FACTORS = {1, 2, 3, 4};
+
     private final JSpinner durationSpinner;
     private final JSpinner fpsSpinner;
+    private final JComboBox<String> resolutionCombo;
+    private final JComboBox<Integer> supersamplingCombo;
+    private final JSpinner threadsSpinner;
+    private final JCheckBox temporalReuseCheckBox;
+    private final JSpinner sampleOffsetSpinner;
+    private final JSpinner magnificationSpinner;
+    private final JCheckBox zoomMovieCheckBox;
 
     /**
      * Создает панель настроек анимации.
      */
     public AnimationSettingsPanel() {
-        setLayout(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        // Три строки: параметры времени, параметры экспорта и режимы ускорения
+        setLayout(new GridLayout(3, 1));
         setBorder(new TitledBorder("Параметры анимации"));
 
         // Длительность сегмента
@@ -31,12 +50,95 @@ public class AnimationSettingsPanel extends JPanel {
         fpsSpinner = new JSpinner(new SpinnerNumberModel(30, 1, 120, 1));
         fpsSpinner.setToolTipText("Частота кадров в секунду (FPS) в итоговом видеофайле");
 
+        // Разрешение видео
+        resolutionCombo = new JComboBox<>();
+        for (int[] resolution : RESOLUTIONS) {
+            resolutionCombo.addItem(resolution[0] + "x" + resolution[1]);
+        }
+        resolutionCombo.setSelectedItem(ExportProfile.DEFAULT_WIDTH + "x" + ExportProfile.DEFAULT_HEIGHT);
+        resolutionCombo.setToolTipText("Разрешение итогового видео");
+
+        // Суперсэмплинг
+        supersamplingCombo = new JComboBox<>(SUPERSAMPLING_FACTORS);
+        supersamplingCombo.setToolTipText("Сглаживание: число точек на пиксель по каждой оси (время рендеринга растет квадратично)");
+
+        // Потоки рендеринга
+        int processors = Runtime.getRuntime().availableProcessors();
+        threadsSpinner = new JSpinner(new SpinnerNumberModel(processors, 1, Math.max(processors, 256), 1));
+        threadsSpinner.setToolTipText("Число потоков рендеринга кадров");
+
+        // Повторное использование точек предыдущего кадра (несовместимо со сглаживанием)
+        temporalReuseCheckBox = new JCheckBox("Переносить пиксели между кадрами");
+        temporalReuseCheckBox.setToolTipText("Считать только пиксели, которых нет в предыдущем кадре: "
+                + "быстрее для плавного зума, точки смещаются не больше заданного порога");
+        supersamplingCombo.addActionListener(e -> updateTemporalReuseAvailability());
+
+        // Пороги качества переноса
+        sampleOffsetSpinner = new JSpinner(new SpinnerNumberModel(ExportProfile.DEFAULT_MAX_SAMPLE_OFFSET, 0.0, 0.5, 0.05));
+        sampleOffsetSpinner.setEditor(new JSpinner.NumberEditor(sampleOffsetSpinner, "0.00"));
+        sampleOffsetSpinner.setToolTipText("Наибольшее отклонение перенесенной точки от центра пикселя (в пикселях): "
+                + "меньше - точнее, больше - меньше пикселей считается заново");
+        magnificationSpinner = new JSpinner(new SpinnerNumberModel(ExportProfile.DEFAULT_MAX_MAGNIFICATION, 1.0, 16.0, 0.1));
+        magnificationSpinner.setEditor(new JSpinner.NumberEditor(magnificationSpinner, "0.0"));
+        magnificationSpinner.setToolTipText("Во сколько раз перенесенная точка может быть увеличена с момента расчета");
+
+        // Зум-видео: сегменты чистого зума собираются из вложенных слоев (несовместимо с переносом пикселей)
+        zoomMovieCheckBox = new JCheckBox("Зум-видео из слоев");
+        zoomMovieCheckBox.setToolTipText("Для сегментов чистого зума (общий центр) рендерить слои через каждые 2x "
+                + "и собирать из них кадры: время зависит от глубины зума, а не от числа кадров");
+        temporalReuseCheckBox.addActionListener(e -> {
+            if (temporalReuseCheckBox.isSelected()) {
+                zoomMovieCheckBox.setSelected(false);
+            }
+            updateTemporalReuseAvailability();
+        });
+        zoomMovieCheckBox.addActionListener(e -> {
+            if (zoomMovieCheckBox.isSelected()) {
+                temporalReuseCheckBox.setSelected(false);
+            }
+            updateTemporalReuseAvailability();
+        });
+
         // Добавление компонентов
-        add(new JLabel("Сегмент (сек):"));
-        add(durationSpinner);
-        add(Box.createHorizontalStrut(15));
-        add(new JLabel("FPS:"));
-        add(fpsSpinner);
+        JPanel timingRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        timingRow.add(new JLabel("Сегмент (сек):"));
+        timingRow.add(durationSpinner);
+        timingRow.add(Box.createHorizontalStrut(15));
+        timingRow.add(new JLabel("FPS:"));
+        timingRow.add(fpsSpinner);
+        add(timingRow);
+
+        JPanel exportRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        exportRow.add(new JLabel("Разрешение:"));
+        exportRow.add(resolutionCombo);
+        exportRow.add(new JLabel("SSAA:"));
+        exportRow.add(supersamplingCombo);
+        exportRow.add(new JLabel("Потоки:"));
+        exportRow.add(threadsSpinner);
+        add(exportRow);
+
+        JPanel speedupRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        speedupRow.add(temporalReuseCheckBox);
+        speedupRow.add(new JLabel("Отклонение (пикс.):"));
+        speedupRow.add(sampleOffsetSpinner);
+        speedupRow.add(new JLabel("Увеличение:"));
+        speedupRow.add(magnificationSpinner);
+        speedupRow.add(Box.createHorizontalStrut(15));
+        speedupRow.add(zoomMovieCheckBox);
+        add(speedupRow);
+        updateTemporalReuseAvailability();
+    }
+
+    /** Перенос пикселей доступен только без суперсэмплинга; пороги - только при включенном переносе. */
+    private void updateTemporalReuseAvailability() {
+        boolean supersampled = (Integer) supersamplingCombo.getSelectedItem() != 1;
+        if (supersampled) {
+            temporalReuseCheckBox.setSelected(false);
+        }
+        temporalReuseCheckBox.setEnabled(isEnabled() && !supersampled);
+        boolean thresholds = temporalReuseCheckBox.isEnabled() && temporalReuseCheckBox.isSelected();
+        sampleOffsetSpinner.setEnabled(thresholds);
+        magnificationSpinner.setEnabled(thresholds);
     }
 
     /**
@@ -55,6 +157,25 @@ public class AnimationSettingsPanel extends JPanel {
         return (Integer) fpsSpinner.getValue();
     }
 
+    /**
+     * Возвращает профиль экспорта по выбранным разрешению, сглаживанию, числу потоков и режиму ускорения.
+     * Размер тайла и число кадров в работе выбираются по умолчанию ({@link ExportProfile#of}).
+     * @return Профиль экспорта.
+     */
+    public ExportProfile getExportProfile() {
+        int[] resolution = RESOLUTIONS[Math.max(0, resolutionCombo.getSelectedIndex())];
+        int supersampling = (Integer) supersamplingCombo.getSelectedItem();
+        ExportProfile profile = ExportProfile.of(resolution[0], resolution[1], supersampling,
+                                                 (Integer) threadsSpinner.getValue());
+        if (temporalReuseCheckBox.isSelected() && supersampling == 1) {
+            profile = profile.withTemporalReuse(((Number) sampleOffsetSpinner.getValue()).doubleValue(),
+                                                ((Number) magnificationSpinner.getValue()).doubleValue());
+        } else if (zoomMovieCheckBox.isSelected()) {
+            profile = profile.withZoomMovie();
+        }
+        return profile;
+    }
+
     /**
      * Переопределяем setEnabled для блокировки всех интерактивных компонентов панели.
      * @param enabled {@code true} для включения, {@code false} для выключения.
@@ -64,10 +185,17 @@ public class AnimationSettingsPanel extends JPanel {
         super.setEnabled(enabled);
         durationSpinner.setEnabled(enabled);
         fpsSpinner.setEnabled(enabled);
+        resolutionCombo.setEnabled(enabled);
+        supersamplingCombo.setEnabled(enabled);
+        threadsSpinner.setEnabled(enabled);
+        updateTemporalReuseAvailability();
+        zoomMovieCheckBox.setEnabled(enabled);
         // Метки тоже можно сделать серыми
-        for (Component comp : getComponents()) {
-            if (comp instanceof JLabel) {
-                comp.setEnabled(enabled);
+        for (Component row : getComponents()) {
+            for (Component comp : ((Container) row).getComponents()) {
+                if (comp instanceof JLabel) {
+                    comp.setEnabled(enabled);
+                }
             }
         }
     }
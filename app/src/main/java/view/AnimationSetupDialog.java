@@ -7,6 +7,7 @@ import model.FractalState;
 import model.Keyframe;
 import model.Viewport;
 import services.AnimationService;
+import services.ExportProfile;
 import viewmodel.FractalViewModel;
 
 import javax.swing.*;
@@ -399,6 +400,7 @@ public class AnimationSetupDialog extends JDialog {
         }
         final double durationPerSegment = animationSettingsPanel.getDurationPerSegment();
         final int fps = animationSettingsPanel.getFps();
+        final ExportProfile exportProfile = animationSettingsPanel.getExportProfile();
 
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Сохранить видео анимации как...");
@@ -437,7 +439,7 @@ public class AnimationSetupDialog extends JDialog {
             protected Void doInBackground() throws Exception {
                 startTime = System.currentTimeMillis();
                 animationService.createAndSaveAnimation(
-                        keyframes, fps, durationPerSegment, outputFile,
+                        keyframes, fps, durationPerSegment, outputFile, exportProfile,
                         progress -> publishProgress(progress), // Колбэк прогресса
                         this::publish // Колбэк статуса
                 );
@@ -3,9 +3,12 @@ package view;
 
 import listeners.MousePanListener;
 import listeners.MouseZoomListener;
+import listeners.TileRepaintListener;
 import model.ColorScheme;
 import model.FractalState;
+import render.CursorTileOrder;
 import render.FractalRenderer;
+import render.RenderStats;
 import utils.ComplexNumber;
 import utils.Converter;
 // Импорт ViewModel для управления состоянием фрактала
@@ -20,7 +23,6 @@ import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
@@ -47,6 +49,16 @@ protected final FractalViewModel viewModel;
     protected final MousePanListener panListener; // <-- protected
     protected volatile boolean isRendering = false; // <-- protected
     protected final StatusBar statusBar;
+    /** Минимальный интервал между частичными перерисовками готовых тайлов (около 30 раз в секунду). */
+    private static final int TILE_REPAINT_INTERVAL_MS = 33;
+    /** Перерисовывает прямоугольники готовых тайлов, объединяя частые события. */
+    private final TileRepaintListener tileRepaintListener = new TileRepaintListener(this, TILE_REPAINT_INTERVAL_MS);
+    /** Порядок тайлов: первыми рендерятся тайлы под курсором (без курсора - от центра). */
+    private final CursorTileOrder tileOrder = new CursorTileOrder();
+    /** Смещение курсора (в пикселях), после которого пересчитываются приоритеты тайлов текущего кадра. */
+    private static final int FOCUS_UPDATE_DISTANCE = 32;
+    /** Последняя точка фокуса, по которой пересчитывались приоритеты, или {@code null}. */
+    private Point lastFocus;
 
     /**
      * Конструирует FractalPanel.
@@ -88,6 +100,27 @@ protected final FractalViewModel viewModel;
         setBackground(Color.BLACK);
         setOpaque(true);
 
+        // Тайлы под курсором рендерятся первыми
+        renderer.setTileOrder(tileOrder);
+        MouseAdapter focusTracker = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                updateTileFocus(e.getPoint());
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                updateTileFocus(e.getPoint());
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                updateTileFocus(null);
+            }
+        };
+        addMouseMotionListener(focusTracker);
+        addMouseListener(focusTracker);
+
         addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
@@ -106,6 +139,26 @@ protected final FractalViewModel viewModel;
         }
     }
 
+    /**
+     * Переносит фокус порядка тайлов в точку курсора. Приоритеты тайлов текущего кадра
+     * пересчитываются, только если курсор сместился хотя бы на размер тайла.
+     * @param point Точка курсора на панели или {@code null}, если курсор покинул панель.
+     */
+    private void updateTileFocus(Point point) {
+        if (point == null) {
+            tileOrder.clearFocus();
+            lastFocus = null;
+            return;
+        }
+        tileOrder.setFocus(point.x, point.y);
+        if (lastFocus == null || lastFocus.distance(point) >= FOCUS_UPDATE_DISTANCE) {
+            lastFocus = point;
+            if (isRendering) {
+                renderer.reprioritizeTiles();
+            }
+        }
+    }
+
     /**
      * Открывает окно для отображения множества Жюлиа.
      * @param screenPoint Точка на панели (в экранных координатах).
@@ -186,14 +239,10 @@ protected final FractalViewModel viewModel;
         }
 
         // --- Подготовка колбэков для рендерера ---
-        AtomicInteger renderedTiles = new AtomicInteger(0);
-        // Рассчитываем общее количество тайлов для прогресса (используем константу из рендерера TILE_SIZE)
-        final int totalTiles = render.TileCalculator.calculateTiles(width, height, 32).size();
-
-        // Callback для обновления прогресса (вызывается из потока рендеринга)
+        // Callback для обновления прогресса (вызывается из потока рендеринга).
+        // Тайлы бывают разного размера (TilingPolicy), поэтому прогресс берется по готовой площади
         Runnable progressUpdater = () -> {
-            int completed = renderedTiles.incrementAndGet();
-            int progressPercent = (totalTiles > 0) ? (int) (((double) completed / totalTiles) * 100.0) : 0;
+            int progressPercent = (int) (renderer.getProgress() * 100.0);
             if (statusBar != null) { // Обновляем прогресс только если есть StatusBar
                 statusBar.setProgress(progressPercent);
             }
@@ -212,6 +261,11 @@ protected final FractalViewModel viewModel;
                             completedState.getViewport().getMinX(), completedState.getViewport().getMaxX(),
                             completedState.getViewport().getMinY(), completedState.getViewport().getMaxY(),
                             completedState.getMaxIterations());
+                    // Для глубокого зума добавляем пропуск итераций приближением рядом
+                    RenderStats stats = renderer.getLastStats();
+                    if (stats != null && stats.isDeepZoom()) {
+                        statusText += " (" + stats.getSummary() + ")";
+                    }
                     if (statusBar != null) statusBar.setStatus(statusText);
                 } else {
                     if (statusBar != null) statusBar.setStatus("Готово (состояние не доступно).");
@@ -223,6 +277,13 @@ protected final FractalViewModel viewModel;
             repaint(); // Перерисовываем панель с новым изображением или статусом ошибки
         };
 
+        // Callback для промежуточных кадров (вызывается рендерером в EDT): грубое изображение 1/8, 1/4, 1/2
+        // показывается сразу, поэтому панорамирование и зум отзываются без ожидания полного кадра
+        Consumer<BufferedImage> onPreview = previewImage -> {
+            this.fractalImage = previewImage;
+            repaint();
+        };
+
         // Callback при отмене рендеринга (вызывается рендерером в EDT)
         Runnable onCancel = () -> {
             isRendering = false;
@@ -243,7 +304,8 @@ protected final FractalViewModel viewModel;
         };
 
         // Вызываем асинхронный метод рендерера с новыми колбэками
-        renderer.render(currentState, width, height, onComplete, onCancel, progressUpdater);
+        renderer.render(currentState, width, height, onComplete, onCancel, progressUpdater, onPreview,
+                        tileRepaintListener);
     }
 
     /**
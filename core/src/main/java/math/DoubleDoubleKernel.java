@@ -0,0 +1,214 @@
+// File: core/src/main/java/math/DoubleDoubleKernel.java
+package math;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Вычисление итераций в арифметике double-double (~106 бит мантиссы, ~31 десятичный знак).
+ * <p>
+ * Число хранится парой {@code hi + lo} ({@code |lo| <= ulp(hi) / 2}), а операции строятся
+ * из безошибочных преобразований: two-sum (сумма и ее точная ошибка округления) и two-prod
+ * (произведение и его точная ошибка через {@link Math#fma}). Это промежуточный уровень точности
+ * между {@code double} (до ширины пикселя ~1e-13 от модуля координат) и методом возмущений
+ * с опорной орбитой в {@link BigDecimal}: каждый пиксель итерируется независимо
+ * (без опорной орбиты, глитчей и подготовки кадра), примерно в 4-5 раз медленнее {@code double}.
+ * </p><p>
+ * Координата пикселя задается как центр кадра (в double-double) плюс смещение в {@code double};
+ * сумма вычисляется точно, поэтому пиксели различаются до размера ~1e-30 от модуля координат.
+ * Проверка выхода за радиус 2 выполняется по старшим частям - точности {@code double} для нее хватает.
+ * </p><p>
+ * Тот же цикл считает опорную орбиту метода возмущений ({@link ReferenceOrbit#computeDoubleDouble}),
+ * когда точности double-double для кадра достаточно: это в сотни раз быстрее {@link BigDecimal}.
+ * </p><p>
+ * Поддерживаются {@link MandelbrotFunction} и {@link JuliaFunction} (без подклассов).
+ * Объект неизменяемый, метод {@link #iterate(double, double, int)} не выделяет памяти
+ * и может вызываться из нескольких потоков одновременно.
+ * </p>
+ */
+public final class DoubleDoubleKernel {
+
+    /** Точность double-double в десятичных знаках (106 бит). */
+    public static final int DECIMAL_DIGITS = 32;
+
+    /** {@code true} - Жюлиа (пиксель задает {@code z0}), иначе Мандельброт (пиксель задает {@code c}). */
+    private final boolean julia;
+    /** Центр кадра по вещественной оси: старшая часть. */
+    private final double centerReHi;
+    /** Центр кадра по вещественной оси: младшая часть. */
+    private final double centerReLo;
+    /** Центр кадра по мнимой оси: старшая часть. */
+    private final double centerImHi;
+    /** Центр кадра по мнимой оси: младшая часть. */
+    private final double centerImLo;
+    /** Параметр множества Жюлиа (для Мандельброта не используется). */
+    private final double juliaCr;
+    private final double juliaCi;
+
+    private DoubleDoubleKernel(boolean julia, double centerReHi, double centerReLo,
+                               double centerImHi, double centerImLo, double juliaCr, double juliaCi) {
+        this.julia = julia;
+        this.centerReHi = centerReHi;
+        this.centerReLo = centerReLo;
+        this.centerImHi = centerImHi;
+        this.centerImLo = centerImLo;
+        this.juliaCr = juliaCr;
+        this.juliaCi = juliaCi;
+    }
+
+    /**
+     * Проверяет, может ли функция считаться в double-double.
+     * Подклассы не поддерживаются: они могут переопределять формулу итераций.
+     *
+     * @param function Функция фрактала.
+     * @return {@code true} для {@link MandelbrotFunction} и {@link JuliaFunction}.
+     */
+    public static boolean supports(FractalFunction function) {
+        return ReferenceOrbit.supports(function);
+    }
+
+    /**
+     * Создает ядро для кадра с заданным центром.
+     *
+     * @param function Функция фрактала (см. {@link #supports(FractalFunction)}).
+     * @param centerRe Вещественная координата центра кадра.
+     * @param centerIm Мнимая координата центра кадра.
+     * @return Ядро, считающее пиксели по смещениям от центра.
+     * @throws IllegalArgumentException если функция не поддерживается.
+     */
+    public static DoubleDoubleKernel create(FractalFunction function, BigDecimal centerRe, BigDecimal centerIm) {
+        Objects.requireNonNull(centerRe, "Координата re не может быть null");
+        Objects.requireNonNull(centerIm, "Координата im не может быть null");
+        if (!supports(function)) {
+            throw new IllegalArgumentException("Double-double не поддерживает функцию: "
+                    + (function == null ? "null" : function.getClass().getName()));
+        }
+        boolean julia = function.getClass() == JuliaFunction.class;
+        double juliaCr = julia ? ((JuliaFunction) function).parameter().getReal() : 0.0;
+        double juliaCi = julia ? ((JuliaFunction) function).parameter().getImaginary() : 0.0;
+        // Старшая часть - ближайший double, младшая - остаток, округленный до double
+        double reHi = centerRe.doubleValue();
+        double reLo = centerRe.subtract(new BigDecimal(reHi)).doubleValue();
+        double imHi = centerIm.doubleValue();
+        double imLo = centerIm.subtract(new BigDecimal(imHi)).doubleValue();
+        return new DoubleDoubleKernel(julia, reHi, reLo, imHi, imLo, juliaCr, juliaCi);
+    }
+
+    /**
+     * Вычисляет число итераций для точки {@code центр + (deltaRe, deltaIm)}.
+     * Результат совпадает по смыслу с {@link FractalFunction#calculateIterations}:
+     * номер итерации, на которой {@code |z|^2 > 4}, или {@code maxIterations}.
+     *
+     * @param deltaRe       Смещение точки от центра кадра по вещественной оси.
+     * @param deltaIm       Смещение по мнимой оси.
+     * @param maxIterations Максимальное число итераций.
+     * @return Число итераций от 0 до maxIterations включительно.
+     */
+    public int iterate(double deltaRe, double deltaIm, int maxIterations) {
+        return run(deltaRe, deltaIm, maxIterations, null, null);
+    }
+
+    /**
+     * Записывает орбиту центра кадра, округленную до {@code double}: {@code Z_0, Z_1, ...}
+     * до заполнения массивов или до первой точки за радиусом 2 (но не меньше двух точек).
+     *
+     * @param orbitRe Массив для вещественных частей (длина не меньше 2).
+     * @param orbitIm Массив для мнимых частей (той же длины).
+     * @return Число записанных точек.
+     */
+    int record(double[] orbitRe, double[] orbitIm) {
+        return run(0.0, 0.0, orbitRe.length - 1, orbitRe, orbitIm) + 1;
+    }
+
+    /**
+     * Общий цикл итераций. Без массивов возвращает число итераций до выхода за радиус 2
+     * (или {@code last}); с массивами дополнительно записывает {@code z_0..z_i} и продолжает
+     * после выхода на шаге 0, чтобы орбита содержала минимум две точки.
+     *
+     * @return Номер последней посчитанной итерации {@code i} ({@code z_i} убежала или {@code i == last}).
+     */
+    private int run(double deltaRe, double deltaIm, int last, double[] orbitRe, double[] orbitIm) {
+        // Точка пикселя: центр + смещение (two-sum старших частей, затем нормализация)
+        double s = centerReHi + deltaRe;
+        double bb = s - centerReHi;
+        double err = (centerReHi - (s - bb)) + (deltaRe - bb) + centerReLo;
+        double pr = s + err;
+        double prl = err - (pr - s);
+
+        s = centerImHi + deltaIm;
+        bb = s - centerImHi;
+        err = (centerImHi - (s - bb)) + (deltaIm - bb) + centerImLo;
+        double pi = s + err;
+        double pil = err - (pi - s);
+
+        double zr, zrl, zi, zil, cr, crl, ci, cil;
+        if (julia) {
+            zr = pr;
+            zrl = prl;
+            zi = pi;
+            zil = pil;
+            cr = juliaCr;
+            crl = 0.0;
+            ci = juliaCi;
+            cil = 0.0;
+        } else {
+            zr = 0.0;
+            zrl = 0.0;
+            zi = 0.0;
+            zil = 0.0;
+            cr = pr;
+            crl = prl;
+            ci = pi;
+            cil = pil;
+        }
+
+        for (int i = 0; ; ++i) {
+            if (orbitRe != null) {
+                orbitRe[i] = zr;
+                orbitIm[i] = zi;
+            }
+            if (zr * zr + zi * zi > 4.0 && (orbitRe == null || i > 0)) {
+                return i; // Точка убежала
+            }
+            if (i == last) {
+                return last;
+            }
+            // zr^2 (two-prod через fma плюс перекрестные члены)
+            double p = zr * zr;
+            double e = Math.fma(zr, zr, -p) + 2.0 * zr * zrl;
+            double rr = p + e;
+            double rrl = e - (rr - p);
+            // zi^2
+            p = zi * zi;
+            e = Math.fma(zi, zi, -p) + 2.0 * zi * zil;
+            double ii = p + e;
+            double iil = e - (ii - p);
+            // zr * zi
+            p = zr * zi;
+            e = Math.fma(zr, zi, -p) + (zr * zil + zrl * zi);
+            double ri = p + e;
+            double ril = e - (ri - p);
+
+            // Re: zr^2 - zi^2 + cr (two-sum старших частей, младшие складываются)
+            s = rr - ii;
+            bb = s - rr;
+            err = (rr - (s - bb)) + (-ii - bb) + (rrl - iil);
+            double tr = s + err;
+            double trl = err - (tr - s);
+            s = tr + cr;
+            bb = s - tr;
+            err = (tr - (s - bb)) + (cr - bb) + (trl + crl);
+            double nzr = s + err;
+            zrl = err - (nzr - s);
+
+            // Im: 2 * zr * zi + ci (удвоение точное)
+            double ti = 2.0 * ri;
+            s = ti + ci;
+            bb = s - ti;
+            err = (ti - (s - bb)) + (ci - bb) + (2.0 * ril + cil);
+            zi = s + err;
+            zil = err - (zi - s);
+            zr = nzr;
+        }
+    }
+}
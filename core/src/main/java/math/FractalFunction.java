@@ -13,7 +13,13 @@ import java.io.Serializable;
  * <p>
  * Этот интерфейс позволяет абстрагироваться от конкретного типа фрактала
  * (например, Мандельброт, Жюлиа, Пальцы Будды и т.д.), предоставляя единый
- * метод {@link #calculateIterations(ComplexNumber, ComplexNumber, int)} для расчета.
+ * метод {@link #calculateIterations(double, double, double, double, int)} для расчета.
+ * </p><p>
+ * Основной метод работает с примитивными {@code double} и не создает объектов
+ * в цикле итераций: при миллионах итераций на пиксель аллокации {@link ComplexNumber}
+ * на каждом шаге приводили к тому, что большая часть времени уходила на сборку мусора.
+ * Перегрузка {@link #calculateIterations(ComplexNumber, ComplexNumber, int)} сохранена
+ * как адаптер для совместимости.
  * </p><p>
  * Реализации этого интерфейса должны быть {@link Serializable}, чтобы
  * {@link model.FractalState}, содержащий функцию, можно было сохранять
@@ -37,6 +43,9 @@ public interface FractalFunction extends Serializable {
      * и параметра {@code c} до выхода за некоторый предел или до достижения
      * максимального числа итераций.
      * <p>
+     * Реализации не должны выделять память внутри цикла итераций: метод вызывается
+     * рендерером для каждого пикселя.
+     * </p><p>
      * Семантика параметров {@code z0} и {@code c} зависит от конкретной реализации
      * (конкретного типа фрактала):
      * <ul>
@@ -48,14 +57,89 @@ public interface FractalFunction extends Serializable {
      *         и может игнорировать переданный параметр {@code c}).</li>
      * </ul>
      *
-     * @param z0            Начальная точка итерации (обычно точка комплексной плоскости для проверки).
-     * @param c             Параметр функции (например, точка для Мандельброта или константа для Жюлиа).
+     * @param zr            Вещественная часть начальной точки итерации {@code z0}.
+     * @param zi            Мнимая часть начальной точки итерации {@code z0}.
+     * @param cr            Вещественная часть параметра {@code c}.
+     * @param ci            Мнимая часть параметра {@code c}.
      * @param maxIterations Максимальное количество итераций, после которого точка считается
      *                      принадлежащей множеству, если она не вышла за предел.
      * @return Количество выполненных итераций до выхода за предел (обычно от 0 до {@code maxIterations - 1}),
      *         или {@code maxIterations}, если точка считается принадлежащей множеству.
      */
-    int calculateIterations(ComplexNumber z0, ComplexNumber c, int maxIterations);
+    int calculateIterations(double zr, double zi, double cr, double ci, int maxIterations);
+
+    /**
+     * Вычисляет итерации так же, как {@link #calculateIterations(double, double, double, double, int)},
+     * но дополнительно ищет притягивающий цикл орбиты (проверка периодичности).
+     * <p>
+     * Точки внутри множества обычно сходятся к циклу. Если орбита вернулась к уже
+     * пройденной точке с точностью {@code tolerance}, дальнейшие итерации ничего не изменят:
+     * метод сразу возвращает {@code maxIterations} и найденный период. Для интерьерных
+     * областей это сокращает работу с {@code maxIterations} до длины переходного процесса.
+     * </p><p>
+     * Результат упакован в {@code long}, чтобы не создавать объектов:
+     * см. {@link #iterationsOf(long)} и {@link #periodOf(long)}. Период 0 означает,
+     * что цикл не обнаружен (точка убежала, не успела сойтись или проверка не поддерживается).
+     * </p><p>
+     * Реализация по умолчанию проверку не выполняет и всегда возвращает период 0.
+     * </p>
+     *
+     * @param zr            Вещественная часть начальной точки итерации {@code z0}.
+     * @param zi            Мнимая часть начальной точки итерации {@code z0}.
+     * @param cr            Вещественная часть параметра {@code c}.
+     * @param ci            Мнимая часть параметра {@code c}.
+     * @param maxIterations Максимальное количество итераций.
+     * @param tolerance     Допуск совпадения точек орбиты (по каждой координате). Разумно брать
+     *                      малую долю размера пикселя, чтобы не спутать медленно убегающие точки с циклом.
+     * @return Упакованные число итераций и период.
+     */
+    default long calculateIterationsWithPeriod(double zr, double zi, double cr, double ci,
+                                               int maxIterations, double tolerance) {
+        return packResult(calculateIterations(zr, zi, cr, ci, maxIterations), 0);
+    }
+
+    /**
+     * Упаковывает число итераций и период в одно значение {@code long}.
+     * @param iterations Число итераций.
+     * @param period     Найденный период (0 - не найден).
+     * @return Упакованный результат для {@link #calculateIterationsWithPeriod}.
+     */
+    static long packResult(int iterations, int period) {
+        return ((long) period << 32) | (iterations & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Извлекает число итераций из результата {@link #calculateIterationsWithPeriod}.
+     * @param result Упакованный результат.
+     * @return Число итераций.
+     */
+    static int iterationsOf(long result) {
+        return (int) result;
+    }
+
+    /**
+     * Извлекает период из результата {@link #calculateIterationsWithPeriod}.
+     * @param result Упакованный результат.
+     * @return Период цикла или 0, если цикл не найден.
+     */
+    static int periodOf(long result) {
+        return (int) (result >>> 32);
+    }
+
+    /**
+     * Адаптер для вызова {@link #calculateIterations(double, double, double, double, int)}
+     * с аргументами в виде {@link ComplexNumber}. Сохранен для совместимости с кодом,
+     * работающим с комплексными числами; в горячих циклах рендеринга следует вызывать
+     * примитивную версию напрямую.
+     *
+     * @param z0            Начальная точка итерации (обычно точка комплексной плоскости для проверки).
+     * @param c             Параметр функции (например, точка для Мандельброта или константа для Жюлиа).
+     * @param maxIterations Максимальное количество итераций.
+     * @return Количество выполненных итераций, см. {@link #calculateIterations(double, double, double, double, int)}.
+     */
+    default int calculateIterations(ComplexNumber z0, ComplexNumber c, int maxIterations) {
+        return calculateIterations(z0.getReal(), z0.getImaginary(), c.getReal(), c.getImaginary(), maxIterations);
+    }
 
     /**
      * Возвращает имя функции фрактала.
@@ -44,48 +44,93 @@ public class JuliaFunction implements FractalFunction {
         this.c = Objects.requireNonNull(c, "Параметр 'c' не может быть null");
     }
 
+    /**
+     * Возвращает параметр {@code c} множества для ядер того же пакета
+     * (например, {@link VectorIterationKernel}). Не публичный, чтобы не менять JSON-представление.
+     * @return Параметр {@code c}.
+     */
+    ComplexNumber parameter() {
+        return c;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
-     * Вычисляет количество итераций для начальной точки {@code z0} на комплексной плоскости
+     * Вычисляет количество итераций для начальной точки {@code z0 = zr + i*zi} на комплексной плоскости
      * для множества Жюлиа, определяемого константой {@link #c}.
      * </p><p>
      * Итерации выполняются по формуле {@code z = z^2 + this.c}, начиная с {@code z = z0}.
      * Расчет останавливается, если {@code |z|^2 > Порог} (например, 4.0) или
      * достигнуто максимальное количество итераций {@code maxIterations}.
+     * Вся арифметика выполняется на локальных {@code double}, без создания объектов.
      * </p><p>
-     * Параметр {@code z0} из интерфейса {@link FractalFunction#calculateIterations(ComplexNumber, ComplexNumber, int)}
-     * используется как начальная точка итераций.
-     * Параметр {@code cIgnored} интерфейса **игнорируется**, так как константа {@code c}
+     * Параметры {@code crIgnored} и {@code ciIgnored} **игнорируются**, так как константа {@code c}
      * хранится в поле {@link #c} этого объекта.
      * </p>
      *
-     * @param z0            Начальная точка комплексной плоскости, для которой вычисляются итерации.
-     * @param cIgnored      Параметр 'c' из интерфейса (игнорируется).
+     * @param zr            Вещественная часть начальной точки.
+     * @param zi            Мнимая часть начальной точки.
+     * @param crIgnored     Вещественная часть параметра 'c' из интерфейса (игнорируется).
+     * @param ciIgnored     Мнимая часть параметра 'c' из интерфейса (игнорируется).
      * @param maxIterations Максимальное число итераций.
      * @return Количество выполненных итераций (от 0 до {@code maxIterations - 1}), если точка "убежала",
      *         или {@code maxIterations}, если точка считается принадлежащей множеству {@code J(c)}.
      */
     @Override
-    public int calculateIterations(ComplexNumber z0, ComplexNumber cIgnored, int maxIterations) {
-        // z начинается с точки z0 (первый аргумент)
-        ComplexNumber z = z0;
+    public int calculateIterations(double zr, double zi, double crIgnored, double ciIgnored, int maxIterations) {
         // c - это константа, хранящаяся в поле this.c
+        final double cr = c.getReal();
+        final double ci = c.getImaginary();
 
         // Порог выхода обычно 4.0 (|z|^2 > 4 => |z| > 2)
         final double escapeRadiusSquared = 4.0;
 
         for (int i = 0; i < maxIterations; ++i) {
-            if (z.magnitudeSquared() > escapeRadiusSquared) {
+            double zr2 = zr * zr;
+            double zi2 = zi * zi;
+            if (zr2 + zi2 > escapeRadiusSquared) {
                 return i; // Точка вне множества
             }
-            // Итерация: z = z^2 + this.c
-            z = z.square().add(this.c);
+            // Итерация: z = z^2 + this.c, порядок операций совпадает с ComplexNumber.square().add(c)
+            zi = 2 * zr * zi + ci;
+            zr = zr2 - zi2 + cr;
         }
         // Точка не "убежала" за maxIterations шагов
         return maxIterations;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Орбита начинается с {@code z0 = zr + i*zi}; параметры {@code crIgnored} и {@code ciIgnored}
+     * игнорируются, используется константа {@link #c}.
+     * </p>
+     */
+    @Override
+    public long calculateIterationsWithPeriod(double zr, double zi, double crIgnored, double ciIgnored,
+                                              int maxIterations, double tolerance) {
+        return QuadraticOrbit.iterateWithPeriod(zr, zi, c.getReal(), c.getImaginary(), maxIterations, tolerance);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Адаптер к {@link #calculateIterations(double, double, double, double, int)}.
+     * Параметр {@code z0} используется как начальная точка итераций.
+     * Параметр {@code cIgnored} **игнорируется** (может быть {@code null}), так как константа {@code c}
+     * хранится в поле {@link #c} этого объекта.
+     * </p>
+     *
+     * @param z0            Начальная точка комплексной плоскости, для которой вычисляются итерации.
+     * @param cIgnored      Параметр 'c' из интерфейса (игнорируется).
+     * @param maxIterations Максимальное число итераций.
+     * @return Количество выполненных итераций или {@code maxIterations}.
+     */
+    @Override
+    public int calculateIterations(ComplexNumber z0, ComplexNumber cIgnored, int maxIterations) {
+        return calculateIterations(z0.getReal(), z0.getImaginary(), 0.0, 0.0, maxIterations);
+    }
+
     /**
      * {@inheritDoc}
      * Возвращает имя функции, включающее значение параметра {@code c}.
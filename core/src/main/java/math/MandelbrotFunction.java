@@ -1,6 +1,7 @@
 // File: core/src/main/java/math/MandelbrotFunction.java
 package math;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import utils.ComplexNumber;
 
 /**
@@ -15,6 +16,13 @@ import utils.ComplexNumber;
  * в течение заданного максимального числа итераций.
  * </p>
  * <p>
+ * Точки главной кардиоиды и круга периода 2 принадлежат множеству, но для них цикл
+ * доходит до {@code maxIterations} - это самые дорогие пиксели в стандартной области просмотра.
+ * По умолчанию такие точки распознаются аналитической проверкой до начала итераций.
+ * Проверку можно отключить конструктором {@link #MandelbrotFunction(boolean)},
+ * например, чтобы сравнить производительность с полным расчетом.
+ * </p>
+ * <p>
  * Этот класс является неизменяемым и реализует {@link java.io.Serializable}.
  * </p>
  */
@@ -24,46 +32,151 @@ public class MandelbrotFunction implements FractalFunction {
      */
     private static final long serialVersionUID = 1L;
 
+    /** Включена ли предварительная проверка кардиоиды и круга периода 2. */
+    private final boolean interiorCheckEnabled;
+
+    /**
+     * Создает функцию Мандельброта с включенной проверкой кардиоиды и круга периода 2.
+     * Используется также при загрузке из файла (формат файла не меняется).
+     */
+    public MandelbrotFunction() {
+        this(true);
+    }
+
+    /**
+     * Создает функцию Мандельброта.
+     * @param interiorCheckEnabled {@code true} - распознавать точки главной кардиоиды и круга
+     *                             периода 2 без итераций; {@code false} - всегда выполнять полный цикл
+     *                             (прежнее поведение, для сравнения в бенчмарках).
+     */
+    public MandelbrotFunction(boolean interiorCheckEnabled) {
+        this.interiorCheckEnabled = interiorCheckEnabled;
+    }
+
+    /**
+     * Возвращает, включена ли предварительная проверка кардиоиды и круга периода 2.
+     * Не сохраняется в файл: при загрузке проверка всегда включена.
+     * @return {@code true}, если проверка включена.
+     */
+    @JsonIgnore
+    public boolean isInteriorCheckEnabled() {
+        return interiorCheckEnabled;
+    }
+
+    /**
+     * Проверяет, лежит ли точка {@code c} в главной кардиоиде или в круге периода 2.
+     * <ul>
+     *     <li>Кардиоида: {@code q = (x - 1/4)^2 + y^2}, точка внутри, если {@code q * (q + (x - 1/4)) <= y^2 / 4}.</li>
+     *     <li>Круг периода 2: центр {@code -1}, радиус {@code 1/4}: {@code (x + 1)^2 + y^2 <= 1/16}.</li>
+     * </ul>
+     * Такие точки гарантированно принадлежат множеству.
+     *
+     * @param cr Вещественная часть c.
+     * @param ci Мнимая часть c.
+     * @return {@code true}, если точка лежит в кардиоиде или в круге периода 2.
+     */
+    static boolean isInMainCardioidOrBulb(double cr, double ci) {
+        double ci2 = ci * ci;
+        double xq = cr - 0.25;
+        double q = xq * xq + ci2;
+        if (q * (q + xq) <= 0.25 * ci2) {
+            return true;
+        }
+        double xb = cr + 1.0;
+        return xb * xb + ci2 <= 0.0625;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
-     * Вычисляет количество итераций для точки {@code c} на комплексной плоскости
+     * Вычисляет количество итераций для точки {@code c = cr + i*ci} на комплексной плоскости
      * согласно алгоритму Мандельброта.
      * </p><p>
      * Итерации выполняются по формуле {@code z = z^2 + c}, начиная с {@code z = 0}.
      * Расчет останавливается, если {@code |z|^2 > 4} (точка "убежала") или
      * достигнуто максимальное количество итераций {@code maxIterations}.
+     * Вся арифметика выполняется на локальных {@code double}, без создания объектов.
+     * </p><p>
+     * Параметры {@code zrIgnored} и {@code ziIgnored} в данной реализации **игнорируются**,
+     * так как для Мандельброта начальное значение {@code z} всегда равно 0.
      * </p><p>
-     * Параметр {@code z0Ignored} из интерфейса {@link FractalFunction#calculateIterations(ComplexNumber, ComplexNumber, int)}
-     * в данной реализации **игнорируется**, так как для Мандельброта начальное значение {@code z} всегда равно 0.
-     * Параметр {@code c} интерфейса используется как точка комплексной плоскости, для которой производится расчет.
+     * Если включена проверка ({@link #isInteriorCheckEnabled()}), точки главной кардиоиды
+     * и круга периода 2 сразу возвращают {@code maxIterations}.
      * </p>
      *
-     * @param z0Ignored     Начальное значение z (игнорируется).
-     * @param c             Точка комплексной плоскости, для которой вычисляются итерации.
+     * @param zrIgnored     Вещественная часть начального z (игнорируется).
+     * @param ziIgnored     Мнимая часть начального z (игнорируется).
+     * @param cr            Вещественная часть точки, для которой вычисляются итерации.
+     * @param ci            Мнимая часть точки, для которой вычисляются итерации.
      * @param maxIterations Максимальное число итераций.
      * @return Количество выполненных итераций (от 0 до {@code maxIterations - 1}), если точка "убежала",
      *         или {@code maxIterations}, если точка считается принадлежащей множеству.
      */
     @Override
-    public int calculateIterations(ComplexNumber z0Ignored, ComplexNumber c, int maxIterations) {
+    public int calculateIterations(double zrIgnored, double ziIgnored, double cr, double ci, int maxIterations) {
+        // Кардиоида и круг периода 2 целиком внутри множества - итерации не нужны
+        if (interiorCheckEnabled && isInMainCardioidOrBulb(cr, ci)) {
+            return maxIterations;
+        }
+
         // Для Мандельброта z всегда начинается с 0
-        ComplexNumber z = new ComplexNumber(0, 0);
-        // c - это точка, которую мы проверяем (передана как второй аргумент)
+        double zr = 0.0;
+        double zi = 0.0;
 
         for (int i = 0; i < maxIterations; ++i) {
+            double zr2 = zr * zr;
+            double zi2 = zi * zi;
             // Проверка выхода за радиус 2 (используем квадрат модуля |z|^2 > 4 для оптимизации)
-            if (z.magnitudeSquared() > 4.0) {
+            if (zr2 + zi2 > 4.0) {
                 return i; // Точка вне множества, возвращаем число выполненных итераций
             }
-            // Итерация: z = z^2 + c
-            z = z.square().add(c);
+            // Итерация: z = z^2 + c, порядок операций совпадает с ComplexNumber.square().add(c)
+            zi = 2 * zr * zi + ci;
+            zr = zr2 - zi2 + cr;
         }
         // Если цикл завершился, значит точка не "убежала" за maxIterations шагов.
         // Считаем ее принадлежащей множеству (или находящейся очень близко к нему).
         return maxIterations;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Для Мандельброта орбита начинается с {@code z = 0}; параметры {@code zrIgnored}
+     * и {@code ziIgnored} игнорируются. Точки кардиоиды и круга периода 2 (если проверка включена)
+     * возвращаются сразу с периодом 1 и 2 соответственно.
+     * </p>
+     */
+    @Override
+    public long calculateIterationsWithPeriod(double zrIgnored, double ziIgnored, double cr, double ci,
+                                              int maxIterations, double tolerance) {
+        if (interiorCheckEnabled && isInMainCardioidOrBulb(cr, ci)) {
+            // В кардиоиде притягивающая неподвижная точка (период 1), в круге - цикл периода 2
+            double xb = cr + 1.0;
+            int period = (xb * xb + ci * ci <= 0.0625) ? 2 : 1;
+            return FractalFunction.packResult(maxIterations, period);
+        }
+        return QuadraticOrbit.iterateWithPeriod(0.0, 0.0, cr, ci, maxIterations, tolerance);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Адаптер к {@link #calculateIterations(double, double, double, double, int)}.
+     * Параметр {@code z0Ignored} **игнорируется** (может быть {@code null}),
+     * так как для Мандельброта начальное значение {@code z} всегда равно 0.
+     * </p>
+     *
+     * @param z0Ignored     Начальное значение z (игнорируется).
+     * @param c             Точка комплексной плоскости, для которой вычисляются итерации.
+     * @param maxIterations Максимальное число итераций.
+     * @return Количество выполненных итераций или {@code maxIterations}.
+     */
+    @Override
+    public int calculateIterations(ComplexNumber z0Ignored, ComplexNumber c, int maxIterations) {
+        return calculateIterations(0.0, 0.0, c.getReal(), c.getImaginary(), maxIterations);
+    }
+
     /**
      * {@inheritDoc}
      * Возвращает имя функции для отображения.
@@ -76,25 +189,26 @@ public class MandelbrotFunction implements FractalFunction {
 
      /**
       * Сравнивает эту функцию с другим объектом.
-      * Все экземпляры {@code MandelbrotFunction} считаются эквивалентными,
-      * так как у них нет изменяемого состояния.
+      * Экземпляры {@code MandelbrotFunction} считаются эквивалентными,
+      * если у них одинаково включена проверка кардиоиды и круга периода 2.
       * @param obj Объект для сравнения.
-      * @return {@code true}, если {@code obj} является экземпляром {@code MandelbrotFunction}, иначе {@code false}.
+      * @return {@code true}, если {@code obj} - {@code MandelbrotFunction} с тем же режимом проверки, иначе {@code false}.
       */
      @Override
      public boolean equals(Object obj) {
          // Проверка на null и на совпадение класса
          if (this == obj) return true;
-         return obj != null && getClass() == obj.getClass(); // Все экземпляры эквивалентны
+         if (obj == null || getClass() != obj.getClass()) return false;
+         return interiorCheckEnabled == ((MandelbrotFunction) obj).interiorCheckEnabled;
      }
 
      /**
       * Возвращает хэш-код для этой функции.
-      * Так как все экземпляры эквивалентны, хэш-код основан только на классе.
-      * @return Хэш-код, соответствующий классу {@code MandelbrotFunction}.
+      * Хэш-код основан на классе и режиме проверки кардиоиды.
+      * @return Хэш-код, согласованный с {@link #equals(Object)}.
       */
      @Override
      public int hashCode() {
-         return MandelbrotFunction.class.hashCode();
+         return 31 * MandelbrotFunction.class.hashCode() + Boolean.hashCode(interiorCheckEnabled);
      }
 }
\ No newline at end of file
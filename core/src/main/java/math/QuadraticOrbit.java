@@ -0,0 +1,68 @@
+// File: core/src/main/java/math/QuadraticOrbit.java
+package math;
+
+/**
+ * Общий цикл итераций {@code z = z^2 + c} с проверкой периодичности (метод Брента).
+ * Используется {@link MandelbrotFunction} и {@link JuliaFunction}, которые отличаются
+ * только выбором начальной точки и параметра {@code c}.
+ * <p>
+ * Метод Брента: сохраняется «контрольная» точка орбиты, и каждая следующая точка
+ * сравнивается с ней. Контрольная точка обновляется через окна длиной 1, 2, 4, 8, ...
+ * шагов. Как только орбита вошла в цикл периода {@code p}, совпадение будет найдено
+ * в первом окне длиной не меньше {@code p}, а расстояние от контрольной точки
+ * (число шагов внутри окна) и есть период. Память - две переменные, накладные
+ * расходы - одно сравнение на итерацию.
+ * </p>
+ */
+final class QuadraticOrbit {
+
+    private QuadraticOrbit() {
+        throw new UnsupportedOperationException("Это утилитарный класс, его не нужно инстанциировать");
+    }
+
+    /**
+     * Итерирует {@code z = z^2 + c}, начиная с {@code z0}, с проверкой выхода за радиус 2
+     * и поиском цикла с допуском {@code tolerance}.
+     *
+     * @param zr            Вещественная часть z0.
+     * @param zi            Мнимая часть z0.
+     * @param cr            Вещественная часть c.
+     * @param ci            Мнимая часть c.
+     * @param maxIterations Максимальное число итераций.
+     * @param tolerance     Допуск совпадения точек орбиты по каждой координате.
+     * @return Упакованный результат, см. {@link FractalFunction#packResult(int, int)}.
+     */
+    static long iterateWithPeriod(double zr, double zi, double cr, double ci,
+                                  int maxIterations, double tolerance) {
+        double checkR = zr;
+        double checkI = zi;
+        int window = 1;      // Длина текущего окна Брента
+        int stepsInWindow = 0;
+
+        for (int i = 0; i < maxIterations; ++i) {
+            double zr2 = zr * zr;
+            double zi2 = zi * zi;
+            if (zr2 + zi2 > 4.0) {
+                return FractalFunction.packResult(i, 0); // Точка убежала
+            }
+            // Порядок операций совпадает с обычным циклом, поэтому для убегающих точек
+            // число итераций точно такое же, как без проверки периодичности
+            zi = 2 * zr * zi + ci;
+            zr = zr2 - zi2 + cr;
+
+            stepsInWindow++;
+            if (Math.abs(zr - checkR) <= tolerance && Math.abs(zi - checkI) <= tolerance) {
+                // Орбита вернулась к контрольной точке - это притягивающий цикл, точка внутри множества
+                return FractalFunction.packResult(maxIterations, stepsInWindow);
+            }
+            if (stepsInWindow == window) {
+                // Окно закончилось: новая контрольная точка, окно вдвое длиннее
+                checkR = zr;
+                checkI = zi;
+                stepsInWindow = 0;
+                window <<= 1;
+            }
+        }
+        return FractalFunction.packResult(maxIterations, 0);
+    }
+}
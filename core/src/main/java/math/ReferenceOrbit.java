@@ -0,0 +1,320 @@
+// File: core/src/main/java/math/ReferenceOrbit.java
+package math;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Опорная орбита для рендеринга глубокого зума методом возмущений (perturbation theory).
+ * <p>
+ * При ширине области меньше ~1e-13 точности {@code double} не хватает, чтобы различить
+ * координаты соседних пикселей. Вместо расчета каждого пикселя с произвольной точностью
+ * одна опорная орбита {@code Z_n} (в центре кадра) считается в {@link BigDecimal},
+ * а каждый пиксель итерируется как малое отклонение {@code dz_n} от нее в {@code double}:
+ * </p>
+ * <pre>
+ *     z_n = Z_n + dz_n,    dz_{n+1} = (2 Z_n + dz_n) dz_n + dc
+ * </pre>
+ * <p>
+ * Формула точная (без отброшенных членов), поэтому точность зависит только от того,
+ * насколько {@code dz} мал относительно {@code z}. Отклонения от центра у пикселей порядка
+ * размера кадра, а {@code double} хранит их с полной относительной точностью вплоть до ~1e-300,
+ * так что пиксели считаются почти со скоростью обычного {@code double}-цикла.
+ * </p><p>
+ * <b>Глитчи и rebasing.</b> Когда орбита пикселя проходит близко к нулю, {@code |z|} становится
+ * меньше {@code |dz|}: значение {@code z} получается вычитанием почти равных чисел
+ * и теряет точность (это и есть «глитч» - критерий Pauldelbrot'а в форме Zhuoran'а).
+ * В этот момент пиксель переходит на начало опорной орбиты: {@code dz = z - Z_0}, {@code n = 0}.
+ * Тот же переход выполняется, когда опорная орбита закончилась (опорная точка убежала раньше пикселя).
+ * Поэтому одной опорной орбиты хватает для всего кадра, а вторичные опорные точки не нужны.
+ * Число таких переходов учитывается в {@link #getRebaseCount()}.
+ * </p><p>
+ * Пока размер пикселя не меньше ~1e-28 от модуля координат, орбиту достаточно считать
+ * в double-double ({@link #computeDoubleDouble}), что в сотни раз быстрее {@link BigDecimal}.
+ * </p><p>
+ * Поддерживаются {@link MandelbrotFunction} ({@code Z_0 = 0}, параметр - точка пикселя)
+ * и {@link JuliaFunction} ({@code Z_0} - точка пикселя, параметр фиксирован).
+ * После построения объект неизменяем (кроме счетчика) и используется всеми потоками кадра.
+ * </p>
+ */
+public final class ReferenceOrbit {
+
+    /** Запас десятичных знаков сверх необходимых для различения пикселей. */
+    private static final int GUARD_DIGITS = 12;
+    /** Минимальная точность опорной орбиты (в десятичных знаках). */
+    private static final int MIN_DIGITS = 20;
+
+    /** {@code true} - орбита Жюлиа (пиксель задает {@code z0}), иначе Мандельброта (пиксель задает {@code c}). */
+    private final boolean julia;
+    /** Вещественные части {@code Z_0..Z_{length-1}}, округленные до double. */
+    private final double[] orbitRe;
+    /** Мнимые части {@code Z_0..Z_{length-1}}, округленные до double. */
+    private final double[] orbitIm;
+    /** Число сохраненных точек (не меньше 2); последняя может быть уже за радиусом 2. */
+    private final int length;
+    /** Точность, с которой считалась орбита (десятичные знаки). */
+    private final int precisionDigits;
+    /** Число переходов на начало орбиты (rebasing) по всем пикселям. */
+    private final LongAdder rebases = new LongAdder();
+
+    private ReferenceOrbit(boolean julia, double[] orbitRe, double[] orbitIm, int length, int precisionDigits) {
+        this.julia = julia;
+        this.orbitRe = orbitRe;
+        this.orbitIm = orbitIm;
+        this.length = length;
+        this.precisionDigits = precisionDigits;
+    }
+
+    /**
+     * Проверяет, может ли функция считаться методом возмущений.
+     * Подклассы не поддерживаются: они могут переопределять формулу итераций.
+     *
+     * @param function Функция фрактала.
+     * @return {@code true} для {@link MandelbrotFunction} и {@link JuliaFunction}.
+     */
+    public static boolean supports(FractalFunction function) {
+        return function != null
+                && (function.getClass() == MandelbrotFunction.class || function.getClass() == JuliaFunction.class);
+    }
+
+    /**
+     * Число десятичных знаков, нужное опорной орбите, чтобы центр кадра был задан точнее
+     * размера пикселя: порядок отношения масштаба координат к размеру пикселя плюс запас.
+     *
+     * @param centreMagnitude Модуль координат центра (берется не меньше 1).
+     * @param pixelSpacing    Размер пикселя в комплексных координатах (> 0).
+     * @return Точность для {@link #compute(FractalFunction, BigDecimal, BigDecimal, int, int)}.
+     */
+    public static int requiredDigits(double centreMagnitude, double pixelSpacing) {
+        if (!(pixelSpacing > 0.0)) {
+            throw new IllegalArgumentException("Размер пикселя должен быть положительным: " + pixelSpacing);
+        }
+        double scale = Math.max(1.0, Math.abs(centreMagnitude));
+        int digits = (int) Math.ceil(Math.log10(scale / pixelSpacing)) + GUARD_DIGITS;
+        return Math.max(MIN_DIGITS, digits);
+    }
+
+    /**
+     * Считает опорную орбиту в точке {@code (re, im)} с заданной точностью.
+     * Итерации идут до выхода за радиус 2 или до {@code maxIterations}.
+     *
+     * @param function      Функция фрактала (см. {@link #supports(FractalFunction)}).
+     * @param re            Вещественная координата опорной точки (обычно центр кадра).
+     * @param im            Мнимая координата опорной точки.
+     * @param maxIterations Максимальное число итераций (>= 0).
+     * @param digits        Число значащих десятичных знаков для вычислений в {@link BigDecimal}.
+     * @return Опорная орбита.
+     * @throws IllegalArgumentException если функция не поддерживается или параметры некорректны.
+     */
+    public static ReferenceOrbit compute(FractalFunction function, BigDecimal re, BigDecimal im,
+                                         int maxIterations, int digits) {
+        Objects.requireNonNull(re, "Координата re не может быть null");
+        Objects.requireNonNull(im, "Координата im не может быть null");
+        if (!supports(function)) {
+            throw new IllegalArgumentException("Метод возмущений не поддерживает функцию: "
+                    + (function == null ? "null" : function.getClass().getName()));
+        }
+        if (maxIterations < 0) {
+            throw new IllegalArgumentException("maxIterations не может быть отрицательным: " + maxIterations);
+        }
+        if (digits <= 0) {
+            throw new IllegalArgumentException("Точность должна быть положительной: " + digits);
+        }
+        MathContext mc = new MathContext(digits, RoundingMode.HALF_EVEN);
+
+        boolean julia = function.getClass() == JuliaFunction.class;
+        BigDecimal zr;
+        BigDecimal zi;
+        BigDecimal cr;
+        BigDecimal ci;
+        if (julia) {
+            zr = re.round(mc);
+            zi = im.round(mc);
+            cr = new BigDecimal(((JuliaFunction) function).parameter().getReal());
+            ci = new BigDecimal(((JuliaFunction) function).parameter().getImaginary());
+        } else {
+            zr = BigDecimal.ZERO;
+            zi = BigDecimal.ZERO;
+            cr = re.round(mc);
+            ci = im.round(mc);
+        }
+
+        // Минимум две точки: после перехода на начало орбиты пиксель всегда делает шаг Z_0 -> Z_1
+        int capacity = Math.max(2, maxIterations + 1);
+        double[] orbitRe = new double[capacity];
+        double[] orbitIm = new double[capacity];
+        int n = 0;
+        while (true) {
+            double dr = zr.doubleValue();
+            double di = zi.doubleValue();
+            orbitRe[n] = dr;
+            orbitIm[n] = di;
+            n++;
+            boolean escaped = dr * dr + di * di > 4.0;
+            if (n == capacity || (escaped && n >= 2)) {
+                break;
+            }
+            // Z = Z^2 + C с округлением до mc после каждой операции
+            BigDecimal zr2 = zr.multiply(zr, mc);
+            BigDecimal zi2 = zi.multiply(zi, mc);
+            BigDecimal zri = zr.multiply(zi, mc);
+            zi = zri.add(zri).add(ci, mc);
+            zr = zr2.subtract(zi2).add(cr, mc);
+        }
+        return new ReferenceOrbit(julia, orbitRe, orbitIm, n, digits);
+    }
+
+    /**
+     * Считает опорную орбиту в точке {@code (re, im)} в арифметике double-double
+     * ({@link DoubleDoubleKernel}, {@value DoubleDoubleKernel#DECIMAL_DIGITS} знаков).
+     * Результат тот же, что у {@link #compute} с такой точностью, но без {@link BigDecimal} в цикле.
+     *
+     * @param function      Функция фрактала (см. {@link #supports(FractalFunction)}).
+     * @param re            Вещественная координата опорной точки.
+     * @param im            Мнимая координата опорной точки.
+     * @param maxIterations Максимальное число итераций (>= 0).
+     * @return Опорная орбита.
+     * @throws IllegalArgumentException если функция не поддерживается или maxIterations отрицательно.
+     */
+    public static ReferenceOrbit computeDoubleDouble(FractalFunction function, BigDecimal re, BigDecimal im,
+                                                    int maxIterations) {
+        if (maxIterations < 0) {
+            throw new IllegalArgumentException("maxIterations не может быть отрицательным: " + maxIterations);
+        }
+        DoubleDoubleKernel kernel = DoubleDoubleKernel.create(function, re, im);
+        int capacity = Math.max(2, maxIterations + 1);
+        double[] orbitRe = new double[capacity];
+        double[] orbitIm = new double[capacity];
+        int length = kernel.record(orbitRe, orbitIm);
+        return new ReferenceOrbit(function.getClass() == JuliaFunction.class, orbitRe, orbitIm, length,
+                                  DoubleDoubleKernel.DECIMAL_DIGITS);
+    }
+
+    /**
+     * Вычисляет число итераций для точки, отстоящей от опорной на {@code (deltaRe, deltaIm)}.
+     * Результат совпадает по смыслу с {@link FractalFunction#calculateIterations}:
+     * номер итерации, на которой {@code |z|^2 > 4}, или {@code maxIterations}.
+     *
+     * @param deltaRe       Смещение точки пикселя от опорной точки по вещественной оси.
+     * @param deltaIm       Смещение по мнимой оси.
+     * @param maxIterations Максимальное число итераций.
+     * @return Число итераций от 0 до maxIterations включительно.
+     */
+    public int iterate(double deltaRe, double deltaIm, int maxIterations) {
+        double dzr;
+        double dzi;
+        double dcr;
+        double dci;
+        if (julia) {
+            // Жюлиа: смещение начальной точки, параметр общий с опорной орбитой
+            dzr = deltaRe;
+            dzi = deltaIm;
+            dcr = 0.0;
+            dci = 0.0;
+        } else {
+            // Мандельброт: z0 общий (0), смещение параметра
+            dzr = 0.0;
+            dzi = 0.0;
+            dcr = deltaRe;
+            dci = deltaIm;
+        }
+        return iterateFrom(0, dzr, dzi, dcr, dci, maxIterations);
+    }
+
+    /**
+     * Продолжает итерации пикселя с шага {@code start}, на котором его отклонение от опорной
+     * орбиты равно {@code dz} (например, после пропуска шагов рядом Тейлора, {@link SeriesApproximation}).
+     *
+     * @param start         Номер итерации и индекс точки опорной орбиты, с которых продолжать
+     *                      ({@code 0 <= start < getLength()}).
+     * @param dzr           Вещественная часть отклонения на шаге {@code start}.
+     * @param dzi           Мнимая часть отклонения.
+     * @param dcr           Вещественная часть смещения параметра (0 для Жюлиа).
+     * @param dci           Мнимая часть смещения параметра.
+     * @param maxIterations Максимальное число итераций.
+     * @return Число итераций от {@code start} до maxIterations включительно.
+     */
+    int iterateFrom(int start, double dzr, double dzi, double dcr, double dci, int maxIterations) {
+        final double[] zRe = orbitRe;
+        final double[] zIm = orbitIm;
+        final int last = length - 1;
+        int m = start; // Индекс текущей точки опорной орбиты
+        int pixelRebases = 0;
+
+        for (int i = start; i < maxIterations; ++i) {
+            double zr = zRe[m] + dzr;
+            double zi = zIm[m] + dzi;
+            double z2 = zr * zr + zi * zi;
+            if (z2 > 4.0) {
+                addRebases(pixelRebases);
+                return i; // Точка убежала
+            }
+            if (m == last || z2 < dzr * dzr + dzi * dzi) {
+                // Опорная орбита кончилась или |z| < |dz| (глитч): продолжаем от начала орбиты
+                dzr = zr - zRe[0];
+                dzi = zi - zIm[0];
+                m = 0;
+                pixelRebases++;
+            }
+            // dz = (2Z + dz) * dz + dc
+            double tr = 2.0 * zRe[m] + dzr;
+            double ti = 2.0 * zIm[m] + dzi;
+            double nr = tr * dzr - ti * dzi + dcr;
+            dzi = tr * dzi + ti * dzr + dci;
+            dzr = nr;
+            m++;
+        }
+        addRebases(pixelRebases);
+        return maxIterations;
+    }
+
+    private void addRebases(int count) {
+        if (count > 0) {
+            rebases.add(count);
+        }
+    }
+
+    /** @return {@code true} для орбиты Жюлиа (пиксель задает {@code z0}). */
+    boolean isJulia() {
+        return julia;
+    }
+
+    /** Вещественная часть {@code Z_n}. */
+    double re(int n) {
+        return orbitRe[n];
+    }
+
+    /** Мнимая часть {@code Z_n}. */
+    double im(int n) {
+        return orbitIm[n];
+    }
+
+    /** @return Число сохраненных точек опорной орбиты. */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Возвращает, убежала ли опорная точка до {@code maxIterations}.
+     * Это не ошибка: пиксели, живущие дольше опорной точки, продолжают от начала орбиты.
+     * @return {@code true}, если последняя точка орбиты за радиусом 2.
+     */
+    public boolean isEscaped() {
+        double r = orbitRe[length - 1];
+        double i = orbitIm[length - 1];
+        return r * r + i * i > 4.0;
+    }
+
+    /** @return Точность расчета орбиты в десятичных знаках. */
+    public int getPrecisionDigits() {
+        return precisionDigits;
+    }
+
+    /** @return Суммарное число переходов на начало орбиты по всем посчитанным пикселям. */
+    public long getRebaseCount() {
+        return rebases.sum();
+    }
+}
@@ -0,0 +1,87 @@
+// File: core/src/main/java/math/RowIterationKernel.java
+package math;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Ядро, вычисляющее итерации сразу для отрезка строки пикселей.
+ * <p>
+ * В строке мнимая часть координаты одинакова, а вещественные части берутся из таблицы
+ * столбцов ({@link utils.CoordinateMapper}). Это позволяет обрабатывать несколько пикселей
+ * одновременно в SIMD-регистрах процессора. Результаты совпадают с
+ * {@link FractalFunction#calculateIterations(double, double, double, double, int)}
+ * (или с {@link FractalFunction#calculateIterationsWithPeriod}, если включена проверка периодичности).
+ * </p><p>
+ * Векторная реализация использует инкубаторный модуль {@code jdk.incubator.vector}, который
+ * подключается только при запуске JVM с {@code --add-modules jdk.incubator.vector}.
+ * Если модуль недоступен, {@link #vectorized(FractalFunction, int, double)} возвращает {@code null},
+ * и вызывающий код использует обычный скалярный путь.
+ * </p>
+ */
+public interface RowIterationKernel {
+
+    /**
+     * Вычисляет итерации для пикселей {@code [x0, x1)} одной строки.
+     *
+     * @param reTable        Вещественные координаты столбцов (индекс - номер столбца).
+     * @param x0             Первый столбец (включительно).
+     * @param x1             Последний столбец (исключительно).
+     * @param im             Мнимая координата строки.
+     * @param iterationsOut  Массив для числа итераций.
+     * @param outOffset      Индекс в {@code iterationsOut} для столбца {@code x0}.
+     * @param periodsOut     Массив для периодов циклов или {@code null}, если периоды не нужны.
+     * @param periodsOffset  Индекс в {@code periodsOut} для столбца {@code x0}.
+     */
+    void iterateRow(double[] reTable, int x0, int x1, double im,
+                    int[] iterationsOut, int outOffset, int[] periodsOut, int periodsOffset);
+
+    /**
+     * Проверяет, подключен ли модуль {@code jdk.incubator.vector} в текущей JVM.
+     * @return {@code true}, если векторное ядро может быть создано.
+     */
+    static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    /**
+     * Создает векторное ядро для функции фрактала.
+     * Поддерживаются {@link MandelbrotFunction} и {@link JuliaFunction} (без подклассов:
+     * они могут переопределять формулу итераций).
+     *
+     * @param function      Функция фрактала.
+     * @param maxIterations Максимальное число итераций.
+     * @param tolerance     Допуск проверки периодичности; отрицательное значение отключает проверку.
+     * @return Векторное ядро или {@code null}, если модуль Vector API недоступен
+     *         или функция не поддерживается.
+     */
+    static RowIterationKernel vectorized(FractalFunction function, int maxIterations, double tolerance) {
+        if (!isVectorApiAvailable()) {
+            return null;
+        }
+        boolean julia;
+        double juliaCr = 0.0;
+        double juliaCi = 0.0;
+        boolean interiorCheck = false;
+        if (function.getClass() == MandelbrotFunction.class) {
+            julia = false;
+            interiorCheck = ((MandelbrotFunction) function).isInteriorCheckEnabled();
+        } else if (function.getClass() == JuliaFunction.class) {
+            julia = true;
+            juliaCr = ((JuliaFunction) function).parameter().getReal();
+            juliaCi = ((JuliaFunction) function).parameter().getImaginary();
+        } else {
+            return null;
+        }
+        try {
+            // Класс загружается рефлексией: прямая ссылка требовала бы модуль при загрузке этого интерфейса
+            Class<?> type = Class.forName("math.VectorIterationKernel");
+            Constructor<?> constructor = type.getDeclaredConstructor(
+                    boolean.class, double.class, double.class, boolean.class, int.class, double.class);
+            return (RowIterationKernel) constructor.newInstance(
+                    julia, juliaCr, juliaCi, interiorCheck, maxIterations, tolerance);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            System.err.println("Векторное ядро недоступно, используется скалярное: " + e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+// File: core/src/main/java/math/SeriesApproximation.java
+package math;
+
+import java.util.Objects;
+
+/**
+ * Приближение рядом (series approximation, SA) для пропуска первых итераций на глубоком зуме.
+ * <p>
+ * Пока отклонения пикселей от опорной орбиты {@link ReferenceOrbit} малы, отклонение {@code dz_n}
+ * с высокой точностью является многочленом от смещения пикселя {@code d}:
+ * </p>
+ * <pre>
+ *     dz_n ≈ A_n d + B_n d^2 + C_n d^3 + ...
+ *     A_{n+1} = 2 Z_n A_n + [1 для Мандельброта],  B_{n+1} = 2 Z_n B_n + A_n^2,  C_{n+1} = 2 Z_n C_n + 2 A_n B_n
+ * </pre>
+ * <p>
+ * (в общем виде k-й коэффициент получает {@code 2 Z_n a_k} плюс сумму произведений
+ * {@code a_i a_j} с {@code i + j = k}; используется {@value #TERMS} членов).
+ * Для Мандельброта {@code d = dc} ({@code A_0 = 0}), для Жюлиа {@code d = dz_0} ({@code A_0 = 1}).
+ * Коэффициенты считаются один раз на кадр, после чего каждый пиксель получает {@code dz_N}
+ * вычислением многочлена и начинает итерации сразу с шага {@code N}. На глубоком зуме
+ * {@code N} часто составляет большую часть всех итераций пикселя.
+ * </p><p>
+ * Коэффициенты хранятся масштабированными на радиус кадра {@code r}
+ * ({@code a = A r}, {@code b = B r^2}, {@code c = C r^3}, ...), а многочлен вычисляется от {@code u = d / r},
+ * {@code |u| <= 1}: без масштабирования {@code B_n} и {@code C_n} переполняют double уже при ширине ~1e-150.
+ * </p><p>
+ * <b>Сколько шагов пропускать.</b> Вместе с коэффициентами точно (методом возмущений) итерируются
+ * пробные точки на границе кадра (углы и середины сторон). Шаг {@code n} принимается, пока
+ * для всех проб приближение отличается от точного отклонения не больше чем на
+ * {@link #RELATIVE_TOLERANCE} от его величины, пробы не убежали и не требуют перехода
+ * на начало орбиты. Пропуск никогда не превышает {@code maxIterations - 1}
+ * и длину опорной орбиты.
+ * </p>
+ */
+public final class SeriesApproximation {
+
+    /** Число членов ряда. */
+    private static final int TERMS = 8;
+    /**
+     * Допустимая относительная ошибка приближения в пробных точках. Граница хаотической области
+     * усиливает любую ошибку {@code dz}, поэтому допуск близок к точности double.
+     */
+    private static final double RELATIVE_TOLERANCE = 1e-12;
+
+    private final ReferenceOrbit orbit;
+    /** Число пропускаемых итераций {@code N}. */
+    private final int skippedIterations;
+    /** Радиус кадра {@code r}: максимальный модуль смещения пробной точки. */
+    private final double radius;
+    /** Масштабированные коэффициенты: вещественные части (индекс k - член {@code u^(k+1)}). */
+    private final double[] coeffRe;
+    /** Масштабированные коэффициенты: мнимые части. */
+    private final double[] coeffIm;
+
+    private SeriesApproximation(ReferenceOrbit orbit, int skippedIterations, double radius,
+                                double[] coeffRe, double[] coeffIm) {
+        this.orbit = orbit;
+        this.skippedIterations = skippedIterations;
+        this.radius = radius;
+        this.coeffRe = coeffRe;
+        this.coeffIm = coeffIm;
+    }
+
+    /**
+     * Считает коэффициенты ряда вдоль опорной орбиты и определяет, сколько итераций можно пропустить.
+     *
+     * @param orbit         Опорная орбита кадра.
+     * @param probeRe       Смещения пробных точек по вещественной оси (граница кадра).
+     * @param probeIm       Смещения пробных точек по мнимой оси (той же длины).
+     * @param maxIterations Максимальное число итераций кадра.
+     * @return Приближение; при {@link #getSkippedIterations()} = 0 пиксели считаются с первого шага.
+     * @throws IllegalArgumentException если массивы проб пусты или разной длины.
+     */
+    public static SeriesApproximation compute(ReferenceOrbit orbit, double[] probeRe, double[] probeIm,
+                                              int maxIterations) {
+        Objects.requireNonNull(orbit, "Опорная орбита не может быть null");
+        if (probeRe.length == 0 || probeRe.length != probeIm.length) {
+            throw new IllegalArgumentException("Нужны пробные точки с парами координат: "
+                    + probeRe.length + " и " + probeIm.length);
+        }
+        int probes = probeRe.length;
+        double radius = 0.0;
+        for (int p = 0; p < probes; p++) {
+            radius = Math.max(radius, Math.hypot(probeRe[p], probeIm[p]));
+        }
+        boolean julia = orbit.isJulia();
+        if (!(radius > 0.0)) {
+            return new SeriesApproximation(orbit, 0, 1.0, new double[TERMS], new double[TERMS]);
+        }
+
+        // Масштабированные коэффициенты для шага 0: dz_0 = 0 (Мандельброт) или dz_0 = d (Жюлиа)
+        double[] kr = new double[TERMS];
+        double[] ki = new double[TERMS];
+        double[] nkr = new double[TERMS];
+        double[] nki = new double[TERMS];
+        if (julia) {
+            kr[0] = radius;
+        }
+        double addA = julia ? 0.0 : radius; // Слагаемое dc в рекуррентности для первого коэффициента
+        // Точные отклонения и смещения параметра для проб, а также их u = d / r
+        double[] dzr = new double[probes];
+        double[] dzi = new double[probes];
+        double[] dcr = new double[probes];
+        double[] dci = new double[probes];
+        double[] ur = new double[probes];
+        double[] ui = new double[probes];
+        for (int p = 0; p < probes; p++) {
+            if (julia) {
+                dzr[p] = probeRe[p];
+                dzi[p] = probeIm[p];
+            } else {
+                dcr[p] = probeRe[p];
+                dci[p] = probeIm[p];
+            }
+            ur[p] = probeRe[p] / radius;
+            ui[p] = probeIm[p] / radius;
+        }
+
+        int limit = Math.min(maxIterations - 1, orbit.getLength() - 1);
+        int accepted = 0;
+        double[] bestRe = kr.clone();
+        double[] bestIm = ki.clone();
+        for (int n = 0; n < limit; n++) {
+            double zr2 = 2.0 * orbit.re(n);
+            double zi2 = 2.0 * orbit.im(n);
+            // k-й коэффициент: 2Z * a_k + сумма a_j * a_(k-j) по j + слагаемое dc для k = 1
+            boolean finite = true;
+            for (int k = 0; k < TERMS; k++) {
+                double sr = zr2 * kr[k] - zi2 * ki[k];
+                double si = zr2 * ki[k] + zi2 * kr[k];
+                for (int j = 0; j < k; j++) {
+                    int l = k - 1 - j;
+                    sr += kr[j] * kr[l] - ki[j] * ki[l];
+                    si += kr[j] * ki[l] + ki[j] * kr[l];
+                }
+                if (k == 0) {
+                    sr += addA;
+                }
+                nkr[k] = sr;
+                nki[k] = si;
+                finite &= Double.isFinite(sr) && Double.isFinite(si);
+            }
+            double[] swap = kr;
+            kr = nkr;
+            nkr = swap;
+            swap = ki;
+            ki = nki;
+            nki = swap;
+
+            double refR = orbit.re(n + 1);
+            double refI = orbit.im(n + 1);
+            boolean valid = finite;
+            for (int p = 0; p < probes && valid; p++) {
+                // Точный шаг возмущений для пробы: dz = (2Z + dz) dz + dc
+                double tr = zr2 + dzr[p];
+                double ti = zi2 + dzi[p];
+                double nr = tr * dzr[p] - ti * dzi[p] + dcr[p];
+                dzi[p] = tr * dzi[p] + ti * dzr[p] + dci[p];
+                dzr[p] = nr;
+
+                double zr = refR + dzr[p];
+                double zi = refI + dzi[p];
+                double z2 = zr * zr + zi * zi;
+                double dz2 = dzr[p] * dzr[p] + dzi[p] * dzi[p];
+                if (z2 > 4.0 || z2 < dz2) {
+                    valid = false; // Проба убежала или требует перехода на начало орбиты
+                    break;
+                }
+                double er = evaluateRe(kr, ki, ur[p], ui[p]) - dzr[p];
+                double ei = evaluateIm(kr, ki, ur[p], ui[p]) - dzi[p];
+                if (er * er + ei * ei > RELATIVE_TOLERANCE * RELATIVE_TOLERANCE * dz2) {
+                    valid = false;
+                }
+            }
+            if (!valid) {
+                break;
+            }
+            accepted = n + 1;
+            System.arraycopy(kr, 0, bestRe, 0, TERMS);
+            System.arraycopy(ki, 0, bestIm, 0, TERMS);
+        }
+        return new SeriesApproximation(orbit, accepted, radius, bestRe, bestIm);
+    }
+
+    /** Вещественная часть {@code sum a_k u^(k+1)} (схема Горнера). */
+    private static double evaluateRe(double[] kr, double[] ki, double ur, double ui) {
+        double sr = 0.0;
+        double si = 0.0;
+        for (int k = kr.length - 1; k >= 0; k--) {
+            double tr = kr[k] + (sr * ur - si * ui);
+            si = ki[k] + (sr * ui + si * ur);
+            sr = tr;
+        }
+        return sr * ur - si * ui;
+    }
+
+    /** Мнимая часть {@code sum a_k u^(k+1)} (схема Горнера). */
+    private static double evaluateIm(double[] kr, double[] ki, double ur, double ui) {
+        double sr = 0.0;
+        double si = 0.0;
+        for (int k = kr.length - 1; k >= 0; k--) {
+            double tr = kr[k] + (sr * ur - si * ui);
+            si = ki[k] + (sr * ui + si * ur);
+            sr = tr;
+        }
+        return sr * ui + si * ur;
+    }
+
+    /**
+     * Вычисляет число итераций пикселя: отклонение на шаге {@code N} берется из ряда,
+     * дальше итерации идут методом возмущений ({@link ReferenceOrbit}).
+     *
+     * @param deltaRe       Смещение пикселя от опорной точки по вещественной оси.
+     * @param deltaIm       Смещение по мнимой оси.
+     * @param maxIterations Максимальное число итераций (то же, что при построении).
+     * @return Число итераций от 0 до maxIterations включительно.
+     */
+    public int iterate(double deltaRe, double deltaIm, int maxIterations) {
+        if (skippedIterations == 0) {
+            return orbit.iterate(deltaRe, deltaIm, maxIterations);
+        }
+        double ur = deltaRe / radius;
+        double ui = deltaIm / radius;
+        double dzr = evaluateRe(coeffRe, coeffIm, ur, ui);
+        double dzi = evaluateIm(coeffRe, coeffIm, ur, ui);
+        if (orbit.isJulia()) {
+            return orbit.iterateFrom(skippedIterations, dzr, dzi, 0.0, 0.0, maxIterations);
+        }
+        return orbit.iterateFrom(skippedIterations, dzr, dzi, deltaRe, deltaIm, maxIterations);
+    }
+
+    /**
+     * Возвращает число итераций, пропускаемых каждым пикселем.
+     * @return {@code N}: от 0 до {@code maxIterations - 1}.
+     */
+    public int getSkippedIterations() {
+        return skippedIterations;
+    }
+
+    /** @return Опорная орбита, вдоль которой построен ряд. */
+    public ReferenceOrbit getOrbit() {
+        return orbit;
+    }
+}
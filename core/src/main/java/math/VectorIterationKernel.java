@@ -0,0 +1,172 @@
+// File: core/src/main/java/math/VectorIterationKernel.java
+package math;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Векторная (SIMD) реализация {@link RowIterationKernel} на {@code jdk.incubator.vector}.
+ * <p>
+ * Отрезок строки обрабатывается порциями по {@code SPECIES.length()} пикселей
+ * (4 на AVX2, 8 на AVX-512): каждая дорожка вектора - отдельный пиксель.
+ * Убежавшие дорожки исключаются маской, порция заканчивается, когда активных дорожек не осталось.
+ * </p><p>
+ * Арифметика повторяет скалярный цикл операция в операцию (без FMA), поэтому
+ * число итераций побитово совпадает с {@link MandelbrotFunction} и {@link JuliaFunction}.
+ * Окна метода Брента зависят только от номера итерации, а все дорожки порции стартуют
+ * одновременно, поэтому проверка периодичности тоже векторизуется без расхождений.
+ * </p><p>
+ * Класс ссылается на инкубаторный модуль и создается только через
+ * {@link RowIterationKernel#vectorized(FractalFunction, int, double)}.
+ * </p>
+ */
+final class VectorIterationKernel implements RowIterationKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    /**
+     * Буферы дорожек порции для каждого потока: ядро общее для всех потоков рендеринга,
+     * а строка не должна выделять память.
+     */
+    private static final ThreadLocal<LaneScratch> SCRATCH = ThreadLocal.withInitial(LaneScratch::new);
+
+    private final boolean julia;
+    private final double juliaCr;
+    private final double juliaCi;
+    private final boolean interiorCheck;
+    private final int maxIterations;
+    private final double tolerance;
+
+    VectorIterationKernel(boolean julia, double juliaCr, double juliaCi, boolean interiorCheck,
+                          int maxIterations, double tolerance) {
+        this.julia = julia;
+        this.juliaCr = juliaCr;
+        this.juliaCi = juliaCi;
+        this.interiorCheck = interiorCheck;
+        this.maxIterations = maxIterations;
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    public void iterateRow(double[] reTable, int x0, int x1, double im,
+                           int[] iterationsOut, int outOffset, int[] periodsOut, int periodsOffset) {
+        int lanes = SPECIES.length();
+        LaneScratch scratch = SCRATCH.get();
+        double[] laneCounts = scratch.counts;
+        double[] lanePeriods = scratch.periods;
+        boolean[] laneForcedMax = scratch.forcedMax;
+        for (int x = x0; x < x1; x += lanes) {
+            VectorMask<Double> valid = SPECIES.indexInRange(x, x1);
+            DoubleVector pixelRe = DoubleVector.fromArray(SPECIES, reTable, x, valid);
+            iterateChunk(pixelRe, im, valid, laneCounts, lanePeriods, laneForcedMax);
+
+            int count = Math.min(lanes, x1 - x);
+            for (int lane = 0; lane < count; lane++) {
+                iterationsOut[outOffset + (x - x0) + lane] = laneForcedMax[lane] ? maxIterations : (int) laneCounts[lane];
+                if (periodsOut != null) {
+                    periodsOut[periodsOffset + (x - x0) + lane] = laneForcedMax[lane] ? (int) lanePeriods[lane] : 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Итерирует одну порцию пикселей.
+     * <p>
+     * Счетчик итераций хранится в векторе и увеличивается маскированным сложением только
+     * у активных дорожек, поэтому в цикле нет поэлементной работы. Дорожки, для которых
+     * результат известен досрочно (кардиоида или найденный цикл), помечаются в
+     * {@code laneForcedMax}: их итерации равны maxIterations, а период - в {@code lanePeriods}.
+     * </p>
+     */
+    private void iterateChunk(DoubleVector pixelRe, double im, VectorMask<Double> valid,
+                              double[] laneCounts, double[] lanePeriods, boolean[] laneForcedMax) {
+        DoubleVector zr;
+        DoubleVector zi;
+        DoubleVector cr;
+        DoubleVector ci;
+        if (julia) {
+            // Жюлиа: z0 - точка пикселя, c - константа множества
+            zr = pixelRe;
+            zi = DoubleVector.broadcast(SPECIES, im);
+            cr = DoubleVector.broadcast(SPECIES, juliaCr);
+            ci = DoubleVector.broadcast(SPECIES, juliaCi);
+        } else {
+            // Мандельброт: z0 = 0, c - точка пикселя
+            zr = DoubleVector.zero(SPECIES);
+            zi = DoubleVector.zero(SPECIES);
+            cr = pixelRe;
+            ci = DoubleVector.broadcast(SPECIES, im);
+        }
+
+        DoubleVector counts = DoubleVector.zero(SPECIES);
+        DoubleVector periods = DoubleVector.zero(SPECIES);
+        VectorMask<Double> forcedMax = SPECIES.maskAll(false);
+        VectorMask<Double> active = valid;
+
+        if (interiorCheck) {
+            // Та же проверка кардиоиды и круга периода 2, что в MandelbrotFunction.isInMainCardioidOrBulb
+            DoubleVector ci2 = ci.mul(ci);
+            DoubleVector xq = cr.sub(0.25);
+            DoubleVector q = xq.mul(xq).add(ci2);
+            VectorMask<Double> inCardioid = q.mul(q.add(xq)).compare(VectorOperators.LE, ci2.mul(0.25));
+            DoubleVector xb = cr.add(1.0);
+            VectorMask<Double> inBulb = xb.mul(xb).add(ci2).compare(VectorOperators.LE, 0.0625);
+            VectorMask<Double> inside = inCardioid.or(inBulb).and(active);
+            // Период 2 для круга, 1 для кардиоиды (как в скалярном коде)
+            periods = DoubleVector.broadcast(SPECIES, 1.0).blend(2.0, inBulb).blend(0.0, inside.not());
+            forcedMax = inside;
+            active = active.andNot(inside);
+        }
+
+        boolean periodicity = tolerance >= 0.0;
+        DoubleVector checkR = zr;
+        DoubleVector checkI = zi;
+        int window = 1;
+        int stepsInWindow = 0;
+
+        for (int i = 0; i < maxIterations; ++i) {
+            DoubleVector zr2 = zr.mul(zr);
+            DoubleVector zi2 = zi.mul(zi);
+            // Убежавшие на шаге i дорожки выключаются; их счетчик остается равным i
+            active = active.andNot(zr2.add(zi2).compare(VectorOperators.GT, 4.0));
+            if (!active.anyTrue()) {
+                break;
+            }
+            counts = counts.add(1.0, active);
+            // z = z^2 + c в том же порядке операций, что и скалярный цикл: zi = (2*zr)*zi + ci; zr = (zr2 - zi2) + cr
+            zi = zr.mul(2.0).mul(zi).add(ci);
+            zr = zr2.sub(zi2).add(cr);
+
+            if (periodicity) {
+                stepsInWindow++;
+                VectorMask<Double> cycled = zr.sub(checkR).abs().compare(VectorOperators.LE, tolerance)
+                        .and(zi.sub(checkI).abs().compare(VectorOperators.LE, tolerance))
+                        .and(active);
+                if (cycled.anyTrue()) {
+                    periods = periods.blend(stepsInWindow, cycled);
+                    forcedMax = forcedMax.or(cycled);
+                    active = active.andNot(cycled);
+                }
+                if (stepsInWindow == window) {
+                    checkR = zr;
+                    checkI = zi;
+                    stepsInWindow = 0;
+                    window <<= 1;
+                }
+            }
+        }
+        // Дорожки, оставшиеся активными, не убежали: их счетчик равен maxIterations
+        counts.intoArray(laneCounts, 0);
+        periods.intoArray(lanePeriods, 0);
+        forcedMax.intoArray(laneForcedMax, 0);
+    }
+
+    /** Результаты дорожек одной порции (перезаписываются каждой порцией). */
+    private static final class LaneScratch {
+        final double[] counts = new double[SPECIES.length()];
+        final double[] periods = new double[SPECIES.length()];
+        final boolean[] forcedMax = new boolean[SPECIES.length()];
+    }
+}
@@ -19,7 +19,7 @@ import java.io.Serializable;
  * <p>
  * Помечен как {@link FunctionalInterface}, так как содержит единственный
  * абстрактный метод {@link #getColor(int, int)}, хотя наличие
- * метода по умолчанию {@link #getName()} этому не мешает.
+ * методов по умолчанию ({@link #getName()}, {@link #getArgbLut(int)}) этому не мешает.
  * </p>
  */
 @FunctionalInterface
@@ -53,6 +53,76 @@ public interface ColorScheme extends Serializable {
      */
     Color getColor(int iterations, int maxIterations);
 
+    /**
+     * Возвращает таблицу цветов (LUT) для всех возможных значений итераций при заданном пределе.
+     * Элемент {@code lut[i]} содержит упакованный цвет ARGB ({@link Color#getRGB()}) для
+     * {@code getColor(i, maxIterations)}. Рендереры окрашивают пиксель одним чтением
+     * из массива вместо вызова {@link #getColor(int, int)} и создания {@link Color}.
+     * <p>
+     * Таблица кэшируется по паре (схема, maxIterations), поэтому повторные вызовы дешевы.
+     * Возвращаемый массив общий для всех вызывающих и не должен изменяться.
+     * </p>
+     *
+     * @param maxIterations Максимальное количество итераций (>= 0).
+     * @return Массив длиной {@code maxIterations + 1}.
+     * @throws IllegalArgumentException если {@code maxIterations < 0}.
+     */
+    default int[] getArgbLut(int maxIterations) {
+        if (maxIterations < 0) {
+            throw new IllegalArgumentException("Максимальное число итераций не может быть отрицательным: " + maxIterations);
+        }
+        return PaletteCache.getLut(this, maxIterations);
+    }
+
+    /**
+     * Строит новую таблицу цветов для заданного предела итераций.
+     * Вызывается кэшем из {@link #getArgbLut(int)}; напрямую его обычно вызывать не нужно.
+     * <p>
+     * Реализация по умолчанию вызывает {@link #getColor(int, int)} для каждого значения
+     * от 0 до {@code maxIterations}. Схемы могут переопределить метод, если умеют
+     * строить таблицу быстрее, но результат должен совпадать с {@code getColor}.
+     * </p>
+     *
+     * @param maxIterations Максимальное количество итераций (>= 0).
+     * @return Новый массив длиной {@code maxIterations + 1}.
+     */
+    default int[] compileArgbLut(int maxIterations) {
+        int[] lut = new int[maxIterations + 1];
+        for (int i = 0; i <= maxIterations; i++) {
+            lut[i] = getColor(i, maxIterations).getRGB();
+        }
+        return lut;
+    }
+
+    /**
+     * Сообщает, окрашивает ли схема внутренние точки по периоду притягивающего цикла.
+     * Если {@code true}, рендерер для точек с {@code iterations == maxIterations} и известным
+     * периодом вызывает {@link #getInteriorArgb(int, int)} вместо таблицы цветов.
+     * <p>
+     * Реализация по умолчанию возвращает {@code false}: все внутренние точки окрашиваются одинаково.
+     * </p>
+     *
+     * @return {@code true}, если схема использует период.
+     */
+    default boolean usesInteriorPeriod() {
+        return false;
+    }
+
+    /**
+     * Возвращает цвет внутренней точки с известным периодом цикла.
+     * Вызывается только для схем, у которых {@link #usesInteriorPeriod()} возвращает {@code true}.
+     * <p>
+     * Реализация по умолчанию возвращает цвет из таблицы для {@code maxIterations}.
+     * </p>
+     *
+     * @param period        Период цикла орбиты (> 0).
+     * @param maxIterations Максимальное количество итераций.
+     * @return Упакованный цвет ARGB.
+     */
+    default int getInteriorArgb(int period, int maxIterations) {
+        return getArgbLut(maxIterations)[maxIterations];
+    }
+
     /**
      * Возвращает имя цветовой схемы, понятное пользователю.
      * Это имя может использоваться, например, в элементах управления
@@ -0,0 +1,91 @@
+// File: core/src/main/java/model/PaletteCache.java
+package model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Кэш скомпилированных таблиц цветов (LUT) для цветовых схем.
+ * <p>
+ * Таблица для пары (схема, maxIterations) строится один раз через
+ * {@link ColorScheme#compileArgbLut(int)} и затем переиспользуется всеми
+ * кадрами с теми же параметрами. Схемы сравниваются через {@code equals}/{@code hashCode},
+ * поэтому два экземпляра одной схемы без параметров используют одну таблицу.
+ * </p><p>
+ * Размер кэша ограничен {@link #MAX_ENTRIES} записями (вытесняется давно не использованная),
+ * так как при больших maxIterations одна таблица занимает несколько мегабайт.
+ * </p><p>
+ * Класс потокобезопасен. Используется только через {@link ColorScheme#getArgbLut(int)}.
+ * </p>
+ */
+final class PaletteCache {
+
+    /** Максимальное количество одновременно хранимых таблиц. */
+    private static final int MAX_ENTRIES = 4;
+
+    /** LRU-карта: порядок доступа, вытеснение самой старой записи при переполнении. */
+    private static final Map<Key, int[]> CACHE = new LinkedHashMap<>(MAX_ENTRIES + 1, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, int[]> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private PaletteCache() {
+        throw new UnsupportedOperationException("Это утилитарный класс, его не нужно инстанциировать");
+    }
+
+    /**
+     * Возвращает таблицу цветов для схемы и максимального числа итераций,
+     * компилируя её при первом обращении.
+     *
+     * @param scheme        Цветовая схема. Не может быть null.
+     * @param maxIterations Максимальное число итераций (>= 0).
+     * @return Таблица упакованных цветов длиной {@code maxIterations + 1}. Не должна изменяться вызывающим кодом.
+     */
+    static int[] getLut(ColorScheme scheme, int maxIterations) {
+        Key key = new Key(scheme, maxIterations);
+        synchronized (CACHE) {
+            int[] lut = CACHE.get(key);
+            if (lut != null) {
+                return lut;
+            }
+        }
+        // Компилируем вне блокировки: другие схемы в это время остаются доступны.
+        // При гонке двух потоков одна из одинаковых таблиц просто будет отброшена.
+        int[] compiled = scheme.compileArgbLut(maxIterations);
+        if (compiled.length != maxIterations + 1) {
+            throw new IllegalStateException("Схема " + scheme.getName() + " вернула таблицу длиной "
+                    + compiled.length + " вместо " + (maxIterations + 1));
+        }
+        synchronized (CACHE) {
+            int[] existing = CACHE.putIfAbsent(key, compiled);
+            return existing != null ? existing : compiled;
+        }
+    }
+
+    /** Ключ кэша: схема и максимальное число итераций. */
+    private static final class Key {
+        private final ColorScheme scheme;
+        private final int maxIterations;
+
+        Key(ColorScheme scheme, int maxIterations) {
+            this.scheme = Objects.requireNonNull(scheme, "ColorScheme не может быть null");
+            this.maxIterations = maxIterations;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return maxIterations == key.maxIterations && scheme.equals(key.scheme);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scheme, maxIterations);
+        }
+    }
+}
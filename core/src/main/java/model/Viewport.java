@@ -3,15 +3,28 @@ package model;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Objects;
 
 /**
  * Представляет прямоугольную область комплексной плоскости, отображаемую в данный момент.
  * Immutable-класс, определяемый минимальными и максимальными вещественными (X) и мнимыми (Y)
  * координатами. Используется для сохранения/загрузки состояния и преобразования координат.
+ * <p>
+ * <b>Высокоточная форма.</b> На глубоком зуме границы в {@code double} уже не различают
+ * соседние пиксели (а при ширине меньше ~1e-16 от модуля центра совпадают между собой).
+ * Поэтому такая область хранит центр в {@link BigDecimal} и ширину/высоту отдельно
+ * ({@link #Viewport(BigDecimal, BigDecimal, double, double)}); поля {@code minX..maxY}
+ * остаются лишь приближением для старого кода. В JSON центр пишется десятичными строками
+ * ({@code "centerX"}, {@code "centerY"}), размеры - {@code "spanX"}, {@code "spanY"};
+ * файлы без этих полей читаются как раньше. Зум ({@link #zoomRelative}) и сдвиг ({@link #pan})
+ * задаются смещениями от центра и переводят область в высокоточную форму автоматически.
+ * </p>
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public final class Viewport implements Serializable {
@@ -31,6 +44,23 @@ public final class Viewport implements Serializable {
     /** Верхняя граница (максимальная мнимая координата). */
     private double maxY;
 
+    /** Точный центр по вещественной оси (только для высокоточной формы, иначе {@code null}). */
+    private BigDecimal preciseCenterX;
+    /** Точный центр по мнимой оси (только для высокоточной формы, иначе {@code null}). */
+    private BigDecimal preciseCenterY;
+    /** Ширина области в высокоточной форме. */
+    private double preciseWidth;
+    /** Высота области в высокоточной форме. */
+    private double preciseHeight;
+
+    /**
+     * Ширина области относительно модуля центра, ниже которой зум и сдвиг
+     * переводят область в высокоточную форму: дальше границы в {@code double} теряют
+     * больше 1e-6 от размера области.
+     */
+    private static final double HIGH_PRECISION_RELATIVE_WIDTH = 1e-10;
+    /** Десятичные знаки центра сверх порядка ширины области. */
+    private static final int CENTER_GUARD_DIGITS = 20;
 
     /**
      * Область просмотра по умолчанию: X=[-2.0, 1.0], Y=[-1.5, 1.5].
@@ -40,32 +70,152 @@ public final class Viewport implements Serializable {
     /**
      * Конструктор, создаёт экземпляр с гарантией min≤max для каждой оси.
      */
+    public Viewport(double minX, double maxX, double minY, double maxY) {
+        this.minX = Math.min(minX, maxX);
+        this.maxX = Math.max(minX, maxX);
+        this.minY = Math.min(minY, maxY);
+        this.maxY = Math.max(minY, maxY);
+    }
+
+    /**
+     * Создает область в высокоточной форме: центр задается точно, размеры - в {@code double}
+     * (их относительной точности хватает при любом масштабе вплоть до ~1e-300).
+     *
+     * @param centerX Вещественная координата центра. Не может быть null.
+     * @param centerY Мнимая координата центра. Не может быть null.
+     * @param width   Ширина области (> 0).
+     * @param height  Высота области (> 0).
+     * @throws IllegalArgumentException если ширина или высота не положительны или не конечны.
+     */
+    public Viewport(BigDecimal centerX, BigDecimal centerY, double width, double height) {
+        Objects.requireNonNull(centerX, "Центр по X не может быть null");
+        Objects.requireNonNull(centerY, "Центр по Y не может быть null");
+        if (!(width > 0.0) || !(height > 0.0) || Double.isInfinite(width) || Double.isInfinite(height)) {
+            throw new IllegalArgumentException("Размеры области должны быть положительными: " + width + "x" + height);
+        }
+        this.preciseCenterX = centerX;
+        this.preciseCenterY = centerY;
+        this.preciseWidth = width;
+        this.preciseHeight = height;
+        double cx = centerX.doubleValue();
+        double cy = centerY.doubleValue();
+        this.minX = cx - width / 2.0;
+        this.maxX = cx + width / 2.0;
+        this.minY = cy - height / 2.0;
+        this.maxY = cy + height / 2.0;
+    }
+
+    /**
+     * Создает копию области (включая высокоточный центр).
+     * @param other Копируемая область. Не может быть null.
+     */
+    public Viewport(Viewport other) {
+        this(other.minX, other.maxX, other.minY, other.maxY);
+        this.preciseCenterX = other.preciseCenterX;
+        this.preciseCenterY = other.preciseCenterY;
+        this.preciseWidth = other.preciseWidth;
+        this.preciseHeight = other.preciseHeight;
+    }
+
+    /**
+     * Создает область из JSON. Если заданы {@code centerX}, {@code centerY}, {@code spanX} и {@code spanY},
+     * создается высокоточная форма, иначе - обычная по границам (формат старых файлов).
+     */
     @JsonCreator
-    public Viewport(
+    static Viewport fromJson(
         @JsonProperty("minX") double minX,
         @JsonProperty("maxX") double maxX,
         @JsonProperty("minY") double minY,
-        @JsonProperty("maxY") double maxY
+        @JsonProperty("maxY") double maxY,
+        @JsonProperty("centerX") String centerX,
+        @JsonProperty("centerY") String centerY,
+        @JsonProperty("spanX") Double spanX,
+        @JsonProperty("spanY") Double spanY
     ) {
-        this.minX = Math.min(minX, maxX);
-        this.maxX = Math.max(minX, maxX);
-        this.minY = Math.min(minY, maxY);
-        this.maxY = Math.max(minY, maxY);
+        if (centerX != null && centerY != null && spanX != null && spanY != null) {
+            try {
+                return new Viewport(new BigDecimal(centerX.trim()), new BigDecimal(centerY.trim()), spanX, spanY);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Некорректный центр области: " + centerX + ", " + centerY, e);
+            }
+        }
+        return new Viewport(minX, maxX, minY, maxY);
     }
 
     public double getMinX() { return minX; }
-    public void setMinX(double minX) { this.minX = minX; }
+    public void setMinX(double minX) { this.minX = minX; dropPrecision(); }
 
     public double getMaxX() { return maxX; }
-    public void setMaxX(double maxX) { this.maxX = maxX; }
+    public void setMaxX(double maxX) { this.maxX = maxX; dropPrecision(); }
 
     public double getMinY() { return minY; }
-    public void setMinY(double minY) { this.minY = minY; }
+    public void setMinY(double minY) { this.minY = minY; dropPrecision(); }
 
     public double getMaxY() { return maxY; }
-    public void setMaxY(double maxY) { this.maxY = maxY; }
+    public void setMaxY(double maxY) { this.maxY = maxY; dropPrecision(); }
+
+    /** Прямое изменение границ переводит область в обычную форму: точный центр им больше не соответствует. */
+    private void dropPrecision() {
+        preciseCenterX = null;
+        preciseCenterY = null;
+    }
+
+    /**
+     * Проверяет, хранится ли область в высокоточной форме.
+     * @return {@code true}, если центр задан в {@link BigDecimal}.
+     */
+    @JsonIgnore
+    public boolean isHighPrecision() {
+        return preciseCenterX != null;
+    }
 
-    
+    /**
+     * Точный центр области по вещественной оси.
+     * Для обычной формы - точное значение {@code (minX + maxX) / 2} в double.
+     * @return Центр по X.
+     */
+    @JsonIgnore
+    public BigDecimal getCenterX() {
+        return isHighPrecision() ? preciseCenterX : new BigDecimal((minX + maxX) / 2.0);
+    }
+
+    /**
+     * Точный центр области по мнимой оси.
+     * Для обычной формы - точное значение {@code (minY + maxY) / 2} в double.
+     * @return Центр по Y.
+     */
+    @JsonIgnore
+    public BigDecimal getCenterY() {
+        return isHighPrecision() ? preciseCenterY : new BigDecimal((minY + maxY) / 2.0);
+    }
+
+    /** Центр по X для JSON (только в высокоточной форме). */
+    @JsonProperty("centerX")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String getCenterXText() {
+        return isHighPrecision() ? preciseCenterX.toPlainString() : null;
+    }
+
+    /** Центр по Y для JSON (только в высокоточной форме). */
+    @JsonProperty("centerY")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String getCenterYText() {
+        return isHighPrecision() ? preciseCenterY.toPlainString() : null;
+    }
+
+    /** Ширина для JSON (только в высокоточной форме). */
+    @JsonProperty("spanX")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double getSpanX() {
+        return isHighPrecision() ? preciseWidth : null;
+    }
+
+    /** Высота для JSON (только в высокоточной форме). */
+    @JsonProperty("spanY")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double getSpanY() {
+        return isHighPrecision() ? preciseHeight : null;
+    }
 
     /**
      * Ширина области (maxX - minX).
@@ -73,7 +223,7 @@ public final class Viewport implements Serializable {
      */
     @JsonIgnore
     public double getWidth() {
-        return maxX - minX;
+        return isHighPrecision() ? preciseWidth : maxX - minX;
     }
 
     /**
@@ -82,7 +232,17 @@ public final class Viewport implements Serializable {
      */
     @JsonIgnore
     public double getHeight() {
-        return maxY - minY;
+        return isHighPrecision() ? preciseHeight : maxY - minY;
+    }
+
+    /**
+     * Десятичный логарифм ширины области - глубина зума в удобной для отображения форме
+     * (например, -300 для ширины 1e-300).
+     * @return {@code log10(getWidth())}.
+     */
+    @JsonIgnore
+    public double getLog10Width() {
+        return Math.log10(getWidth());
     }
 
     /**
@@ -98,6 +258,14 @@ public final class Viewport implements Serializable {
         if (this == o) return true;
         if (!(o instanceof Viewport)) return false;
         Viewport that = (Viewport) o;
+        if (isHighPrecision() || that.isHighPrecision()) {
+            // Сравнение по значению: 0.5 и 0.50 - один и тот же центр
+            return isHighPrecision() && that.isHighPrecision() &&
+                   preciseCenterX.compareTo(that.preciseCenterX) == 0 &&
+                   preciseCenterY.compareTo(that.preciseCenterY) == 0 &&
+                   Double.compare(that.preciseWidth, preciseWidth) == 0 &&
+                   Double.compare(that.preciseHeight, preciseHeight) == 0;
+        }
         return Double.compare(that.minX, minX) == 0 &&
                Double.compare(that.maxX, maxX) == 0 &&
                Double.compare(that.minY, minY) == 0 &&
@@ -106,14 +274,29 @@ public final class Viewport implements Serializable {
 
     @Override
     public int hashCode() {
+        if (isHighPrecision()) {
+            return Objects.hash(preciseCenterX.stripTrailingZeros(), preciseCenterY.stripTrailingZeros(),
+                                preciseWidth, preciseHeight);
+        }
         return Objects.hash(minX, maxX, minY, maxY);
     }
 
     @Override
     public String toString() {
+        if (isHighPrecision()) {
+            return String.format("Viewport[центр=(%s, %s), размер=%g x %g]",
+                                 abbreviate(preciseCenterX), abbreviate(preciseCenterY), preciseWidth, preciseHeight);
+        }
         return String.format("Viewport[X=[%g, %g], Y=[%g, %g]]", minX, maxX, minY, maxY);
     }
 
+    /** Сокращает длинную запись координаты для лога. */
+    private static String abbreviate(BigDecimal value) {
+        String text = value.toPlainString();
+        return text.length() <= 40 ? text : text.substring(0, 20) + "..." + text.substring(text.length() - 8)
+                + " (" + text.length() + " симв.)";
+    }
+
     /**
      * Сдвиг области просмотра на указанные смещения.
      * @param deltaX сдвиг по X (вещественная ось)
@@ -121,6 +304,12 @@ public final class Viewport implements Serializable {
      * @return новый Viewport с сдвинутыми координатами
      */
     public Viewport pan(double deltaX, double deltaY) {
+        if (isHighPrecision()) {
+            // Смещения округляются до разрядов центра, поэтому сдвиг и обратный сдвиг взаимно точны
+            int scale = centerScale(preciseWidth, preciseHeight);
+            return new Viewport(preciseCenterX.add(offset(deltaX, scale)), preciseCenterY.add(offset(deltaY, scale)),
+                                preciseWidth, preciseHeight);
+        }
         return new Viewport(
             this.minX + deltaX,
             this.maxX + deltaX,
@@ -169,4 +358,66 @@ public final class Viewport implements Serializable {
 
         return new Viewport(finalMinX, finalMaxX, finalMinY, finalMaxY);
     }
+
+    /**
+     * Изменяет область просмотра на прямоугольник, заданный смещениями от текущего центра,
+     * с учётом соотношения сторон (как {@link #zoom(double, double, double, double, double)}).
+     * <p>
+     * Смещения - величины порядка размера области, поэтому хранятся в {@code double} без потерь
+     * на любом масштабе, а новый центр считается в {@link BigDecimal}. Если новая область мельче
+     * {@value #HIGH_PRECISION_RELATIVE_WIDTH} от модуля центра (или текущая уже высокоточная),
+     * результат создается в высокоточной форме; иначе - в обычной, как раньше.
+     * </p>
+     * @param offsetMinX желаемая минимальная X относительно центра
+     * @param offsetMaxX желаемая максимальная X относительно центра
+     * @param offsetMinY желаемая минимальная Y относительно центра
+     * @param offsetMaxY желаемая максимальная Y относительно центра
+     * @param targetAspectRatio требуемое соотношение сторон (width/height)
+     * @return новый Viewport
+     */
+    public Viewport zoomRelative(
+        double offsetMinX,
+        double offsetMaxX,
+        double offsetMinY,
+        double offsetMaxY,
+        double targetAspectRatio
+    ) {
+        double width = offsetMaxX - offsetMinX;
+        double height = offsetMaxY - offsetMinY;
+        double offsetCenterX = (offsetMinX + offsetMaxX) / 2.0;
+        double offsetCenterY = (offsetMinY + offsetMaxY) / 2.0;
+        if (width / height > targetAspectRatio) {
+            // область слишком широкая: увеличиваем высоту
+            height = width / targetAspectRatio;
+        } else {
+            // область слишком высокая: увеличиваем ширину
+            width = height * targetAspectRatio;
+        }
+
+        BigDecimal centerX = getCenterX();
+        BigDecimal centerY = getCenterY();
+        double magnitude = Math.max(1.0, Math.max(Math.abs(centerX.doubleValue()), Math.abs(centerY.doubleValue())));
+        if (!isHighPrecision() && Math.min(width, height) >= magnitude * HIGH_PRECISION_RELATIVE_WIDTH) {
+            double cx = centerX.doubleValue() + offsetCenterX;
+            double cy = centerY.doubleValue() + offsetCenterY;
+            return new Viewport(cx - width / 2.0, cx + width / 2.0, cy - height / 2.0, cy + height / 2.0);
+        }
+        int scale = centerScale(width, height);
+        return new Viewport(centerX.add(offset(offsetCenterX, scale)).setScale(scale, RoundingMode.HALF_EVEN),
+                            centerY.add(offset(offsetCenterY, scale)).setScale(scale, RoundingMode.HALF_EVEN),
+                            width, height);
+    }
+
+    /**
+     * Число знаков после запятой, с которыми хранится центр области заданного размера:
+     * порядок меньшего размера плюс {@value #CENTER_GUARD_DIGITS} запасных знаков.
+     */
+    private static int centerScale(double width, double height) {
+        return (int) Math.ceil(-Math.log10(Math.min(width, height))) + CENTER_GUARD_DIGITS;
+    }
+
+    /** Смещение в {@link BigDecimal}, округленное до {@code scale} знаков после запятой. */
+    private static BigDecimal offset(double value, int scale) {
+        return new BigDecimal(value).setScale(scale, RoundingMode.HALF_EVEN);
+    }
 }
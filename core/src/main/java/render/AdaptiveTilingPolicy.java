@@ -0,0 +1,146 @@
+package render;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Разбиение на тайлы примерно равной стоимости по оценке итераций.
+ * <p>
+ * Область делится на блоки {@code maxTileSize}; блок рекурсивно делится на четыре, пока его
+ * оценка дороже тайла {@code baseTileSize} средней по области стоимости (и сторона не меньше
+ * {@code 2 * minTileSize}).
+ * Поэтому внешность множества (несколько итераций на пиксель) остается крупными тайлами - меньше
+ * накладных расходов, а границу и внутренность, где пиксель стоит тысячи итераций, потоки
+ * делят мелкими тайлами - последний тайл кадра не задерживает остальные ядра.
+ * При равномерной стоимости получается обычная сетка {@code baseTileSize}.
+ * </p><p>
+ * Стоимость пикселя оценивается как число итераций плюс {@link #PIXEL_OVERHEAD} (подготовка пикселя
+ * и окрашивание). Суммы считаются по ячейкам {@code minTileSize x minTileSize} с таблицей
+ * префиксных сумм, поэтому стоимость любого блока - O(1), а разбиение кадра 4K занимает
+ * несколько миллисекунд. Без оценки ({@code costHint == null}) используется сетка {@code baseTileSize}.
+ * </p>
+ */
+public final class AdaptiveTilingPolicy implements TilingPolicy {
+
+    /** Размер тайла по умолчанию (при равномерной стоимости). */
+    public static final int DEFAULT_BASE_TILE_SIZE = 32;
+    /** Наименьший размер тайла по умолчанию. */
+    public static final int DEFAULT_MIN_TILE_SIZE = 8;
+    /** Наибольший размер тайла по умолчанию. */
+    public static final int DEFAULT_MAX_TILE_SIZE = 128;
+    /** Стоимость пикселя без итераций, в итерациях. */
+    static final int PIXEL_OVERHEAD = 8;
+
+    private final int baseTileSize;
+    private final int minTileSize;
+    private final int maxTileSize;
+
+    /** Создает политику с размерами по умолчанию (32, от 8 до 128). */
+    public AdaptiveTilingPolicy() {
+        this(DEFAULT_BASE_TILE_SIZE, DEFAULT_MIN_TILE_SIZE, DEFAULT_MAX_TILE_SIZE);
+    }
+
+    /**
+     * @param baseTileSize Размер тайла при равномерной стоимости.
+     * @param minTileSize  Наименьший размер тайла (> 0).
+     * @param maxTileSize  Наибольший размер тайла: {@code minTileSize}, умноженный на степень двойки
+     *                     (блоки делятся пополам до наименьшего размера);
+     *                     {@code minTileSize <= baseTileSize <= maxTileSize}.
+     */
+    public AdaptiveTilingPolicy(int baseTileSize, int minTileSize, int maxTileSize) {
+        if (minTileSize <= 0 || baseTileSize < minTileSize || maxTileSize < baseTileSize
+                || maxTileSize % minTileSize != 0 || Integer.bitCount(maxTileSize / minTileSize) != 1) {
+            throw new IllegalArgumentException("Некорректные размеры тайлов: base=" + baseTileSize
+                    + ", min=" + minTileSize + ", max=" + maxTileSize);
+        }
+        this.baseTileSize = baseTileSize;
+        this.minTileSize = minTileSize;
+        this.maxTileSize = maxTileSize;
+    }
+
+    @Override
+    public List<Tile> createTiles(int startX, int startY, int width, int height, int imageWidth, int[] costHint) {
+        if (costHint == null || width <= 0 || height <= 0) {
+            return TileCalculator.calculateTiles(startX, startY, width, height, baseTileSize);
+        }
+        CellCosts costs = new CellCosts(startX, startY, width, height, imageWidth, costHint, minTileSize);
+        List<Tile> tiles = new ArrayList<>();
+        for (int y = 0; y < height; y += maxTileSize) {
+            for (int x = 0; x < width; x += maxTileSize) {
+                split(costs, x, y, maxTileSize, width, height, tiles);
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Делит блок со стороной {@code size} (смещение {@code x, y} от начала области) на четыре,
+     * пока он дороже тайла {@code baseTileSize} средней стоимости; листья, обрезанные по границе
+     * области, становятся тайлами.
+     */
+    private void split(CellCosts costs, int x, int y, int size, int width, int height, List<Tile> out) {
+        if (x >= width || y >= height) {
+            return;
+        }
+        int half = size / 2;
+        // sum > (total / area) * base^2 без деления: при равномерной стоимости тайл base не делится
+        long area = (long) width * height;
+        if (half >= minTileSize && costs.sum(x, y, size) * area > costs.total() * baseTileSize * baseTileSize) {
+            split(costs, x, y, half, width, height, out);
+            split(costs, x + half, y, half, width, height, out);
+            split(costs, x, y + half, half, width, height, out);
+            split(costs, x + half, y + half, half, width, height, out);
+            return;
+        }
+        out.add(new Tile(costs.startX + x, costs.startY + y, Math.min(size, width - x), Math.min(size, height - y)));
+    }
+
+    /** Стоимости ячеек {@code cell x cell} области с таблицей префиксных сумм. */
+    private static final class CellCosts {
+        final int startX;
+        final int startY;
+        private final int cell;
+        private final int columns;
+        private final int rows;
+        /** prefix[(r) * (columns + 1) + c] - сумма ячеек с номерами строк {@code < r} и столбцов {@code < c}. */
+        private final long[] prefix;
+
+        CellCosts(int startX, int startY, int width, int height, int imageWidth, int[] costHint, int cell) {
+            this.startX = startX;
+            this.startY = startY;
+            this.cell = cell;
+            this.columns = (width + cell - 1) / cell;
+            this.rows = (height + cell - 1) / cell;
+            long[] cells = new long[columns * rows];
+            for (int y = 0; y < height; y++) {
+                int rowOffset = (startY + y) * imageWidth + startX;
+                int cellRow = (y / cell) * columns;
+                for (int x = 0; x < width; x++) {
+                    cells[cellRow + x / cell] += costHint[rowOffset + x] + PIXEL_OVERHEAD;
+                }
+            }
+            this.prefix = new long[(columns + 1) * (rows + 1)];
+            for (int r = 0; r < rows; r++) {
+                long rowSum = 0;
+                for (int c = 0; c < columns; c++) {
+                    rowSum += cells[r * columns + c];
+                    prefix[(r + 1) * (columns + 1) + c + 1] = prefix[r * (columns + 1) + c + 1] + rowSum;
+                }
+            }
+        }
+
+        long total() {
+            return prefix[rows * (columns + 1) + columns];
+        }
+
+        /** Стоимость блока со стороной {@code size} пикселей (кратной ячейке), обрезанного по области. */
+        long sum(int x, int y, int size) {
+            int c0 = x / cell;
+            int r0 = y / cell;
+            int c1 = Math.min(columns, (x + size) / cell);
+            int r1 = Math.min(rows, (y + size) / cell);
+            int stride = columns + 1;
+            return prefix[r1 * stride + c1] - prefix[r0 * stride + c1] - prefix[r1 * stride + c0] + prefix[r0 * stride + c0];
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package render;
+
+/**
+ * Порядок по близости к точке фокуса (обычно к курсору мыши): первыми рендерятся тайлы,
+ * ближайшие к ней. Пока фокус не задан, порядок совпадает с удалением от центра изображения.
+ * <p>
+ * Фокус можно менять во время рендеринга; чтобы новый порядок применился к еще не взятым
+ * тайлам текущего кадра, нужно вызвать {@link FractalRenderer#reprioritizeTiles()}.
+ * </p>
+ */
+public final class CursorTileOrder implements TileOrder {
+
+    /** Фокус, упакованный в одно значение ({@code x << 32 | y}), или {@link #NO_FOCUS}. */
+    private volatile long focus = NO_FOCUS;
+    private static final long NO_FOCUS = Long.MIN_VALUE;
+
+    /**
+     * Задает точку фокуса.
+     * @param x Столбец пикселя изображения.
+     * @param y Строка пикселя изображения.
+     */
+    public void setFocus(int x, int y) {
+        focus = ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /** Сбрасывает фокус: тайлы упорядочиваются от центра изображения. */
+    public void clearFocus() {
+        focus = NO_FOCUS;
+    }
+
+    @Override
+    public double priority(Tile tile, int imageWidth, int imageHeight) {
+        long f = focus;
+        double fx = (f == NO_FOCUS) ? imageWidth / 2.0 : (int) (f >> 32);
+        double fy = (f == NO_FOCUS) ? imageHeight / 2.0 : (int) f;
+        double dx = tile.startX + tile.width / 2.0 - fx;
+        double dy = tile.startY + tile.height / 2.0 - fy;
+        return dx * dx + dy * dy;
+    }
+
+    @Override
+    public String getName() {
+        return "Cursor";
+    }
+}
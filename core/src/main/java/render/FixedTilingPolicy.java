@@ -0,0 +1,30 @@
+package render;
+
+import java.util.List;
+
+/**
+ * Разбиение на квадратные тайлы одного размера ({@link TileCalculator}); оценка стоимости не используется.
+ */
+public final class FixedTilingPolicy implements TilingPolicy {
+
+    private final int tileSize;
+
+    /**
+     * @param tileSize Размер стороны тайла в пикселях (> 0).
+     */
+    public FixedTilingPolicy(int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Размер тайла должен быть положительным: " + tileSize);
+        }
+        this.tileSize = tileSize;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    @Override
+    public List<Tile> createTiles(int startX, int startY, int width, int height, int imageWidth, int[] costHint) {
+        return TileCalculator.calculateTiles(startX, startY, width, height, tileSize);
+    }
+}
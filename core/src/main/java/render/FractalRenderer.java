@@ -1,21 +1,30 @@
 package render;
 
+import math.DoubleDoubleKernel;
 import math.FractalFunction;
+import math.ReferenceOrbit;
+import math.RowIterationKernel;
+import math.SeriesApproximation;
 import model.ColorScheme;
 import model.FractalState;
 import model.Viewport;
-import utils.ComplexNumber;
 import utils.Converter;
+import utils.CoordinateMapper;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Обеспечивает многопоточный рендеринг фрактала Мандельброта.
@@ -23,23 +32,34 @@ import java.util.function.Consumer;
  * Архитектура многопоточности в данной реализации:
  * 
  * 1. Принцип тайлинга (разделения на плитки):
- *    - Большое изображение разбивается на маленькие прямоугольные участки (тайлы) размером TILE_SIZE x TILE_SIZE пикселей
+ *    - Большое изображение разбивается на маленькие прямоугольные участки (тайлы); разбиение задает {@link TilingPolicy}
  *    - Каждый тайл обрабатывается отдельным потоком, что позволяет распараллелить вычисления (то есть мы одну большую проблему делим на множество маленьких проблем для одновременного вычисления)
- *    - TILE_SIZE (32x32) выбран как компромисс между эффективностью распараллеливания и накладными расходами на создание задач
- *      (слишком маленькие тайлы = больше накладных расходов, слишком большие = менее эффективное использование ядер)
+ *    - Размер тайла - компромисс между эффективностью распараллеливания и накладными расходами на создание задач
+ *      (слишком маленькие тайлы = больше накладных расходов, слишком большие = менее эффективное использование ядер).
+ *      По умолчанию ({@link AdaptiveTilingPolicy}) тайлы 32x32 делятся или объединяются по числу итераций
+ *      предыдущего кадра, чтобы каждый тайл стоил примерно одинаково
  * 
- * 2. Пул потоков (ExecutorService):
- *    - Создается фиксированный пул потоков с количеством, равным числу доступных процессоров
- *    - Фиксированный пул защищает от перегрузки системы, так как количество одновременно работающих потоков ограничено
- *    - Каждый тайл отправляется на обработку в пул как отдельная задача (Runnable)
+ * 2. Пул потоков ({@link RenderEngine}):
+ *    - FORK_JOIN (по умолчанию): ForkJoinPool с числом потоков, равным числу процессоров.
+ *      Работа (число тайлов) делится рекурсивно (RecursiveAction), свободные потоки крадут работу у занятых,
+ *      поэтому дорогие тайлы внутри множества не оставляют остальные ядра без дела.
+ *      Ожидание подзадач через join() не блокирует поток, а выполняет чужую работу
+ *    - FIXED_POOL: фиксированный пул, на каждый тайл в пул отправляется отдельная задача (Runnable),
+ *      координатор ждет их в дополнительном потоке пула
+ *    - В обоих случаях задача не привязана к конкретному тайлу: она берет из общей очереди
+ *      с приоритетами ({@link TileQueue}) самый важный из оставшихся тайлов по {@link TileOrder}
+ *      (по умолчанию спираль от центра), поэтому область, на которую смотрит пользователь, готова первой
+ *    - Количество одновременно работающих потоков ограничено, что защищает от перегрузки системы
  * 
  * 3. Атомарные ссылки и переменные:
  *    - AtomicReference<RenderTask> обеспечивает потокобезопасную замену текущей задачи рендеринга
  *    - AtomicInteger используется для подсчета завершенных тайлов без блокировок
  * 
- * 4. Локальные буферы для тайлов:
- *    - Каждый поток рендерит свой тайл в локальный буфер, минимизируя конфликты доступа к памяти
- *    - Только финальное копирование в общее изображение требует синхронизации
+ * 4. Прямая запись в растр изображения:
+ *    - Массив int[] (DataBufferInt) целевого изображения TYPE_INT_RGB получается один раз на задачу рендеринга
+ *    - Каждый поток пишет только в индексы своего тайла (y * width + x), диапазоны тайлов не пересекаются,
+ *      поэтому ни промежуточное изображение тайла, ни общая блокировка не нужны
+ *    - Видимость записанных пикселей для EDT обеспечивается через Future.get() и SwingUtilities.invokeLater
  * 
  * 5. Система отмены задач:
  *    - Механизм отмены текущего рендеринга при запуске нового
@@ -50,6 +70,21 @@ import java.util.function.Consumer;
  *    - onComplete - вызывается в EDT при успешном завершении рендеринга
  *    - onCancel - вызывается в EDT при отмене задачи
  *    - progressUpdater - вызывается после завершения каждого тайла для обновления UI
+ *    - onPreview (необязательный) - вызывается в EDT после каждого грубого прохода прогрессивного режима
+ *    - tileListener (необязательный, {@link TileListener}) - вызывается в рабочем потоке сразу после того,
+ *      как пиксели тайла записаны в изображение, для частичной перерисовки
+ *
+ * 7. Инкрементальное панорамирование:
+ *    - Если новый кадр - это последний готовый кадр, сдвинутый на целое число пикселей
+ *      (тот же масштаб, размер, функция и maxIterations, см. {@link IterationBuffer#translationTo}),
+ *      совпадающая часть итераций копируется со сдвигом, а тайлы строятся только
+ *      для открывшихся полос. Перетаскивание мышью стоит O(полосы), а не O(кадра)
+ *
+ * 8. Предпросмотр зума:
+ *    - Если задан onPreview и новый кадр - увеличенная (не более чем в MAX_RESAMPLE_ZOOM раз) часть
+ *      последнего готового кадра, задача сразу публикует его растянутый фрагмент, еще до создания ядра
+ *      (опорная орбита глубокого зума может считаться долго); тайлы затем записываются поверх.
+ *      Грубые проходы прогрессивного режима в этом случае не нужны
  *
  * ==== ЦВЕТОВАЯ СХЕМА ====
  * 
@@ -65,6 +100,8 @@ import java.util.function.Consumer;
  *    - Интерфейс ColorScheme определяет стратегию отображения итераций в цвет
  *    - Разные реализации (GrayscaleScheme, NonlinearRGBScheme) создают разные визуальные эффекты
  *    - Метод getColor(iterations, maxIterations) преобразует математические значения в RGB
+ *    - При рендеринге эти значения заранее собраны в таблицу getArgbLut(maxIterations),
+ *      кэшируемую по паре (схема, maxIterations)
  * 
  * 3. ОТРИСОВКА С ИСПОЛЬЗОВАНИЕМ ТАЙЛИНГА:
  *    - Изображение разбивается на тайлы для параллельной обработки
@@ -78,21 +115,303 @@ import java.util.function.Consumer;
  */
 public class FractalRenderer {
 
-    private static final int TILE_SIZE = 32; // Размер тайла в пикселях
+    /** Шаги сеток проходов предпросмотра прогрессивного режима (1/8, 1/4 и 1/2 разрешения). */
+    private static final int[] PREVIEW_STEPS = {8, 4, 2};
+    /**
+     * Наибольшее увеличение, при котором предпросмотр строится растяжением предыдущего кадра:
+     * при большем каждый старый пиксель занимает блок крупнее первого прохода 1/8.
+     */
+    private static final double MAX_RESAMPLE_ZOOM = 8.0;
+    /**
+     * Порог адаптивного деления для {@link RenderEngine#FORK_JOIN}: диапазон тайлов делится,
+     * пока у текущего потока в очереди не больше стольких задач сверх тех, что уже забрали другие.
+     */
+    private static final int SURPLUS_SPLIT_THRESHOLD = 3;
     private final ExecutorService executor;
+    private final RenderEngine engine;
     private final int numThreads;
     private final AtomicReference<RenderTask> currentRenderTask = new AtomicReference<>();
+    /** Итерации последнего успешно отрендеренного кадра (для перекраски без пересчета). */
+    private final AtomicReference<IterationBuffer> lastFrame = new AtomicReference<>();
+    /** Статистика последнего успешно завершенного кадра. */
+    private final AtomicReference<RenderStats> lastStats = new AtomicReference<>();
+    /** Стратегия обхода пикселей внутри тайла; применяется к кадрам, запущенным после установки. */
+    private volatile TileRenderStrategy tileStrategy = new ScanlineStrategy();
+    /** Порядок, в котором тайлы берутся в работу; применяется к кадрам, запущенным после установки. */
+    private volatile TileOrder tileOrder = new SpiralTileOrder();
+    /** Разбиение кадра на тайлы; применяется к кадрам, запущенным после установки. */
+    private volatile TilingPolicy tilingPolicy = new AdaptiveTilingPolicy();
+    /** Проверка периодичности орбит (досрочный выход для точек, сошедшихся к циклу). */
+    private volatile boolean periodicityCheckEnabled = true;
+    /** Векторное (SIMD) ядро для строк; по умолчанию включено, если JVM запущена с модулем Vector API. */
+    private volatile boolean vectorKernelEnabled = RowIterationKernel.isVectorApiAvailable();
+    /** Метод возмущений для глубокого зума (включается автоматически по размеру пикселя). */
+    private volatile boolean perturbationEnabled = true;
+    /** Приближение рядом для пропуска первых итераций на глубоком зуме. */
+    private volatile boolean seriesApproximationEnabled = true;
+    /** Арифметика double-double для кадров уровня {@link PrecisionTier#DOUBLE_DOUBLE}. */
+    private volatile boolean doubleDoubleEnabled = true;
+    /** Переиспользование сдвинутого предыдущего кадра при панорамировании. */
+    private volatile boolean incrementalPanEnabled = true;
 
+    /**
+     * Создает рендерер с планировщиком по умолчанию ({@link RenderEngine#FORK_JOIN}).
+     */
     public FractalRenderer() {
+        this(RenderEngine.FORK_JOIN);
+    }
+
+    /**
+     * Создает рендерер с заданным планировщиком тайлов.
+     * @param engine Способ планирования тайлов. Не может быть null.
+     */
+    public FractalRenderer(RenderEngine engine) {
+        this.engine = Objects.requireNonNull(engine, "RenderEngine не может быть null");
         this.numThreads = Runtime.getRuntime().availableProcessors();
-        // Используем кэширующий пул или фиксированный, как раньше? Фиксированный проще для управления.
-        this.executor = Executors.newFixedThreadPool(numThreads);
-        System.out.println("Renderer инициализирован с " + numThreads + " потоками.");
+        if (engine == RenderEngine.FORK_JOIN) {
+            this.executor = new ForkJoinPool(numThreads);
+        } else {
+            // +1 поток для координатора, который только ждет тайлы: иначе он занимает
+            // вычислительный поток, а при пуле из одного потока блокирует его навсегда
+            this.executor = Executors.newFixedThreadPool(numThreads + 1);
+        }
+        System.out.println("Renderer инициализирован с " + numThreads + " потоками (" + engine + ")"
+                + (vectorKernelEnabled ? ", векторное ядро доступно." : "."));
+    }
+
+    /**
+     * Возвращает текущую стратегию обхода пикселей внутри тайла.
+     * @return Стратегия ({@link ScanlineStrategy} по умолчанию).
+     */
+    public TileRenderStrategy getTileStrategy() {
+        return tileStrategy;
+    }
+
+    /**
+     * Устанавливает стратегию обхода пикселей внутри тайла (например, {@link MarianiSilverStrategy}).
+     * Действует на следующий вызов {@link #render}. Сохраненные итерации прошлого кадра
+     * сбрасываются, так как разные стратегии могут давать немного разные результаты.
+     *
+     * @param tileStrategy Новая стратегия. Не может быть null.
+     */
+    public void setTileStrategy(TileRenderStrategy tileStrategy) {
+        this.tileStrategy = Objects.requireNonNull(tileStrategy, "TileRenderStrategy не может быть null");
+        lastFrame.set(null);
+    }
+
+    /**
+     * Возвращает порядок, в котором тайлы кадра берутся в работу.
+     * @return Порядок ({@link SpiralTileOrder} по умолчанию).
+     */
+    public TileOrder getTileOrder() {
+        return tileOrder;
+    }
+
+    /**
+     * Устанавливает порядок тайлов (например, {@link CursorTileOrder} или {@link HilbertTileOrder}).
+     * Действует на следующий вызов {@link #render}; на результат не влияет.
+     *
+     * @param tileOrder Новый порядок. Не может быть null.
+     */
+    public void setTileOrder(TileOrder tileOrder) {
+        this.tileOrder = Objects.requireNonNull(tileOrder, "TileOrder не может быть null");
+    }
+
+    /**
+     * Возвращает политику разбиения кадра на тайлы.
+     * @return Политика ({@link AdaptiveTilingPolicy} по умолчанию).
+     */
+    public TilingPolicy getTilingPolicy() {
+        return tilingPolicy;
+    }
+
+    /**
+     * Устанавливает политику разбиения кадра на тайлы (например, {@link FixedTilingPolicy}).
+     * Действует на следующий вызов {@link #render}; на результат не влияет.
+     *
+     * @param tilingPolicy Новая политика. Не может быть null.
+     */
+    public void setTilingPolicy(TilingPolicy tilingPolicy) {
+        this.tilingPolicy = Objects.requireNonNull(tilingPolicy, "TilingPolicy не может быть null");
+    }
+
+    /**
+     * Доля готовых пикселей текущего кадра (по площади запланированных тайлов). Тайлы разного
+     * размера, поэтому прогресс по числу тайлов был бы неточным. Можно вызывать из любого потока,
+     * например, из {@code progressUpdater}.
+     *
+     * @return Значение от 0 до 1 (0, если кадра нет или тайлы еще не запланированы).
+     */
+    public double getProgress() {
+        RenderTask task = currentRenderTask.get();
+        return task != null ? task.progress() : 0.0;
+    }
+
+    /**
+     * Пересчитывает приоритеты еще не взятых тайлов текущего кадра, например,
+     * после того как {@link CursorTileOrder} получил новый фокус. Можно вызывать из любого потока.
+     */
+    public void reprioritizeTiles() {
+        RenderTask task = currentRenderTask.get();
+        if (task != null) {
+            task.reprioritize();
+        }
+    }
+
+    /**
+     * Возвращает, включена ли проверка периодичности орбит.
+     * @return {@code true}, если проверка включена (по умолчанию).
+     */
+    public boolean isPeriodicityCheckEnabled() {
+        return periodicityCheckEnabled;
+    }
+
+    /**
+     * Включает или отключает проверку периодичности орбит
+     * ({@link math.FractalFunction#calculateIterationsWithPeriod}). При включенной проверке
+     * точки, сошедшиеся к притягивающему циклу, не итерируются до maxIterations,
+     * а в {@link IterationBuffer} сохраняются периоды циклов.
+     * Действует на следующий вызов {@link #render}; сохраненные итерации прошлого кадра сбрасываются.
+     *
+     * @param enabled {@code true} - включить проверку.
+     */
+    public void setPeriodicityCheckEnabled(boolean enabled) {
+        this.periodicityCheckEnabled = enabled;
+        lastFrame.set(null);
+    }
+
+    /**
+     * Возвращает, включено ли векторное ядро.
+     * @return {@code true}, если для строк пикселей используется {@link RowIterationKernel#vectorized}.
+     */
+    public boolean isVectorKernelEnabled() {
+        return vectorKernelEnabled;
+    }
+
+    /**
+     * Включает или отключает векторное (SIMD) ядро итераций на {@code jdk.incubator.vector}.
+     * Ядро используется стратегиями, считающими пиксели строками ({@link ScanlineStrategy}),
+     * и дает те же числа итераций, что и скалярный путь. Если модуль не подключен
+     * (JVM запущена без {@code --add-modules jdk.incubator.vector}) или функция фрактала
+     * не поддерживается, рендерер автоматически использует скалярное ядро.
+     *
+     * @param enabled {@code true} - использовать векторное ядро, когда это возможно.
+     */
+    public void setVectorKernelEnabled(boolean enabled) {
+        if (enabled && !RowIterationKernel.isVectorApiAvailable()) {
+            System.out.println("Модуль jdk.incubator.vector не подключен: будет использоваться скалярное ядро.");
+        }
+        this.vectorKernelEnabled = enabled;
+    }
+
+    /**
+     * Возвращает, разрешен ли метод возмущений для глубокого зума.
+     * @return {@code true}, если глубокие кадры считаются через {@link ReferenceOrbit}.
+     */
+    public boolean isPerturbationEnabled() {
+        return perturbationEnabled;
+    }
+
+    /**
+     * Разрешает или запрещает метод возмущений. Когда он разрешен, кадры, у которых
+     * размер пикселя близок к точности double (ширина области порядка 1e-10 и меньше),
+     * считаются как отклонения от одной опорной орбиты высокой точности в центре кадра.
+     * Поддерживаются Мандельброт и Жюлиа; для остальных функций используется обычный путь.
+     *
+     * @param enabled {@code true} - использовать метод возмущений на глубоком зуме.
+     */
+    public void setPerturbationEnabled(boolean enabled) {
+        this.perturbationEnabled = enabled;
+        // Глубокие кадры в двух режимах дают разные итерации
+        lastFrame.set(null);
+    }
+
+    /**
+     * Возвращает, используется ли приближение рядом на глубоком зуме.
+     * @return {@code true}, если пиксели пропускают первые итерации по {@link SeriesApproximation}.
+     */
+    public boolean isSeriesApproximationEnabled() {
+        return seriesApproximationEnabled;
+    }
+
+    /**
+     * Включает или отключает приближение рядом (series approximation) для кадров, которые
+     * считаются методом возмущений. Коэффициенты ряда считаются один раз на кадр, и каждый
+     * пиксель начинает итерации сразу с шага, до которого ряд достаточно точен.
+     * Число пропущенных итераций сообщается в {@link #getLastStats()}.
+     *
+     * @param enabled {@code true} - пропускать начальные итерации, когда это возможно.
+     */
+    public void setSeriesApproximationEnabled(boolean enabled) {
+        this.seriesApproximationEnabled = enabled;
+        lastFrame.set(null);
+    }
+
+    /**
+     * Возвращает, используется ли арифметика double-double.
+     * @return {@code true}, если кадры уровня {@link PrecisionTier#DOUBLE_DOUBLE} считаются в double-double.
+     */
+    public boolean isDoubleDoubleEnabled() {
+        return doubleDoubleEnabled;
+    }
+
+    /**
+     * Включает или отключает арифметику double-double ({@link DoubleDoubleKernel}) для кадров
+     * с размером пикселя примерно от 1e-13 до 1e-28 от масштаба координат ({@link PrecisionTier}).
+     * С методом возмущений в double-double считается опорная орбита вместо {@link java.math.BigDecimal};
+     * без него - каждый пиксель (так глубокие кадры не распадаются на блоки, как в {@code double}).
+     *
+     * @param enabled {@code true} - использовать double-double, когда его точности достаточно.
+     */
+    public void setDoubleDoubleEnabled(boolean enabled) {
+        this.doubleDoubleEnabled = enabled;
+        lastFrame.set(null);
+    }
+
+    /**
+     * Возвращает, переиспользуются ли пиксели предыдущего кадра при панорамировании.
+     * @return {@code true}, если при сдвиге считаются только открывшиеся полосы.
+     */
+    public boolean isIncrementalPanEnabled() {
+        return incrementalPanEnabled;
+    }
+
+    /**
+     * Включает или отключает инкрементальное панорамирование: если кадр отличается от последнего
+     * готового только сдвигом на целое число пикселей, его пересекающаяся часть переносится
+     * из буфера итераций, а считаются только открывшиеся строки и столбцы.
+     *
+     * @param enabled {@code true} - переиспользовать сдвинутый кадр.
+     */
+    public void setIncrementalPanEnabled(boolean enabled) {
+        this.incrementalPanEnabled = enabled;
+    }
+
+    /**
+     * Возвращает статистику последнего успешно завершенного кадра
+     * (время, параметры глубокого зума, пропуск итераций приближением рядом).
+     * @return Статистика или {@code null}, если ни один кадр еще не завершен.
+     */
+    public RenderStats getLastStats() {
+        return lastStats.get();
+    }
+
+    /**
+     * Возвращает используемый планировщик тайлов.
+     * @return {@link RenderEngine} этого рендерера.
+     */
+    public RenderEngine getEngine() {
+        return engine;
     }
 
     /**
      * Асинхронно рендерит фрактал.
      * Отменяет предыдущую задачу перед запуском новой.
+     * <p>
+     * Если от предыдущего кадра отличается только цветовая схема (та же область,
+     * размер, функция и maxIterations), итерации не пересчитываются: кадр перекрашивается
+     * из сохраненного {@link IterationBuffer} за один проход.
+     * </p>
      *
      * @param state      Состояние фрактала для рендеринга.
      * @param width      Ширина целевого изображения.
@@ -103,6 +422,57 @@ public class FractalRenderer {
      */
     public void render(FractalState state, int width, int height,
                        Consumer<BufferedImage> onComplete, Runnable onCancel, Runnable progressUpdater) { // <-- Добавлен progressUpdater
+        render(state, width, height, onComplete, onCancel, progressUpdater, null);
+    }
+
+    /**
+     * Асинхронно рендерит фрактал в прогрессивном режиме: прежде чем считать полный кадр,
+     * рендерер публикует через {@code onPreview} приближения с разрешением 1/8, 1/4 и 1/2.
+     * Каждый проход считает только новые точки сетки (как чересстрочный PNG Adam7), а полный
+     * кадр переиспользует их все, поэтому первое изображение появляется примерно через 1/64
+     * времени кадра, а общее время почти не растет.
+     * <p>
+     * {@code onPreview} получает то же изображение, которое позже будет передано в {@code onComplete}:
+     * тайлы полного кадра записываются прямо в него поверх последнего предпросмотра.
+     * При перекраске без пересчета итераций проходы предпросмотра не выполняются.
+     * </p>
+     *
+     * @param state           Состояние фрактала для рендеринга.
+     * @param width           Ширина целевого изображения.
+     * @param height          Высота целевого изображения.
+     * @param onComplete      Колбэк при успешном завершении (вызывается в EDT).
+     * @param onCancel        Колбэк при отмене задачи (вызывается в EDT).
+     * @param progressUpdater Колбэк для обновления прогресса (вызывается после каждого тайла, можно из раб. потока).
+     * @param onPreview       Колбэк для промежуточных кадров (вызывается в EDT) или {@code null} - без предпросмотра.
+     */
+    public void render(FractalState state, int width, int height,
+                       Consumer<BufferedImage> onComplete, Runnable onCancel, Runnable progressUpdater,
+                       Consumer<BufferedImage> onPreview) {
+        render(state, width, height, onComplete, onCancel, progressUpdater, onPreview, null);
+    }
+
+    /**
+     * Асинхронно рендерит фрактал в прогрессивном режиме и сообщает о каждом готовом тайле.
+     * <p>
+     * {@code tileListener} вызывается в рабочем потоке сразу после записи пикселей тайла
+     * в изображение (то самое, что передается в {@code onPreview} и {@code onComplete}),
+     * поэтому экран можно обновлять по мере готовности тайлов, перерисовывая только их прямоугольники.
+     * Для пикселей, перенесенных из предыдущего кадра, и для перекраски тайловых событий нет:
+     * эти изображения целиком приходят в {@code onPreview} или {@code onComplete}.
+     * </p>
+     *
+     * @param state           Состояние фрактала для рендеринга.
+     * @param width           Ширина целевого изображения.
+     * @param height          Высота целевого изображения.
+     * @param onComplete      Колбэк при успешном завершении (вызывается в EDT).
+     * @param onCancel        Колбэк при отмене задачи (вызывается в EDT).
+     * @param progressUpdater Колбэк для обновления прогресса (вызывается после каждого тайла, можно из раб. потока).
+     * @param onPreview       Колбэк для промежуточных кадров (вызывается в EDT) или {@code null} - без предпросмотра.
+     * @param tileListener    Получатель готовых тайлов (вызывается из рабочих потоков) или {@code null}.
+     */
+    public void render(FractalState state, int width, int height,
+                       Consumer<BufferedImage> onComplete, Runnable onCancel, Runnable progressUpdater,
+                       Consumer<BufferedImage> onPreview, TileListener tileListener) {
         if (width <= 0 || height <= 0) {
             System.err.println("Некорректные размеры для рендеринга: " + width + "x" + height);
             SwingUtilities.invokeLater(() -> onComplete.accept(null)); // Уведомляем о неудаче в EDT
@@ -112,8 +482,24 @@ public class FractalRenderer {
         // Создаем изображение здесь, чтобы оно было доступно задаче
         BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
 
+        // Если изменилась только цветовая схема, перекрашиваем сохраненные итерации
+        IterationBuffer previous = lastFrame.get();
+        boolean recolourOnly = previous != null && previous.isCompatibleWith(state, width, height);
+        boolean periodicity = periodicityCheckEnabled;
+        IterationBuffer iterations = recolourOnly ? previous : new IterationBuffer(state, width, height, periodicity);
+        // Иначе, возможно, область только сдвинута: предыдущий кадр станет источником пикселей
+        IterationBuffer shiftSource = (!recolourOnly && incrementalPanEnabled) ? previous : null;
+        // ...или увеличена: тогда предыдущий кадр дает мгновенный растянутый предпросмотр
+        IterationBuffer zoomSource = (!recolourOnly && onPreview != null) ? previous : null;
+        // Итерации предыдущего кадра того же размера - оценка стоимости тайлов нового
+        IterationBuffer costSource = !recolourOnly ? previous : null;
+
         // Создаем новую задачу рендеринга
-        RenderTask newTask = new RenderTask(state, width, height, image, onComplete, onCancel, progressUpdater);
+        RenderTask newTask = new RenderTask(state, width, height, image, iterations, recolourOnly, shiftSource,
+                                            zoomSource, costSource, lastFrame, lastStats,
+                                            tileStrategy, tileOrder, tilingPolicy, periodicity, vectorKernelEnabled, perturbationEnabled,
+                                            seriesApproximationEnabled, doubleDoubleEnabled,
+                                            onComplete, onCancel, progressUpdater, onPreview, tileListener);
 
         // Получаем и отменяем предыдущую задачу атомарно
         RenderTask oldTask = currentRenderTask.getAndSet(newTask);
@@ -123,7 +509,11 @@ public class FractalRenderer {
         }
 
         // Запускаем новую задачу
-        newTask.startRendering(executor);
+        if (engine == RenderEngine.FORK_JOIN) {
+            newTask.startRenderingForkJoin((ForkJoinPool) executor);
+        } else {
+            newTask.startRendering(executor);
+        }
     }
 
     public void shutdown() {
@@ -184,21 +574,175 @@ public class FractalRenderer {
         private final int width;
         private final int height;
         private final BufferedImage image;
+        /** Массив пикселей растра {@link #image} (TYPE_INT_RGB), в который тайлы пишут напрямую. */
+        private final int[] pixels;
+        /** Таблицы координат пикселей, общие для всех тайлов этой задачи. */
+        private final CoordinateMapper mapper;
+        /** Буфер итераций кадра: заполняется тайлами или, при перекраске, только читается. */
+        private final IterationBuffer iterationBuffer;
+        /** {@code true}, если итерации уже посчитаны и нужно только применить новую цветовую схему. */
+        private final boolean recolourOnly;
+        /** Предыдущий кадр, сдвигом которого является этот, или {@code null}. */
+        private final IterationBuffer shiftSource;
+        /** Сдвиг относительно {@link #shiftSource}: пиксель (x, y) берется из (x + dx, y + dy). */
+        private final Point shift;
+        /** Предыдущий кадр, растянутый фрагмент которого служит предпросмотром, или {@code null}. */
+        private final IterationBuffer zoomSource;
+        /** Ссылка рендерера на последний готовый кадр; обновляется после успешного рендеринга. */
+        private final AtomicReference<IterationBuffer> lastFrame;
+        /** Ссылка рендерера на статистику последнего кадра; обновляется вместе с {@link #lastFrame}. */
+        private final AtomicReference<RenderStats> lastStats;
+        /** Стратегия обхода пикселей тайла для этого кадра. */
+        private final TileRenderStrategy strategy;
+        /** Предыдущий кадр того же размера, итерации которого оценивают стоимость тайлов, или {@code null}. */
+        private final IterationBuffer costSource;
+        /** Порядок тайлов этого кадра. */
+        private final TileOrder tileOrder;
+        /** Разбиение этого кадра на тайлы. */
+        private final TilingPolicy tilingPolicy;
+        /** Очередь еще не взятых тайлов; создается в {@link #planTiles(boolean)}. */
+        private volatile TileQueue tileQueue;
+        /** Площадь запланированных тайлов кадра (0 до планирования). */
+        private volatile long plannedArea;
+        /** Площадь готовых тайлов кадра. */
+        private final AtomicLong completedArea = new AtomicLong();
+        /** Проверка периодичности для этого кадра. */
+        private final boolean periodicity;
+        /** Разрешено ли векторное ядро для этого кадра. */
+        private final boolean vectorKernel;
+        /** Разрешен ли метод возмущений для этого кадра. */
+        private final boolean perturbation;
+        /** Разрешено ли приближение рядом для этого кадра. */
+        private final boolean seriesApproximation;
+        /** Разрешена ли арифметика double-double для этого кадра. */
+        private final boolean doubleDouble;
+        /** Опорная орбита кадра глубокого зума или {@code null}. */
+        private ReferenceOrbit orbit;
+        /** Приближение рядом для кадра глубокого зума или {@code null}. */
+        private SeriesApproximation series;
+        /**
+         * Вычислитель итераций пикселя для этого кадра. Создается в задаче кадра до запуска тайлов
+         * (опорная орбита глубокого зума может считаться заметное время), тайлы только читают его.
+         */
+        private PixelKernel kernel;
         private final Consumer<BufferedImage> onComplete;
         private final Runnable onCancel;
         private final Runnable progressUpdater; // <-- Добавлен колбэк прогресса
+        /** Колбэк промежуточных кадров прогрессивного режима или {@code null}. */
+        private final Consumer<BufferedImage> onPreview;
+        /** Получатель готовых тайлов или {@code null}. */
+        private final TileListener tileListener;
         private volatile boolean cancelled = false;
         private final List<Future<?>> futures = new ArrayList<>(); // Для возможности отмены отдельных тайлов
 
         RenderTask(FractalState state, int width, int height, BufferedImage image,
-                   Consumer<BufferedImage> onComplete, Runnable onCancel, Runnable progressUpdater) {
+                   IterationBuffer iterationBuffer, boolean recolourOnly, IterationBuffer previousFrame,
+                   IterationBuffer zoomSource, IterationBuffer costSource, AtomicReference<IterationBuffer> lastFrame,
+                   AtomicReference<RenderStats> lastStats,
+                   TileRenderStrategy strategy, TileOrder tileOrder, TilingPolicy tilingPolicy, boolean periodicity, boolean vectorKernel, boolean perturbation,
+                   boolean seriesApproximation, boolean doubleDouble,
+                   Consumer<BufferedImage> onComplete, Runnable onCancel, Runnable progressUpdater,
+                   Consumer<BufferedImage> onPreview, TileListener tileListener) {
             this.state = state;
             this.width = width;
             this.height = height;
             this.image = image;
+            // Получаем массив растра один раз: дальше потоки пишут в него без setRGB и без блокировок
+            this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            // Отображение пикселей на комплексную плоскость считаем один раз на весь кадр
+            this.mapper = new CoordinateMapper(state.getViewport(), width, height);
+            this.iterationBuffer = iterationBuffer;
+            this.recolourOnly = recolourOnly;
+            this.shift = previousFrame != null ? previousFrame.translationTo(state, mapper, periodicity) : null;
+            this.shiftSource = shift != null ? previousFrame : null;
+            this.zoomSource = (shift == null && canResample(zoomSource)) ? zoomSource : null;
+            this.costSource = (costSource != null && costSource.getWidth() == width
+                    && costSource.getHeight() == height) ? costSource : null;
+            this.lastFrame = lastFrame;
+            this.lastStats = lastStats;
+            this.strategy = strategy;
+            this.tileOrder = tileOrder;
+            this.tilingPolicy = tilingPolicy;
+            this.periodicity = periodicity;
+            this.vectorKernel = vectorKernel;
+            this.perturbation = perturbation;
+            this.seriesApproximation = seriesApproximation;
+            this.doubleDouble = doubleDouble;
             this.onComplete = onComplete;
             this.onCancel = onCancel;
             this.progressUpdater = progressUpdater; // <-- Сохраняем колбэк
+            this.onPreview = onPreview;
+            this.tileListener = tileListener;
+        }
+
+        /**
+         * Создает ядро итераций кадра по уровню точности ({@link PrecisionTier}): для глубокого зума -
+         * метод возмущений или, если он запрещен, double-double для каждого пикселя; иначе скалярное
+         * (с проверкой периодичности или без) и, если возможно, векторное для строк пикселей.
+         * Вызывается в потоке пула до запуска тайлов.
+         */
+        private PixelKernel createKernel() {
+            FractalFunction function = state.getFractalFunction();
+            int maxIterations = state.getMaxIterations();
+            int[] periods = iterationBuffer.getPeriods();
+            PrecisionTier tier = PrecisionTier.of(mapper);
+            if (tier != PrecisionTier.DOUBLE) {
+                if (perturbation && ReferenceOrbit.supports(function)) {
+                    return createPerturbationKernel(function, maxIterations, tier);
+                }
+                if (doubleDouble && DoubleDoubleKernel.supports(function)) {
+                    System.out.println("Глубокий зум без метода возмущений: double-double для каждого пикселя"
+                            + (tier == PrecisionTier.ARBITRARY ? " (точности может не хватить)" : ""));
+                    DoubleDoubleKernel dd = DoubleDoubleKernel.create(function, mapper.getCenterRe(), mapper.getCenterIm());
+                    return PixelKernel.doubleDouble(dd, mapper, maxIterations);
+                }
+            }
+            PixelKernel scalar = periodicity
+                    ? PixelKernel.withPeriodicity(function, mapper, maxIterations, periods)
+                    : PixelKernel.of(function, mapper, maxIterations);
+            if (!vectorKernel || recolourOnly) {
+                return scalar;
+            }
+            double tolerance = periodicity ? PixelKernel.periodicityTolerance(mapper) : -1.0;
+            RowIterationKernel rows = RowIterationKernel.vectorized(function, maxIterations, tolerance);
+            // null - модуль недоступен или функция не поддерживается: остаемся на скалярном ядре
+            return rows != null ? PixelKernel.withRowKernel(scalar, rows, mapper, periods) : scalar;
+        }
+
+        /**
+         * Считает опорную орбиту в центре кадра (в double-double, если его точности достаточно,
+         * иначе в {@link java.math.BigDecimal}) и, если разрешено, коэффициенты приближения рядом
+         * (пробы - углы и середины сторон кадра). Возвращает ядро метода возмущений.
+         */
+        private PixelKernel createPerturbationKernel(FractalFunction function, int maxIterations, PrecisionTier tier) {
+            long start = System.currentTimeMillis();
+            if (doubleDouble && tier == PrecisionTier.DOUBLE_DOUBLE) {
+                orbit = ReferenceOrbit.computeDoubleDouble(function, mapper.getCenterRe(), mapper.getCenterIm(),
+                                                           maxIterations);
+            } else {
+                double spacing = Math.min(mapper.getPixelSpacingX(), mapper.getPixelSpacingY());
+                int digits = ReferenceOrbit.requiredDigits(PrecisionTier.centreMagnitude(mapper), spacing);
+                orbit = ReferenceOrbit.compute(function, mapper.getCenterRe(), mapper.getCenterIm(),
+                                               maxIterations, digits);
+            }
+            System.out.printf("Глубокий зум: опорная орбита %d точек (%d знаков%s%s) за %d мс%n",
+                    orbit.getLength(), orbit.getPrecisionDigits(),
+                    tier == PrecisionTier.DOUBLE_DOUBLE && doubleDouble ? ", double-double" : "",
+                    orbit.isEscaped() ? ", опорная точка убежала" : "",
+                    System.currentTimeMillis() - start);
+            if (!seriesApproximation) {
+                return PixelKernel.perturbation(orbit, mapper, maxIterations);
+            }
+            double left = mapper.deltaRe(0);
+            double right = mapper.deltaRe(width - 1);
+            double top = mapper.deltaIm(0);
+            double bottom = mapper.deltaIm(height - 1);
+            double[] probeRe = {left, right, left, right, 0.0, 0.0, left, right};
+            double[] probeIm = {top, top, bottom, bottom, top, bottom, 0.0, 0.0};
+            series = SeriesApproximation.compute(orbit, probeRe, probeIm, maxIterations);
+            System.out.printf("Приближение рядом: пропуск %d из %d итераций%n",
+                    series.getSkippedIterations(), maxIterations);
+            return PixelKernel.seriesApproximation(series, mapper, maxIterations);
         }
 
         /**
@@ -221,40 +765,232 @@ public class FractalRenderer {
         }
 
         /**
-         * Запускает рендеринг тайлов в пуле потоков.
+         * Строит тайлы кадра и очередь к ним. Вызывается в задаче кадра после переноса пикселей
+         * предыдущего кадра и проходов предпросмотра: их итерации - лучшая оценка стоимости тайлов.
+         *
+         * @param estimated {@code true}, если буфер кадра уже содержит предпросмотр (растянутый
+         *                  предыдущий кадр или точки сеток), иначе оценкой служит предыдущий кадр того же размера.
+         * @return Тайлы кадра.
+         */
+        private List<Tile> planTiles(boolean estimated) {
+            List<Tile> tiles;
+            if (shift != null) {
+                tiles = exposedTiles();
+            } else {
+                int[] costHint = estimated ? iterationBuffer.getIterations()
+                        : costSource != null ? costSource.getIterations() : null;
+                tiles = tilingPolicy.createTiles(width, height, costHint);
+            }
+            long area = 0;
+            for (Tile tile : tiles) {
+                area += (long) tile.getWidth() * tile.getHeight();
+            }
+            tileQueue = new TileQueue(tiles, tileOrder, width, height);
+            plannedArea = area;
+            return tiles;
+        }
+
+        /** Доля готовой площади запланированных тайлов (см. {@link FractalRenderer#getProgress()}). */
+        double progress() {
+            if (recolourOnly) {
+                return 1.0; // Перекраска не состоит из тайлов
+            }
+            long planned = plannedArea;
+            return planned > 0 ? Math.min(1.0, (double) completedArea.get() / planned) : 0.0;
+        }
+
+        /** Пересчитывает приоритеты оставшихся тайлов кадра (см. {@link FractalRenderer#reprioritizeTiles()}). */
+        void reprioritize() {
+            TileQueue queue = tileQueue;
+            if (queue != null && !cancelled) {
+                queue.reorder();
+            }
+        }
+
+        /**
+         * Берет следующий тайл из очереди и рендерит его.
+         * @return {@code false}, если очередь пуста.
+         */
+        private boolean renderNextTile(int[] lut) {
+            Tile tile = tileQueue.poll();
+            if (tile == null) {
+                return false;
+            }
+            renderTile(tile, lut, iterationBuffer.getIterations());
+            return true;
+        }
+
+        /**
+         * Завершает успешно отрендеренный кадр: сохраняет итерации и вызывает onComplete в EDT.
+         * @param startTime Время начала рендеринга (мс).
+         * @param tileCount Количество отрендеренных тайлов (для лога).
+         */
+        private void publishFrame(long startTime, int tileCount) {
+            if (cancelled) return;
+            long endTime = System.currentTimeMillis();
+            RenderStats stats = orbit == null
+                    ? new RenderStats(endTime - startTime, state.getMaxIterations())
+                    : new RenderStats(endTime - startTime, state.getMaxIterations(), true, orbit.getLength(),
+                                      orbit.getPrecisionDigits(),
+                                      series != null ? series.getSkippedIterations() : 0, orbit.getRebaseCount());
+            System.out.printf("Рендеринг завершен за %s (%d тайлов)%n", stats.getSummary(), tileCount);
+            // Кадр полный: его итерации можно перекрашивать при смене цветовой схемы
+            lastFrame.set(iterationBuffer);
+            lastStats.set(stats);
+            SwingUtilities.invokeLater(() -> {
+                // Финальная проверка на отмену перед вызовом onComplete
+                if (!cancelled) {
+                    onComplete.accept(image);
+                } else {
+                    System.out.println("Финальный onComplete пропущен из-за отмены.");
+                }
+            });
+        }
+
+        /**
+         * Запускает рендеринг тайлов в ForkJoinPool ({@link RenderEngine#FORK_JOIN}).
+         * Корневая задача рекурсивно делит работу над тайлами ({@link TileRangeAction}) и после
+         * завершения всех подзадач публикует кадр. Ни один поток пула не простаивает в ожидании.
+         * @param pool Пул для выполнения задач.
+         */
+        void startRenderingForkJoin(ForkJoinPool pool) {
+            if (recolourOnly) {
+                startRecolouring(pool);
+                return;
+            }
+            // Заполняем фон серым (быстрее, чем рендерить все пиксели)
+            Arrays.fill(pixels, Color.DARK_GRAY.getRGB()); // Цвет фона во время рендеринга
+
+            AtomicInteger completedTiles = new AtomicInteger(0);
+            Future<?> frameFuture = pool.submit(() -> {
+                long startTime = System.currentTimeMillis();
+                try {
+                    int[] lut = state.getColorScheme().getArgbLut(state.getMaxIterations());
+                    // Пиксели предыдущего кадра переносятся до создания ядра: оно может считаться долго
+                    boolean reused = reusePreviousFrame(lut);
+                    kernel = createKernel();
+                    boolean previewed = !reused && onPreview != null;
+                    if (previewed) {
+                        renderPreviewPasses(pool, lut);
+                    }
+                    List<Tile> tiles = planTiles(reused || previewed);
+                    // invoke() выполняет корневой диапазон в текущем потоке пула; join() подзадач помогает их выполнять
+                    new TileRangeAction(0, tiles.size(), lut, completedTiles).invoke();
+                    publishFrame(startTime, completedTiles.get());
+                } catch (CancellationException e) {
+                    System.out.println("Основная задача рендеринга отменена.");
+                } catch (Exception e) {
+                    System.err.println("Ошибка в основной задаче рендеринга: " + e.getMessage());
+                    e.printStackTrace();
+                    if (!cancelled) {
+                        cancel();
+                    }
+                }
+            });
+            synchronized (futures) {
+                if (!cancelled) futures.add(frameFuture);
+            }
+        }
+
+        /**
+         * Рекурсивная задача над диапазоном {@code [from, to)} номеров тайлов: выполнить
+         * {@code to - from} тайлов, каждый раз беря из {@link TileQueue} самый приоритетный.
+         * <p>
+         * Пока у текущего потока мало лишних задач в очереди
+         * ({@link ForkJoinTask#getSurplusQueuedTaskCount()}), правая половина диапазона
+         * отдается в очередь для кражи. Поэтому дробление идет только там, где есть
+         * простаивающие потоки, а дорогие участки (внутренность множества) автоматически
+         * распределяются между всеми ядрами.
+         * </p><p>
+         * Отмена: {@link ForkJoinTask#cancel(boolean)} не прерывает уже выполняющиеся задачи,
+         * поэтому каждая задача проверяет флаг {@code cancelled} перед каждым тайлом,
+         * а стратегия тайла - во время обхода.
+         * </p>
+         */
+        private final class TileRangeAction extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+            private final int[] lut;
+            private final AtomicInteger completedTiles;
+
+            TileRangeAction(int from, int to, int[] lut, AtomicInteger completedTiles) {
+                this.from = from;
+                this.to = to;
+                this.lut = lut;
+                this.completedTiles = completedTiles;
+            }
+
+            @Override
+            protected void compute() {
+                int lo = from;
+                int hi = to;
+                List<TileRangeAction> forked = new ArrayList<>();
+                // Адаптивное деление: отдаем правую половину, пока очередь потока почти пуста
+                while (hi - lo > 1 && getSurplusQueuedTaskCount() <= SURPLUS_SPLIT_THRESHOLD) {
+                    int mid = (lo + hi) >>> 1;
+                    TileRangeAction right = new TileRangeAction(mid, hi, lut, completedTiles);
+                    right.fork();
+                    forked.add(right);
+                    hi = mid;
+                }
+                for (int i = lo; i < hi; i++) {
+                    if (cancelled) return;
+                    if (!renderNextTile(lut)) return;
+                    if (!cancelled) {
+                        progressUpdater.run();
+                    }
+                    completedTiles.incrementAndGet();
+                }
+                // Ждем отданные половины в обратном порядке: незакраденные выполнятся здесь же
+                for (int i = forked.size() - 1; i >= 0; i--) {
+                    if (cancelled) return;
+                    forked.get(i).join();
+                }
+            }
+        }
+
+        /**
+         * Запускает рендеринг тайлов в пуле потоков ({@link RenderEngine#FIXED_POOL}).
          * @param executor Пул потоков для выполнения задач.
          */
         void startRendering(ExecutorService executor) {
-            List<Tile> tiles = TileCalculator.calculateTiles(width, height, TILE_SIZE);
-            if (tiles.isEmpty()) {
-                System.err.println("Нет тайлов для рендеринга (некорректные размеры?).");
-                SwingUtilities.invokeLater(() -> onComplete.accept(image)); // Завершаем с пустым изображением
+            if (recolourOnly) {
+                startRecolouring(executor);
                 return;
             }
-
             // Заполняем фон серым (быстрее, чем рендерить все пиксели)
-            Graphics2D g = image.createGraphics();
-            g.setColor(Color.DARK_GRAY); // Цвет фона во время рендеринга
-            g.fillRect(0, 0, width, height);
-            g.dispose();
+            Arrays.fill(pixels, Color.DARK_GRAY.getRGB()); // Цвет фона во время рендеринга
 
             AtomicInteger completedTiles = new AtomicInteger(0); // Счетчик завершенных тайлов
 
             // Создаем главную задачу, которая запускает рендеринг тайлов
             Future<?> mainRenderFuture = executor.submit(() -> {
                 long startTime = System.currentTimeMillis();
-                List<Future<?>> tileFutures = new ArrayList<>(tiles.size()); // Локальный список для этой задачи
+                List<Future<?>> tileFutures = new ArrayList<>(); // Локальный список для этой задачи
 
                 try {
-                    // Отправляем все задачи на рендеринг тайлов
-                    for (Tile tile : tiles) {
+                    // Таблица цветов берется из кэша (или компилируется) один раз на кадр, вне EDT
+                    int[] lut = state.getColorScheme().getArgbLut(state.getMaxIterations());
+                    boolean reused = reusePreviousFrame(lut);
+                    // Ядро создается до отправки тайлов: submit() публикует его рабочим потокам
+                    kernel = createKernel();
+                    boolean previewed = !reused && onPreview != null;
+                    if (previewed) {
+                        renderPreviewPasses(executor, lut);
+                    }
+                    List<Tile> tiles = planTiles(reused || previewed);
+
+                    // Отправляем по задаче на каждый тайл; какой тайл она посчитает, решает очередь
+                    for (int i = 0; i < tiles.size(); i++) {
                         if (cancelled) throw new CancellationException("Задача отменена перед рендерингом тайла");
 
                         Future<?> future = executor.submit(() -> {
                             if (Thread.currentThread().isInterrupted() || cancelled) {
                                 return; // Не рендерим, если отменили или прервали
                             }
-                            renderTile(tile, state, width, height, image);
+                            renderNextTile(lut);
                         });
                         tileFutures.add(future);
                         // Добавляем в общий список для внешней отмены (на всякий случай, если cancel() вызовется во время этого цикла)
@@ -295,18 +1031,7 @@ public class FractalRenderer {
                     }
 
                     // Если дошли сюда и не было отмены - рендеринг успешен
-                    if (!cancelled) {
-                        long endTime = System.currentTimeMillis();
-                        System.out.printf("Рендеринг завершен за %d мс (%d тайлов)%n", (endTime - startTime), completedTiles.get());
-                        SwingUtilities.invokeLater(() -> {
-                            // Финальная проверка на отмену перед вызовом onComplete
-                            if (!cancelled) {
-                                onComplete.accept(image);
-                            } else {
-                                System.out.println("Финальный onComplete пропущен из-за отмены.");
-                            }
-                        });
-                    }
+                    publishFrame(startTime, completedTiles.get());
 
                 } catch (CancellationException e){
                     // Эта ветка ловит отмену, инициированную изнутри цикла или извне
@@ -334,8 +1059,296 @@ public class FractalRenderer {
         }
 
         /**
-         * Рендерит тайл в локальный буфер, а затем копирует в целевое изображение.
-         * Этот метод оптимизирован для снижения конфликтов по памяти и кэшу между потоками.
+         * Выполняет проходы предпросмотра прогрессивного режима ({@link #PREVIEW_STEPS}).
+         * Проход с шагом {@code s} считает точки, обе координаты которых кратны {@code s}, кроме уже
+         * посчитанных предыдущим проходом, затем закрашивает каждым образцом его блок {@code s x s}
+         * и публикует изображение. После проходов ядро кадра заменяется на
+         * {@link PixelKernel#reusingSamples}, чтобы тайлы не пересчитывали точки сетки.
+         *
+         * @param executor Пул кадра (строки сетки считаются параллельно).
+         * @param lut      Таблица цветов кадра.
+         * @throws CancellationException если кадр отменен во время проходов.
+         */
+        private void renderPreviewPasses(ExecutorService executor, int[] lut) throws Exception {
+            int[] iterations = iterationBuffer.getIterations();
+            for (int p = 0; p < PREVIEW_STEPS.length; p++) {
+                long passStart = System.currentTimeMillis();
+                int step = PREVIEW_STEPS[p];
+                int previous = (p == 0) ? 0 : PREVIEW_STEPS[p - 1];
+                int rows = (height + step - 1) / step;
+                parallelFor(executor, rows, row -> {
+                    int y = row * step;
+                    int rowOffset = y * width;
+                    // В строке предыдущей сетки ее точки (с шагом previous) уже посчитаны
+                    boolean previousRow = previous > 0 && y % previous == 0;
+                    for (int x = 0; x < width; x += step) {
+                        if (previousRow && x % previous == 0) continue;
+                        iterations[rowOffset + x] = kernel.iterate(x, y);
+                    }
+                });
+                if (cancelled) throw new CancellationException("Задача отменена во время предпросмотра");
+                fillPreview(step, lut);
+                System.out.printf("Предпросмотр 1/%d за %d мс%n", step, System.currentTimeMillis() - passStart);
+                publishPreview();
+            }
+            kernel = PixelKernel.reusingSamples(kernel, iterations, width, PREVIEW_STEPS[PREVIEW_STEPS.length - 1]);
+        }
+
+        /** Передает текущее состояние изображения в {@code onPreview} (в EDT), если кадр еще не отменен. */
+        private void publishPreview() {
+            SwingUtilities.invokeLater(() -> {
+                if (!cancelled) {
+                    onPreview.accept(image);
+                }
+            });
+        }
+
+        /**
+         * Тайлы открывшихся при сдвиге полос: строки, которых не было в предыдущем кадре
+         * (на всю ширину), и столбцы, которых не было, в оставшихся строках.
+         * Оценки стоимости для полос нет: их пиксели предыдущий кадр не содержит.
+         */
+        private List<Tile> exposedTiles() {
+            int keptTop = Math.max(0, -shift.y);
+            int keptBottom = Math.min(height, height - shift.y);
+            int keptLeft = Math.max(0, -shift.x);
+            int keptRight = Math.min(width, width - shift.x);
+            List<Tile> tiles = new ArrayList<>();
+            tiles.addAll(tilingPolicy.createTiles(0, 0, width, keptTop, width, null));
+            tiles.addAll(tilingPolicy.createTiles(0, keptBottom, width, height - keptBottom, width, null));
+            tiles.addAll(tilingPolicy.createTiles(0, keptTop, keptLeft, keptBottom - keptTop, width, null));
+            tiles.addAll(tilingPolicy.createTiles(keptRight, keptTop, width - keptRight, keptBottom - keptTop, width, null));
+            return tiles;
+        }
+
+        /**
+         * Переносит в кадр пиксели предыдущего: точно при сдвиге ({@link #copyShiftedFrame})
+         * или растянутым предпросмотром при зуме ({@link #resamplePreviousFrame}).
+         * @return {@code true}, если изображение уже содержит предпросмотр.
+         */
+        private boolean reusePreviousFrame(int[] lut) {
+            if (shift != null) {
+                copyShiftedFrame(lut);
+                return true;
+            }
+            if (zoomSource != null) {
+                resamplePreviousFrame(lut);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Проверяет, подходит ли предыдущий кадр для предпросмотра зума: та же функция,
+         * новый кадр не крупнее старого и увеличен не более чем в {@link #MAX_RESAMPLE_ZOOM} раз.
+         */
+        private boolean canResample(IterationBuffer source) {
+            if (source == null || !Objects.equals(source.getFractalFunction(), state.getFractalFunction())) {
+                return false;
+            }
+            double[] sourceStep = Converter.pixelStep(source.getWidth(), source.getHeight(), source.getViewport());
+            double ratioX = mapper.getPixelSpacingX() / sourceStep[0];
+            double ratioY = mapper.getPixelSpacingY() / sourceStep[1];
+            // Небольшой запас на округление: кадр того же масштаба со сдвигом на долю пикселя тоже подходит
+            return ratioX >= 1.0 / MAX_RESAMPLE_ZOOM && ratioX <= 1.0 + 1e-9
+                    && ratioY >= 1.0 / MAX_RESAMPLE_ZOOM && ratioY <= 1.0 + 1e-9;
+        }
+
+        /**
+         * Заполняет кадр ближайшими пикселями {@link #zoomSource} (растянутый фрагмент предыдущего кадра),
+         * окрашивает их и публикует изображение через {@code onPreview}. Итерации предпросмотра записываются
+         * в буфер кадра и затем перезаписываются тайлами; пиксели вне старого кадра остаются фоном.
+         * Смещение центров считается точно, поэтому предпросмотр работает и на глубоком зуме.
+         */
+        private void resamplePreviousFrame(int[] lut) {
+            int sourceWidth = zoomSource.getWidth();
+            int sourceHeight = zoomSource.getHeight();
+            double[] sourceStep = Converter.pixelStep(sourceWidth, sourceHeight, zoomSource.getViewport());
+            Viewport sourceViewport = zoomSource.getViewport();
+            // Положение центра нового кадра в пикселях старого
+            double centreX = (sourceWidth - 1) / 2.0
+                    + mapper.getCenterRe().subtract(sourceViewport.getCenterX()).doubleValue() / sourceStep[0];
+            double centreY = (sourceHeight - 1) / 2.0
+                    - mapper.getCenterIm().subtract(sourceViewport.getCenterY()).doubleValue() / sourceStep[1];
+            int[] columns = nearestSourcePixels(width, centreX, mapper.getPixelSpacingX() / sourceStep[0], sourceWidth);
+            int[] rows = nearestSourcePixels(height, centreY, mapper.getPixelSpacingY() / sourceStep[1], sourceHeight);
+
+            int[] sourceIterations = zoomSource.getIterations();
+            int[] sourcePeriods = zoomSource.getPeriods();
+            int[] targetIterations = iterationBuffer.getIterations();
+            int[] targetPeriods = iterationBuffer.getPeriods();
+            int sourceMax = zoomSource.getMaxIterations();
+            int maxIterations = state.getMaxIterations();
+            for (int y = 0; y < height; y++) {
+                if (rows[y] < 0) continue;
+                int sourceRow = rows[y] * sourceWidth;
+                int rowOffset = y * width;
+                int first = -1;
+                int last = -1;
+                for (int x = 0; x < width; x++) {
+                    if (columns[x] < 0) continue;
+                    int iterations = sourceIterations[sourceRow + columns[x]];
+                    // Внутренние точки остаются внутренними при новом maxIterations
+                    targetIterations[rowOffset + x] = (iterations >= sourceMax) ? maxIterations : Math.min(iterations, maxIterations);
+                    if (targetPeriods != null) {
+                        targetPeriods[rowOffset + x] = sourcePeriods != null ? sourcePeriods[sourceRow + columns[x]] : 0;
+                    }
+                    if (first < 0) first = x;
+                    last = x;
+                }
+                // Покрытые столбцы идут подряд: отображение монотонно
+                if (first >= 0) {
+                    colourSpan(rowOffset + first, rowOffset + last + 1, lut);
+                }
+            }
+            System.out.printf("Предпросмотр зума из предыдущего кадра (увеличение %.2f)%n",
+                    sourceStep[0] / mapper.getPixelSpacingX());
+            publishPreview();
+        }
+
+        /**
+         * Для каждого пикселя оси нового кадра находит ближайший пиксель старого.
+         *
+         * @param size       Число пикселей нового кадра по оси.
+         * @param centre     Положение центра нового кадра в пикселях старого.
+         * @param ratio      Отношение шага нового кадра к шагу старого.
+         * @param sourceSize Число пикселей старого кадра по оси.
+         * @return Номера пикселей старого кадра или -1 для пикселей вне него.
+         */
+        private int[] nearestSourcePixels(int size, double centre, double ratio, int sourceSize) {
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                long source = Math.round(centre + (i - (size - 1) / 2.0) * ratio);
+                result[i] = (source >= 0 && source < sourceSize) ? (int) source : -1;
+            }
+            return result;
+        }
+
+        /**
+         * Переносит из {@link #shiftSource} итерации (и периоды) пикселей, видимых в обоих кадрах,
+         * окрашивает их и, если задан {@code onPreview}, сразу публикует сдвинутое изображение.
+         * Открывшиеся полосы остаются для тайлов ({@link #exposedTiles()}).
+         */
+        private void copyShiftedFrame(int[] lut) {
+            int keptTop = Math.max(0, -shift.y);
+            int keptBottom = Math.min(height, height - shift.y);
+            int keptLeft = Math.max(0, -shift.x);
+            int length = Math.min(width, width - shift.x) - keptLeft;
+            int[] sourceIterations = shiftSource.getIterations();
+            int[] sourcePeriods = shiftSource.getPeriods();
+            int[] targetIterations = iterationBuffer.getIterations();
+            int[] targetPeriods = iterationBuffer.getPeriods();
+            for (int y = keptTop; y < keptBottom; y++) {
+                int from = (y + shift.y) * width + keptLeft + shift.x;
+                int to = y * width + keptLeft;
+                System.arraycopy(sourceIterations, from, targetIterations, to, length);
+                if (targetPeriods != null) {
+                    System.arraycopy(sourcePeriods, from, targetPeriods, to, length);
+                }
+                colourSpan(to, to + length, lut);
+            }
+            System.out.printf("Сдвиг кадра на (%d, %d): перенесено %d из %d пикселей%n",
+                    shift.x, shift.y, (long) length * (keptBottom - keptTop), (long) width * height);
+            if (onPreview != null) {
+                publishPreview();
+            }
+        }
+
+        /**
+         * Закрашивает изображение по точкам сетки с шагом {@code step}: каждый пиксель получает
+         * цвет ближайшей точки сетки слева сверху.
+         */
+        private void fillPreview(int step, int[] lut) {
+            for (int y = 0; y < height; y++) {
+                int rowOffset = y * width;
+                int sampleOffset = (y - y % step) * width;
+                for (int x = 0; x < width; x += step) {
+                    if (y % step == 0) {
+                        colourSpan(rowOffset + x, rowOffset + x + 1, lut);
+                    }
+                    int colour = pixels[sampleOffset + x];
+                    Arrays.fill(pixels, rowOffset + x, rowOffset + Math.min(width, x + step), colour);
+                }
+            }
+        }
+
+        /**
+         * Выполняет {@code body(0..count-1)} в пуле кадра и ждет завершения всех вызовов.
+         * В {@link ForkJoinPool} задачи запускаются через {@link ForkJoinTask#invokeAll},
+         * и текущий поток участвует в работе; в обычном пуле задачи отправляются по одной
+         * и регистрируются для отмены.
+         */
+        private void parallelFor(ExecutorService executor, int count, IntConsumer body) throws Exception {
+            if (ForkJoinTask.inForkJoinPool()) {
+                List<ForkJoinTask<?>> jobs = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    int index = i;
+                    jobs.add(ForkJoinTask.adapt(() -> {
+                        if (!cancelled) body.accept(index);
+                    }));
+                }
+                ForkJoinTask.invokeAll(jobs);
+                return;
+            }
+            List<Future<?>> jobs = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                Future<?> future = executor.submit(() -> {
+                    if (!cancelled && !Thread.currentThread().isInterrupted()) body.accept(index);
+                });
+                jobs.add(future);
+                synchronized (futures) {
+                    if (cancelled) throw new CancellationException("Задача отменена во время предпросмотра");
+                    futures.add(future);
+                }
+            }
+            for (Future<?> future : jobs) {
+                future.get();
+            }
+        }
+
+        /**
+         * Перекрашивает сохраненный кадр новой цветовой схемой без пересчета итераций.
+         * Выполняется одной задачей в пуле: один проход {@code pixels[i] = lut[iterations[i]]}.
+         * @param executor Пул потоков для выполнения задачи.
+         */
+        private void startRecolouring(ExecutorService executor) {
+            Future<?> recolourFuture = executor.submit(() -> {
+                long startTime = System.currentTimeMillis();
+                try {
+                    int[] lut = state.getColorScheme().getArgbLut(state.getMaxIterations());
+                    for (int y = 0; y < height; y++) {
+                        if (cancelled || Thread.currentThread().isInterrupted()) {
+                            throw new CancellationException("Перекраска отменена");
+                        }
+                        colourSpan(y * width, y * width + width, lut);
+                    }
+                    System.out.printf("Перекраска завершена за %d мс (итерации не пересчитывались)%n",
+                                      System.currentTimeMillis() - startTime);
+                    SwingUtilities.invokeLater(() -> {
+                        if (!cancelled) {
+                            onComplete.accept(image);
+                        }
+                    });
+                } catch (CancellationException e) {
+                    System.out.println("Перекраска отменена.");
+                } catch (Exception e) {
+                    System.err.println("Ошибка при перекраске кадра: " + e.getMessage());
+                    e.printStackTrace();
+                    if (!cancelled) {
+                        cancel();
+                    }
+                }
+            });
+            synchronized (futures) {
+                if (!cancelled) futures.add(recolourFuture);
+            }
+        }
+
+        /**
+         * Рендерит тайл прямо в массив пикселей растра целевого изображения.
+         * Тайлы не пересекаются, поэтому каждый поток пишет в свой диапазон индексов
+         * {@code y * imageWidth + x} без блокировок и без промежуточного изображения тайла.
          * 
          * === ПРОЦЕСС ПРИМЕНЕНИЯ ЦВЕТОВОЙ СХЕМЫ ПРИ ОТРИСОВКЕ ===
          * 
@@ -346,12 +1359,16 @@ public class FractalRenderer {
          *    - Каждая реализация (GrayscaleScheme, NonlinearRGBScheme) использует свой алгоритм
          * 
          * 2. Расчет математических характеристик точки:
-         *    - Для каждого пикселя рассчитываются координаты в комплексной плоскости
-         *    - Вычисляется число итераций через fractalFunction.calculateIterations()
+         *    - Стратегия тайла ({@link TileRenderStrategy}) решает, какие пиксели вычислять:
+         *      {@link ScanlineStrategy} - все, {@link MarianiSilverStrategy} - только границы однородных областей
+         *    - Координаты пикселя в комплексной плоскости берутся из таблиц {@link CoordinateMapper}
+         *    - Вычисляется число итераций через ядро {@link PixelKernel} (fractalFunction.calculateIterations())
          *    - Число итераций - ключевая характеристика, определяющая поведение точки во фрактале
          * 
          * 3. Преобразование итераций в цвет:
-         *    - Вызывается метод colorScheme.getColor(iterations, maxIterations)
+         *    - Один раз на кадр берется таблица colorScheme.getArgbLut(maxIterations): в ней заранее
+         *      записан результат colorScheme.getColor(i, maxIterations) для каждого i в виде int
+         *    - Для пикселя цвет - это просто lut[iterations]
          *    - Алгоритм преобразования зависит от конкретной реализации схемы:
          *      a) GrayscaleScheme: линейная интерполяция между белым и черным
          *         - Точки внутри множества = черные
@@ -364,67 +1381,63 @@ public class FractalRenderer {
          *         - где t = iterations / maxIterations (нормализованное значение)
          * 
          * 4. Установка цвета пикселя:
-         *    - Полученный цвет (java.awt.Color) преобразуется в RGB
-         *    - Устанавливается в соответствующий пиксель изображения
+         *    - Упакованный цвет из таблицы записывается в соответствующий элемент массива растра изображения
          * 
          * Такой подход позволяет отделить логику визуализации от математических вычислений,
          * обеспечивая гибкость и расширяемость системы. Добавление новой цветовой схемы
          * не требует изменения кода рендеринга.
          */
 
-        private static void renderTile(Tile tile, FractalState state, int imageWidth, int imageHeight, BufferedImage targetImage) {
-            // Получаем данные для рендеринга
-            Viewport viewport = state.getViewport();
-            int maxIterations = state.getMaxIterations();
-            ColorScheme colorScheme = state.getColorScheme();
-            FractalFunction fractalFunction = state.getFractalFunction();
-            
-            // Создаем локальный буфер для этого тайла
-            BufferedImage tileBuffer = new BufferedImage(tile.width, tile.height, BufferedImage.TYPE_INT_RGB);
-            
-            // Рендерим в локальный буфер
-            for (int localY = 0; localY < tile.height; ++localY) {
-                if (Thread.currentThread().isInterrupted()) return; // Быстрая проверка на прерывание
-                
-                // Рассчитываем глобальные координаты для преобразования
-                int globalY = tile.startY + localY;
-                
-                for (int localX = 0; localX < tile.width; ++localX) {
-                    int globalX = tile.startX + localX;
-                    
-                    // Преобразуем координаты экрана в комплексные
-                    ComplexNumber pointCoords = Converter.screenToComplex(
-                            globalX, globalY, imageWidth, imageHeight, viewport);
-                    if (pointCoords == null) continue;
-
-                    // Рассчитываем итерации для точки
-                    // fractalFunction выполняет математические итерации z = z² + c 
-                    // и возвращает число шагов, за которое точка "убегает" за предел
-                    int iterations = fractalFunction.calculateIterations(pointCoords, pointCoords, maxIterations);
-                    
-                    // Получаем цвет и записываем в локальный буфер
-                    // Здесь происходит ключевое преобразование математической величины (iterations) в визуальную (цвет)
-                    // Различные реализации ColorScheme дают разные визуальные эффекты для одних и тех же значений:
-                    // - GrayscaleScheme: преобразует в оттенки серого (меньше итераций = белее, больше = чернее)
-                    // - NonlinearRGBScheme: создает цветовые градиенты через нелинейные функции
-                    Color color = colorScheme.getColor(iterations, maxIterations);
-                    tileBuffer.setRGB(localX, localY, color.getRGB());
-                }
+        private void renderTile(Tile tile, int[] lut, int[] targetIterations) {
+            int imageWidth = mapper.getWidth();
+
+            // Итерации для тайла: стратегия решает, какие пиксели действительно вычислять.
+            // Ядро выполняет итерации z = z² + c (примитивная версия, без создания объектов)
+            // и возвращает число шагов, за которое точка "убегает" за предел.
+            strategy.renderTile(tile, imageWidth, kernel, targetIterations, iterationBuffer.getPeriods(),
+                                () -> cancelled || Thread.currentThread().isInterrupted());
+            if (cancelled || Thread.currentThread().isInterrupted()) return; // Тайл мог остаться незаполненным
+
+            // Окрашиваем тайл и записываем в растр изображения
+            // Здесь происходит ключевое преобразование математической величины (iterations) в визуальную (цвет)
+            // Различные реализации ColorScheme дают разные визуальные эффекты для одних и тех же значений:
+            // - GrayscaleScheme: преобразует в оттенки серого (меньше итераций = белее, больше = чернее)
+            // - NonlinearRGBScheme: создает цветовые градиенты через нелинейные функции
+            // Цвета схемы заранее скомпилированы в таблицу, поэтому здесь только одно чтение массива.
+            for (int y = tile.startY; y < tile.startY + tile.height; ++y) {
+                int rowOffset = y * imageWidth;
+                colourSpan(rowOffset + tile.startX, rowOffset + tile.startX + tile.width, lut);
             }
-            
-            // Проверяем на прерывание перед финальной копией
-            if (Thread.currentThread().isInterrupted()) return;
-            
-            // Копируем данные в целевое изображение
-            // Синхронизируем доступ к целевому изображению
-            synchronized(targetImage) {
-                Graphics2D g2d = targetImage.createGraphics();
-                try {
-                    g2d.drawImage(tileBuffer, tile.startX, tile.startY, null);
-                } finally {
-                    g2d.dispose(); // Освобождаем ресурсы
+            completedArea.addAndGet((long) tile.width * tile.height);
+            if (tileListener != null && !cancelled) {
+                tileListener.onTileComplete(tile, pixels);
+            }
+        }
+
+        /**
+         * Окрашивает пиксели с индексами {@code [from, to)} по итерациям из буфера кадра.
+         * Обычно это одно чтение таблицы цветов на пиксель. Если схема окрашивает внутренние точки
+         * по периоду ({@link ColorScheme#usesInteriorPeriod()}) и периоды сохранены,
+         * для внутренних точек с найденным циклом используется {@link ColorScheme#getInteriorArgb(int, int)}.
+         */
+        private void colourSpan(int from, int to, int[] lut) {
+            int[] source = iterationBuffer.getIterations();
+            ColorScheme scheme = state.getColorScheme();
+            int[] periods = scheme.usesInteriorPeriod() ? iterationBuffer.getPeriods() : null;
+            if (periods == null) {
+                for (int i = from; i < to; i++) {
+                    pixels[i] = lut[source[i]];
                 }
+                return;
+            }
+            int maxIterations = state.getMaxIterations();
+            for (int i = from; i < to; i++) {
+                int iterations = source[i];
+                int period = periods[i];
+                pixels[i] = (iterations == maxIterations && period > 0)
+                        ? scheme.getInteriorArgb(period, maxIterations)
+                        : lut[iterations];
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package render;
+
+/**
+ * Порядок вдоль кривой Гильберта по левым верхним углам тайлов.
+ * Соседние по очереди тайлы соседствуют и на изображении, поэтому потоки работают
+ * с близкими строками буфера итераций и таблиц координат (лучше используется кэш),
+ * а готовая область растет компактными блоками, а не полосами.
+ */
+public final class HilbertTileOrder implements TileOrder {
+
+    @Override
+    public double priority(Tile tile, int imageWidth, int imageHeight) {
+        int side = Integer.highestOneBit(Math.max(1, Math.max(imageWidth, imageHeight) - 1)) << 1;
+        return hilbertIndex(side, tile.startX, tile.startY);
+    }
+
+    /**
+     * Номер точки {@code (x, y)} на кривой Гильберта, заполняющей квадрат {@code side x side}
+     * ({@code side} - степень двойки).
+     */
+    static long hilbertIndex(int side, int x, int y) {
+        long d = 0;
+        for (int s = side / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            // Поворот квадранта, чтобы кривая шла непрерывно
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = side - 1 - x;
+                    y = side - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+
+    @Override
+    public String getName() {
+        return "Hilbert";
+    }
+}
@@ -0,0 +1,182 @@
+package render;
+
+import math.FractalFunction;
+import model.FractalState;
+import model.Viewport;
+import utils.CoordinateMapper;
+
+import java.awt.*;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Буфер «сырых» результатов кадра: число итераций для каждого пикселя.
+ * <p>
+ * Цвет пикселя зависит только от числа итераций и цветовой схемы, поэтому
+ * при смене одной лишь схемы повторять итерации не нужно: достаточно
+ * перекрасить кадр из этого буфера через таблицу цветов
+ * ({@link model.ColorScheme#getArgbLut(int)}).
+ * </p><p>
+ * Буфер привязан к параметрам, от которых зависят итерации: область просмотра,
+ * размер изображения, фрактальная функция и maxIterations. Цветовая схема
+ * в ключ не входит. Область просмотра копируется, так как {@link Viewport} изменяем.
+ * </p><p>
+ * Массив заполняется рендерером и публикуется только после успешного
+ * завершения кадра; после этого он используется только для чтения.
+ * </p><p>
+ * Дополнительно буфер может хранить период притягивающего цикла для каждого пикселя
+ * (см. {@link FractalFunction#calculateIterationsWithPeriod}). Период 0 означает, что цикл
+ * не найден или пиксель не вычислялся (например, был залит {@link MarianiSilverStrategy}).
+ * </p><p>
+ * Если новый кадр отличается только сдвигом области на целое число пикселей
+ * ({@link #translationTo}), совпадающая часть буфера переносится в новый кадр,
+ * и пересчитываются только открывшиеся полосы.
+ * </p>
+ */
+public final class IterationBuffer {
+
+    /**
+     * Допустимое отклонение сдвига от целого числа пикселей. Перенесенные пиксели оказываются
+     * не дальше этой доли пикселя от своего точного положения - на изображении это незаметно,
+     * а округления при панорамировании в {@code double} укладываются в допуск до размера пикселя
+     * ~1e-13 от координат (глубже область переходит в высокоточную форму, где сдвиг точный).
+     */
+    static final double TRANSLATION_TOLERANCE = 0.01;
+    /** Допустимое относительное расхождение размеров области у сдвинутых кадров (ошибки округления pan). */
+    private static final double SIZE_TOLERANCE = 1e-9;
+
+    private final Viewport viewport;
+    private final int width;
+    private final int height;
+    private final FractalFunction fractalFunction;
+    private final int maxIterations;
+    /** Число итераций для пикселя (x, y) по индексу {@code y * width + x}. */
+    private final int[] iterations;
+    /** Период цикла для каждого пикселя или {@code null}, если периоды не сохраняются. */
+    private final int[] periods;
+
+    /**
+     * Создает пустой буфер для кадра с заданными параметрами.
+     *
+     * @param state  Состояние фрактала, для которого считается кадр.
+     * @param width  Ширина изображения в пикселях (> 0).
+     * @param height Высота изображения в пикселях (> 0).
+     */
+    public IterationBuffer(FractalState state, int width, int height) {
+        this(state, width, height, false);
+    }
+
+    /**
+     * Создает пустой буфер для кадра с заданными параметрами.
+     *
+     * @param state       Состояние фрактала, для которого считается кадр.
+     * @param width       Ширина изображения в пикселях (> 0).
+     * @param height      Высота изображения в пикселях (> 0).
+     * @param withPeriods {@code true} - выделить также массив периодов циклов.
+     */
+    public IterationBuffer(FractalState state, int width, int height, boolean withPeriods) {
+        Objects.requireNonNull(state, "FractalState не может быть null");
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Размеры буфера должны быть положительными: " + width + "x" + height);
+        }
+        Viewport vp = state.getViewport();
+        this.viewport = new Viewport(vp);
+        this.width = width;
+        this.height = height;
+        this.fractalFunction = state.getFractalFunction();
+        this.maxIterations = state.getMaxIterations();
+        this.iterations = new int[width * height];
+        this.periods = withPeriods ? new int[width * height] : null;
+    }
+
+    /**
+     * Проверяет, можно ли получить кадр для {@code state} перекраской этого буфера,
+     * то есть совпадают ли все параметры, кроме цветовой схемы.
+     *
+     * @param state  Новое состояние фрактала.
+     * @param width  Ширина запрошенного изображения.
+     * @param height Высота запрошенного изображения.
+     * @return {@code true}, если итерации для нового кадра совпадают с сохраненными.
+     */
+    public boolean isCompatibleWith(FractalState state, int width, int height) {
+        return state != null
+                && this.width == width
+                && this.height == height
+                && this.maxIterations == state.getMaxIterations()
+                && viewport.equals(state.getViewport())
+                && Objects.equals(fractalFunction, state.getFractalFunction());
+    }
+
+    /**
+     * Проверяет, является ли новый кадр сдвигом этого буфера на целое число пикселей:
+     * совпадают размеры изображения и области, функция, maxIterations и наличие периодов,
+     * а центр смещен на целое (с точностью {@link #TRANSLATION_TOLERANCE}) число пикселей,
+     * меньшее размера кадра. Смещение центра вычисляется точно ({@link Viewport#getCenterX()}),
+     * поэтому проверка работает и для высокоточных областей.
+     *
+     * @param state       Новое состояние фрактала.
+     * @param mapper      Таблицы координат нового кадра.
+     * @param withPeriods {@code true}, если новому кадру нужны периоды циклов.
+     * @return Сдвиг {@code (dx, dy)}: пиксель {@code (x, y)} нового кадра совпадает с пикселем
+     *         {@code (x + dx, y + dy)} этого буфера; {@code null}, если кадр не является сдвигом.
+     */
+    public Point translationTo(FractalState state, CoordinateMapper mapper, boolean withPeriods) {
+        if (state == null
+                || mapper.getWidth() != width || mapper.getHeight() != height
+                || maxIterations != state.getMaxIterations()
+                || (periods != null) != withPeriods
+                || !Objects.equals(fractalFunction, state.getFractalFunction())) {
+            return null;
+        }
+        Viewport target = state.getViewport();
+        if (!sameSize(viewport.getWidth(), target.getWidth()) || !sameSize(viewport.getHeight(), target.getHeight())) {
+            return null;
+        }
+        Integer dx = pixelShift(target.getCenterX().subtract(viewport.getCenterX()), mapper.getPixelSpacingX(), width);
+        Integer dy = pixelShift(target.getCenterY().subtract(viewport.getCenterY()), mapper.getPixelSpacingY(), height);
+        // Ось Im направлена вверх, а строки изображения - вниз
+        return (dx == null || dy == null) ? null : new Point(dx, -dy);
+    }
+
+    private static boolean sameSize(double a, double b) {
+        return Math.abs(a - b) <= SIZE_TOLERANCE * Math.max(Math.abs(a), Math.abs(b));
+    }
+
+    /**
+     * Переводит смещение центра в целое число пикселей.
+     * @return Сдвиг в пикселях или {@code null}, если он не целый или не меньше размера кадра.
+     */
+    private static Integer pixelShift(BigDecimal centreShift, double pixelSpacing, int size) {
+        if (!(pixelSpacing > 0.0)) {
+            return null;
+        }
+        double shift = centreShift.doubleValue() / pixelSpacing;
+        long rounded = Math.round(shift);
+        if (Math.abs(shift - rounded) > TRANSLATION_TOLERANCE || Math.abs(rounded) >= size) {
+            return null;
+        }
+        return (int) rounded;
+    }
+
+    /**
+     * Возвращает массив итераций. Для опубликованного буфера он не должен изменяться.
+     * @return Массив длиной {@code width * height}.
+     */
+    public int[] getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Возвращает периоды циклов по пикселям (тот же порядок индексов, что и у итераций).
+     * @return Массив периодов или {@code null}, если буфер создан без периодов.
+     */
+    public int[] getPeriods() {
+        return periods;
+    }
+
+    public Viewport getViewport() { return viewport; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public FractalFunction getFractalFunction() { return fractalFunction; }
+    public int getMaxIterations() { return maxIterations; }
+}
@@ -0,0 +1,133 @@
+package render;
+
+import math.FractalFunction;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Стратегия Мариани-Сильвера (рекурсивное деление прямоугольников по границе).
+ * <p>
+ * Множество Мандельброта связно, поэтому если все пиксели на границе прямоугольника
+ * имеют одинаковое число итераций, то и внутри него (с высокой вероятностью) то же число.
+ * Если ядро сохраняет периоды циклов, граница однородна только при совпадении и периодов:
+ * внутренность заливается парой «итерации, период» с границы.
+ * Алгоритм для прямоугольника:
+ * </p>
+ * <ol>
+ *     <li>Вычислить итерации (и периоды) на его границе.</li>
+ *     <li>Если граница однородна - заполнить внутренность тем же значением без вычислений.</li>
+ *     <li>Иначе разрезать прямоугольник пополам по длинной стороне и повторить для половин.
+ *         Линия разреза принадлежит обеим половинам, но вычисляется один раз.</li>
+ *     <li>Прямоугольники со стороной не больше {@link #MIN_SIZE} вычисляются целиком.</li>
+ * </ol>
+ * <p>
+ * Большие однородные области (внутренность множества, внешние полосы при небольшом числе итераций)
+ * обходятся по периметру вместо площади. Допущение может пропустить тонкие нити,
+ * целиком проходящие внутри прямоугольника и не задевающие его границу, - это
+ * известная плата за ускорение; для точного результата используйте {@link ScanlineStrategy}.
+ * </p>
+ */
+public final class MarianiSilverStrategy implements TileRenderStrategy {
+
+    /** Прямоугольники со стороной не больше этой вычисляются попиксельно. */
+    static final int MIN_SIZE = 4;
+
+    /** Метка «значение еще не вычислено» в массиве итераций (итерации не бывают отрицательными). */
+    private static final int NOT_COMPUTED = -1;
+
+    @Override
+    public void renderTile(Tile tile, int imageWidth, PixelKernel kernel, int[] iterations, BooleanSupplier cancelled) {
+        renderTile(tile, imageWidth, kernel, iterations, null, cancelled);
+    }
+
+    @Override
+    public void renderTile(Tile tile, int imageWidth, PixelKernel kernel, int[] iterations, int[] periods,
+                           BooleanSupplier cancelled) {
+        // Сбрасываем тайл в «не вычислено», чтобы общие границы подпрямоугольников считались один раз.
+        // Периоды обнуляются: ядро без проверки периодичности их не пишет
+        for (int y = tile.startY; y < tile.startY + tile.height; y++) {
+            int rowOffset = y * imageWidth;
+            Arrays.fill(iterations, rowOffset + tile.startX, rowOffset + tile.startX + tile.width, NOT_COMPUTED);
+            if (periods != null) {
+                Arrays.fill(periods, rowOffset + tile.startX, rowOffset + tile.startX + tile.width, 0);
+            }
+        }
+        subdivide(tile.startX, tile.startY, tile.startX + tile.width - 1, tile.startY + tile.height - 1,
+                  imageWidth, kernel, iterations, periods, cancelled);
+    }
+
+    /**
+     * Обрабатывает прямоугольник с включительными границами [x0, x1] x [y0, y1].
+     */
+    private void subdivide(int x0, int y0, int x1, int y1, int imageWidth,
+                           PixelKernel kernel, int[] iterations, int[] periods, BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) return;
+
+        // Маленький прямоугольник: дешевле вычислить целиком
+        if (x1 - x0 + 1 <= MIN_SIZE || y1 - y0 + 1 <= MIN_SIZE) {
+            for (int y = y0; y <= y1; y++) {
+                for (int x = x0; x <= x1; x++) {
+                    valueAt(x, y, imageWidth, kernel, iterations, periods);
+                }
+            }
+            return;
+        }
+
+        // Граница: верхняя и нижняя строки, затем левый и правый столбцы
+        long first = valueAt(x0, y0, imageWidth, kernel, iterations, periods);
+        boolean uniform = true;
+        for (int x = x0; x <= x1; x++) {
+            uniform &= valueAt(x, y0, imageWidth, kernel, iterations, periods) == first;
+            uniform &= valueAt(x, y1, imageWidth, kernel, iterations, periods) == first;
+        }
+        for (int y = y0 + 1; y < y1; y++) {
+            uniform &= valueAt(x0, y, imageWidth, kernel, iterations, periods) == first;
+            uniform &= valueAt(x1, y, imageWidth, kernel, iterations, periods) == first;
+        }
+
+        if (uniform) {
+            // Граница однородна - заливаем внутренность тем же значением (и тем же периодом)
+            int firstIterations = FractalFunction.iterationsOf(first);
+            int firstPeriod = FractalFunction.periodOf(first);
+            for (int y = y0 + 1; y < y1; y++) {
+                int rowOffset = y * imageWidth;
+                Arrays.fill(iterations, rowOffset + x0 + 1, rowOffset + x1, firstIterations);
+                if (periods != null) {
+                    Arrays.fill(periods, rowOffset + x0 + 1, rowOffset + x1, firstPeriod);
+                }
+            }
+            return;
+        }
+
+        // Делим по длинной стороне; линия разреза входит в обе половины
+        if (x1 - x0 >= y1 - y0) {
+            int mid = (x0 + x1) >>> 1;
+            subdivide(x0, y0, mid, y1, imageWidth, kernel, iterations, periods, cancelled);
+            subdivide(mid, y0, x1, y1, imageWidth, kernel, iterations, periods, cancelled);
+        } else {
+            int mid = (y0 + y1) >>> 1;
+            subdivide(x0, y0, x1, mid, imageWidth, kernel, iterations, periods, cancelled);
+            subdivide(x0, mid, x1, y1, imageWidth, kernel, iterations, periods, cancelled);
+        }
+    }
+
+    /**
+     * Возвращает итерации и период пикселя, упакованные как в {@link FractalFunction#packResult(int, int)},
+     * вычисляя их только при первом обращении. Период записывает ядро; без массива периодов он 0.
+     */
+    private static long valueAt(int x, int y, int imageWidth, PixelKernel kernel, int[] iterations, int[] periods) {
+        int index = y * imageWidth + x;
+        int value = iterations[index];
+        if (value == NOT_COMPUTED) {
+            value = kernel.iterate(x, y);
+            iterations[index] = value;
+        }
+        return FractalFunction.packResult(value, periods != null ? periods[index] : 0);
+    }
+
+    @Override
+    public String getName() {
+        return "Mariani-Silver";
+    }
+}
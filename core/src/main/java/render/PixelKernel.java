@@ -0,0 +1,214 @@
+package render;
+
+import math.DoubleDoubleKernel;
+import math.FractalFunction;
+import math.ReferenceOrbit;
+import math.RowIterationKernel;
+import math.SeriesApproximation;
+import utils.CoordinateMapper;
+
+/**
+ * Вычислитель числа итераций для пикселя изображения.
+ * <p>
+ * Отделяет стратегии обхода тайла ({@link TileRenderStrategy}) от того, как именно
+ * считается точка: стратегия знает только пиксельные координаты, а ядро -
+ * отображение на комплексную плоскость, функцию фрактала и предел итераций.
+ * </p>
+ * Реализации должны быть потокобезопасными: одно ядро используется всеми потоками кадра.
+ */
+@FunctionalInterface
+public interface PixelKernel {
+
+    /**
+     * Вычисляет число итераций для пикселя.
+     * @param x Столбец пикселя в изображении.
+     * @param y Строка пикселя в изображении.
+     * @return Число итераций от 0 до maxIterations включительно.
+     */
+    int iterate(int x, int y);
+
+    /**
+     * Вычисляет число итераций для отрезка строки {@code [x0, x1)}.
+     * Реализация по умолчанию вызывает {@link #iterate(int, int)} для каждого пикселя;
+     * ядра, умеющие считать несколько точек сразу, могут ее переопределить.
+     *
+     * @param y      Строка пикселей.
+     * @param x0     Первый столбец (включительно).
+     * @param x1     Последний столбец (исключительно).
+     * @param out    Массив для результатов.
+     * @param offset Индекс в {@code out}, куда пишется результат для {@code x0}.
+     */
+    default void iterateRow(int y, int x0, int x1, int[] out, int offset) {
+        for (int x = x0; x < x1; x++) {
+            out[offset + x - x0] = iterate(x, y);
+        }
+    }
+
+    /**
+     * Создает стандартное ядро: координаты из таблиц {@link CoordinateMapper},
+     * итерации через {@link FractalFunction#calculateIterations(double, double, double, double, int)}.
+     *
+     * @param function      Функция фрактала.
+     * @param mapper        Таблицы координат кадра.
+     * @param maxIterations Максимальное число итераций.
+     * @return Ядро для кадра.
+     */
+    static PixelKernel of(FractalFunction function, CoordinateMapper mapper, int maxIterations) {
+        return (x, y) -> {
+            double re = mapper.re(x);
+            double im = mapper.im(y);
+            // Для Мандельброта z0 не используется, для Жюлиа z0 = точка пикселя
+            return function.calculateIterations(re, im, re, im, maxIterations);
+        };
+    }
+
+    /**
+     * Создает ядро с проверкой периодичности орбиты
+     * ({@link FractalFunction#calculateIterationsWithPeriod}): точки, сошедшиеся к циклу,
+     * завершаются досрочно. Допуск совпадения берется из {@link #periodicityTolerance(CoordinateMapper)}.
+     *
+     * @param function      Функция фрактала.
+     * @param mapper        Таблицы координат кадра.
+     * @param maxIterations Максимальное число итераций.
+     * @param periodsOut    Массив для периодов по пикселям (индекс {@code y * width + x})
+     *                      или {@code null}, если периоды не нужны.
+     * @return Ядро для кадра.
+     */
+    static PixelKernel withPeriodicity(FractalFunction function, CoordinateMapper mapper, int maxIterations,
+                                       int[] periodsOut) {
+        double tolerance = periodicityTolerance(mapper);
+        int imageWidth = mapper.getWidth();
+        return (x, y) -> {
+            double re = mapper.re(x);
+            double im = mapper.im(y);
+            long result = function.calculateIterationsWithPeriod(re, im, re, im, maxIterations, tolerance);
+            if (periodsOut != null) {
+                periodsOut[y * imageWidth + x] = FractalFunction.periodOf(result);
+            }
+            return FractalFunction.iterationsOf(result);
+        };
+    }
+
+    /**
+     * Допуск проверки периодичности для кадра: тысячная доля размера пикселя.
+     * Допуск масштабируется вместе с увеличением: на глубоком зуме точки орбиты
+     * должны совпадать точнее, иначе медленно убегающие точки у границы
+     * будут ошибочно приняты за внутренние.
+     *
+     * @param mapper Таблицы координат кадра.
+     * @return Допуск по каждой координате.
+     */
+    static double periodicityTolerance(CoordinateMapper mapper) {
+        return 1e-3 * Math.min(mapper.getPixelSpacingX(), mapper.getPixelSpacingY());
+    }
+
+    /**
+     * Оборачивает скалярное ядро так, что отрезки строк считаются ядром {@link RowIterationKernel}
+     * (например, векторным), а одиночные пиксели - по-прежнему скалярным ядром.
+     * Оба ядра должны давать одинаковые результаты.
+     *
+     * @param scalar     Скалярное ядро для {@link #iterate(int, int)}.
+     * @param rows       Ядро для отрезков строк.
+     * @param mapper     Таблицы координат кадра.
+     * @param periodsOut Массив для периодов по пикселям или {@code null}.
+     * @return Комбинированное ядро.
+     */
+    static PixelKernel withRowKernel(PixelKernel scalar, RowIterationKernel rows, CoordinateMapper mapper,
+                                     int[] periodsOut) {
+        int imageWidth = mapper.getWidth();
+        double[] reTable = mapper.getReTable();
+        return new PixelKernel() {
+            @Override
+            public int iterate(int x, int y) {
+                return scalar.iterate(x, y);
+            }
+
+            @Override
+            public void iterateRow(int y, int x0, int x1, int[] out, int offset) {
+                rows.iterateRow(reTable, x0, x1, mapper.im(y), out, offset, periodsOut, y * imageWidth + x0);
+            }
+        };
+    }
+
+    /**
+     * Создает ядро метода возмущений для глубокого зума: каждый пиксель итерируется
+     * как смещение от опорной орбиты, посчитанной в центре кадра.
+     *
+     * @param orbit         Опорная орбита в центре кадра ({@link CoordinateMapper#getCenterRe()},
+     *                      {@link CoordinateMapper#getCenterIm()}).
+     * @param mapper        Таблицы координат кадра (используются смещения от центра).
+     * @param maxIterations Максимальное число итераций.
+     * @return Ядро для кадра.
+     */
+    static PixelKernel perturbation(ReferenceOrbit orbit, CoordinateMapper mapper, int maxIterations) {
+        return (x, y) -> orbit.iterate(mapper.deltaRe(x), mapper.deltaIm(y), maxIterations);
+    }
+
+    /**
+     * Создает ядро метода возмущений с приближением рядом: каждый пиксель пропускает
+     * {@link SeriesApproximation#getSkippedIterations()} первых итераций.
+     *
+     * @param series        Приближение рядом вдоль опорной орбиты в центре кадра.
+     * @param mapper        Таблицы координат кадра (используются смещения от центра).
+     * @param maxIterations Максимальное число итераций.
+     * @return Ядро для кадра.
+     */
+    static PixelKernel seriesApproximation(SeriesApproximation series, CoordinateMapper mapper, int maxIterations) {
+        return (x, y) -> series.iterate(mapper.deltaRe(x), mapper.deltaIm(y), maxIterations);
+    }
+
+    /**
+     * Создает ядро, считающее каждый пиксель в арифметике double-double
+     * (глубокий зум без метода возмущений).
+     *
+     * @param kernel        Double-double ядро с центром кадра ({@link CoordinateMapper#getCenterRe()},
+     *                      {@link CoordinateMapper#getCenterIm()}).
+     * @param mapper        Таблицы координат кадра (используются смещения от центра).
+     * @param maxIterations Максимальное число итераций.
+     * @return Ядро для кадра.
+     */
+    static PixelKernel doubleDouble(DoubleDoubleKernel kernel, CoordinateMapper mapper, int maxIterations) {
+        return (x, y) -> kernel.iterate(mapper.deltaRe(x), mapper.deltaIm(y), maxIterations);
+    }
+
+    /**
+     * Оборачивает ядро так, что пиксели сетки с шагом {@code step}, уже посчитанные проходами
+     * предпросмотра, берутся из сохраненной копии, а остальные считаются исходным ядром. Строки
+     * без точек сетки целиком передаются в {@link #iterateRow} исходного ядра (например, векторного).
+     * Точки сетки копируются, так как стратегии тайлов могут перезаписывать буфер кадра
+     * до вычисления пикселей ({@link MarianiSilverStrategy}).
+     *
+     * @param base       Исходное ядро кадра.
+     * @param samples    Буфер итераций кадра (индекс {@code y * imageWidth + x}) с посчитанной сеткой.
+     * @param imageWidth Ширина изображения.
+     * @param step       Шаг сетки посчитанных точек.
+     * @return Ядро для полного прохода.
+     */
+    static PixelKernel reusingSamples(PixelKernel base, int[] samples, int imageWidth, int step) {
+        int columns = (imageWidth + step - 1) / step;
+        int imageHeight = samples.length / imageWidth;
+        int[] grid = new int[columns * ((imageHeight + step - 1) / step)];
+        for (int y = 0, i = 0; y < imageHeight; y += step) {
+            for (int x = 0; x < imageWidth; x += step) {
+                grid[i++] = samples[y * imageWidth + x];
+            }
+        }
+        return new PixelKernel() {
+            @Override
+            public int iterate(int x, int y) {
+                return (x % step == 0 && y % step == 0) ? grid[(y / step) * columns + x / step] : base.iterate(x, y);
+            }
+
+            @Override
+            public void iterateRow(int y, int x0, int x1, int[] out, int offset) {
+                if (y % step != 0) {
+                    base.iterateRow(y, x0, x1, out, offset);
+                    return;
+                }
+                for (int x = x0; x < x1; x++) {
+                    out[offset + x - x0] = iterate(x, y);
+                }
+            }
+        };
+    }
+}
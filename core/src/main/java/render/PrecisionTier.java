@@ -0,0 +1,59 @@
+package render;
+
+import utils.CoordinateMapper;
+
+/**
+ * Уровень точности арифметики, которого требует кадр.
+ * <p>
+ * Определяется отношением размера пикселя к масштабу координат центра (не меньше 1,
+ * так как орбиты имеют порядок 1-2 независимо от положения центра). Запас в каждом уровне -
+ * около 10 бит: хаотическая динамика у границы множества усиливает ошибки округления.
+ * </p>
+ * <ul>
+ *     <li>{@link #DOUBLE} - обычный {@code double}.</li>
+ *     <li>{@link #DOUBLE_DOUBLE} - ~106 бит ({@link math.DoubleDoubleKernel}): пиксель до ~1e-28 от масштаба.</li>
+ *     <li>{@link #ARBITRARY} - произвольная точность ({@link java.math.BigDecimal}).</li>
+ * </ul>
+ */
+public enum PrecisionTier {
+    DOUBLE,
+    DOUBLE_DOUBLE,
+    ARBITRARY;
+
+    /**
+     * Граница {@code double}: если размер пикселя меньше этой доли от масштаба координат
+     * (~1000 ulp double), соседние пиксели в double почти неразличимы.
+     */
+    static final double DOUBLE_RELATIVE_SPACING = 0x1p-42;
+    /** Граница double-double (~5e-29): 106 бит мантиссы минус тот же запас. */
+    static final double DOUBLE_DOUBLE_RELATIVE_SPACING = 0x1p-94;
+
+    /**
+     * Выбирает уровень точности по размеру пикселя.
+     *
+     * @param centreMagnitude Модуль координат центра кадра.
+     * @param pixelSpacing    Размер пикселя в комплексных координатах.
+     * @return Наименее точный (самый быстрый) достаточный уровень.
+     */
+    public static PrecisionTier forSpacing(double centreMagnitude, double pixelSpacing) {
+        double scale = Math.max(1.0, Math.abs(centreMagnitude));
+        if (pixelSpacing >= scale * DOUBLE_RELATIVE_SPACING) {
+            return DOUBLE;
+        }
+        return pixelSpacing >= scale * DOUBLE_DOUBLE_RELATIVE_SPACING ? DOUBLE_DOUBLE : ARBITRARY;
+    }
+
+    /**
+     * Выбирает уровень точности для кадра.
+     * @param mapper Таблицы координат кадра (центр и размер пикселя).
+     * @return Уровень точности кадра.
+     */
+    public static PrecisionTier of(CoordinateMapper mapper) {
+        return forSpacing(centreMagnitude(mapper), Math.min(mapper.getPixelSpacingX(), mapper.getPixelSpacingY()));
+    }
+
+    /** Наибольший модуль координат центра кадра. */
+    public static double centreMagnitude(CoordinateMapper mapper) {
+        return Math.max(Math.abs(mapper.getCenterRe().doubleValue()), Math.abs(mapper.getCenterIm().doubleValue()));
+    }
+}
@@ -0,0 +1,17 @@
+package render;
+
+/**
+ * Построчный порядок: слева направо, сверху вниз (как {@link TileCalculator#calculateTiles}).
+ */
+public final class RasterTileOrder implements TileOrder {
+
+    @Override
+    public double priority(Tile tile, int imageWidth, int imageHeight) {
+        return (double) tile.startY * imageWidth + tile.startX;
+    }
+
+    @Override
+    public String getName() {
+        return "Raster";
+    }
+}
@@ -0,0 +1,24 @@
+package render;
+
+/**
+ * Способ планирования тайлов в {@link FractalRenderer}.
+ */
+public enum RenderEngine {
+
+    /**
+     * Фиксированный пул потоков: каждый тайл отправляется в пул отдельной задачей,
+     * а координатор ждет их завершения через {@link java.util.concurrent.Future#get()}.
+     * Для координатора в пуле выделяется дополнительный поток, чтобы он не занимал
+     * ядро, предназначенное для вычислений, и не блокировал пул из одного потока.
+     */
+    FIXED_POOL,
+
+    /**
+     * {@link java.util.concurrent.ForkJoinPool} с рекурсивным делением списка тайлов.
+     * Диапазон тайлов делится пополам, пока у потока мало задач, доступных для кражи;
+     * свободные потоки забирают работу у занятых. Это важно для фракталов, где тайлы
+     * внутри множества считаются на порядки дольше внешних: все ядра остаются
+     * загруженными до последнего тайла. Используется по умолчанию.
+     */
+    FORK_JOIN
+}
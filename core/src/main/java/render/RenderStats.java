@@ -0,0 +1,88 @@
+package render;
+
+/**
+ * Статистика последнего завершенного кадра {@link FractalRenderer}.
+ * <p>
+ * Для обычных кадров содержит только время и maxIterations. Для кадров глубокого зума
+ * (метод возмущений) - также параметры опорной орбиты, число итераций, пропущенных
+ * каждым пикселем благодаря приближению рядом ({@link math.SeriesApproximation}),
+ * и число переходов пикселей на начало опорной орбиты (rebasing).
+ * </p>
+ * Неизменяемый класс.
+ */
+public final class RenderStats {
+
+    private final long renderMillis;
+    private final int maxIterations;
+    private final boolean deepZoom;
+    private final int referenceLength;
+    private final int precisionDigits;
+    private final int seriesSkippedIterations;
+    private final long rebaseCount;
+
+    /**
+     * Создает статистику обычного кадра (без метода возмущений).
+     *
+     * @param renderMillis  Время рендеринга в миллисекундах.
+     * @param maxIterations Максимальное число итераций кадра.
+     */
+    public RenderStats(long renderMillis, int maxIterations) {
+        this(renderMillis, maxIterations, false, 0, 0, 0, 0L);
+    }
+
+    /**
+     * Создает статистику кадра.
+     *
+     * @param renderMillis            Время рендеринга в миллисекундах.
+     * @param maxIterations           Максимальное число итераций кадра.
+     * @param deepZoom                {@code true}, если кадр считался методом возмущений.
+     * @param referenceLength         Длина опорной орбиты.
+     * @param precisionDigits         Точность опорной орбиты (десятичные знаки).
+     * @param seriesSkippedIterations Итерации, пропущенные каждым пикселем по приближению рядом.
+     * @param rebaseCount             Число переходов пикселей на начало опорной орбиты.
+     */
+    public RenderStats(long renderMillis, int maxIterations, boolean deepZoom, int referenceLength,
+                       int precisionDigits, int seriesSkippedIterations, long rebaseCount) {
+        this.renderMillis = renderMillis;
+        this.maxIterations = maxIterations;
+        this.deepZoom = deepZoom;
+        this.referenceLength = referenceLength;
+        this.precisionDigits = precisionDigits;
+        this.seriesSkippedIterations = seriesSkippedIterations;
+        this.rebaseCount = rebaseCount;
+    }
+
+    public long getRenderMillis() { return renderMillis; }
+    public int getMaxIterations() { return maxIterations; }
+    public boolean isDeepZoom() { return deepZoom; }
+    public int getReferenceLength() { return referenceLength; }
+    public int getPrecisionDigits() { return precisionDigits; }
+    public int getSeriesSkippedIterations() { return seriesSkippedIterations; }
+    public long getRebaseCount() { return rebaseCount; }
+
+    /**
+     * Доля maxIterations, пропущенная приближением рядом.
+     * @return Значение от 0 до 1.
+     */
+    public double getSeriesSkipFraction() {
+        return maxIterations > 0 ? (double) seriesSkippedIterations / maxIterations : 0.0;
+    }
+
+    /**
+     * Краткое описание для строки состояния и лога.
+     * @return Например, {@code "120 мс"} или {@code "120 мс, глубокий зум: 330 знаков, SA пропуск 4500/10000 (45%)"}.
+     */
+    public String getSummary() {
+        if (!deepZoom) {
+            return renderMillis + " мс";
+        }
+        return String.format("%d мс, глубокий зум: %d знаков, SA пропуск %d/%d (%.0f%%), rebase %d",
+                renderMillis, precisionDigits, seriesSkippedIterations, maxIterations,
+                getSeriesSkipFraction() * 100.0, rebaseCount);
+    }
+
+    @Override
+    public String toString() {
+        return "RenderStats{" + getSummary() + '}';
+    }
+}
@@ -0,0 +1,23 @@
+package render;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Стратегия по умолчанию: вычисляет каждый пиксель тайла построчно.
+ * Точная, без допущений о форме множества.
+ */
+public final class ScanlineStrategy implements TileRenderStrategy {
+
+    @Override
+    public void renderTile(Tile tile, int imageWidth, PixelKernel kernel, int[] iterations, BooleanSupplier cancelled) {
+        for (int y = tile.startY; y < tile.startY + tile.height; y++) {
+            if (cancelled.getAsBoolean()) return;
+            kernel.iterateRow(y, tile.startX, tile.startX + tile.width, iterations, y * imageWidth + tile.startX);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Scanline";
+    }
+}
@@ -0,0 +1,24 @@
+package render;
+
+/**
+ * Спираль от центра: тайлы берутся квадратными кольцами вокруг центра изображения,
+ * внутри кольца - по углу. Центр кадра, на который обычно смотрит пользователь
+ * (и куда попадает точка зума), появляется первым.
+ */
+public final class SpiralTileOrder implements TileOrder {
+
+    @Override
+    public double priority(Tile tile, int imageWidth, int imageHeight) {
+        double dx = tile.startX + tile.width / 2.0 - imageWidth / 2.0;
+        double dy = tile.startY + tile.height / 2.0 - imageHeight / 2.0;
+        // Номер кольца - расстояние Чебышёва в размерах тайла; дробная часть - угол внутри кольца
+        int ring = (int) (Math.max(Math.abs(dx), Math.abs(dy)) / Math.max(tile.width, tile.height));
+        double turn = (Math.atan2(dy, dx) + Math.PI) / (2.0 * Math.PI);
+        return ring + Math.min(turn, 0.999999);
+    }
+
+    @Override
+    public String getName() {
+        return "Spiral";
+    }
+}
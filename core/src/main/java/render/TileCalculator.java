@@ -18,15 +18,30 @@ public class TileCalculator {
      * @return A list of Tile objects covering the entire image area.
      */
     public static List<Tile> calculateTiles(int imageWidth, int imageHeight, int tileSize) {
-        if (imageWidth <= 0 || imageHeight <= 0 || tileSize <= 0) {
+        return calculateTiles(0, 0, imageWidth, imageHeight, tileSize);
+    }
+
+    /**
+     * Делит прямоугольную часть изображения на фрагменты заданного размера
+     * (например, полосу, открывшуюся при панорамировании).
+     *
+     * @param startX   Левый столбец области.
+     * @param startY   Верхняя строка области.
+     * @param width    Ширина области.
+     * @param height   Высота области.
+     * @param tileSize Desired size (width and height) of each tile.
+     * @return A list of Tile objects covering the area (empty for an empty area).
+     */
+    public static List<Tile> calculateTiles(int startX, int startY, int width, int height, int tileSize) {
+        if (width <= 0 || height <= 0 || tileSize <= 0) {
             return List.of(); // Возвращаем пустой список для невалидных размеров
         }
 
         List<Tile> tiles = new ArrayList<>();
-        for (int y = 0; y < imageHeight; y += tileSize) {
-            for (int x = 0; x < imageWidth; x += tileSize) {
-                int currentTileWidth = Math.min(tileSize, imageWidth - x);
-                int currentTileHeight = Math.min(tileSize, imageHeight - y);
+        for (int y = startY; y < startY + height; y += tileSize) {
+            for (int x = startX; x < startX + width; x += tileSize) {
+                int currentTileWidth = Math.min(tileSize, startX + width - x);
+                int currentTileHeight = Math.min(tileSize, startY + height - y);
                 tiles.add(new Tile(x, y, currentTileWidth, currentTileHeight));
             }
         }
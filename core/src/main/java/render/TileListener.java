@@ -0,0 +1,25 @@
+package render;
+
+/**
+ * Получатель готовых тайлов кадра {@link FractalRenderer}.
+ * <p>
+ * Позволяет показывать кадр по мере готовности: например, перерисовывать на экране
+ * только прямоугольник завершенного тайла, а не все изображение целиком.
+ * </p>
+ * Вызывается из рабочих потоков рендерера (по одному вызову на тайл, параллельно),
+ * поэтому реализация должна быть потокобезопасной и быстрой; работу с Swing
+ * следует переносить в EDT и объединять (см. {@code listeners.TileRepaintListener} в приложении).
+ */
+@FunctionalInterface
+public interface TileListener {
+
+    /**
+     * Вызывается, когда пиксели тайла окончательно записаны в изображение кадра.
+     *
+     * @param tile   Завершенный тайл (координаты в пикселях изображения).
+     * @param pixels Растр изображения кадра (TYPE_INT_RGB), пиксель (x, y) по индексу
+     *               {@code y * width + x}, где {@code width} - ширина, переданная в render.
+     *               Массив общий для всего кадра: его можно только читать.
+     */
+    void onTileComplete(Tile tile, int[] pixels);
+}
@@ -0,0 +1,38 @@
+package render;
+
+/**
+ * Порядок, в котором рендерер берет тайлы кадра в работу.
+ * <p>
+ * Рендерер держит тайлы кадра в общей очереди с приоритетами ({@link TileQueue}): каждый освободившийся
+ * поток берет тайл с наименьшим значением {@link #priority}. Порядок не влияет на результат,
+ * только на то, какая часть изображения появится первой.
+ * </p>
+ * Реализации должны быть потокобезопасными: приоритеты могут пересчитываться
+ * во время кадра ({@link FractalRenderer#reprioritizeTiles()}).
+ *
+ * @see RasterTileOrder
+ * @see SpiralTileOrder
+ * @see CursorTileOrder
+ * @see HilbertTileOrder
+ */
+@FunctionalInterface
+public interface TileOrder {
+
+    /**
+     * Вычисляет приоритет тайла.
+     *
+     * @param tile        Тайл кадра.
+     * @param imageWidth  Ширина изображения.
+     * @param imageHeight Высота изображения.
+     * @return Ключ порядка: тайлы с меньшим значением рендерятся раньше.
+     */
+    double priority(Tile tile, int imageWidth, int imageHeight);
+
+    /**
+     * Возвращает имя порядка для отображения пользователю.
+     * @return Имя порядка (по умолчанию - простое имя класса).
+     */
+    default String getName() {
+        return this.getClass().getSimpleName();
+    }
+}
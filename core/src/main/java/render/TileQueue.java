@@ -0,0 +1,75 @@
+package render;
+
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Очередь тайлов кадра с приоритетами {@link TileOrder}.
+ * <p>
+ * Задачи рендерера не привязаны к конкретным тайлам: каждая берет из очереди
+ * самый приоритетный из еще не взятых ({@link #poll()}). Поэтому порядок соблюдается
+ * при любом распределении работы между потоками, а приоритеты можно пересчитать
+ * посреди кадра ({@link #reorder()}) - например, когда пользователь переместил курсор.
+ * </p>
+ * Потокобезопасна: все операции выполняются под монитором очереди (тайлов в кадре тысячи,
+ * поэтому конкуренция за него пренебрежимо мала по сравнению со временем рендеринга тайла).
+ */
+final class TileQueue {
+
+    /** Тайл с вычисленным приоритетом. */
+    private static final class Entry implements Comparable<Entry> {
+        final Tile tile;
+        final double priority;
+
+        Entry(Tile tile, double priority) {
+            this.tile = tile;
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return Double.compare(priority, other.priority);
+        }
+    }
+
+    private final TileOrder order;
+    private final int imageWidth;
+    private final int imageHeight;
+    private final PriorityQueue<Entry> heap;
+
+    /**
+     * Создает очередь из тайлов кадра.
+     *
+     * @param tiles       Тайлы кадра.
+     * @param order       Порядок тайлов.
+     * @param imageWidth  Ширина изображения.
+     * @param imageHeight Высота изображения.
+     */
+    TileQueue(List<Tile> tiles, TileOrder order, int imageWidth, int imageHeight) {
+        this.order = order;
+        this.imageWidth = imageWidth;
+        this.imageHeight = imageHeight;
+        this.heap = new PriorityQueue<>(Math.max(1, tiles.size()));
+        for (Tile tile : tiles) {
+            heap.add(new Entry(tile, order.priority(tile, imageWidth, imageHeight)));
+        }
+    }
+
+    /**
+     * Забирает самый приоритетный тайл.
+     * @return Тайл или {@code null}, если очередь пуста.
+     */
+    synchronized Tile poll() {
+        Entry entry = heap.poll();
+        return entry != null ? entry.tile : null;
+    }
+
+    /** Пересчитывает приоритеты оставшихся тайлов (порядок мог измениться, например, фокус курсора). */
+    synchronized void reorder() {
+        Entry[] remaining = heap.toArray(new Entry[0]);
+        heap.clear();
+        for (Entry entry : remaining) {
+            heap.add(new Entry(entry.tile, order.priority(entry.tile, imageWidth, imageHeight)));
+        }
+    }
+}
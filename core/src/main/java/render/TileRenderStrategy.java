@@ -0,0 +1,63 @@
+package render;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Стратегия вычисления итераций внутри одного тайла.
+ * <p>
+ * Определяет, для каких пикселей тайла действительно вызывается {@link PixelKernel},
+ * а какие значения можно получить без вычислений. Окрашивание выполняет рендерер
+ * после стратегии, по готовому массиву итераций.
+ * </p>
+ * Реализации должны быть без состояния (или потокобезопасными): одна стратегия
+ * обслуживает все тайлы кадра одновременно.
+ *
+ * @see ScanlineStrategy
+ * @see MarianiSilverStrategy
+ */
+@FunctionalInterface
+public interface TileRenderStrategy {
+
+    /**
+     * Заполняет итерации для всех пикселей тайла.
+     *
+     * @param tile        Тайл для обработки.
+     * @param imageWidth  Ширина изображения (шаг строки в {@code iterations}).
+     * @param kernel      Вычислитель итераций для пикселя.
+     * @param iterations  Массив итераций кадра; для пикселя (x, y) индекс {@code y * imageWidth + x}.
+     *                    Стратегия пишет только в пределах своего тайла.
+     * @param cancelled   Возвращает {@code true}, если рендеринг отменен; стратегия должна
+     *                    периодически его проверять и прекращать работу.
+     */
+    void renderTile(Tile tile, int imageWidth, PixelKernel kernel, int[] iterations, BooleanSupplier cancelled);
+
+    /**
+     * Заполняет итерации и периоды циклов для всех пикселей тайла.
+     * <p>
+     * Ядро с проверкой периодичности само записывает в {@code periods} периоды вычисленных
+     * пикселей. Стратегия, которая получает значения пикселей без вычислений, должна
+     * переносить и их периоды, иначе внутренние точки окрасятся как без периода.
+     * По умолчанию вызывается {@link #renderTile(Tile, int, PixelKernel, int[], BooleanSupplier)}:
+     * каждый пиксель считает ядро.
+     * </p>
+     *
+     * @param tile        Тайл для обработки.
+     * @param imageWidth  Ширина изображения (шаг строки в {@code iterations} и {@code periods}).
+     * @param kernel      Вычислитель итераций для пикселя.
+     * @param iterations  Массив итераций кадра.
+     * @param periods     Массив периодов кадра с той же индексацией или {@code null}, если периоды не сохраняются.
+     * @param cancelled   Возвращает {@code true}, если рендеринг отменен.
+     */
+    default void renderTile(Tile tile, int imageWidth, PixelKernel kernel, int[] iterations, int[] periods,
+                            BooleanSupplier cancelled) {
+        renderTile(tile, imageWidth, kernel, iterations, cancelled);
+    }
+
+    /**
+     * Возвращает имя стратегии для отображения пользователю.
+     * @return Имя стратегии (по умолчанию - простое имя класса).
+     */
+    default String getName() {
+        return this.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,46 @@
+package render;
+
+import java.util.List;
+
+/**
+ * Политика разбиения изображения (или его части) на тайлы - единицы работы рендерера.
+ * <p>
+ * Общая для {@link FractalRenderer} и {@link services.AnimationService}. Политика может учитывать
+ * оценку стоимости пикселей - число итераций предыдущего кадра того же размера или уже посчитанные
+ * точки предпросмотра нового кадра: дорогие области делятся мельче, дешевые объединяются,
+ * чтобы тайлы стоили примерно одинаково.
+ * </p>
+ * Реализации должны быть потокобезопасными (без изменяемого состояния).
+ *
+ * @see FixedTilingPolicy
+ * @see AdaptiveTilingPolicy
+ */
+@FunctionalInterface
+public interface TilingPolicy {
+
+    /**
+     * Делит прямоугольную область изображения на тайлы.
+     *
+     * @param startX     Левый столбец области.
+     * @param startY     Верхняя строка области.
+     * @param width      Ширина области.
+     * @param height     Высота области.
+     * @param imageWidth Ширина изображения (шаг строки в {@code costHint}).
+     * @param costHint   Оценка числа итераций для пикселей изображения (индекс {@code y * imageWidth + x})
+     *                   или {@code null}, если оценки нет. Массив только читается.
+     * @return Тайлы, покрывающие область без пересечений (пустой список для пустой области).
+     */
+    List<Tile> createTiles(int startX, int startY, int width, int height, int imageWidth, int[] costHint);
+
+    /**
+     * Делит все изображение на тайлы.
+     *
+     * @param imageWidth  Ширина изображения.
+     * @param imageHeight Высота изображения.
+     * @param costHint    Оценка числа итераций для пикселей или {@code null}.
+     * @return Тайлы, покрывающие изображение.
+     */
+    default List<Tile> createTiles(int imageWidth, int imageHeight, int[] costHint) {
+        return createTiles(0, 0, imageWidth, imageHeight, imageWidth, costHint);
+    }
+}
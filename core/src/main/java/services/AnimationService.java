@@ -1,7 +1,10 @@
 // File: core/src/main/java/services/AnimationService.java
 package services;
 
+import math.DoubleDoubleKernel;
 import math.FractalFunction;
+import math.ReferenceOrbit;
+import math.SeriesApproximation;
 import model.ColorScheme;
 import model.FractalState;
 import model.Keyframe;
@@ -9,48 +12,108 @@ import model.Viewport;
 import org.jcodec.api.awt.AWTSequenceEncoder;
 import org.jcodec.common.io.SeekableByteChannel;
 import org.jcodec.common.model.Rational;
-import utils.ComplexNumber;
-import utils.Converter;
+import utils.CoordinateMapper;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Сервис для создания и сохранения анимированной "экскурсии по фракталу".
  * Генерирует последовательность кадров путем интерполяции между заданными
  * ключевыми кадрами {@link Keyframe} и кодирует их в видеофайл формата MP4
  * с использованием библиотеки JCodec.
+ * <p>
+ * Экспорт - конвейер из двух стадий. Рендеринг: кадры считаются параллельно в пуле {@link ForkJoinPool},
+ * одновременно до {@link ExportProfile#getFramesInFlight()} кадров, а тайлы каждого кадра - отдельные задачи пула, поэтому
+ * свободные потоки помогают дорогим кадрам. Кодирование: отдельный поток берет кадры строго по порядку
+ * из ограниченной очереди ({@link #ENCODE_QUEUE_CAPACITY}), так что кодирование H.264 идет одновременно
+ * с рендерингом следующих кадров. Если кодер отстает, очередь заполняется и рендеринг новых кадров
+ * приостанавливается: в памяти не больше {@code framesInFlight + ENCODE_QUEUE_CAPACITY + 1} кадров.
+ * </p><p>
+ * В режиме повторного использования ({@link ExportProfile#isTemporalReuse()}) каждый кадр начинается
+ * с переноса точек предыдущего ({@link TemporalFrame}) и считает только недостающие пиксели, поэтому
+ * кадры выстраиваются в цепочку и рендерятся по одному (тайлы кадра по-прежнему параллельно).
+ * </p><p>
+ * В режиме зум-видео ({@link ExportProfile#isZoomMovie()}) сегменты чистого зума рендерятся как цепочка
+ * вложенных слоев ({@link ZoomMovie}), а кадры собираются из пары соседних слоев: слои - задачи того же
+ * пула, рендерятся по мере того, как их запрашивают отправляемые кадры, и освобождаются, когда пройдены.
+ * Кадр в работе держит свою пару слоев, поэтому число кадров в работе ограничивается с учетом слоев
+ * ({@link ZoomMovie#framesInFlight}).
+ * </p>
  */
 public class AnimationService {
 
-    // Размер рендерируемых кадров для анимации (можно сделать настраиваемым)
-    private static final int FRAME_WIDTH = 800;
-    private static final int FRAME_HEIGHT = 600;
-    // Размер тайла для рендеринга кадров (влияет на отзывчивость прогресса)
-    private static final int RENDER_TILE_SIZE = 64;
+    /** Емкость очереди готовых кадров между рендерингом и кодированием. */
+    static final int ENCODE_QUEUE_CAPACITY = 2;
+    /** Период проверки состояния кодера, пока очередь к нему заполнена (мс). */
+    private static final long ENCODE_QUEUE_POLL_MS = 100;
+    /** Сколько ждать остановки потока кодирования после ошибки или отмены (с). */
+    private static final long ENCODER_SHUTDOWN_TIMEOUT_SEC = 10;
+    /** Десятичные знаки центра промежуточного кадра сверх порядка его ширины. */
+    private static final int CENTER_GUARD_DIGITS = 20;
 
 
     public AnimationService() {
         System.out.println("AnimationService initialized.");
     }
 
+    /**
+     * Создает и сохраняет анимацию фрактала в видеофайл MP4 с профилем экспорта по умолчанию
+     * ({@link ExportProfile#defaultProfile()}: 800x600 без суперсэмплинга).
+     *
+     * @see #createAndSaveAnimation(List, int, double, File, ExportProfile, Consumer, Consumer)
+     */
+    public void createAndSaveAnimation(List<Keyframe> keyframes,
+                                       int fps,
+                                       double durationPerSegment,
+                                       File outputFile,
+                                       Consumer<Double> progressConsumer,
+                                       Consumer<String> statusConsumer)
+            throws IOException, IllegalArgumentException, InterruptedException {
+        createAndSaveAnimation(keyframes, fps, durationPerSegment, outputFile, ExportProfile.defaultProfile(),
+                               progressConsumer, statusConsumer);
+    }
+
     /**
      * Создает и сохраняет анимацию фрактала в видеофайл MP4.
      * Выполняет интерполяцию между ключевыми кадрами, рендерит каждый промежуточный кадр
      * и кодирует последовательность кадров в видео. Операция выполняется синхронно
-     * в вызывающем потоке (предполагается, что это фоновый поток, например, SwingWorker).
+     * в вызывающем потоке (предполагается, что это фоновый поток, например, SwingWorker):
+     * кадры рендерятся в пуле, а кодируются по порядку в отдельном потоке.
+     * Колбэки прогресса и статуса могут вызываться из потока кодирования.
      *
      * @param keyframes Список ключевых кадров {@link Keyframe}. Должен содержать минимум 2 кадра.
      * @param fps Частота кадров в секунду (Frames Per Second) для итогового видео.
      * @param durationPerSegment Продолжительность анимационного сегмента *между* двумя
      *                           последовательными ключевыми кадрами (в секундах).
      * @param outputFile Файл для сохранения видео (должен иметь расширение .mp4).
+     * @param profile Профиль экспорта: разрешение, суперсэмплинг, размер тайла и параллелизм.
      * @param progressConsumer Callback для уведомления о прогрессе генерации (принимает значение от 0.0 до 1.0).
      * @param statusConsumer Callback для отправки текстовых сообщений о статусе.
      * @throws IOException Если возникает ошибка при рендеринге или записи видеофайла.
@@ -61,6 +124,7 @@ public class AnimationService {
                                        int fps,
                                        double durationPerSegment,
                                        File outputFile,
+                                       ExportProfile profile,
                                        Consumer<Double> progressConsumer,
                                        Consumer<String> statusConsumer)
             throws IOException, IllegalArgumentException, InterruptedException {
@@ -76,12 +140,21 @@ public class AnimationService {
             throw new IllegalArgumentException("Длительность сегмента должна быть положительной.");
         }
         Objects.requireNonNull(outputFile, "Выходной файл не может быть null.");
+        Objects.requireNonNull(profile, "Профиль экспорта не может быть null.");
         Objects.requireNonNull(progressConsumer, "Callback прогресса не может быть null.");
         Objects.requireNonNull(statusConsumer, "Callback статуса не может быть null.");
+        for (int i = 0; i < keyframes.size(); i++) {
+            Viewport viewport = keyframes.get(i).getState().getViewport();
+            if (!(viewport.getWidth() > 0.0) || !(viewport.getHeight() > 0.0)) {
+                throw new IllegalArgumentException("Область ключевого кадра " + (i + 1) + " вырождена: " + viewport);
+            }
+        }
 
         statusConsumer.accept("Инициализация кодера видео...");
         AWTSequenceEncoder encoder = null; // Объявляем до try-блока для использования в catch/finally
         SeekableByteChannel channel = null; // Объявляем канал
+        ForkJoinPool renderPool = null;
+        ExecutorService encodeExecutor = null;
 
         try {
             // --- Подготовка к кодированию ---
@@ -89,47 +162,114 @@ public class AnimationService {
             channel = org.jcodec.common.io.NIOUtils.writableChannel(outputFile); // Используем полное имя или импортируем NIOUtils
             // Создаем кодер JCodec, передавая канал и FPS
             Rational rationalFps = Rational.R(fps, 1); // fps/1
-            encoder = new AWTSequenceEncoder(channel, rationalFps);
+            encoder = createEncoder(channel, rationalFps);
 
             int totalSegments = keyframes.size() - 1;
             int framesPerSegment = Math.max(1, (int) Math.round(fps * durationPerSegment));
             int totalFrames = totalSegments * framesPerSegment;
-            int framesRendered = 0;
 
-            statusConsumer.accept(String.format("Начало генерации %d кадров (%d сегментов по %d кадров)...", totalFrames, totalSegments, framesPerSegment));
-            progressConsumer.accept(0.0);
-
-            // --- Цикл по сегментам анимации ---
+            // Состояния всех кадров строятся заранее: кадры рендерятся не по одному.
+            // В режиме зум-видео кадры сегментов чистого зума собираются из слоев (иначе null)
+            List<FractalState> frameStates = new ArrayList<>(totalFrames);
+            List<ZoomMovie> frameMovies = new ArrayList<>(totalFrames);
+            int zoomSegments = 0;
             for (int i = 0; i < totalSegments; i++) {
-                if (Thread.currentThread().isInterrupted()) throw new InterruptedException("Генерация анимации прервана.");
-
-                Keyframe startKeyframe = keyframes.get(i);
-                Keyframe endKeyframe = keyframes.get(i + 1);
-                statusConsumer.accept(String.format("Генерация сегмента %d/%d (кадры %d-%d)...",
-                        i + 1, totalSegments, framesRendered + 1, framesRendered + framesPerSegment));
-
-                List<FractalState> intermediateStates = interpolateStates(
-                        startKeyframe.getState(),
-                        endKeyframe.getState(),
-                        framesPerSegment);
-
-                // --- Рендеринг и кодирование кадров сегмента ---
-                for (int j = 0; j < intermediateStates.size(); j++) {
-                    if (Thread.currentThread().isInterrupted()) throw new InterruptedException("Генерация анимации прервана.");
-
-                    FractalState frameState = intermediateStates.get(j);
-                    int currentFrameNumber = framesRendered + j + 1;
-                    statusConsumer.accept(String.format("Рендеринг кадра %d/%d...", currentFrameNumber, totalFrames));
+                FractalState from = keyframes.get(i).getState();
+                FractalState to = keyframes.get(i + 1).getState();
+                List<FractalState> segmentStates = interpolateStates(from, to, framesPerSegment, profile.getAspectRatio());
+                ZoomMovie movie = null;
+                if (profile.isZoomMovie() && ZoomMovie.isPureZoom(from, to, profile.getWidth())) {
+                    // Слои - состояния той же траектории с шагом ширины не больше ZoomMovie.LAYER_RATIO
+                    movie = new ZoomMovie(interpolateStates(from, to, ZoomMovie.layerSteps(from, to) + 1,
+                                                            profile.getAspectRatio()), profile);
+                    zoomSegments++;
+                }
+                frameStates.addAll(segmentStates);
+                frameMovies.addAll(Collections.nCopies(segmentStates.size(), movie));
+            }
+            if (profile.isZoomMovie()) {
+                statusConsumer.accept(String.format("Зум-видео: %d из %d сегментов собираются из слоев.",
+                                                    zoomSegments, totalSegments));
+            }
 
-                    BufferedImage frameImage = renderSingleFrame(frameState, FRAME_WIDTH, FRAME_HEIGHT);
+            statusConsumer.accept(String.format("Начало генерации %d кадров (%d сегментов по %d кадров; %s)...",
+                    totalFrames, totalSegments, framesPerSegment, profile));
+            progressConsumer.accept(0.0);
 
-                    statusConsumer.accept(String.format("Кодирование кадра %d/%d...", currentFrameNumber, totalFrames));
-                    encoder.encodeImage(frameImage); // Используем созданный encoder
+            // --- Конвейер: рендеринг в пуле -> ограниченная очередь -> кодирование в отдельном потоке ---
+            renderPool = new ForkJoinPool(profile.getRenderThreads());
+            // Слои зум-видео в 4 раза больше кадра: число кадров в работе уменьшается под бюджет памяти
+            int framesInFlight = profile.isZoomMovie() ? ZoomMovie.framesInFlight(profile) : profile.getFramesInFlight();
+            // Тайлы в пикселях видео. Кадры считаются одновременно и хранят только цвета, поэтому
+            // оценки стоимости по предыдущему кадру нет: обычная сетка. В режиме повторного
+            // использования кадры идут по очереди, и итерации предыдущего кадра задают адаптивное разбиение
+            render.TilingPolicy tilingPolicy = profile.isTemporalReuse()
+                    ? adaptiveTiling(profile.getTileSize())
+                    : new render.FixedTilingPolicy(profile.getTileSize());
+            // Повторное использование: последний отправленный кадр цепочки и счетчик посчитанных пикселей
+            CompletableFuture<TemporalFrame> lastTemporalFrame = CompletableFuture.completedFuture(null);
+            AtomicLong computedPixels = new AtomicLong();
+            // Зум-видео: сегмент последнего отправленного кадра и число отрендеренных слоев
+            ZoomMovie currentMovie = null;
+            AtomicInteger renderedLayers = new AtomicInteger();
+            encodeExecutor = Executors.newSingleThreadExecutor();
+            BlockingQueue<BufferedImage> encodeQueue = new ArrayBlockingQueue<>(ENCODE_QUEUE_CAPACITY);
+            AWTSequenceEncoder frameEncoder = encoder;
+            Future<?> encoding = encodeExecutor.submit(() -> {
+                encodeFrames(encodeQueue, frameEncoder, totalFrames, progressConsumer, statusConsumer);
+                return null;
+            });
+
+            // Окно переупорядочивания: кадры, отправленные в пул, но еще не переданные кодеру (в порядке номеров)
+            Deque<Future<BufferedImage>> inFlight = new ArrayDeque<>(framesInFlight);
+            int nextToSubmit = 0;
+            for (int frame = 0; frame < totalFrames && !encoding.isDone(); frame++) {
+                if (Thread.currentThread().isInterrupted()) throw new InterruptedException("Генерация анимации прервана.");
 
-                    framesRendered++;
-                    progressConsumer.accept((double) framesRendered / totalFrames);
+                // Держим окно заполненным: пока кодируются готовые кадры, пул считает следующие
+                while (nextToSubmit < totalFrames && nextToSubmit - frame < framesInFlight) {
+                    ZoomMovie movie = frameMovies.get(nextToSubmit);
+                    FractalState frameState = frameStates.get(nextToSubmit++);
+                    if (currentMovie != null && currentMovie != movie) {
+                        currentMovie.releaseLayers(); // Сегмент пройден: его слои держат только кадры в работе
+                    }
+                    currentMovie = movie;
+                    if (movie != null) {
+                        inFlight.addLast(submitZoomFrame(frameState, movie, tilingPolicy, renderPool, renderedLayers));
+                    } else if (profile.isTemporalReuse()) {
+                        // Кадр начинается после предыдущего: его точки переносятся в новый кадр
+                        lastTemporalFrame = lastTemporalFrame.thenApplyAsync(previous -> {
+                            try {
+                                return renderTemporalFrame(frameState, profile, tilingPolicy, previous, computedPixels);
+                            } catch (InterruptedException e) {
+                                throw new CompletionException(e);
+                            }
+                        }, renderPool);
+                        inFlight.addLast(lastTemporalFrame.thenApply(TemporalFrame::getImage));
+                    } else {
+                        inFlight.addLast(renderPool.submit(() -> renderSingleFrame(frameState, profile, tilingPolicy)));
+                    }
+                }
+                statusConsumer.accept(String.format("Рендеринг кадра %d/%d...", frame + 1, totalFrames));
+                BufferedImage frameImage = awaitFrame(inFlight.removeFirst());
+
+                // Очередь заполнена - кодер отстает: ждем, не отправляя новые кадры в рендеринг.
+                // Если кодер завершился с ошибкой, она будет получена в awaitEncoding
+                boolean queued = false;
+                while (!queued && !encoding.isDone()) {
+                    queued = encodeQueue.offer(frameImage, ENCODE_QUEUE_POLL_MS, TimeUnit.MILLISECONDS);
                 }
             }
+            awaitEncoding(encoding);
+            if (profile.isTemporalReuse()) {
+                double computedShare = (double) computedPixels.get() / ((long) totalFrames * profile.getWidth() * profile.getHeight());
+                statusConsumer.accept(String.format(java.util.Locale.US, "Посчитано %.1f%% пикселей, остальные перенесены из предыдущих кадров.",
+                                                    computedShare * 100.0));
+            }
+            if (profile.isZoomMovie()) {
+                statusConsumer.accept(String.format("Отрендерено слоев зум-видео: %d (каждый - %d кадра по площади).",
+                                                    renderedLayers.get(), ZoomMovie.LAYER_SCALE * ZoomMovie.LAYER_SCALE));
+            }
 
             // --- Завершение кодирования ---
             statusConsumer.accept("Завершение записи видеофайла...");
@@ -147,6 +287,13 @@ public class AnimationService {
             // Не нужно удалять файл здесь
             throw e;
         } finally {
+            if (renderPool != null) {
+                renderPool.shutdownNow(); // Прерывает кадры, оставшиеся после ошибки или отмены
+            }
+            if (encodeExecutor != null) {
+                // Кодер должен остановиться до аварийного finish() ниже
+                stopEncoding(encodeExecutor);
+            }
             // Закрываем энкодер и канал в блоке finally для гарантии
             if (encoder != null) {
                 try {
@@ -168,21 +315,118 @@ public class AnimationService {
         }
     }
 
-    // Методы interpolateStates, renderSingleFrame, renderTile остаются без изменений
+    /**
+     * Создает кодер видео для канала выходного файла.
+     * Тесты переопределяют метод, чтобы получать кадры вместо их кодирования.
+     *
+     * @param channel Канал выходного файла.
+     * @param fps     Частота кадров.
+     * @return Кодер кадров.
+     * @throws IOException если кодер не удалось создать.
+     */
+    AWTSequenceEncoder createEncoder(SeekableByteChannel channel, Rational fps) throws IOException {
+        return new AWTSequenceEncoder(channel, fps);
+    }
+
+    /**
+     * Стадия кодирования: берет из очереди {@code totalFrames} кадров (они кладутся строго по порядку)
+     * и передает их кодеру. Выполняется в потоке кодирования.
+     */
+    private static void encodeFrames(BlockingQueue<BufferedImage> encodeQueue, AWTSequenceEncoder encoder,
+                                     int totalFrames, Consumer<Double> progressConsumer,
+                                     Consumer<String> statusConsumer) throws IOException, InterruptedException {
+        for (int frame = 0; frame < totalFrames; frame++) {
+            BufferedImage frameImage = encodeQueue.take();
+            statusConsumer.accept(String.format("Кодирование кадра %d/%d...", frame + 1, totalFrames));
+            encoder.encodeImage(frameImage);
+            progressConsumer.accept((double) (frame + 1) / totalFrames);
+        }
+    }
+
+    /**
+     * Ожидает, пока поток кодирования закодирует все кадры.
+     * @throws IOException если кодирование завершилось ошибкой.
+     * @throws InterruptedException если ожидание или кодирование были прерваны.
+     */
+    private static void awaitEncoding(Future<?> encoding) throws IOException, InterruptedException {
+        try {
+            encoding.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof InterruptedException) {
+                throw new InterruptedException("Кодирование кадров прервано.");
+            }
+            throw new IOException("Ошибка кодирования кадра: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Прерывает поток кодирования и ждет его остановки. Статус прерывания вызывающего потока
+     * (например, при отмене экспорта) на время ожидания снимается и затем восстанавливается.
+     */
+    private static void stopEncoding(ExecutorService encodeExecutor) {
+        encodeExecutor.shutdownNow();
+        boolean interrupted = Thread.interrupted();
+        try {
+            if (!encodeExecutor.awaitTermination(ENCODER_SHUTDOWN_TIMEOUT_SEC, TimeUnit.SECONDS)) {
+                System.err.println("Поток кодирования не остановился за " + ENCODER_SHUTDOWN_TIMEOUT_SEC + " с.");
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Ожидает готовности кадра из пула рендеринга.
+     * @param frame Задача рендеринга кадра.
+     * @return Изображение кадра.
+     * @throws InterruptedException если ожидание или рендеринг кадра были прерваны.
+     * @throws IOException если рендеринг кадра завершился ошибкой.
+     */
+    private static BufferedImage awaitFrame(Future<BufferedImage> frame) throws InterruptedException, IOException {
+        try {
+            return frame.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // Исключения тайлов приходят обернутыми в RuntimeException задачами ForkJoinTask.adapt
+            while (cause instanceof RuntimeException && cause.getCause() != null
+                    && !(cause instanceof IllegalArgumentException)) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof InterruptedException) {
+                throw new InterruptedException("Рендеринг кадра прерван.");
+            }
+            throw new IOException("Ошибка рендеринга кадра: " + cause.getMessage(), cause);
+        }
+    }
+
 
     /**
      * Выполняет интерполяцию между двумя состояниями фрактала для создания
      * последовательности промежуточных состояний.
      * Интерполирует центр Viewport линейно, а масштаб (ширину/высоту) логарифмически.
+     * Центр считается в {@link BigDecimal}, а кадры создаются в высокоточной форме
+     * ({@link Viewport#Viewport(BigDecimal, BigDecimal, double, double)}), поэтому траектория
+     * не теряет точность между ключевыми кадрами глубокого зума.
      * Количество итераций интерполируется линейно.
      * Цветовая схема и функция фрактала берутся из начального состояния.
      *
      * @param state1 Начальное состояние.
      * @param state2 Конечное состояние.
      * @param numFrames Количество промежуточных кадров, включая начальный и конечный (должно быть >= 2).
+     * @param fallbackAspectRatio Соотношение сторон, если его не удается взять из ключевых кадров
+     *                            (обычно - соотношение сторон видео).
      * @return Список {@link FractalState}, представляющий интерполированные кадры.
      */
-    private List<FractalState> interpolateStates(FractalState state1, FractalState state2, int numFrames) {
+    List<FractalState> interpolateStates(FractalState state1, FractalState state2, int numFrames,
+                                         double fallbackAspectRatio) {
         if (numFrames < 2) {
             return List.of(state1); // Невозможно интерполировать меньше 2 кадров
         }
@@ -201,50 +445,36 @@ public class AnimationService {
             // Пытаемся взять аспект второго кадра
             aspectRatio = vp2.getAspectRatio();
             if (Double.isNaN(aspectRatio) || aspectRatio <= 0) {
-                // Если и он некорректный, используем 4:3 или 16:9 как запасной вариант
-                aspectRatio = (double) FRAME_WIDTH / FRAME_HEIGHT; // Используем аспект кадра по умолчанию
+                // Если и он некорректный, используем соотношение сторон видео
+                aspectRatio = fallbackAspectRatio;
                 System.err.println("Предупреждение: Не удалось определить корректное соотношение сторон из ключевых кадров, используется " + aspectRatio);
             }
         }
 
 
-        // Параметры начального Viewport
-        double startCenterX = (vp1.getMinX() + vp1.getMaxX()) / 2.0;
-        double startCenterY = (vp1.getMinY() + vp1.getMaxY()) / 2.0;
-        double startWidth = vp1.getWidth();
-        // Обработка нулевой ширины для логарифма
-        double startLogWidth = (startWidth > 1e-9) ? Math.log(startWidth) : -Double.MAX_VALUE;
-
-        // Параметры конечного Viewport
-        double endCenterX = (vp2.getMinX() + vp2.getMaxX()) / 2.0;
-        double endCenterY = (vp2.getMinY() + vp2.getMaxY()) / 2.0;
-        double endWidth = vp2.getWidth();
-        // Обработка нулевой ширины для логарифма
-        double endLogWidth = (endWidth > 1e-9) ? Math.log(endWidth) : -Double.MAX_VALUE;
-
+        // Центры ключевых кадров точно (в высокоточной форме - все разряды), ширины - через логарифм:
+        // ширина 1e-300 в double представима, а ее логарифм - обычное число
+        BigDecimal startCenterX = vp1.getCenterX();
+        BigDecimal startCenterY = vp1.getCenterY();
+        BigDecimal endCenterX = vp2.getCenterX();
+        BigDecimal endCenterY = vp2.getCenterY();
+        double startLogWidth = vp1.getLog10Width();
+        double endLogWidth = vp2.getLog10Width();
 
         for (int i = 0; i < numFrames; i++) {
             // Фактор интерполяции от 0.0 до 1.0
             double t = (numFrames <= 1) ? 0.0 : (double) i / (numFrames - 1);
 
-            // Линейная интерполяция центра
-            double currentCenterX = startCenterX * (1.0 - t) + endCenterX * t;
-            double currentCenterY = startCenterY * (1.0 - t) + endCenterY * t;
-
             // Логарифмическая интерполяция масштаба (ширины)
             double currentLogWidth = startLogWidth * (1.0 - t) + endLogWidth * t;
-            double currentWidth = Math.exp(currentLogWidth);
-            // Проверка на случай очень маленькой ширины после exp()
-            currentWidth = Math.max(1e-9, currentWidth); // Минимальная ширина
-
+            double currentWidth = Math.pow(10.0, currentLogWidth);
             double currentHeight = currentWidth / aspectRatio; // Рассчитываем высоту по аспекту
 
-            // Вычисляем границы нового Viewport
-            double currentMinX = currentCenterX - currentWidth / 2.0;
-            double currentMaxX = currentCenterX + currentWidth / 2.0;
-            double currentMinY = currentCenterY - currentHeight / 2.0;
-            double currentMaxY = currentCenterY + currentHeight / 2.0;
-            Viewport currentViewport = new Viewport(currentMinX, currentMaxX, currentMinY, currentMaxY);
+            // Линейная интерполяция центра; разрядов - как у центра области такого размера
+            int scale = centerScale(currentWidth, currentHeight);
+            BigDecimal currentCenterX = interpolate(startCenterX, endCenterX, t, scale);
+            BigDecimal currentCenterY = interpolate(startCenterY, endCenterY, t, scale);
+            Viewport currentViewport = new Viewport(currentCenterX, currentCenterY, currentWidth, currentHeight);
 
             // Линейная интерполяция итераций
             int currentIterations = (int) Math.round(iter1 * (1.0 - t) + iter2 * t);
@@ -257,22 +487,47 @@ public class AnimationService {
         return interpolated;
     }
 
+    /**
+     * Число знаков после запятой для центра кадра заданного размера: порядок меньшего размера
+     * плюс {@value #CENTER_GUARD_DIGITS} запасных знаков (как у центров {@link Viewport}).
+     */
+    private static int centerScale(double width, double height) {
+        return (int) Math.ceil(-Math.log10(Math.min(width, height))) + CENTER_GUARD_DIGITS;
+    }
+
+    /**
+     * Линейная интерполяция координаты центра: {@code from + (to - from) * t}, приращение округлено
+     * до {@code scale} знаков. Концы траектории ({@code t} = 0 и 1) совпадают с ключевыми кадрами точно.
+     */
+    private static BigDecimal interpolate(BigDecimal from, BigDecimal to, double t, int scale) {
+        if (t >= 1.0) {
+            return to;
+        }
+        return from.add(to.subtract(from).multiply(new BigDecimal(t)).setScale(scale, RoundingMode.HALF_EVEN));
+    }
+
 
     /**
-     * Синхронно рендерит один кадр (FractalState) в BufferedImage.
-     * Эта реализация копирует логику рендеринга тайлов из FractalRenderer,
-     * но выполняет ее в текущем (фоновом) потоке без использования внешнего ExecutorService.
+     * Рендерит один кадр (FractalState) в BufferedImage.
+     * Эта реализация копирует логику рендеринга тайлов из FractalRenderer.
+     * Вызывается в потоке пула рендеринга: тайлы кадра выполняются как подзадачи того же пула.
+     * <p>
+     * При суперсэмплинге {@code s} координаты точек берутся из сетки в {@code s} раз плотнее
+     * по каждой оси, а каждый тайл сразу усредняет цвета своих {@code s x s} точек в пиксель видео.
+     * Плотная сетка существует только как таблицы координат, изображение создается в размере видео.
+     * </p>
      *
      * @param state Состояние фрактала для рендеринга.
-     * @param width Ширина изображения кадра.
-     * @param height Высота изображения кадра.
+     * @param profile Профиль экспорта (размер кадра и суперсэмплинг).
+     * @param tilingPolicy Разбиение кадра на тайлы (в пикселях видео).
      * @return Отрендеренное изображение BufferedImage.
      * @throws InterruptedException если поток был прерван во время рендеринга.
      */
-    private BufferedImage renderSingleFrame(FractalState state, int width, int height) throws InterruptedException {
-        if (width <= 0 || height <= 0) {
-            throw new IllegalArgumentException("Ширина и высота кадра должны быть положительными.");
-        }
+    private BufferedImage renderSingleFrame(FractalState state, ExportProfile profile,
+                                            render.TilingPolicy tilingPolicy) throws InterruptedException {
+        int width = profile.getWidth();
+        int height = profile.getHeight();
+        int supersampling = profile.getSupersampling();
         // Используем TYPE_INT_RGB, так как большинство видеокодеков плохо работают с альфа-каналом
         BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
 
@@ -294,39 +549,263 @@ public class AnimationService {
         }
 
 
-        List<render.Tile> tiles = render.TileCalculator.calculateTiles(width, height, RENDER_TILE_SIZE);
+        // Таблицы координат строятся один раз на кадр (для сетки точек) и используются всеми тайлами
+        CoordinateMapper mapper = new CoordinateMapper(viewport, width * supersampling, height * supersampling);
+        // Таблица цветов из кэша: для всех кадров с одинаковыми схемой и maxIterations она общая
+        int[] lut = colorScheme.getArgbLut(maxIterations);
+        // Пишем прямо в массив растра, без setRGB для каждого пикселя
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        render.PixelKernel kernel = createKernel(fractalFunction, mapper, maxIterations);
+        List<render.Tile> tiles = tilingPolicy.createTiles(width, height, null);
+
+        forEachTile(tiles, tile -> {
+            if (supersampling == 1) {
+                renderTile(tile, width, kernel, lut, pixels);
+            } else {
+                renderSupersampledTile(tile, width, supersampling, kernel, lut, pixels);
+            }
+        });
+        return image;
+    }
 
-        for (render.Tile tile : tiles) {
-            if (Thread.currentThread().isInterrupted()) {
-                throw new InterruptedException("Рендеринг кадра прерван.");
+    /**
+     * Рендерит кадр в режиме повторного использования: переносит подходящие точки предыдущего
+     * кадра ({@link TemporalFrame#reprojectFrom}) и считает только остальные пиксели.
+     * Вызывается в потоке пула рендеринга.
+     *
+     * @param state          Состояние фрактала для рендеринга.
+     * @param profile        Профиль экспорта (размер кадра и пороги переноса).
+     * @param tilingPolicy   Разбиение кадра на тайлы (оценка стоимости - итерации предыдущего кадра).
+     * @param previous       Предыдущий кадр или {@code null} для первого кадра.
+     * @param computedPixels Счетчик посчитанных (не перенесенных) пикселей.
+     * @return Кадр с изображением и точками для следующего кадра.
+     * @throws InterruptedException если поток был прерван во время рендеринга.
+     */
+    private TemporalFrame renderTemporalFrame(FractalState state, ExportProfile profile, render.TilingPolicy tilingPolicy,
+                                              TemporalFrame previous, AtomicLong computedPixels) throws InterruptedException {
+        int width = profile.getWidth();
+        int height = profile.getHeight();
+        Viewport viewport = state.getViewport();
+        if (viewport.getWidth() <= 0 || viewport.getHeight() <= 0) {
+            // Вырожденный кадр рендерится как обычно; точек для следующего кадра у него нет
+            return TemporalFrame.withoutSamples(renderSingleFrame(state, profile, tilingPolicy));
+        }
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+        CoordinateMapper mapper = new CoordinateMapper(viewport, width, height);
+        int maxIterations = state.getMaxIterations();
+        TemporalFrame frame = new TemporalFrame(image, mapper, maxIterations, state.getFractalFunction());
+        if (previous != null) {
+            frame.reprojectFrom(previous, profile.getMaxSampleOffset(), profile.getMaxMagnification());
+        }
+
+        int[] lut = state.getColorScheme().getArgbLut(maxIterations);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        render.PixelKernel kernel = createKernel(state.getFractalFunction(), mapper, maxIterations);
+        float spacing = (float) mapper.getPixelSpacingX();
+        // Соседние кадры почти совпадают: итерации предыдущего кадра - оценка стоимости пикселей
+        int[] costHint = previous != null && previous.iterations.length == width * height ? previous.iterations : null;
+        forEachTile(tilingPolicy.createTiles(width, height, costHint), tile -> {
+            long computed = 0;
+            for (int y = tile.getStartY(); y < tile.getStartY() + tile.getHeight(); ++y) {
+                if (Thread.currentThread().isInterrupted()) throw new InterruptedException("Рендеринг тайла прерван.");
+                int rowOffset = y * width;
+                for (int x = tile.getStartX(); x < tile.getStartX() + tile.getWidth(); ++x) {
+                    int index = rowOffset + x;
+                    int iterations = frame.iterations[index];
+                    if (iterations == TemporalFrame.MISSING) {
+                        // Точка в центре пикселя: смещения остаются нулевыми
+                        iterations = kernel.iterate(x, y);
+                        frame.iterations[index] = iterations;
+                        frame.sampleSpacing[index] = spacing;
+                        computed++;
+                    }
+                    pixels[index] = lut[iterations];
+                }
+            }
+            computedPixels.addAndGet(computed);
+        });
+        return frame;
+    }
+
+    /**
+     * Создает ядро итераций кадра по уровню точности ({@link render.PrecisionTier}), как рендерер
+     * для кадра на экране: для глубокого зума - метод возмущений с опорной орбитой в центре кадра
+     * (в double-double, если его точности достаточно, иначе в {@link BigDecimal}) и приближением рядом,
+     * а для функций без него - double-double для каждого пикселя; иначе - скалярное ядро
+     * с проверкой периодичности.
+     *
+     * @param function      Функция фрактала.
+     * @param mapper        Таблицы координат сетки точек кадра (с учетом суперсэмплинга).
+     * @param maxIterations Максимальное число итераций.
+     * @return Ядро для кадра.
+     */
+    private static render.PixelKernel createKernel(FractalFunction function, CoordinateMapper mapper, int maxIterations) {
+        render.PrecisionTier tier = render.PrecisionTier.of(mapper);
+        if (tier != render.PrecisionTier.DOUBLE) {
+            if (ReferenceOrbit.supports(function)) {
+                ReferenceOrbit orbit;
+                if (tier == render.PrecisionTier.DOUBLE_DOUBLE) {
+                    orbit = ReferenceOrbit.computeDoubleDouble(function, mapper.getCenterRe(), mapper.getCenterIm(),
+                                                               maxIterations);
+                } else {
+                    double spacing = Math.min(mapper.getPixelSpacingX(), mapper.getPixelSpacingY());
+                    int digits = ReferenceOrbit.requiredDigits(render.PrecisionTier.centreMagnitude(mapper), spacing);
+                    orbit = ReferenceOrbit.compute(function, mapper.getCenterRe(), mapper.getCenterIm(),
+                                                   maxIterations, digits);
+                }
+                // Пробы приближения рядом - углы и середины сторон сетки
+                double left = mapper.deltaRe(0);
+                double right = mapper.deltaRe(mapper.getWidth() - 1);
+                double top = mapper.deltaIm(0);
+                double bottom = mapper.deltaIm(mapper.getHeight() - 1);
+                double[] probeRe = {left, right, left, right, 0.0, 0.0, left, right};
+                double[] probeIm = {top, top, bottom, bottom, top, bottom, 0.0, 0.0};
+                SeriesApproximation series = SeriesApproximation.compute(orbit, probeRe, probeIm, maxIterations);
+                return render.PixelKernel.seriesApproximation(series, mapper, maxIterations);
+            }
+            if (DoubleDoubleKernel.supports(function)) {
+                DoubleDoubleKernel dd = DoubleDoubleKernel.create(function, mapper.getCenterRe(), mapper.getCenterIm());
+                return render.PixelKernel.doubleDouble(dd, mapper, maxIterations);
             }
-            renderTile(tile, viewport, maxIterations, colorScheme, fractalFunction, width, height, image);
         }
+        // Ядро с проверкой периодичности: внутренние точки не итерируются до maxIterations
+        return render.PixelKernel.withPeriodicity(function, mapper, maxIterations, null);
+    }
+
+    /**
+     * Отправляет в пул кадр зум-видео: запрашивает пару слоев, между которыми лежит кадр
+     * (слой рендерится при первом запросе), и собирает кадр, когда оба слоя готовы.
+     * Вызывается потоком, отправляющим кадры, строго по порядку кадров.
+     *
+     * @param frameState     Состояние кадра на траектории сегмента.
+     * @param movie          Слои сегмента.
+     * @param tilingPolicy   Разбиение кадров и слоев на тайлы.
+     * @param renderPool     Пул рендеринга.
+     * @param renderedLayers Счетчик отрендеренных слоев.
+     * @return Задача, возвращающая изображение кадра.
+     */
+    private CompletableFuture<BufferedImage> submitZoomFrame(FractalState frameState, ZoomMovie movie,
+                                                             render.TilingPolicy tilingPolicy, ForkJoinPool renderPool,
+                                                             AtomicInteger renderedLayers) {
+        int layer = movie.layerBefore(frameState);
+        movie.retainLayers(layer, layer + 1);
+        Function<FractalState, CompletableFuture<BufferedImage>> renderLayer = layerState -> CompletableFuture.supplyAsync(() -> {
+            try {
+                renderedLayers.incrementAndGet();
+                return renderSingleFrame(layerState, movie.getLayerProfile(), tilingPolicy);
+            } catch (InterruptedException e) {
+                throw new CompletionException(e);
+            }
+        }, renderPool);
+        CompletableFuture<BufferedImage> first = movie.layer(layer, renderLayer);
+        CompletableFuture<BufferedImage> second = movie.layer(layer + 1, renderLayer);
+        return first.thenCombineAsync(second, (firstImage, secondImage) -> {
+            try {
+                return composeZoomFrame(frameState, movie, layer, firstImage, secondImage, tilingPolicy);
+            } catch (InterruptedException e) {
+                throw new CompletionException(e);
+            }
+        }, renderPool);
+    }
 
+    /**
+     * Собирает кадр зум-видео из двух соседних слоев (тайлы - подзадачи пула).
+     * @throws InterruptedException если поток был прерван во время сборки.
+     */
+    private BufferedImage composeZoomFrame(FractalState frameState, ZoomMovie movie, int layer,
+                                           BufferedImage firstImage, BufferedImage secondImage,
+                                           render.TilingPolicy tilingPolicy) throws InterruptedException {
+        int width = movie.getWidth();
+        int height = movie.getHeight();
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        CoordinateMapper mapper = new CoordinateMapper(frameState.getViewport(), width, height);
+        ZoomMovie.Composition composition = movie.compose(frameState, layer, firstImage, secondImage, mapper);
+        forEachTile(tilingPolicy.createTiles(width, height, null), tile -> composition.renderTile(tile, pixels));
         return image;
     }
 
     /**
-     * Рендерит один тайл изображения фрактала.
+     * Адаптивное разбиение вокруг размера тайла профиля: тайлы от четверти до четырех размеров профиля
+     * ({@link render.AdaptiveTilingPolicy}); без оценки стоимости - сетка с тайлом профиля.
      */
-    private void renderTile(render.Tile tile, Viewport viewport, int maxIterations,
-                            ColorScheme colorScheme, FractalFunction fractalFunction,
-                            int imageWidth, int imageHeight, BufferedImage targetImage) throws InterruptedException {
+    private static render.TilingPolicy adaptiveTiling(int tileSize) {
+        int minTileSize = Math.max(1, tileSize / 4);
+        return new render.AdaptiveTilingPolicy(tileSize, minTileSize, minTileSize * 16);
+    }
+
+    /** Действие над одним тайлом кадра. */
+    @FunctionalInterface
+    private interface TileAction {
+        void render(render.Tile tile) throws InterruptedException;
+    }
 
+    /**
+     * Выполняет действие для каждого тайла как подзадачу пула текущего потока и ждет их завершения;
+     * ожидание помогает выполнять чужие тайлы и кадры.
+     * @throws InterruptedException если поток был прерван.
+     */
+    private static void forEachTile(List<render.Tile> tiles, TileAction action) throws InterruptedException {
+        List<ForkJoinTask<Void>> tileTasks = new ArrayList<>(tiles.size());
+        for (render.Tile tile : tiles) {
+            tileTasks.add(ForkJoinTask.adapt(() -> {
+                action.render(tile);
+                return null;
+            }));
+        }
+        ForkJoinTask.invokeAll(tileTasks);
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException("Рендеринг кадра прерван.");
+        }
+    }
+
+    /**
+     * Рендерит один тайл изображения фрактала.
+     */
+    private void renderTile(render.Tile tile, int imageWidth, render.PixelKernel kernel,
+                            int[] lut, int[] targetPixels) throws InterruptedException {
         for (int y = tile.getStartY(); y < tile.getStartY() + tile.getHeight(); ++y) {
             if (Thread.currentThread().isInterrupted()) throw new InterruptedException("Рендеринг тайла прерван.");
+            int rowOffset = y * imageWidth;
 
             for (int x = tile.getStartX(); x < tile.getStartX() + tile.getWidth(); ++x) {
-                ComplexNumber pointCoords = Converter.screenToComplex(x, y, imageWidth, imageHeight, viewport);
-                if (pointCoords == null) continue;
+                targetPixels[rowOffset + x] = lut[kernel.iterate(x, y)];
+            }
+        }
+    }
 
-                int iterations = fractalFunction.calculateIterations(pointCoords, pointCoords, maxIterations);
-                Color color = colorScheme.getColor(iterations, maxIterations);
+    /**
+     * Рендерит тайл с суперсэмплингом: пиксель {@code (x, y)} видео - среднее цветов точек
+     * {@code (x * s + i, y * s + j)} плотной сетки ядра, {@code 0 <= i, j < s}.
+     * Каналы R, G, B усредняются отдельно с округлением.
+     */
+    private void renderSupersampledTile(render.Tile tile, int imageWidth, int supersampling, render.PixelKernel kernel,
+                                        int[] lut, int[] targetPixels) throws InterruptedException {
+        int samples = supersampling * supersampling;
+        int half = samples / 2;
+        for (int y = tile.getStartY(); y < tile.getStartY() + tile.getHeight(); ++y) {
+            if (Thread.currentThread().isInterrupted()) throw new InterruptedException("Рендеринг тайла прерван.");
+            int rowOffset = y * imageWidth;
+            int sampleY = y * supersampling;
 
-                if (x >= 0 && x < imageWidth && y >= 0 && y < imageHeight) {
-                    targetImage.setRGB(x, y, color.getRGB());
+            for (int x = tile.getStartX(); x < tile.getStartX() + tile.getWidth(); ++x) {
+                int sampleX = x * supersampling;
+                int red = 0;
+                int green = 0;
+                int blue = 0;
+                for (int j = 0; j < supersampling; j++) {
+                    for (int i = 0; i < supersampling; i++) {
+                        int argb = lut[kernel.iterate(sampleX + i, sampleY + j)];
+                        red += (argb >> 16) & 0xFF;
+                        green += (argb >> 8) & 0xFF;
+                        blue += argb & 0xFF;
+                    }
                 }
+                targetPixels[rowOffset + x] = ((red + half) / samples) << 16
+                        | ((green + half) / samples) << 8
+                        | (blue + half) / samples;
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,249 @@
+// File: core/src/main/java/services/ExportProfile.java
+package services;
+
+/**
+ * Параметры экспорта анимации {@link AnimationService}: разрешение видео, суперсэмплинг,
+ * размер тайла и параллелизм.
+ * <p>
+ * При суперсэмплинге {@code s} каждый пиксель видео усредняет {@code s x s} точек. Точки считаются
+ * тайлами сразу в итоговое разрешение (потоковое усреднение): изображение в {@code s^2} раз больше
+ * не создается, поэтому память на кадр от {@code s} не зависит, растет только время рендеринга.
+ * </p><p>
+ * В памяти одновременно находится до {@code framesInFlight} рендерящихся кадров плюс очередь кодера;
+ * {@link #of(int, int, int, int)} выбирает это число так, чтобы кадры 4K укладывались
+ * в фиксированный бюджет ({@link #FRAME_PIXEL_BUDGET}).
+ * </p><p>
+ * Режим повторного использования ({@link #withTemporalReuse}) переносит точки предыдущего кадра
+ * в новый ({@link TemporalFrame}) и считает только пиксели, для которых подходящей точки нет.
+ * Пороги качества: наибольшее отклонение перенесенной точки от центра пикселя и наибольшее
+ * увеличение точки с момента расчета. Кадры в этом режиме считаются последовательно
+ * (тайлы кадра - параллельно); с суперсэмплингом режим не совместим.
+ * </p><p>
+ * Режим зум-видео ({@link #withZoomMovie}) собирает кадры сегментов - чистых зумов с общим центром -
+ * из вложенных слоев, отрендеренных один раз ({@link ZoomMovie}); остальные сегменты рендерятся
+ * покадрово. Слои рендерятся с суперсэмплингом профиля; с переносом точек режим не совместим.
+ * Слой в 4 раза больше кадра, поэтому в этом режиме кадров в работе может быть меньше
+ * {@code framesInFlight}: бюджет учитывает и живые слои.
+ * </p>
+ * Неизменяемый класс.
+ */
+public final class ExportProfile {
+
+    /** Разрешение видео по умолчанию. */
+    public static final int DEFAULT_WIDTH = 800;
+    public static final int DEFAULT_HEIGHT = 600;
+    /** Размер тайла по умолчанию (в пикселях видео). */
+    public static final int DEFAULT_TILE_SIZE = 64;
+    /** Наибольший коэффициент суперсэмплинга (по каждой оси). */
+    public static final int MAX_SUPERSAMPLING = 8;
+    /** Бюджет пикселей кадров в работе для {@link #of}: 64 Мпикс, ~256 МБ изображений TYPE_INT_RGB. */
+    static final long FRAME_PIXEL_BUDGET = 64L * 1024 * 1024;
+    /**
+     * Порог отклонения перенесенной точки по умолчанию (четверть пикселя). Порог 0.5 (любая ближайшая точка)
+     * вдвое сокращает расчет, но заметно искажает мелкие детали.
+     */
+    public static final double DEFAULT_MAX_SAMPLE_OFFSET = 0.25;
+    /** Порог увеличения перенесенной точки по умолчанию. */
+    public static final double DEFAULT_MAX_MAGNIFICATION = 2.0;
+
+    private final int width;
+    private final int height;
+    private final int supersampling;
+    private final int tileSize;
+    private final int renderThreads;
+    private final int framesInFlight;
+    private final boolean temporalReuse;
+    private final double maxSampleOffset;
+    private final double maxMagnification;
+    private final boolean zoomMovie;
+
+    /**
+     * Создает профиль экспорта без повторного использования кадров.
+     *
+     * @param width          Ширина видео в пикселях (четная: кодирование в YUV 4:2:0).
+     * @param height         Высота видео в пикселях (четная).
+     * @param supersampling  Число точек на пиксель по каждой оси, от 1 (без сглаживания) до {@link #MAX_SUPERSAMPLING}.
+     * @param tileSize       Размер тайла в пикселях видео (> 0).
+     * @param renderThreads  Число потоков рендеринга (> 0).
+     * @param framesInFlight Наибольшее число кадров, рендерящихся одновременно (> 0).
+     * @throws IllegalArgumentException если параметры некорректны.
+     */
+    public ExportProfile(int width, int height, int supersampling, int tileSize, int renderThreads, int framesInFlight) {
+        this(width, height, supersampling, tileSize, renderThreads, framesInFlight,
+             false, DEFAULT_MAX_SAMPLE_OFFSET, DEFAULT_MAX_MAGNIFICATION);
+    }
+
+    /**
+     * Создает профиль экспорта без режима зум-видео.
+     *
+     * @see #ExportProfile(int, int, int, int, int, int, boolean, double, double, boolean)
+     */
+    public ExportProfile(int width, int height, int supersampling, int tileSize, int renderThreads, int framesInFlight,
+                         boolean temporalReuse, double maxSampleOffset, double maxMagnification) {
+        this(width, height, supersampling, tileSize, renderThreads, framesInFlight,
+             temporalReuse, maxSampleOffset, maxMagnification, false);
+    }
+
+    /**
+     * Создает профиль экспорта.
+     *
+     * @param width            Ширина видео в пикселях (четная).
+     * @param height           Высота видео в пикселях (четная).
+     * @param supersampling    Число точек на пиксель по каждой оси (1, если {@code temporalReuse}).
+     * @param tileSize         Размер тайла в пикселях видео (> 0).
+     * @param renderThreads    Число потоков рендеринга (> 0).
+     * @param framesInFlight   Наибольшее число кадров, рендерящихся одновременно (> 0).
+     * @param temporalReuse    {@code true} - переносить точки предыдущего кадра.
+     * @param maxSampleOffset  Наибольшее отклонение перенесенной точки от центра пикселя, от 0 до 0.5 пикселя.
+     * @param maxMagnification Наибольшее увеличение перенесенной точки с момента расчета (>= 1).
+     * @param zoomMovie        {@code true} - собирать кадры чистого зума из слоев ({@code temporalReuse} выключен).
+     * @throws IllegalArgumentException если параметры некорректны.
+     */
+    public ExportProfile(int width, int height, int supersampling, int tileSize, int renderThreads, int framesInFlight,
+                         boolean temporalReuse, double maxSampleOffset, double maxMagnification, boolean zoomMovie) {
+        if (width <= 0 || height <= 0 || width % 2 != 0 || height % 2 != 0) {
+            throw new IllegalArgumentException("Размеры видео должны быть положительными и четными: " + width + "x" + height);
+        }
+        if (supersampling < 1 || supersampling > MAX_SUPERSAMPLING) {
+            throw new IllegalArgumentException("Суперсэмплинг должен быть от 1 до " + MAX_SUPERSAMPLING + ": " + supersampling);
+        }
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Размер тайла должен быть положительным: " + tileSize);
+        }
+        if (renderThreads <= 0) {
+            throw new IllegalArgumentException("Число потоков рендеринга должно быть положительным: " + renderThreads);
+        }
+        if (framesInFlight <= 0) {
+            throw new IllegalArgumentException("Число кадров в работе должно быть положительным: " + framesInFlight);
+        }
+        if (!(maxSampleOffset >= 0.0 && maxSampleOffset <= 0.5)) {
+            throw new IllegalArgumentException("Отклонение точки должно быть от 0 до 0.5 пикселя: " + maxSampleOffset);
+        }
+        if (!(maxMagnification >= 1.0)) {
+            throw new IllegalArgumentException("Допустимое увеличение точки должно быть не меньше 1: " + maxMagnification);
+        }
+        if (temporalReuse && supersampling != 1) {
+            throw new IllegalArgumentException("Повторное использование кадров не поддерживается с суперсэмплингом");
+        }
+        if (temporalReuse && zoomMovie) {
+            throw new IllegalArgumentException("Зум-видео и повторное использование кадров не совместимы");
+        }
+        this.width = width;
+        this.height = height;
+        this.supersampling = supersampling;
+        this.tileSize = tileSize;
+        this.renderThreads = renderThreads;
+        this.framesInFlight = framesInFlight;
+        this.temporalReuse = temporalReuse;
+        this.maxSampleOffset = maxSampleOffset;
+        this.maxMagnification = maxMagnification;
+        this.zoomMovie = zoomMovie;
+    }
+
+    /**
+     * Профиль по умолчанию: 800x600 без суперсэмплинга, все доступные процессоры.
+     * @return Профиль по умолчанию.
+     */
+    public static ExportProfile defaultProfile() {
+        return of(DEFAULT_WIDTH, DEFAULT_HEIGHT, 1, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Создает профиль с тайлом по умолчанию и числом кадров в работе, ограниченным
+     * {@link #FRAME_PIXEL_BUDGET} (но не больше числа потоков: тайлы кадра и так считаются параллельно).
+     *
+     * @param width         Ширина видео.
+     * @param height        Высота видео.
+     * @param supersampling Коэффициент суперсэмплинга.
+     * @param renderThreads Число потоков рендеринга.
+     * @return Новый профиль.
+     */
+    public static ExportProfile of(int width, int height, int supersampling, int renderThreads) {
+        long framePixels = Math.max(1L, (long) width * height);
+        int framesInFlight = (int) Math.max(1L, Math.min(renderThreads, FRAME_PIXEL_BUDGET / framePixels));
+        return new ExportProfile(width, height, supersampling, DEFAULT_TILE_SIZE, renderThreads, framesInFlight);
+    }
+
+    public ExportProfile withResolution(int newWidth, int newHeight) {
+        return new ExportProfile(newWidth, newHeight, supersampling, tileSize, renderThreads, framesInFlight,
+                                 temporalReuse, maxSampleOffset, maxMagnification, zoomMovie);
+    }
+
+    public ExportProfile withSupersampling(int newSupersampling) {
+        return new ExportProfile(width, height, newSupersampling, tileSize, renderThreads, framesInFlight,
+                                 temporalReuse, maxSampleOffset, maxMagnification, zoomMovie);
+    }
+
+    public ExportProfile withTileSize(int newTileSize) {
+        return new ExportProfile(width, height, supersampling, newTileSize, renderThreads, framesInFlight,
+                                 temporalReuse, maxSampleOffset, maxMagnification, zoomMovie);
+    }
+
+    public ExportProfile withRenderThreads(int newRenderThreads) {
+        return new ExportProfile(width, height, supersampling, tileSize, newRenderThreads, framesInFlight,
+                                 temporalReuse, maxSampleOffset, maxMagnification, zoomMovie);
+    }
+
+    public ExportProfile withFramesInFlight(int newFramesInFlight) {
+        return new ExportProfile(width, height, supersampling, tileSize, renderThreads, newFramesInFlight,
+                                 temporalReuse, maxSampleOffset, maxMagnification, zoomMovie);
+    }
+
+    /**
+     * Включает повторное использование точек предыдущего кадра.
+     *
+     * @param newMaxSampleOffset  Наибольшее отклонение перенесенной точки от центра пикселя (0..0.5).
+     * @param newMaxMagnification Наибольшее увеличение перенесенной точки с момента расчета (>= 1).
+     * @return Новый профиль.
+     */
+    public ExportProfile withTemporalReuse(double newMaxSampleOffset, double newMaxMagnification) {
+        return new ExportProfile(width, height, supersampling, tileSize, renderThreads, framesInFlight,
+                                 true, newMaxSampleOffset, newMaxMagnification, zoomMovie);
+    }
+
+    public ExportProfile withoutTemporalReuse() {
+        return new ExportProfile(width, height, supersampling, tileSize, renderThreads, framesInFlight,
+                                 false, maxSampleOffset, maxMagnification, zoomMovie);
+    }
+
+    /**
+     * Включает режим зум-видео: сегменты чистого зума собираются из вложенных слоев.
+     * @return Новый профиль.
+     */
+    public ExportProfile withZoomMovie() {
+        return new ExportProfile(width, height, supersampling, tileSize, renderThreads, framesInFlight,
+                                 temporalReuse, maxSampleOffset, maxMagnification, true);
+    }
+
+    public ExportProfile withoutZoomMovie() {
+        return new ExportProfile(width, height, supersampling, tileSize, renderThreads, framesInFlight,
+                                 temporalReuse, maxSampleOffset, maxMagnification, false);
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getSupersampling() { return supersampling; }
+    public int getTileSize() { return tileSize; }
+    public int getRenderThreads() { return renderThreads; }
+    public int getFramesInFlight() { return framesInFlight; }
+    public boolean isTemporalReuse() { return temporalReuse; }
+    public double getMaxSampleOffset() { return maxSampleOffset; }
+    public double getMaxMagnification() { return maxMagnification; }
+    public boolean isZoomMovie() { return zoomMovie; }
+
+    /** Отношение ширины видео к высоте. */
+    public double getAspectRatio() {
+        return (double) width / height;
+    }
+
+    @Override
+    public String toString() {
+        String text = String.format("%dx%d, SSAA %dx%d, тайл %d, потоков %d, кадров в работе %d",
+                width, height, supersampling, supersampling, tileSize, renderThreads, framesInFlight);
+        if (temporalReuse) {
+            text += String.format(java.util.Locale.US, ", повтор точек (отклонение <= %.2f, увеличение <= %.1f)",
+                                  maxSampleOffset, maxMagnification);
+        }
+        return zoomMovie ? text + ", зум-видео" : text;
+    }
+}
@@ -0,0 +1,160 @@
+// File: core/src/main/java/services/TemporalFrame.java
+package services;
+
+import math.FractalFunction;
+import utils.CoordinateMapper;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Кадр анимации в режиме повторного использования ({@link ExportProfile#isTemporalReuse()}):
+ * изображение и итерации, а для каждого пикселя - точное положение точки, по которой получено
+ * его число итераций, и размер пикселя кадра, в котором эта точка была посчитана.
+ * <p>
+ * Соседние кадры экскурсии отличаются малым сдвигом и зумом, поэтому большинство точек
+ * предыдущего кадра попадает почти в центры пикселей нового ({@link #reprojectFrom}).
+ * Точка переносится в ближайший пиксель, если отстоит от его центра не больше чем на
+ * {@code maxSampleOffset} пикселя и с момента расчета увеличена не больше чем в
+ * {@code maxMagnification} раз; остальные пиксели ({@link #MISSING}) считаются заново.
+ * Положение точки хранится точно (смещение от центра пикселя), поэтому при переносе
+ * из кадра в кадр ошибка не накапливается.
+ * </p>
+ * Не потокобезопасен при переносе; тайлы пишут в непересекающиеся пиксели.
+ */
+final class TemporalFrame {
+
+    /** Значение итераций пикселя, для которого нет подходящей точки: его нужно посчитать. */
+    static final int MISSING = -1;
+    /** Относительный допуск сравнения размеров пикселя: {@link #sampleSpacing} хранится во {@code float}. */
+    private static final double SPACING_TOLERANCE = 1e-6;
+
+    private final BufferedImage image;
+    private final CoordinateMapper mapper;
+    private final int maxIterations;
+    private final FractalFunction function;
+    /** Итерации пикселей ({@link #MISSING} - не посчитан). */
+    final int[] iterations;
+    /** Смещение точки пикселя от его центра по X, в пикселях этого кадра. */
+    final float[] offsetX;
+    /** Смещение точки пикселя от его центра по Y (вниз), в пикселях этого кадра. */
+    final float[] offsetY;
+    /** Размер пикселя (по X) кадра, в котором точка была посчитана. */
+    final float[] sampleSpacing;
+
+    /**
+     * Создает пустой кадр: все пиксели {@link #MISSING}.
+     *
+     * @param image         Изображение кадра (размер совпадает с {@code mapper}).
+     * @param mapper        Таблицы координат кадра ({@code null} - кадр без точек).
+     * @param maxIterations Максимальное число итераций кадра.
+     * @param function      Функция фрактала кадра.
+     */
+    TemporalFrame(BufferedImage image, CoordinateMapper mapper, int maxIterations, FractalFunction function) {
+        this.image = image;
+        this.mapper = mapper;
+        this.maxIterations = maxIterations;
+        this.function = function;
+        int size = mapper != null ? mapper.getWidth() * mapper.getHeight() : 0;
+        this.iterations = new int[size];
+        this.offsetX = new float[size];
+        this.offsetY = new float[size];
+        this.sampleSpacing = new float[size];
+        Arrays.fill(iterations, MISSING);
+    }
+
+    /**
+     * Создает кадр без точек (например, для вырожденной области): следующий кадр посчитается целиком.
+     * @param image Изображение кадра.
+     * @return Кадр, из которого ничего не переносится.
+     */
+    static TemporalFrame withoutSamples(BufferedImage image) {
+        return new TemporalFrame(image, null, 0, null);
+    }
+
+    BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * Переносит подходящие точки предыдущего кадра в пиксели этого. Каждая точка попадает
+     * в ближайший пиксель; если в пиксель попадает несколько точек, остается ближайшая к центру.
+     * Итерации пересчитываются под maxIterations этого кадра: точка, не убежавшая за меньшее
+     * число итераций, при большем maxIterations не переносится.
+     *
+     * @param previous         Предыдущий кадр. Не может быть null.
+     * @param maxSampleOffset  Наибольшее отклонение точки от центра пикселя по каждой оси (в пикселях).
+     * @param maxMagnification Наибольшее отношение размера пикселя при расчете точки к текущему.
+     * @return Число перенесенных пикселей (0, если кадры несовместимы).
+     */
+    int reprojectFrom(TemporalFrame previous, double maxSampleOffset, double maxMagnification) {
+        if (previous.mapper == null || !Objects.equals(function, previous.function)) {
+            return 0;
+        }
+        CoordinateMapper source = previous.mapper;
+        double spacingX = mapper.getPixelSpacingX();
+        double spacingY = mapper.getPixelSpacingY();
+        if (!(spacingX > 0.0) || !(spacingY > 0.0)) {
+            return 0;
+        }
+        // Пиксель x предыдущего кадра (с дробной частью) -> пиксель этого кадра: newX = scaleX * x + shiftX.
+        // Сдвиг центров вычисляется точно: на глубоком зуме абсолютные координаты в double совпадают
+        double centerShiftX = source.getCenterRe().subtract(mapper.getCenterRe()).doubleValue();
+        double centerShiftY = source.getCenterIm().subtract(mapper.getCenterIm()).doubleValue();
+        double scaleX = source.getPixelSpacingX() / spacingX;
+        double shiftX = (centerShiftX + source.deltaRe(0) - mapper.deltaRe(0)) / spacingX;
+        double scaleY = source.getPixelSpacingY() / spacingY;
+        double shiftY = (mapper.deltaIm(0) - source.deltaIm(0) - centerShiftY) / spacingY;
+        // Точки, посчитанные на сетке крупнее этой, считаются слишком увеличенными
+        // (с допуском: иначе при maxMagnification = 1 округление до float отбросило бы и неподвижные точки)
+        double minSampleSpacing = spacingX * maxMagnification * (1.0 + SPACING_TOLERANCE);
+
+        int width = mapper.getWidth();
+        int height = mapper.getHeight();
+        int sourceWidth = source.getWidth();
+        int sourceSize = sourceWidth * source.getHeight();
+        int reused = 0;
+        for (int i = 0; i < sourceSize; i++) {
+            int value = previous.iterations[i];
+            if (value == MISSING || previous.sampleSpacing[i] > minSampleSpacing) {
+                continue;
+            }
+            if (value >= previous.maxIterations) {
+                if (maxIterations > previous.maxIterations) {
+                    continue; // Точка могла бы убежать при большем числе итераций
+                }
+                value = maxIterations;
+            } else if (value > maxIterations) {
+                value = maxIterations;
+            }
+            double x = scaleX * (i % sourceWidth + previous.offsetX[i]) + shiftX;
+            double y = scaleY * (i / sourceWidth + previous.offsetY[i]) + shiftY;
+            long targetX = Math.round(x);
+            long targetY = Math.round(y);
+            if (targetX < 0 || targetX >= width || targetY < 0 || targetY >= height) {
+                continue;
+            }
+            double dx = x - targetX;
+            double dy = y - targetY;
+            if (Math.abs(dx) > maxSampleOffset || Math.abs(dy) > maxSampleOffset) {
+                continue;
+            }
+            int target = (int) targetY * width + (int) targetX;
+            if (iterations[target] != MISSING) {
+                double ox = offsetX[target];
+                double oy = offsetY[target];
+                if (ox * ox + oy * oy <= dx * dx + dy * dy) {
+                    continue; // В пикселе уже есть точка ближе к центру
+                }
+            } else {
+                reused++;
+            }
+            iterations[target] = value;
+            offsetX[target] = (float) dx;
+            offsetY[target] = (float) dy;
+            sampleSpacing[target] = previous.sampleSpacing[i];
+        }
+        return reused;
+    }
+}
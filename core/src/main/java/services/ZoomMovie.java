@@ -0,0 +1,380 @@
+// File: core/src/main/java/services/ZoomMovie.java
+package services;
+
+import model.FractalState;
+import model.Viewport;
+import render.Tile;
+import utils.CoordinateMapper;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Сегмент "зум-видео" ({@link ExportProfile#isZoomMovie()}): чистый зум между двумя ключевыми
+ * кадрами с общим центром.
+ * <p>
+ * Вместо рендеринга каждого кадра вдоль логарифмической траектории ширины рендерятся вложенные
+ * слои - состояния, ширины которых отличаются не больше чем в {@link #LAYER_RATIO} раз,
+ * в разрешении {@link #LAYER_SCALE} x видео. Кадр между двумя соседними слоями собирается
+ * из них билинейной выборкой: внешний (широкий) слой покрывает весь кадр, внутренний (узкий)
+ * подмешивается в своей области с весом, растущим по мере приближения ширины кадра к его ширине
+ * (на ширине слоя кадр совпадает с этим слоем, поэтому переходы между парами слоев непрерывны).
+ * У края внутреннего слоя вес плавно спадает до нуля ({@link #FEATHER_PIXELS}), чтобы граница слоя
+ * не была видна ступенькой резкости.
+ * Плотность пикселей слоя в кадре - от 1 до {@code LAYER_SCALE * LAYER_RATIO} на пиксель видео,
+ * то есть слой никогда не растягивается.
+ * </p><p>
+ * Стоимость рендеринга пропорциональна глубине зума (число октав + 1 слой по 4 кадра),
+ * а не числу кадров. Изображения слоев хранит {@link #layer} до {@link #retainLayers} или {@link #releaseLayers}.
+ * </p>
+ * Слои запрашиваются и освобождаются одним (отправляющим кадры) потоком; сборка кадров
+ * из готовых слоев ({@link #compose}) потокобезопасна.
+ */
+final class ZoomMovie {
+
+    /** Наибольшее отношение ширин соседних слоев. */
+    static final double LAYER_RATIO = 2.0;
+    /** Разрешение слоя относительно разрешения видео (по каждой оси). */
+    static final int LAYER_SCALE = 2;
+    /**
+     * Ширина спада веса внутреннего слоя у его края (в пикселях слоя) при нулевом весе;
+     * сужается пропорционально {@code 1 - вес}, так что на ширине внутреннего слоя спада нет.
+     */
+    static final double FEATHER_PIXELS = 16.0;
+    /** Допустимое расхождение центров ключевых кадров: доля пикселя видео на глубине зума. */
+    private static final double CENTER_TOLERANCE_PIXELS = 0.5;
+    /** Наименьшее отношение ширин ключевых кадров, при котором сегмент считается зумом. */
+    private static final double MIN_ZOOM_RATIO = 1.01;
+
+    /** Состояния слоев вдоль траектории, от начального ключевого кадра к конечному. */
+    private final List<FractalState> layers;
+    /** Профиль рендеринга слоев: разрешение видео x {@link #LAYER_SCALE}. */
+    private final ExportProfile layerProfile;
+    private final int width;
+    private final int height;
+    private final double firstLogWidth;
+    private final double lastLogWidth;
+    /** Изображения запрошенных слоев (по номеру слоя). */
+    private final Map<Integer, CompletableFuture<BufferedImage>> layerImages = new HashMap<>();
+
+    /**
+     * @param layers  Состояния слоев (не меньше двух), ширины монотонны.
+     * @param profile Профиль экспорта видео.
+     */
+    ZoomMovie(List<FractalState> layers, ExportProfile profile) {
+        this.layers = List.copyOf(layers);
+        this.layerProfile = profile.withResolution(profile.getWidth() * LAYER_SCALE, profile.getHeight() * LAYER_SCALE);
+        this.width = profile.getWidth();
+        this.height = profile.getHeight();
+        this.firstLogWidth = Math.log(this.layers.get(0).getViewport().getWidth());
+        this.lastLogWidth = Math.log(this.layers.get(this.layers.size() - 1).getViewport().getWidth());
+    }
+
+    /**
+     * Проверяет, что сегмент между ключевыми кадрами - чистый зум: центры совпадают с точностью
+     * до {@link #CENTER_TOLERANCE_PIXELS} пикселя видео на более глубоком кадре, а ширины различаются.
+     * Центры сравниваются в {@link BigDecimal}, поэтому проверка верна на любой глубине.
+     *
+     * @param from       Начальное состояние сегмента.
+     * @param to         Конечное состояние сегмента.
+     * @param videoWidth Ширина видео в пикселях.
+     * @return {@code true}, если сегмент можно собрать из слоев.
+     */
+    static boolean isPureZoom(FractalState from, FractalState to, int videoWidth) {
+        Viewport vp1 = from.getViewport();
+        Viewport vp2 = to.getViewport();
+        double width1 = vp1.getWidth();
+        double width2 = vp2.getWidth();
+        if (Math.max(width1, width2) / Math.min(width1, width2) < MIN_ZOOM_RATIO) {
+            return false;
+        }
+        double tolerance = CENTER_TOLERANCE_PIXELS * Math.min(width1, width2) / videoWidth;
+        double dx = vp1.getCenterX().subtract(vp2.getCenterX()).doubleValue();
+        double dy = vp1.getCenterY().subtract(vp2.getCenterY()).doubleValue();
+        return Math.abs(dx) <= tolerance && Math.abs(dy) <= tolerance;
+    }
+
+    /**
+     * Число промежутков между слоями для сегмента: ширины соседних слоев отличаются
+     * не больше чем в {@link #LAYER_RATIO} раз.
+     *
+     * @param from Начальное состояние сегмента.
+     * @param to   Конечное состояние сегмента.
+     * @return Число промежутков (слоев на один больше), не меньше 1.
+     */
+    static int layerSteps(FractalState from, FractalState to) {
+        double octaves = Math.abs(Math.log(to.getViewport().getWidth() / from.getViewport().getWidth()))
+                / Math.log(LAYER_RATIO);
+        // Небольшой допуск: зум ровно в 2^n раз не должен давать лишний слой из-за округления
+        return Math.max(1, (int) Math.ceil(octaves - 1e-9));
+    }
+
+    /**
+     * Число кадров в работе для зум-видео в пределах {@link ExportProfile#FRAME_PIXEL_BUDGET}.
+     * Кадры в работе держат свои пары слоев, а слой в {@code LAYER_SCALE^2} раз больше кадра:
+     * при {@code f} кадрах живы до {@code f + 2} слоев (пары идут подряд, плюс слои, запрошенные
+     * следующим кадром). Не меньше 1: один кадр и его пара слоев нужны всегда (~9 кадров видео).
+     *
+     * @param profile Профиль экспорта.
+     * @return Число кадров в работе, не больше {@link ExportProfile#getFramesInFlight()}.
+     */
+    static int framesInFlight(ExportProfile profile) {
+        long framePixels = Math.max(1L, (long) profile.getWidth() * profile.getHeight());
+        long layerPixels = framePixels * LAYER_SCALE * LAYER_SCALE;
+        long fitting = (ExportProfile.FRAME_PIXEL_BUDGET - 2 * layerPixels) / (framePixels + layerPixels);
+        return (int) Math.max(1L, Math.min(profile.getFramesInFlight(), fitting));
+    }
+
+    /** Ширина видео в пикселях. */
+    int getWidth() {
+        return width;
+    }
+
+    /** Высота видео в пикселях. */
+    int getHeight() {
+        return height;
+    }
+
+    /** Профиль, с которым рендерятся изображения слоев. */
+    ExportProfile getLayerProfile() {
+        return layerProfile;
+    }
+
+    /**
+     * Номер слоя {@code k}, такой что кадр лежит между слоями {@code k} и {@code k + 1}.
+     * @param frame Состояние кадра на траектории сегмента.
+     * @return Номер от 0 до (число слоев - 2).
+     */
+    int layerBefore(FractalState frame) {
+        int steps = layers.size() - 1;
+        double position = (Math.log(frame.getViewport().getWidth()) - firstLogWidth)
+                / (lastLogWidth - firstLogWidth) * steps;
+        return Math.max(0, Math.min(steps - 1, (int) Math.floor(position)));
+    }
+
+    /**
+     * Возвращает изображение слоя, при первом запросе запуская его рендеринг.
+     *
+     * @param index  Номер слоя.
+     * @param render Запуск рендеринга слоя по его состоянию.
+     * @return Изображение слоя (разрешение видео x {@link #LAYER_SCALE}).
+     */
+    CompletableFuture<BufferedImage> layer(int index, Function<FractalState, CompletableFuture<BufferedImage>> render) {
+        return layerImages.computeIfAbsent(index, i -> render.apply(layers.get(i)));
+    }
+
+    /**
+     * Освобождает изображения слоев вне {@code [from, to]}: кадры собираются по порядку,
+     * поэтому пройденные слои больше не нужны (кадры в работе держат свои слои сами).
+     */
+    void retainLayers(int from, int to) {
+        layerImages.keySet().removeIf(index -> index < from || index > to);
+    }
+
+    /** Освобождает изображения всех слоев (сегмент пройден). */
+    void releaseLayers() {
+        layerImages.clear();
+    }
+
+    /**
+     * Готовит сборку кадра из двух соседних слоев: выбирает внешний и внутренний слой,
+     * вес внутреннего и строит таблицы координат пикселей кадра в пикселях слоев.
+     *
+     * @param frame       Состояние кадра.
+     * @param index       Номер первого слоя пары ({@link #layerBefore}).
+     * @param first       Изображение слоя {@code index}.
+     * @param second      Изображение слоя {@code index + 1}.
+     * @param frameMapper Таблицы координат кадра (разрешение видео).
+     * @return Сборка, заполняющая кадр по тайлам.
+     */
+    Composition compose(FractalState frame, int index, BufferedImage first, BufferedImage second,
+                        CoordinateMapper frameMapper) {
+        boolean firstOuter = layers.get(index).getViewport().getWidth() >= layers.get(index + 1).getViewport().getWidth();
+        FractalState outerState = layers.get(firstOuter ? index : index + 1);
+        FractalState innerState = layers.get(firstOuter ? index + 1 : index);
+        // Доля пути (в логарифме ширины) от внешнего слоя к внутреннему
+        double outerWidth = outerState.getViewport().getWidth();
+        double innerWeight = Math.log(outerWidth / frame.getViewport().getWidth())
+                / Math.log(outerWidth / innerState.getViewport().getWidth());
+        return new Composition(new LayerSampler(outerState, firstOuter ? first : second),
+                               new LayerSampler(innerState, firstOuter ? second : first),
+                               Math.max(0.0, Math.min(1.0, innerWeight)), frameMapper);
+    }
+
+    /** Сборка одного кадра из пары слоев; тайлы собираются независимо (из разных потоков). */
+    final class Composition {
+        private final LayerSampler outer;
+        private final LayerSampler inner;
+        /** Координаты пикселей кадра в пикселях внешнего и внутреннего слоев. */
+        private final double[] outerX;
+        private final double[] outerY;
+        private final double[] innerX;
+        private final double[] innerY;
+        /**
+         * Вес внутреннего слоя по столбцам и строкам кадра (0 - вне слоя); вес пикселя - произведение,
+         * поэтому у края слоя он спадает до нуля без скачка.
+         */
+        private final double[] innerWeightX;
+        private final double[] innerWeightY;
+
+        private Composition(LayerSampler outer, LayerSampler inner, double innerWeight, CoordinateMapper frameMapper) {
+            this.outer = outer;
+            this.inner = inner;
+            double feather = FEATHER_PIXELS * (1.0 - innerWeight);
+            this.outerX = new double[width];
+            this.innerX = new double[width];
+            this.innerWeightX = new double[width];
+            // Точки кадра - смещения от центров слоев: центры вычитаются точно, как и на глубоком зуме
+            double outerShiftRe = outer.centerShiftRe(frameMapper);
+            double innerShiftRe = inner.centerShiftRe(frameMapper);
+            for (int x = 0; x < width; x++) {
+                outerX[x] = outer.pixelX(frameMapper.deltaRe(x) + outerShiftRe);
+                innerX[x] = inner.pixelX(frameMapper.deltaRe(x) + innerShiftRe);
+                innerWeightX[x] = innerWeight * edgeRamp(innerX[x], inner.layerWidth, feather);
+            }
+            this.outerY = new double[height];
+            this.innerY = new double[height];
+            this.innerWeightY = new double[height];
+            double outerShiftIm = outer.centerShiftIm(frameMapper);
+            double innerShiftIm = inner.centerShiftIm(frameMapper);
+            for (int y = 0; y < height; y++) {
+                outerY[y] = outer.pixelY(frameMapper.deltaIm(y) + outerShiftIm);
+                innerY[y] = inner.pixelY(frameMapper.deltaIm(y) + innerShiftIm);
+                innerWeightY[y] = edgeRamp(innerY[y], inner.layerHeight, feather);
+            }
+        }
+
+        /**
+         * Заполняет тайл кадра: внешний слой везде, внутренний - подмешивается в своей области.
+         * @param tile   Тайл кадра.
+         * @param target Растр кадра (ширина видео).
+         */
+        void renderTile(Tile tile, int[] target) {
+            for (int y = tile.getStartY(); y < tile.getStartY() + tile.getHeight(); ++y) {
+                int rowOffset = y * width;
+                double rowWeight = innerWeightY[y];
+                for (int x = tile.getStartX(); x < tile.getStartX() + tile.getWidth(); ++x) {
+                    int argb = outer.sample(outerX[x], outerY[y]);
+                    double weight = rowWeight * innerWeightX[x];
+                    if (weight > 0.0) {
+                        argb = blend(argb, inner.sample(innerX[x], innerY[y]), weight);
+                    }
+                    target[rowOffset + x] = argb;
+                }
+            }
+        }
+    }
+
+    /**
+     * Множитель веса внутреннего слоя по одной оси: 0 вне слоя, линейно растет от края слоя
+     * до 1 на расстоянии {@code feather} пикселей слоя.
+     *
+     * @param position Координата в пикселях слоя (слой занимает {@code [-0.5, size - 0.5]}).
+     * @param size     Размер слоя по оси.
+     * @param feather  Ширина спада (0 - без спада).
+     * @return Множитель от 0 до 1.
+     */
+    static double edgeRamp(double position, int size, double feather) {
+        double distance = Math.min(position + 0.5, size - 0.5 - position);
+        if (distance < 0.0) {
+            return 0.0;
+        }
+        return feather > 0.0 ? Math.min(1.0, distance / feather) : 1.0;
+    }
+
+    /** Смешивает цвета RGB: {@code (1 - weight) * a + weight * b} по каналам с округлением. */
+    private static int blend(int a, int b, double weight) {
+        int result = 0;
+        for (int shift = 0; shift <= 16; shift += 8) {
+            double channel = ((a >> shift) & 0xFF) * (1.0 - weight) + ((b >> shift) & 0xFF) * weight;
+            result |= ((int) (channel + 0.5)) << shift;
+        }
+        return result;
+    }
+
+    /**
+     * Билинейная выборка из изображения слоя по смещениям от его центра.
+     * Пиксель слоя - центр своих {@code s x s} точек суперсэмплинга на сетке
+     * {@code new CoordinateMapper(viewport, W * s, H * s)}, как в рендеринге кадра.
+     */
+    private final class LayerSampler {
+        private final int[] pixels;
+        private final int layerWidth;
+        private final int layerHeight;
+        private final BigDecimal centerRe;
+        private final BigDecimal centerIm;
+        /** Смещения первого столбца и первой строки сетки от центра слоя. */
+        private final double originRe;
+        private final double originIm;
+        private final double spacingX;
+        private final double spacingY;
+        private final double centerOffset;
+        private final int supersampling;
+
+        LayerSampler(FractalState state, BufferedImage image) {
+            this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            this.layerWidth = image.getWidth();
+            this.layerHeight = image.getHeight();
+            this.supersampling = layerProfile.getSupersampling();
+            CoordinateMapper mapper = new CoordinateMapper(state.getViewport(),
+                    layerWidth * supersampling, layerHeight * supersampling);
+            this.centerRe = mapper.getCenterRe();
+            this.centerIm = mapper.getCenterIm();
+            this.originRe = mapper.deltaRe(0);
+            this.originIm = mapper.deltaIm(0);
+            this.spacingX = mapper.getPixelSpacingX();
+            this.spacingY = mapper.getPixelSpacingY();
+            this.centerOffset = (supersampling - 1) / 2.0;
+        }
+
+        /** Смещение центра кадра от центра слоя по вещественной оси. */
+        double centerShiftRe(CoordinateMapper frameMapper) {
+            return frameMapper.getCenterRe().subtract(centerRe).doubleValue();
+        }
+
+        /** Смещение центра кадра от центра слоя по мнимой оси. */
+        double centerShiftIm(CoordinateMapper frameMapper) {
+            return frameMapper.getCenterIm().subtract(centerIm).doubleValue();
+        }
+
+        /** Столбец слоя (с дробной частью) для точки со смещением {@code deltaRe} от центра слоя. */
+        double pixelX(double deltaRe) {
+            return ((deltaRe - originRe) / spacingX - centerOffset) / supersampling;
+        }
+
+        /** Строка слоя (с дробной частью) для точки со смещением {@code deltaIm} от центра слоя. */
+        double pixelY(double deltaIm) {
+            return ((originIm - deltaIm) / spacingY - centerOffset) / supersampling;
+        }
+
+        /** Билинейная интерполяция RGB; координаты за краем прижимаются к краю. */
+        int sample(double x, double y) {
+            x = Math.max(0.0, Math.min(layerWidth - 1.0, x));
+            y = Math.max(0.0, Math.min(layerHeight - 1.0, y));
+            // Слой не меньше 2x2 пикселей (размер видео четный и умножен на LAYER_SCALE)
+            int left = Math.min((int) x, layerWidth - 2);
+            int top = Math.min((int) y, layerHeight - 2);
+            int right = left + 1;
+            int bottom = top + 1;
+            double fx = x - left;
+            double fy = y - top;
+            int topLeft = pixels[top * layerWidth + left];
+            int topRight = pixels[top * layerWidth + right];
+            int bottomLeft = pixels[bottom * layerWidth + left];
+            int bottomRight = pixels[bottom * layerWidth + right];
+            int result = 0;
+            for (int shift = 0; shift <= 16; shift += 8) {
+                double upper = ((topLeft >> shift) & 0xFF) * (1.0 - fx) + ((topRight >> shift) & 0xFF) * fx;
+                double lower = ((bottomLeft >> shift) & 0xFF) * (1.0 - fx) + ((bottomRight >> shift) & 0xFF) * fx;
+                result |= ((int) (upper * (1.0 - fy) + lower * fy + 0.5)) << shift;
+            }
+            return result;
+        }
+    }
+}
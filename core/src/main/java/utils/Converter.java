@@ -4,6 +4,7 @@ package utils;
 import model.Viewport;
 
 import java.awt.geom.Point2D;
+import java.math.BigDecimal;
 
 /**
  * Утилитарный класс для преобразования координат между системой пиксельных
@@ -16,6 +17,12 @@ import java.awt.geom.Point2D;
  * а ось Y (мнимая ось) комплексной плоскости направлена вверх.
  * </p>
  * <p>
+ * Для высокоточных областей ({@link Viewport#isHighPrecision()}) абсолютные координаты в {@code double}
+ * теряют знаки, поэтому есть методы, работающие со смещениями от центра области
+ * ({@link #screenToOffset}) и с {@link PreciseComplexNumber} ({@link #screenToPreciseComplex},
+ * {@link #preciseComplexToScreen}).
+ * </p>
+ * <p>
  * Этот класс реализует логику преобразования напрямую. В архитектуре упоминалась
  * возможность интеграции с внешним модулем (JAR), но текущий код содержит
  * собственную реализацию.
@@ -119,10 +126,9 @@ public final class Converter { // final, т.к. утилитарный клас
          double viewportWidth = viewport.getWidth();
          double viewportHeight = viewport.getHeight();
 
-         // Проверка на вырожденный Viewport (нулевая ширина или высота)
-         // Используем небольшой допуск EPSILON для сравнения double с нулем
-         final double EPSILON = 1e-9;
-         if (viewportWidth < EPSILON || viewportHeight < EPSILON) {
+         // Проверка на вырожденный Viewport (нулевая ширина или высота).
+         // Сравнение строго с нулем: на глубоком зуме ширина законно бывает меньше любого фиксированного допуска
+         if (!(viewportWidth > 0.0) || !(viewportHeight > 0.0)) {
               System.err.println("Ошибка конвертации complexToScreen: Viewport имеет нулевую ширину или высоту.");
               // Не можем корректно преобразовать. Вернем центр экрана как запасной вариант.
               return new Point2D.Double(screenWidth / 2.0, screenHeight / 2.0);
@@ -173,4 +179,106 @@ public final class Converter { // final, т.к. утилитарный клас
 
          return new Point2D.Double(screenX, screenY);
     }
-}
\ No newline at end of file
+
+    /**
+     * Преобразует координаты экранного пикселя в смещение от центра области просмотра.
+     * Смещение считается через номер пикселя и размер области, поэтому не теряет точности
+     * на любом масштабе (те же формулы, что {@link CoordinateMapper#deltaRe(int)} и {@link CoordinateMapper#deltaIm(int)}).
+     *
+     * @param screenX      X-координата пикселя на экране.
+     * @param screenY      Y-координата пикселя на экране (0 - верхний край).
+     * @param screenWidth  Ширина области отрисовки (в пикселях). Должна быть > 0.
+     * @param screenHeight Высота области отрисовки (в пикселях). Должна быть > 0.
+     * @param viewport     Текущая область просмотра. Не может быть null.
+     * @return Смещение {@code (Re, Im)} от центра области или {@code null}, если входные данные некорректны.
+     */
+    public static ComplexNumber screenToOffset(int screenX, int screenY,
+                                               int screenWidth, int screenHeight,
+                                               Viewport viewport) {
+        if (screenWidth <= 0 || screenHeight <= 0 || viewport == null) {
+            System.err.printf("Ошибка конвертации screenToOffset: Некорректные входные данные (Ширина=%d, Высота=%d, Viewport=%s)%n",
+                              screenWidth, screenHeight, viewport);
+            return null;
+        }
+        double[] step = pixelStep(screenWidth, screenHeight, viewport);
+        return new ComplexNumber((screenX - (screenWidth - 1) / 2.0) * step[0],
+                                 ((screenHeight - 1) / 2.0 - screenY) * step[1]);
+    }
+
+    /**
+     * Преобразует координаты экранного пикселя в точку комплексной плоскости без потери знаков:
+     * точный центр области плюс смещение пикселя ({@link #screenToOffset}).
+     *
+     * @param screenX      X-координата пикселя на экране.
+     * @param screenY      Y-координата пикселя на экране (0 - верхний край).
+     * @param screenWidth  Ширина области отрисовки (в пикселях). Должна быть > 0.
+     * @param screenHeight Высота области отрисовки (в пикселях). Должна быть > 0.
+     * @param viewport     Текущая область просмотра. Не может быть null.
+     * @return Точка плоскости или {@code null}, если входные данные некорректны.
+     */
+    public static PreciseComplexNumber screenToPreciseComplex(int screenX, int screenY,
+                                                              int screenWidth, int screenHeight,
+                                                              Viewport viewport) {
+        ComplexNumber offset = screenToOffset(screenX, screenY, screenWidth, screenHeight, viewport);
+        if (offset == null) {
+            return null;
+        }
+        return new PreciseComplexNumber(viewport.getCenterX(), viewport.getCenterY())
+                .add(offset.getReal(), offset.getImaginary());
+    }
+
+    /**
+     * Преобразует точку комплексной плоскости в экранные координаты. Разность с центром
+     * области считается точно, поэтому метод работает на любом масштабе и обратен
+     * {@link #screenToPreciseComplex}.
+     *
+     * @param complex      Точка плоскости. Не может быть null.
+     * @param screenWidth  Ширина области отрисовки (в пикселях). Должна быть > 0.
+     * @param screenHeight Высота области отрисовки (в пикселях). Должна быть > 0.
+     * @param viewport     Текущая область просмотра. Не может быть null.
+     * @return Экранные координаты (x, y) или {@code null}, если входные данные некорректны.
+     */
+    public static Point2D.Double preciseComplexToScreen(PreciseComplexNumber complex,
+                                                        int screenWidth, int screenHeight,
+                                                        Viewport viewport) {
+        if (screenWidth <= 0 || screenHeight <= 0 || viewport == null || complex == null) {
+            System.err.printf("Ошибка конвертации preciseComplexToScreen: Некорректные входные данные (Complex=%s, Ширина=%d, Высота=%d, Viewport=%s)%n",
+                              complex, screenWidth, screenHeight, viewport);
+            return null;
+        }
+        double[] step = pixelStep(screenWidth, screenHeight, viewport);
+        BigDecimal centerX = viewport.getCenterX();
+        BigDecimal centerY = viewport.getCenterY();
+        ComplexNumber offset = complex.subtract(new PreciseComplexNumber(centerX, centerY));
+        double screenX = (step[0] > 0.0) ? offset.getReal() / step[0] + (screenWidth - 1) / 2.0 : screenWidth / 2.0;
+        double screenY = (step[1] > 0.0) ? (screenHeight - 1) / 2.0 - offset.getImaginary() / step[1] : screenHeight / 2.0;
+        return new Point2D.Double(screenX, screenY);
+    }
+
+    /**
+     * Шаг сетки пикселей по осям для эффективной области (с коррекцией соотношения сторон,
+     * как в {@link #screenToComplex}); для размера 1 пиксель шаг равен 0.
+     * Совпадает с {@link CoordinateMapper#getPixelSpacingX()} / {@link CoordinateMapper#getPixelSpacingY()}
+     * для изображений больше одного пикселя.
+     *
+     * @param screenWidth  Ширина области отрисовки (в пикселях). Должна быть > 0.
+     * @param screenHeight Высота области отрисовки (в пикселях). Должна быть > 0.
+     * @param viewport     Текущая область просмотра. Не может быть null.
+     * @return Массив {@code {шаг по Re, шаг по Im}}.
+     */
+    public static double[] pixelStep(int screenWidth, int screenHeight, Viewport viewport) {
+        double screenAspectRatio = (double) screenWidth / screenHeight;
+        double viewportAspectRatio = viewport.getWidth() / viewport.getHeight();
+        double effectiveWidth = viewport.getWidth();
+        double effectiveHeight = viewport.getHeight();
+        if (screenAspectRatio > viewportAspectRatio) {
+            effectiveWidth = effectiveHeight * screenAspectRatio;
+        } else if (screenAspectRatio < viewportAspectRatio) {
+            effectiveHeight = effectiveWidth / screenAspectRatio;
+        }
+        return new double[] {
+            (screenWidth > 1) ? effectiveWidth / (screenWidth - 1.0) : 0.0,
+            (screenHeight > 1) ? effectiveHeight / (screenHeight - 1.0) : 0.0
+        };
+    }
+}
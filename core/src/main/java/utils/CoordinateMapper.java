@@ -0,0 +1,215 @@
+// File: core/src/main/java/utils/CoordinateMapper.java
+package utils;
+
+import model.Viewport;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Предвычисленное отображение пиксельной сетки изображения на комплексную плоскость.
+ * <p>
+ * {@link Converter#screenToComplex(int, int, int, int, Viewport)} при каждом вызове заново
+ * вычисляет соотношения сторон, центр и эффективные границы области, проверяет аргументы
+ * и создает {@link ComplexNumber}. При рендеринге он вызывался для каждого пикселя.
+ * Этот класс выполняет ту же работу один раз для пары (viewport, размер изображения)
+ * и хранит готовые координаты в двух таблицах: вещественная часть для каждого столбца
+ * и мнимая часть для каждой строки. Преобразование пикселя сводится к двум чтениям
+ * из массивов.
+ * </p><p>
+ * Значения в таблицах вычисляются по тем же формулам и в том же порядке операций,
+ * что и в {@link Converter#screenToComplex(int, int, int, int, Viewport)}, поэтому
+ * результаты совпадают побитово.
+ * </p><p>
+ * Для глубокого зума (метод возмущений, {@link math.ReferenceOrbit}) те же пиксели описываются
+ * смещениями от центра кадра ({@link #deltaRe(int)}, {@link #deltaIm(int)}). Смещения считаются
+ * через номер пикселя и размер области, а не вычитанием близких абсолютных координат,
+ * поэтому сохраняют полную точность {@code double} при любом масштабе. Центр берется из
+ * {@link Viewport#getCenterX()} / {@link Viewport#getCenterY()}, то есть для высокоточной области
+ * со всеми знаками.
+ * </p><p>
+ * Класс неизменяемый и может использоваться из нескольких потоков одновременно.
+ * </p>
+ */
+public final class CoordinateMapper {
+
+    /** Ширина изображения в пикселях. */
+    private final int width;
+    /** Высота изображения в пикселях. */
+    private final int height;
+    /** Вещественная координата для каждого столбца {@code x} (длина {@code width}). */
+    private final double[] reTable;
+    /** Мнимая координата для каждой строки {@code y} (длина {@code height}). */
+    private final double[] imTable;
+    /** Шаг сетки по вещественной оси (расстояние между соседними столбцами). */
+    private final double pixelSpacingX;
+    /** Шаг сетки по мнимой оси (расстояние между соседними строками). */
+    private final double pixelSpacingY;
+    /** Точный центр области по вещественной оси. */
+    private final BigDecimal centerRe;
+    /** Точный центр области по мнимой оси. */
+    private final BigDecimal centerIm;
+    /** Смещение столбца {@code x} от центра по вещественной оси. */
+    private final double[] deltaReTable;
+    /** Смещение строки {@code y} от центра по мнимой оси (вверх - положительное). */
+    private final double[] deltaImTable;
+
+    /**
+     * Строит таблицы координат для заданной области просмотра и размеров изображения.
+     *
+     * @param viewport Область просмотра {@link Viewport}. Не может быть null.
+     * @param width    Ширина изображения в пикселях. Должна быть > 0.
+     * @param height   Высота изображения в пикселях. Должна быть > 0.
+     * @throws NullPointerException     если {@code viewport} равен null.
+     * @throws IllegalArgumentException если {@code width} или {@code height} не положительны.
+     */
+    public CoordinateMapper(Viewport viewport, int width, int height) {
+        Objects.requireNonNull(viewport, "Viewport не может быть null");
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Размеры изображения должны быть положительными: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+
+        // --- Эффективная область с учётом соотношения сторон (как в Converter.screenToComplex) ---
+        double screenAspectRatio = (double) width / height;
+        double viewportAspectRatio = viewport.getWidth() / viewport.getHeight();
+
+        double centerX = (viewport.getMinX() + viewport.getMaxX()) / 2.0;
+        double centerY = (viewport.getMinY() + viewport.getMaxY()) / 2.0;
+
+        double effectiveWidth = viewport.getWidth();
+        double effectiveHeight = viewport.getHeight();
+
+        if (screenAspectRatio > viewportAspectRatio) {
+            effectiveWidth = effectiveHeight * screenAspectRatio;
+        } else if (screenAspectRatio < viewportAspectRatio) {
+            effectiveHeight = effectiveWidth / screenAspectRatio;
+        }
+
+        double effectiveMinX = centerX - effectiveWidth / 2.0;
+        double effectiveMaxX = centerX + effectiveWidth / 2.0;
+        double effectiveMinY = centerY - effectiveHeight / 2.0;
+        double effectiveMaxY = centerY + effectiveHeight / 2.0;
+
+        // --- Таблица столбцов ---
+        this.reTable = new double[width];
+        for (int x = 0; x < width; x++) {
+            double proportionX = (width == 1) ? 0.5 : (double) x / (width - 1.0);
+            reTable[x] = effectiveMinX + proportionX * (effectiveMaxX - effectiveMinX);
+        }
+
+        // --- Таблица строк (ось Y инвертирована: верх экрана = верх математической области) ---
+        this.imTable = new double[height];
+        for (int y = 0; y < height; y++) {
+            double proportionY = (height == 1) ? 0.5 : (double) y / (height - 1.0);
+            imTable[y] = effectiveMaxY - proportionY * (effectiveMaxY - effectiveMinY);
+        }
+
+        // --- Смещения от центра для метода возмущений ---
+        this.centerRe = viewport.getCenterX();
+        this.centerIm = viewport.getCenterY();
+        this.deltaReTable = new double[width];
+        double stepX = (width > 1) ? effectiveWidth / (width - 1.0) : 0.0;
+        for (int x = 0; x < width; x++) {
+            deltaReTable[x] = (x - (width - 1) / 2.0) * stepX;
+        }
+        this.deltaImTable = new double[height];
+        double stepY = (height > 1) ? effectiveHeight / (height - 1.0) : 0.0;
+        for (int y = 0; y < height; y++) {
+            deltaImTable[y] = ((height - 1) / 2.0 - y) * stepY;
+        }
+
+        // Шаг считается по размеру области, а не по разности границ: на глубоком зуме границы в double совпадают
+        this.pixelSpacingX = (width > 1) ? stepX : effectiveWidth;
+        this.pixelSpacingY = (height > 1) ? stepY : effectiveHeight;
+    }
+
+    /**
+     * Возвращает вещественную координату столбца пикселей.
+     * @param x Номер столбца (от 0 до {@code width - 1}).
+     * @return Re(c) для всех пикселей этого столбца.
+     */
+    public double re(int x) {
+        return reTable[x];
+    }
+
+    /**
+     * Возвращает мнимую координату строки пикселей.
+     * @param y Номер строки (от 0 до {@code height - 1}, 0 - верхний край).
+     * @return Im(c) для всех пикселей этой строки.
+     */
+    public double im(int y) {
+        return imTable[y];
+    }
+
+    /**
+     * Возвращает таблицу вещественных координат столбцов целиком
+     * (для векторных ядер, загружающих несколько столбцов сразу).
+     * Массив общий и не должен изменяться.
+     * @return Массив длиной {@code width}; элемент {@code x} равен {@link #re(int) re(x)}.
+     */
+    public double[] getReTable() {
+        return reTable;
+    }
+
+    /**
+     * Возвращает смещение столбца пикселей от центра кадра по вещественной оси.
+     * @param x Номер столбца.
+     * @return {@code Re(c) - Re(центр)} с полной точностью double.
+     */
+    public double deltaRe(int x) {
+        return deltaReTable[x];
+    }
+
+    /**
+     * Возвращает смещение строки пикселей от центра кадра по мнимой оси.
+     * @param y Номер строки (0 - верхний край).
+     * @return {@code Im(c) - Im(центр)} с полной точностью double.
+     */
+    public double deltaIm(int y) {
+        return deltaImTable[y];
+    }
+
+    /**
+     * Возвращает вещественную координату центра кадра (опорная точка метода возмущений).
+     * @return Центр по вещественной оси.
+     */
+    public BigDecimal getCenterRe() {
+        return centerRe;
+    }
+
+    /**
+     * Возвращает мнимую координату центра кадра.
+     * @return Центр по мнимой оси.
+     */
+    public BigDecimal getCenterIm() {
+        return centerIm;
+    }
+
+    /** @return Ширина изображения в пикселях. */
+    public int getWidth() {
+        return width;
+    }
+
+    /** @return Высота изображения в пикселях. */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Возвращает шаг сетки по вещественной оси (размер пикселя в комплексных координатах).
+     * @return Расстояние между соседними столбцами.
+     */
+    public double getPixelSpacingX() {
+        return pixelSpacingX;
+    }
+
+    /**
+     * Возвращает шаг сетки по мнимой оси (размер пикселя в комплексных координатах).
+     * @return Расстояние между соседними строками.
+     */
+    public double getPixelSpacingY() {
+        return pixelSpacingY;
+    }
+}
@@ -0,0 +1,109 @@
+// File: core/src/main/java/utils/PreciseComplexNumber.java
+package utils;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Комплексное число с частями в {@link BigDecimal} - точка комплексной плоскости на глубоком зуме,
+ * где {@link ComplexNumber} уже не различает соседние пиксели.
+ * <p>
+ * Используется вместе с высокоточной формой {@link model.Viewport}: точка задается как центр области
+ * плюс смещение в {@code double} ({@link #add(double, double)}), что не теряет знаков на любом масштабе.
+ * Является неизменяемым (immutable) классом.
+ * </p>
+ */
+public final class PreciseComplexNumber implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Вещественная часть (Re(z)). */
+    private final BigDecimal real;
+    /** Мнимая часть (Im(z)). */
+    private final BigDecimal imaginary;
+
+    /**
+     * Создает комплексное число.
+     *
+     * @param real      Вещественная часть. Не может быть null.
+     * @param imaginary Мнимая часть. Не может быть null.
+     */
+    public PreciseComplexNumber(BigDecimal real, BigDecimal imaginary) {
+        this.real = Objects.requireNonNull(real, "Вещественная часть не может быть null");
+        this.imaginary = Objects.requireNonNull(imaginary, "Мнимая часть не может быть null");
+    }
+
+    /**
+     * Создает точное представление числа с частями в {@code double}.
+     * @param value Исходное число. Не может быть null.
+     * @return Число с теми же значениями частей.
+     */
+    public static PreciseComplexNumber of(ComplexNumber value) {
+        return new PreciseComplexNumber(new BigDecimal(value.getReal()), new BigDecimal(value.getImaginary()));
+    }
+
+    public BigDecimal getReal() {
+        return real;
+    }
+
+    public BigDecimal getImaginary() {
+        return imaginary;
+    }
+
+    /**
+     * Прибавляет смещение, заданное в {@code double}. Сложение точное.
+     *
+     * @param deltaReal      Смещение по вещественной оси.
+     * @param deltaImaginary Смещение по мнимой оси.
+     * @return Новое число {@code this + (deltaReal + i * deltaImaginary)}.
+     */
+    public PreciseComplexNumber add(double deltaReal, double deltaImaginary) {
+        return new PreciseComplexNumber(real.add(new BigDecimal(deltaReal)), imaginary.add(new BigDecimal(deltaImaginary)));
+    }
+
+    /**
+     * Разность с другим числом, округленная до {@code double}. Вычитание выполняется точно,
+     * поэтому результат верен до последнего знака даже для очень близких чисел.
+     *
+     * @param other Вычитаемое. Не может быть null.
+     * @return {@code this - other} в {@code double}.
+     */
+    public ComplexNumber subtract(PreciseComplexNumber other) {
+        return new ComplexNumber(real.subtract(other.real).doubleValue(),
+                                 imaginary.subtract(other.imaginary).doubleValue());
+    }
+
+    /**
+     * Округляет число до {@code double} (для отображения и вычислений обычной точности).
+     * @return Ближайшее {@link ComplexNumber}.
+     */
+    public ComplexNumber toComplexNumber() {
+        return new ComplexNumber(real.doubleValue(), imaginary.doubleValue());
+    }
+
+    /**
+     * Сравнивает числа по значению ({@code 0.5} и {@code 0.50} равны).
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PreciseComplexNumber)) return false;
+        PreciseComplexNumber that = (PreciseComplexNumber) o;
+        return real.compareTo(that.real) == 0 && imaginary.compareTo(that.imaginary) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(real.stripTrailingZeros(), imaginary.stripTrailingZeros());
+    }
+
+    /**
+     * Возвращает строковое представление в формате "a + bi" с полной записью частей.
+     */
+    @Override
+    public String toString() {
+        String sign = imaginary.signum() >= 0 ? " + " : " - ";
+        return real.toPlainString() + sign + imaginary.abs().toPlainString() + "i";
+    }
+}
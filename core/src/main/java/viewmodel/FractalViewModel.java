@@ -244,9 +244,10 @@ public class FractalViewModel {
             return;
         }
 
-        // Конвертируем экранные координаты углов в комплексные числа
-        ComplexNumber c1 = Converter.screenToComplex(startX, startY, panelWidth, panelHeight, currentState.getViewport());
-        ComplexNumber c2 = Converter.screenToComplex(endX, endY, panelWidth, panelHeight, currentState.getViewport());
+        // Конвертируем экранные координаты углов в смещения от центра области:
+        // в отличие от абсолютных координат они точны на любом масштабе
+        ComplexNumber c1 = Converter.screenToOffset(startX, startY, panelWidth, panelHeight, currentState.getViewport());
+        ComplexNumber c2 = Converter.screenToOffset(endX, endY, panelWidth, panelHeight, currentState.getViewport());
 
         if (c1 == null || c2 == null) {
             System.err.println("Не удалось сконвертировать экранные координаты для зума.");
@@ -256,12 +257,12 @@ public class FractalViewModel {
         // Вычисляем целевое соотношение сторон на основе размеров панели
         double targetAspectRatio = (double) panelWidth / panelHeight;
 
-        // Создаем команду зума, передавая ViewModel, комплексные координаты углов, аспект и стратегию расчёта итераций
-        Command zoomCommand = new ZoomCommand(this,
-                                              c1.getReal(), c2.getReal(),
-                                              c1.getImaginary(), c2.getImaginary(),
-                                              targetAspectRatio,
-                                              iterationStrategy);
+        // Создаем команду зума, передавая ViewModel, смещения углов от центра, аспект и стратегию расчёта итераций
+        Command zoomCommand = ZoomCommand.relative(this,
+                                                   c1.getReal(), c2.getReal(),
+                                                   c1.getImaginary(), c2.getImaginary(),
+                                                   targetAspectRatio,
+                                                   iterationStrategy);
         executeCommand(zoomCommand);
     }
 
@@ -283,9 +284,12 @@ public class FractalViewModel {
             return; // Нет смещения
         }
 
-        // Рассчитываем, какому изменению комплексных координат соответствует сдвиг на один пиксель
-        double complexDeltaPerPixelX = currentState.getViewport().getWidth() / (panelWidth > 1 ? (panelWidth - 1.0) : 1.0);
-        double complexDeltaPerPixelY = currentState.getViewport().getHeight() / (panelHeight > 1 ? (panelHeight - 1.0) : 1.0);
+        // Рассчитываем, какому изменению комплексных координат соответствует сдвиг на один пиксель.
+        // Шаг тот же, что у рендерера (с учетом соотношения сторон панели): изображение сдвигается
+        // ровно на целое число пикселей, и рендерер может переиспользовать предыдущий кадр
+        double[] step = Converter.pixelStep(panelWidth, panelHeight, currentState.getViewport());
+        double complexDeltaPerPixelX = step[0];
+        double complexDeltaPerPixelY = step[1];
 
         // Вычисляем общее смещение в комплексных координатах
         // Знак (-) для deltaX, так как движение мыши вправо (увеличение screenX) должно сдвигать viewport влево (уменьшать minX/maxX)
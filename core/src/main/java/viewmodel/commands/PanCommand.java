@@ -18,6 +18,10 @@ import java.util.Objects;
  * При отмене ({@link #undo()}) команда вычисляет предыдущий {@code Viewport},
  * применяя обратный сдвиг ({@code -deltaX}, {@code -deltaY}) к текущему,
  * и восстанавливает это состояние в {@link FractalViewModel}.
+ * </p><p>
+ * Сдвиг задается в {@code double}: это величина порядка размера области, поэтому она точна
+ * на любом масштабе. Для высокоточной области {@link Viewport#pan(double, double)} прибавляет
+ * его к центру в {@link java.math.BigDecimal}, и отмена восстанавливает центр до последнего знака.
  * </p>
  */
 public class PanCommand implements Command {
@@ -15,7 +15,10 @@ import java.util.Objects;
  * При выполнении ({@link #execute()}) команда:
  * <ol>
  *     <li>Вычисляет новый {@code Viewport}, соответствующий запрошенной области
- *         (с коррекцией соотношения сторон).</li>
+ *         (с коррекцией соотношения сторон). Область задается смещениями от центра текущего
+ *         {@code Viewport} (команда создается через {@link #relative}), поэтому зум не теряет знаков
+ *         на любом масштабе и при необходимости переводит область в высокоточную форму
+ *         ({@link Viewport#zoomRelative}).</li>
  *     <li>Динамически рассчитывает новое максимальное количество итераций
  *         на основе степени приближения (чем ближе зум, тем больше итераций).</li>
  *     <li>Обновляет состояние в {@link FractalViewModel}, устанавливая новый
@@ -30,14 +33,14 @@ public class ZoomCommand implements Command {
 
     /** Ссылка на ViewModel для доступа к текущему состоянию и его обновления. */
     private final FractalViewModel viewModel;
-    /** Минимальная вещественная координата целевой области зума. */
-    private final double targetMinX;
-    /** Максимальная вещественная координата целевой области зума. */
-    private final double targetMaxX;
-    /** Минимальная мнимая координата целевой области зума. */
-    private final double targetMinY;
-    /** Максимальная мнимая координата целевой области зума. */
-    private final double targetMaxY;
+    /** Минимальное смещение целевой области зума от центра текущего Viewport по вещественной оси. */
+    private final double offsetMinX;
+    /** Максимальное смещение целевой области по вещественной оси. */
+    private final double offsetMaxX;
+    /** Минимальное смещение целевой области по мнимой оси. */
+    private final double offsetMinY;
+    /** Максимальное смещение целевой области по мнимой оси. */
+    private final double offsetMaxY;
     /** Целевое соотношение сторон (ширина/высота) для нового Viewport. */
     private final double targetAspectRatio;
 
@@ -55,28 +58,37 @@ public class ZoomCommand implements Command {
 
 
     /**
-     * Создает команду масштабирования (зума).
+     * Создает команду масштабирования (зума) к области, заданной смещениями углов
+     * от центра текущего Viewport (на момент выполнения команды).
      *
      * @param viewModel         ViewModel, состояние которой будет изменяться. Не может быть null.
-     * @param x1                Одна из вещественных координат целевой области масштабирования.
-     * @param x2                Другая вещественная координата целевой области масштабирования.
-     * @param y1                Одна из мнимых координат целевой области масштабирования.
-     * @param y2                Другая мнимая координата целевой области масштабирования.
+     * @param offsetX1          Смещение одного угла целевой области от центра по вещественной оси.
+     * @param offsetX2          Смещение другого угла по вещественной оси.
+     * @param offsetY1          Смещение одного угла по мнимой оси.
+     * @param offsetY2          Смещение другого угла по мнимой оси.
      * @param targetAspectRatio Желаемое соотношение сторон нового Viewport (обычно соответствует панели). Должно быть > 0.
      * @param iterationStrategy Стратегия динамического расчёта итераций. Не может быть null.
+     * @return Новая команда.
      * @throws NullPointerException если {@code viewModel} или {@code iterationStrategy} равен null.
      * @throws IllegalArgumentException если {@code targetAspectRatio <= 0}.
      */
-    public ZoomCommand(FractalViewModel viewModel,
-                       double x1, double x2, double y1, double y2,
-                       double targetAspectRatio,
-                       IterationStrategy iterationStrategy) {
+    public static ZoomCommand relative(FractalViewModel viewModel,
+                                       double offsetX1, double offsetX2, double offsetY1, double offsetY2,
+                                       double targetAspectRatio,
+                                       IterationStrategy iterationStrategy) {
+        return new ZoomCommand(viewModel, offsetX1, offsetX2, offsetY1, offsetY2, targetAspectRatio, iterationStrategy);
+    }
+
+    private ZoomCommand(FractalViewModel viewModel,
+                        double offsetX1, double offsetX2, double offsetY1, double offsetY2,
+                        double targetAspectRatio,
+                        IterationStrategy iterationStrategy) {
         this.viewModel = Objects.requireNonNull(viewModel, "ViewModel не может быть null");
-        // Упорядочиваем координаты сразу
-        this.targetMinX = Math.min(x1, x2);
-        this.targetMaxX = Math.max(x1, x2);
-        this.targetMinY = Math.min(y1, y2);
-        this.targetMaxY = Math.max(y1, y2);
+        // Упорядочиваем смещения сразу
+        this.offsetMinX = Math.min(offsetX1, offsetX2);
+        this.offsetMaxX = Math.max(offsetX1, offsetX2);
+        this.offsetMinY = Math.min(offsetY1, offsetY2);
+        this.offsetMaxY = Math.max(offsetY1, offsetY2);
 
         if (targetAspectRatio <= 0) {
             throw new IllegalArgumentException("Целевое соотношение сторон должно быть положительным.");
@@ -94,7 +106,7 @@ public class ZoomCommand implements Command {
      * Выполняет команду масштабирования (зума).
      * <p>
      * Сохраняет текущий {@code Viewport} и {@code maxIterations} для отмены.
-     * Вычисляет новый {@code Viewport} с помощью {@link Viewport#zoom(double, double, double, double, double)}.
+     * Вычисляет новый {@code Viewport} с помощью {@link Viewport#zoomRelative(double, double, double, double, double)}.
      * Вычисляет новое количество итераций с помощью {@link #calculateNewIterations(Viewport, Viewport, int)}.
      * Создает новый {@link FractalState} с этими значениями и обновляет состояние в {@link #viewModel}.
      * </p>
@@ -114,7 +126,7 @@ public class ZoomCommand implements Command {
         this.previousMaxIterations = currentState.getMaxIterations();
 
         // 1. Вычисляем новый viewport с коррекцией аспекта
-        Viewport newViewport = previousViewport.zoom(targetMinX, targetMaxX, targetMinY, targetMaxY, targetAspectRatio);
+        Viewport newViewport = previousViewport.zoomRelative(offsetMinX, offsetMaxX, offsetMinY, offsetMaxY, targetAspectRatio);
 
         // Проверяем, изменился ли viewport после зума (может не измениться при ошибках или малом выделении)
         if (Objects.equals(newViewport, previousViewport)) {
@@ -209,9 +221,10 @@ public class ZoomCommand implements Command {
         double oldWidth = oldViewport.getWidth();
         double newWidth = newViewport.getWidth();
 
-        // Избегаем деления на ноль или некорректных значений
-        final double EPSILON = 1e-9;
-        if (oldWidth < EPSILON || newWidth < EPSILON) {
+        // Избегаем деления на ноль или некорректных значений. Коэффициент зума - отношение ширин,
+        // поэтому абсолютный порог не нужен: на глубоком зуме (метод возмущений, приближение рядом)
+        // итерации должны продолжать расти и при ширине области меньше 1e-9
+        if (!(oldWidth > 0.0) || !(newWidth > 0.0)) {
             System.err.println("Предупреждение: Расчет новых итераций пропущен из-за нулевой ширины Viewport.");
             return currentIterations; // Сохраняем текущее количество итераций
         }
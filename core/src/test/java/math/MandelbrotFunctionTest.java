@@ -0,0 +1,89 @@
+// File: core/src/test/java/math/MandelbrotFunctionTest.java
+package math;
+
+import model.Viewport;
+import org.junit.jupiter.api.Test;
+import utils.CoordinateMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверки скалярного ядра {@link MandelbrotFunction}: проверка периодичности
+ * и проверка главной кардиоиды и круга периода 2 не меняют числа итераций.
+ */
+class MandelbrotFunctionTest {
+
+    private static final int MAX_ITERATIONS = 1000;
+
+    /** Область у границы множества: много медленно убегающих точек рядом с внутренними. */
+    private static final Viewport SEAHORSE_VALLEY = new Viewport(-0.76, -0.73, 0.09, 0.12);
+
+    @Test
+    void periodicityKeepsIterationsOfExteriorPoints() {
+        assertPeriodicityKeepsExterior(Viewport.DEFAULT_VIEWPORT);
+        assertPeriodicityKeepsExterior(SEAHORSE_VALLEY);
+    }
+
+    @Test
+    void periodicityFindsCycleOfInteriorPoint() {
+        MandelbrotFunction function = new MandelbrotFunction(false);
+        // Центр периода-2 круга: орбита быстро сходится к циклу длины 2
+        long result = function.calculateIterationsWithPeriod(-1.0, 0.0, -1.0, 0.0, MAX_ITERATIONS, 1e-9);
+        assertEquals(MAX_ITERATIONS, FractalFunction.iterationsOf(result));
+        assertEquals(2, FractalFunction.periodOf(result));
+    }
+
+    @Test
+    void interiorCheckKeepsIterations() {
+        MandelbrotFunction plain = new MandelbrotFunction(false);
+        MandelbrotFunction checked = new MandelbrotFunction(true);
+        CoordinateMapper mapper = new CoordinateMapper(Viewport.DEFAULT_VIEWPORT, 160, 120);
+        for (int y = 0; y < mapper.getHeight(); y++) {
+            for (int x = 0; x < mapper.getWidth(); x++) {
+                double re = mapper.re(x);
+                double im = mapper.im(y);
+                assertEquals(plain.calculateIterations(re, im, re, im, MAX_ITERATIONS),
+                             checked.calculateIterations(re, im, re, im, MAX_ITERATIONS),
+                             "пиксель " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void detectsCardioidAndBulb() {
+        assertTrue(MandelbrotFunction.isInMainCardioidOrBulb(0.0, 0.0));
+        assertTrue(MandelbrotFunction.isInMainCardioidOrBulb(0.2, 0.5));
+        assertTrue(MandelbrotFunction.isInMainCardioidOrBulb(-1.0, 0.1));
+        // Точки вне кардиоиды и круга (внутри множества или у его границы): проверка не срабатывает
+        assertFalse(MandelbrotFunction.isInMainCardioidOrBulb(-1.75, 0.0));
+        assertFalse(MandelbrotFunction.isInMainCardioidOrBulb(0.3, 0.0));
+        assertFalse(MandelbrotFunction.isInMainCardioidOrBulb(-0.75, 0.1));
+    }
+
+    /**
+     * Для каждой точки, убежавшей без проверки периодичности, проверка должна дать то же число итераций
+     * (внутренние точки с проверкой заканчиваются раньше, но тоже получают maxIterations).
+     */
+    private static void assertPeriodicityKeepsExterior(Viewport viewport) {
+        MandelbrotFunction function = new MandelbrotFunction(false);
+        CoordinateMapper mapper = new CoordinateMapper(viewport, 160, 120);
+        double tolerance = 1e-3 * Math.min(mapper.getPixelSpacingX(), mapper.getPixelSpacingY());
+        int exterior = 0;
+        for (int y = 0; y < mapper.getHeight(); y++) {
+            for (int x = 0; x < mapper.getWidth(); x++) {
+                double re = mapper.re(x);
+                double im = mapper.im(y);
+                int expected = function.calculateIterations(re, im, re, im, MAX_ITERATIONS);
+                long result = function.calculateIterationsWithPeriod(re, im, re, im, MAX_ITERATIONS, tolerance);
+                assertEquals(expected, FractalFunction.iterationsOf(result), "пиксель " + x + "," + y + " в " + viewport);
+                if (expected < MAX_ITERATIONS) {
+                    exterior++;
+                    assertEquals(0, FractalFunction.periodOf(result), "у убежавшей точки нет периода");
+                }
+            }
+        }
+        assertTrue(exterior > 0, "в области должны быть внешние точки");
+    }
+}
@@ -0,0 +1,110 @@
+// File: core/src/test/java/math/ReferenceOrbitTest.java
+package math;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Глубокий зум (ширина области 1e-20, за пределами точности double): итерации
+ * {@link ReferenceOrbit} (возмущения от опорной орбиты) и {@link DoubleDoubleKernel}
+ * сравниваются с прямой итерацией в {@link BigDecimal}.
+ */
+class ReferenceOrbitTest {
+
+    /** Точка на вещественной оси у мини-копии множества: итерации точек области 1e-20 различаются. */
+    private static final BigDecimal CENTER_RE = new BigDecimal("-1.74908126902375588716629335");
+    private static final BigDecimal CENTER_IM = BigDecimal.ZERO;
+    private static final double WIDTH = 1e-20;
+    private static final int GRID = 8;
+    private static final int MAX_ITERATIONS = 1000;
+    /** Точность эталонной итерации: с запасом больше 20 знаков области и 32 знаков double-double. */
+    private static final MathContext REFERENCE_PRECISION = new MathContext(60);
+
+    private static int[] directGrid;
+
+    private final MandelbrotFunction function = new MandelbrotFunction(false);
+
+    @Test
+    void bigDecimalOrbitMatchesDirectIteration() {
+        double spacing = WIDTH / GRID;
+        int digits = ReferenceOrbit.requiredDigits(1.75, spacing);
+        assertTrue(digits > 20, "точности double недостаточно: " + digits);
+        ReferenceOrbit orbit = ReferenceOrbit.compute(function, CENTER_RE, CENTER_IM, MAX_ITERATIONS, digits);
+        assertMatchesDirectIteration(orbit::iterate);
+    }
+
+    @Test
+    void doubleDoubleOrbitMatchesDirectIteration() {
+        ReferenceOrbit orbit = ReferenceOrbit.computeDoubleDouble(function, CENTER_RE, CENTER_IM, MAX_ITERATIONS);
+        assertMatchesDirectIteration(orbit::iterate);
+    }
+
+    @Test
+    void doubleDoubleKernelMatchesDirectIteration() {
+        DoubleDoubleKernel kernel = DoubleDoubleKernel.create(function, CENTER_RE, CENTER_IM);
+        assertMatchesDirectIteration(kernel::iterate);
+    }
+
+    /** Итерации точки по смещению от центра (как у ядер глубокого зума). */
+    @FunctionalInterface
+    private interface DeltaIteration {
+        int iterate(double deltaRe, double deltaIm, int maxIterations);
+    }
+
+    /** Точки - центры пикселей сетки 8x8, поэтому ни одна не лежит на вещественной оси. */
+    private static void assertMatchesDirectIteration(DeltaIteration iteration) {
+        double spacing = WIDTH / GRID;
+        int[] expected = directGrid();
+        for (int y = 0; y < GRID; y++) {
+            for (int x = 0; x < GRID; x++) {
+                double deltaRe = (x - GRID / 2.0 + 0.5) * spacing;
+                double deltaIm = (GRID / 2.0 - y - 0.5) * spacing;
+                assertEquals(expected[y * GRID + x], iteration.iterate(deltaRe, deltaIm, MAX_ITERATIONS),
+                             "пиксель " + x + "," + y);
+            }
+        }
+    }
+
+    /** Эталонные итерации сетки (считаются один раз на все тесты). */
+    private static synchronized int[] directGrid() {
+        if (directGrid == null) {
+            double spacing = WIDTH / GRID;
+            int[] grid = new int[GRID * GRID];
+            for (int y = 0; y < GRID; y++) {
+                for (int x = 0; x < GRID; x++) {
+                    grid[y * GRID + x] = directIterations(CENTER_RE.add(new BigDecimal((x - GRID / 2.0 + 0.5) * spacing)),
+                                                          CENTER_IM.add(new BigDecimal((GRID / 2.0 - y - 0.5) * spacing)),
+                                                          MAX_ITERATIONS);
+                }
+            }
+            // В double все точки сетки совпали бы: разные результаты значат, что смещения различимы
+            assertTrue(Arrays.stream(grid).distinct().count() > 2, "сетка слишком однородна для проверки");
+            directGrid = grid;
+        }
+        return directGrid;
+    }
+
+    /** Итерация z = z^2 + c целиком в BigDecimal. */
+    private static int directIterations(BigDecimal cr, BigDecimal ci, int maxIterations) {
+        BigDecimal zr = BigDecimal.ZERO;
+        BigDecimal zi = BigDecimal.ZERO;
+        BigDecimal four = BigDecimal.valueOf(4);
+        for (int i = 0; i < maxIterations; i++) {
+            BigDecimal zr2 = zr.multiply(zr, REFERENCE_PRECISION);
+            BigDecimal zi2 = zi.multiply(zi, REFERENCE_PRECISION);
+            if (zr2.add(zi2).compareTo(four) > 0) {
+                return i;
+            }
+            BigDecimal zri = zr.multiply(zi, REFERENCE_PRECISION);
+            zi = zri.add(zri).add(ci, REFERENCE_PRECISION);
+            zr = zr2.subtract(zi2).add(cr, REFERENCE_PRECISION);
+        }
+        return maxIterations;
+    }
+}
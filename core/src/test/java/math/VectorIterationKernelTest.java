@@ -0,0 +1,79 @@
+// File: core/src/test/java/math/VectorIterationKernelTest.java
+package math;
+
+import model.Viewport;
+import org.junit.jupiter.api.Test;
+import utils.CoordinateMapper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Векторное ядро строк должно давать те же итерации и периоды, что и скалярное
+ * ({@link RowIterationKernel}). Тесты пропускаются, если JVM запущена без {@code jdk.incubator.vector}.
+ */
+class VectorIterationKernelTest {
+
+    private static final int MAX_ITERATIONS = 1000;
+    private static final int WIDTH = 157; // Не кратно числу полос: проверяется и хвост строки
+    private static final int HEIGHT = 60;
+
+    @Test
+    void rowsMatchScalarIterations() {
+        MandelbrotFunction function = new MandelbrotFunction(false);
+        CoordinateMapper mapper = new CoordinateMapper(new Viewport(-0.76, -0.73, 0.09, 0.12), WIDTH, HEIGHT);
+        RowIterationKernel kernel = vectorKernel(function, -1.0);
+        int[] row = new int[WIDTH];
+        int[] expected = new int[WIDTH];
+        for (int y = 0; y < HEIGHT; y++) {
+            double im = mapper.im(y);
+            kernel.iterateRow(mapper.getReTable(), 0, WIDTH, im, row, 0, null, 0);
+            for (int x = 0; x < WIDTH; x++) {
+                expected[x] = function.calculateIterations(mapper.re(x), im, mapper.re(x), im, MAX_ITERATIONS);
+            }
+            assertArrayEquals(expected, row, "строка " + y);
+        }
+    }
+
+    @Test
+    void rowsWithPeriodicityMatchScalarResults() {
+        MandelbrotFunction function = new MandelbrotFunction(true);
+        CoordinateMapper mapper = new CoordinateMapper(Viewport.DEFAULT_VIEWPORT, WIDTH, HEIGHT);
+        double tolerance = 1e-3 * Math.min(mapper.getPixelSpacingX(), mapper.getPixelSpacingY());
+        RowIterationKernel kernel = vectorKernel(function, tolerance);
+        int[] row = new int[WIDTH];
+        int[] periods = new int[WIDTH];
+        for (int y = 0; y < HEIGHT; y++) {
+            double im = mapper.im(y);
+            kernel.iterateRow(mapper.getReTable(), 0, WIDTH, im, row, 0, periods, 0);
+            for (int x = 0; x < WIDTH; x++) {
+                long result = function.calculateIterationsWithPeriod(mapper.re(x), im, mapper.re(x), im,
+                                                                     MAX_ITERATIONS, tolerance);
+                assertEquals(FractalFunction.iterationsOf(result), row[x], "пиксель " + x + "," + y);
+                assertEquals(FractalFunction.periodOf(result), periods[x], "период " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void partialRowIsWrittenAtOffset() {
+        MandelbrotFunction function = new MandelbrotFunction(false);
+        CoordinateMapper mapper = new CoordinateMapper(Viewport.DEFAULT_VIEWPORT, WIDTH, HEIGHT);
+        RowIterationKernel kernel = vectorKernel(function, -1.0);
+        double im = mapper.im(HEIGHT / 2);
+        int[] out = new int[WIDTH];
+        kernel.iterateRow(mapper.getReTable(), 13, 50, im, out, 3, null, 0);
+        for (int x = 13; x < 50; x++) {
+            assertEquals(function.calculateIterations(mapper.re(x), im, mapper.re(x), im, MAX_ITERATIONS),
+                         out[x - 10], "столбец " + x);
+        }
+        assertEquals(0, out[2]);
+        assertEquals(0, out[40]);
+    }
+
+    private static RowIterationKernel vectorKernel(MandelbrotFunction function, double tolerance) {
+        assumeTrue(RowIterationKernel.isVectorApiAvailable(), "модуль jdk.incubator.vector не подключен");
+        return RowIterationKernel.vectorized(function, MAX_ITERATIONS, tolerance);
+    }
+}
@@ -0,0 +1,117 @@
+package render;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Адаптивное разбиение покрывает область без пропусков и наложений при любой оценке стоимости,
+ * а без оценки (или при равномерной стоимости) совпадает с сеткой базового размера.
+ */
+class AdaptiveTilingPolicyTest {
+
+    private static final int WIDTH = 300;
+    private static final int HEIGHT = 200;
+
+    private final AdaptiveTilingPolicy policy = new AdaptiveTilingPolicy(32, 8, 128);
+
+    @Test
+    void withoutHintMatchesFixedGrid() {
+        assertEquals(describe(new FixedTilingPolicy(32).createTiles(WIDTH, HEIGHT, null)),
+                     describe(policy.createTiles(WIDTH, HEIGHT, null)));
+    }
+
+    @Test
+    void uniformCostMatchesFixedGrid() {
+        // Стороны кратны наибольшему тайлу: блоки у края не обрезаются
+        int[] uniform = new int[256 * 128];
+        Arrays.fill(uniform, 100);
+        assertEquals(describe(new FixedTilingPolicy(32).createTiles(256, 128, null)),
+                     describe(policy.createTiles(256, 128, uniform)));
+    }
+
+    @Test
+    void coversImageOnceForAnyCost() {
+        assertCoversOnce(policy.createTiles(WIDTH, HEIGHT, null), 0, 0, WIDTH, HEIGHT);
+        int[] uniform = new int[WIDTH * HEIGHT];
+        Arrays.fill(uniform, 10);
+        assertCoversOnce(policy.createTiles(WIDTH, HEIGHT, uniform), 0, 0, WIDTH, HEIGHT);
+        assertCoversOnce(policy.createTiles(WIDTH, HEIGHT, hotSpotCost()), 0, 0, WIDTH, HEIGHT);
+        assertCoversOnce(policy.createTiles(WIDTH, HEIGHT, new int[WIDTH * HEIGHT]), 0, 0, WIDTH, HEIGHT);
+    }
+
+    @Test
+    void coversSubRegionOnce() {
+        // Полоса, открывшаяся при панорамировании: тайлы только внутри нее
+        List<Tile> tiles = policy.createTiles(0, 170, WIDTH, 30, WIDTH, hotSpotCost());
+        assertCoversOnce(tiles, 0, 170, WIDTH, 30);
+        tiles = policy.createTiles(250, 0, 50, HEIGHT, WIDTH, hotSpotCost());
+        assertCoversOnce(tiles, 250, 0, 50, HEIGHT);
+    }
+
+    @Test
+    void expensiveAreaGetsSmallerTiles() {
+        List<Tile> tiles = policy.createTiles(WIDTH, HEIGHT, hotSpotCost());
+        int hotArea = 0;
+        int hotTiles = 0;
+        int coldArea = 0;
+        int coldTiles = 0;
+        for (Tile tile : tiles) {
+            assertTrue(tile.width <= 128 && tile.height <= 128, "тайл больше наибольшего: " + tile);
+            assertTrue(tile.width >= 8 || tile.startX + tile.width == WIDTH, "тайл уже наименьшего: " + tile);
+            assertTrue(tile.height >= 8 || tile.startY + tile.height == HEIGHT, "тайл ниже наименьшего: " + tile);
+            if (tile.startX + tile.width <= 64 && tile.startY + tile.height <= 64) {
+                hotArea += tile.width * tile.height;
+                hotTiles++;
+            } else if (tile.startX >= 128 && tile.startY >= 128) {
+                coldArea += tile.width * tile.height;
+                coldTiles++;
+            }
+        }
+        assertTrue(hotTiles > 0 && coldTiles > 0);
+        assertTrue(hotArea / hotTiles < coldArea / coldTiles,
+                   "средний тайл в дорогой области должен быть меньше, чем в дешевой");
+    }
+
+    @Test
+    void rejectsInconsistentSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveTilingPolicy(32, 0, 128));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveTilingPolicy(4, 8, 128));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveTilingPolicy(32, 8, 16));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveTilingPolicy(32, 8, 96));
+    }
+
+    /** Стоимость 1000 в углу 64x64, 1 - в остальном кадре. */
+    private static int[] hotSpotCost() {
+        int[] cost = new int[WIDTH * HEIGHT];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                cost[y * WIDTH + x] = (x < 64 && y < 64) ? 1000 : 1;
+            }
+        }
+        return cost;
+    }
+
+    private static void assertCoversOnce(List<Tile> tiles, int startX, int startY, int width, int height) {
+        int[] coverage = new int[WIDTH * HEIGHT];
+        for (Tile tile : tiles) {
+            TilingAssertions.mark(coverage, WIDTH, tile);
+        }
+        TilingAssertions.assertCoveredOnce(coverage, WIDTH, startX, startY, width, height);
+    }
+
+    /** Тайлы в построчном порядке (порядок обхода у разбиений разный). */
+    private static String describe(List<Tile> tiles) {
+        return tiles.stream()
+                .sorted(Comparator.comparingInt((Tile tile) -> tile.startY).thenComparingInt(tile -> tile.startX))
+                .map(Tile::toString)
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,87 @@
+package render;
+
+import math.MandelbrotFunction;
+import model.FractalState;
+import model.NonlinearRGBScheme;
+import model.Viewport;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Разбиение на тайлы и планировщик влияют только на порядок работы, но не на изображение:
+ * кадры с {@link AdaptiveTilingPolicy} совпадают с кадрами на сетке {@link FixedTilingPolicy}(32).
+ */
+class FractalRendererTest {
+
+    private static final int WIDTH = 320;
+    private static final int HEIGHT = 240;
+
+    /** Последовательность кадров: обычный, зум (оценка стоимости по предыдущему кадру), сдвиг, новое maxIterations. */
+    private static final FractalState[] FRAMES = {
+            state(new Viewport(-2.0, 1.0, -1.125, 1.125), 300),
+            state(new Viewport(-0.8, -0.7, 0.05, 0.125), 300),
+            state(new Viewport(-0.8, -0.7, 0.05, 0.125).pan(0.1 * 40 / (WIDTH - 1), 0.0), 300),
+            state(new Viewport(-0.8, -0.7, 0.05, 0.125), 600),
+    };
+
+    @Test
+    void adaptiveTilingMatchesFixedGrid() throws Exception {
+        for (RenderEngine engine : RenderEngine.values()) {
+            int[][] fixed = renderFrames(engine, new FixedTilingPolicy(32));
+            int[][] adaptive = renderFrames(engine, new AdaptiveTilingPolicy());
+            for (int i = 0; i < FRAMES.length; i++) {
+                assertArrayEquals(fixed[i], adaptive[i], engine + ", кадр " + i);
+            }
+        }
+    }
+
+    @Test
+    void progressReachesOne() throws Exception {
+        FractalRenderer renderer = new FractalRenderer();
+        try {
+            renderer.setTilingPolicy(new AdaptiveTilingPolicy());
+            for (FractalState frame : FRAMES) {
+                render(renderer, frame);
+                assertEquals(1.0, renderer.getProgress(), 1e-9);
+            }
+        } finally {
+            renderer.shutdown();
+        }
+    }
+
+    private static int[][] renderFrames(RenderEngine engine, TilingPolicy policy) throws Exception {
+        FractalRenderer renderer = new FractalRenderer(engine);
+        try {
+            renderer.setTilingPolicy(policy);
+            int[][] pixels = new int[FRAMES.length][];
+            for (int i = 0; i < FRAMES.length; i++) {
+                pixels[i] = render(renderer, FRAMES[i]);
+            }
+            return pixels;
+        } finally {
+            renderer.shutdown();
+        }
+    }
+
+    /** Рендерит кадр и ждет его завершения. */
+    private static int[] render(FractalRenderer renderer, FractalState state) throws Exception {
+        CompletableFuture<BufferedImage> done = new CompletableFuture<>();
+        renderer.render(state, WIDTH, HEIGHT, done::complete,
+                        () -> done.completeExceptionally(new IllegalStateException("кадр отменен")), () -> { });
+        BufferedImage image = done.get(60, TimeUnit.SECONDS);
+        assertNotNull(image);
+        return ((DataBufferInt) image.getRaster().getDataBuffer()).getData().clone();
+    }
+
+    private static FractalState state(Viewport viewport, int maxIterations) {
+        return new FractalState(viewport, maxIterations, new NonlinearRGBScheme(), new MandelbrotFunction());
+    }
+}
@@ -0,0 +1,66 @@
+package render;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Кривая Гильберта проходит каждую клетку квадрата ровно один раз, и соседние по порядку
+ * клетки соседствуют на плоскости.
+ */
+class HilbertTileOrderTest {
+
+    @Test
+    void indexIsBijectionOverSquare() {
+        int side = 16;
+        boolean[] seen = new boolean[side * side];
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                long index = HilbertTileOrder.hilbertIndex(side, x, y);
+                assertTrue(index >= 0 && index < side * side, "индекс вне квадрата: " + index);
+                assertTrue(!seen[(int) index], "повтор индекса " + index);
+                seen[(int) index] = true;
+            }
+        }
+    }
+
+    @Test
+    void consecutiveCellsAreNeighbours() {
+        int side = 16;
+        int[] xs = new int[side * side];
+        int[] ys = new int[side * side];
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                int index = (int) HilbertTileOrder.hilbertIndex(side, x, y);
+                xs[index] = x;
+                ys[index] = y;
+            }
+        }
+        assertEquals(0, xs[0]);
+        assertEquals(0, ys[0]);
+        for (int i = 1; i < side * side; i++) {
+            assertEquals(1, Math.abs(xs[i] - xs[i - 1]) + Math.abs(ys[i] - ys[i - 1]), "шаг " + i);
+        }
+    }
+
+    @Test
+    void tilesOfFrameFollowCurve() {
+        int tileSize = 32;
+        int width = 256;
+        int height = 256;
+        HilbertTileOrder order = new HilbertTileOrder();
+        List<Tile> tiles = new ArrayList<>(TileCalculator.calculateTiles(width, height, tileSize));
+        tiles.sort(Comparator.comparingDouble(tile -> order.priority(tile, width, height)));
+        for (int i = 1; i < tiles.size(); i++) {
+            Tile previous = tiles.get(i - 1);
+            Tile current = tiles.get(i);
+            int distance = Math.abs(current.startX - previous.startX) + Math.abs(current.startY - previous.startY);
+            assertEquals(tileSize, distance, "тайлы " + previous + " и " + current + " не соседние");
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package render;
+
+import math.MandelbrotFunction;
+import model.FractalState;
+import model.NonlinearRGBScheme;
+import model.Viewport;
+import org.junit.jupiter.api.Test;
+import utils.CoordinateMapper;
+
+import java.awt.*;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/** Распознавание сдвига кадра на целое число пикселей ({@link IterationBuffer#translationTo}). */
+class IterationBufferTest {
+
+    private static final int WIDTH = 160;
+    private static final int HEIGHT = 120;
+    /** Область с соотношением сторон изображения (шаг пикселя по осям все равно немного разный: w / (W - 1)). */
+    private static final Viewport VIEWPORT = new Viewport(-2.0, 1.0, -1.125, 1.125);
+
+    @Test
+    void detectsIntegerPixelShift() {
+        FractalState state = state(VIEWPORT, 200);
+        IterationBuffer buffer = new IterationBuffer(state, WIDTH, HEIGHT);
+        CoordinateMapper old = new CoordinateMapper(VIEWPORT, WIDTH, HEIGHT);
+        double spacingX = old.getPixelSpacingX();
+        double spacingY = old.getPixelSpacingY();
+        FractalState moved = state(VIEWPORT.pan(7 * spacingX, 5 * spacingY), 200);
+        CoordinateMapper mapper = new CoordinateMapper(moved.getViewport(), WIDTH, HEIGHT);
+
+        Point shift = buffer.translationTo(moved, mapper, false);
+        // Область ушла вправо и вверх: пиксель (x, y) нового кадра - пиксель (x + 7, y - 5) старого
+        assertEquals(new Point(7, -5), shift);
+        assertEquals(old.re(10 + shift.x), mapper.re(10), spacingX * IterationBuffer.TRANSLATION_TOLERANCE);
+        assertEquals(old.im(20 + shift.y), mapper.im(20), spacingY * IterationBuffer.TRANSLATION_TOLERANCE);
+    }
+
+    @Test
+    void detectsShiftOfHighPrecisionViewport() {
+        Viewport deep = new Viewport(new BigDecimal("-1.7490812690237558871662933523671429701447"),
+                                     new BigDecimal("0.0000000000000000000000000000000000000001"), 4e-30, 3e-30);
+        FractalState state = state(deep, 500);
+        IterationBuffer buffer = new IterationBuffer(state, WIDTH, HEIGHT);
+        double spacing = new CoordinateMapper(deep, WIDTH, HEIGHT).getPixelSpacingX();
+        FractalState moved = state(deep.pan(-3 * spacing, 0.0), 500);
+        assertEquals(new Point(-3, 0),
+                     buffer.translationTo(moved, new CoordinateMapper(moved.getViewport(), WIDTH, HEIGHT), false));
+    }
+
+    @Test
+    void rejectsNonTranslations() {
+        FractalState state = state(VIEWPORT, 200);
+        IterationBuffer buffer = new IterationBuffer(state, WIDTH, HEIGHT);
+        double spacing = new CoordinateMapper(VIEWPORT, WIDTH, HEIGHT).getPixelSpacingX();
+
+        // Дробный сдвиг
+        FractalState halfPixel = state(VIEWPORT.pan(0.5 * spacing, 0.0), 200);
+        assertNull(buffer.translationTo(halfPixel, mapper(halfPixel), false));
+        // Сдвиг на весь кадр: общих пикселей нет
+        FractalState farAway = state(VIEWPORT.pan(WIDTH * spacing, 0.0), 200);
+        assertNull(buffer.translationTo(farAway, mapper(farAway), false));
+        // Другое maxIterations
+        FractalState moreIterations = state(VIEWPORT.pan(spacing, 0.0), 300);
+        assertNull(buffer.translationTo(moreIterations, mapper(moreIterations), false));
+        // Нужны периоды, а буфер их не хранит
+        FractalState shifted = state(VIEWPORT.pan(spacing, 0.0), 200);
+        assertNull(buffer.translationTo(shifted, mapper(shifted), true));
+        // Другой масштаб
+        FractalState zoomed = state(new Viewport(-1.5, 0.5, -0.75, 0.75), 200);
+        assertNull(buffer.translationTo(zoomed, mapper(zoomed), false));
+        // Другой размер изображения
+        assertNull(buffer.translationTo(shifted, new CoordinateMapper(shifted.getViewport(), WIDTH / 2, HEIGHT / 2), false));
+    }
+
+    @Test
+    void periodsMustMatch() {
+        FractalState state = state(VIEWPORT, 200);
+        IterationBuffer buffer = new IterationBuffer(state, WIDTH, HEIGHT, true);
+        double spacingY = new CoordinateMapper(VIEWPORT, WIDTH, HEIGHT).getPixelSpacingY();
+        FractalState shifted = state(VIEWPORT.pan(0.0, -2 * spacingY), 200);
+        assertEquals(new Point(0, 2), buffer.translationTo(shifted, mapper(shifted), true));
+        assertNull(buffer.translationTo(shifted, mapper(shifted), false));
+    }
+
+    private static FractalState state(Viewport viewport, int maxIterations) {
+        return new FractalState(viewport, maxIterations, new NonlinearRGBScheme(), new MandelbrotFunction());
+    }
+
+    private static CoordinateMapper mapper(FractalState state) {
+        return new CoordinateMapper(state.getViewport(), WIDTH, HEIGHT);
+    }
+}
@@ -0,0 +1,64 @@
+package render;
+
+import math.MandelbrotFunction;
+import model.Viewport;
+import org.junit.jupiter.api.Test;
+import utils.CoordinateMapper;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Заливка однородных прямоугольников переносит не только итерации, но и периоды циклов.
+ * Итерации на областях без тонких нитей совпадают с попиксельным {@link ScanlineStrategy}; периоды
+ * могут отличаться кратностью (проверка находит цикл с точностью до повторения), но не теряются.
+ */
+class MarianiSilverStrategyTest {
+
+    private static final int WIDTH = 96;
+    private static final int HEIGHT = 64;
+    private static final int MAX_ITERATIONS = 500;
+    /** Период, оставшийся в массиве от прошлого кадра. */
+    private static final int STALE_PERIOD = 7;
+
+    @Test
+    void fillsPeriodsOfUniformInterior() {
+        // Прямоугольник внутри главной кардиоиды: все точки - цикл периода 1, внутренность заливается
+        int[] periods = renderMatchingScanline(new Viewport(-0.3, 0.1, -0.2, 0.2));
+        assertTrue(Arrays.stream(periods).allMatch(period -> period > 0 && period != STALE_PERIOD),
+                   "у каждой точки найден цикл");
+    }
+
+    @Test
+    void keepsPeriodsOfNeighbouringComponents() {
+        // Круг периода 2 (центр -1) и главная кардиоида (период 1) с точкой касания -0.75
+        int[] periods = renderMatchingScanline(new Viewport(-1.1, -0.5, -0.15, 0.15));
+        assertTrue(Arrays.stream(periods).noneMatch(period -> period == STALE_PERIOD));
+        assertEquals(2, periods[31 * WIDTH + 16], "c = -1");
+        assertEquals(1, periods[31 * WIDTH + 87], "c = -0.55");
+    }
+
+    /** Рендерит кадр обеими стратегиями с проверкой периодичности и возвращает периоды Мариани-Сильвера. */
+    private static int[] renderMatchingScanline(Viewport viewport) {
+        CoordinateMapper mapper = new CoordinateMapper(viewport, WIDTH, HEIGHT);
+        int[] expectedIterations = new int[WIDTH * HEIGHT];
+        render(new ScanlineStrategy(), mapper, expectedIterations, new int[WIDTH * HEIGHT]);
+
+        int[] iterations = new int[WIDTH * HEIGHT];
+        int[] periods = new int[WIDTH * HEIGHT];
+        // Периоды прошлого кадра не должны протекать в залитые пиксели
+        Arrays.fill(periods, STALE_PERIOD);
+        render(new MarianiSilverStrategy(), mapper, iterations, periods);
+
+        assertArrayEquals(expectedIterations, iterations, "итерации");
+        return periods;
+    }
+
+    private static void render(TileRenderStrategy strategy, CoordinateMapper mapper, int[] iterations, int[] periods) {
+        PixelKernel kernel = PixelKernel.withPeriodicity(new MandelbrotFunction(false), mapper, MAX_ITERATIONS, periods);
+        strategy.renderTile(new Tile(0, 0, WIDTH, HEIGHT), WIDTH, kernel, iterations, periods, () -> false);
+    }
+}
@@ -0,0 +1,80 @@
+package render;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/** Очередь тайлов выдает тайлы по возрастанию приоритета и каждый ровно один раз. */
+class TileQueueTest {
+
+    private static final int WIDTH = 320;
+    private static final int HEIGHT = 240;
+
+    @Test
+    void pollsTilesInPriorityOrder() {
+        List<Tile> tiles = TileCalculator.calculateTiles(WIDTH, HEIGHT, 32);
+        List<Tile> shuffled = new ArrayList<>(tiles);
+        Collections.shuffle(shuffled, new Random(1));
+        TileQueue queue = new TileQueue(shuffled, new RasterTileOrder(), WIDTH, HEIGHT);
+        for (Tile expected : tiles) {
+            assertEquals(expected.toString(), String.valueOf(queue.poll()));
+        }
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void reorderAppliesChangedPriorities() {
+        List<Tile> tiles = TileCalculator.calculateTiles(WIDTH, HEIGHT, 32);
+        AtomicBoolean reversed = new AtomicBoolean();
+        TileOrder order = (tile, width, height) -> {
+            double raster = tile.startY * (double) width + tile.startX;
+            return reversed.get() ? -raster : raster;
+        };
+        TileQueue queue = new TileQueue(tiles, order, WIDTH, HEIGHT);
+        assertEquals(tiles.get(0).toString(), queue.poll().toString());
+        reversed.set(true);
+        queue.reorder();
+        for (int i = tiles.size() - 1; i > 0; i--) {
+            assertEquals(tiles.get(i).toString(), queue.poll().toString());
+        }
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void concurrentPollsTakeEachTileOnce() throws Exception {
+        List<Tile> tiles = TileCalculator.calculateTiles(WIDTH, HEIGHT, 8);
+        TileQueue queue = new TileQueue(tiles, new HilbertTileOrder(), WIDTH, HEIGHT);
+        int[] coverage = new int[WIDTH * HEIGHT];
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Tile>>> workers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                workers.add(executor.submit(() -> {
+                    List<Tile> taken = new ArrayList<>();
+                    for (Tile tile = queue.poll(); tile != null; tile = queue.poll()) {
+                        taken.add(tile);
+                    }
+                    return taken;
+                }));
+            }
+            for (Future<List<Tile>> worker : workers) {
+                for (Tile tile : worker.get()) {
+                    TilingAssertions.mark(coverage, WIDTH, tile);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        TilingAssertions.assertCoveredOnce(coverage, WIDTH, 0, 0, WIDTH, HEIGHT);
+    }
+}
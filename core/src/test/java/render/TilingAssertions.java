@@ -0,0 +1,29 @@
+package render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Проверки разбиений на тайлы: каждый пиксель области покрыт ровно одним тайлом. */
+final class TilingAssertions {
+
+    private TilingAssertions() {
+    }
+
+    /** Увеличивает счетчики покрытия пикселей тайла. */
+    static void mark(int[] coverage, int imageWidth, Tile tile) {
+        for (int y = tile.startY; y < tile.startY + tile.height; y++) {
+            for (int x = tile.startX; x < tile.startX + tile.width; x++) {
+                coverage[y * imageWidth + x]++;
+            }
+        }
+    }
+
+    /** Проверяет, что пиксели области покрыты ровно один раз, а остальные - ни разу. */
+    static void assertCoveredOnce(int[] coverage, int imageWidth, int startX, int startY, int width, int height) {
+        for (int i = 0; i < coverage.length; i++) {
+            int x = i % imageWidth;
+            int y = i / imageWidth;
+            boolean inside = x >= startX && x < startX + width && y >= startY && y < startY + height;
+            assertEquals(inside ? 1 : 0, coverage[i], "покрытие пикселя " + x + "," + y);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+// File: core/src/test/java/services/AnimationServiceTest.java
+package services;
+
+import math.MandelbrotFunction;
+import model.FractalState;
+import model.Keyframe;
+import model.NonlinearRGBScheme;
+import model.Viewport;
+import org.jcodec.api.awt.AWTSequenceEncoder;
+import org.jcodec.common.io.SeekableByteChannel;
+import org.jcodec.common.model.Rational;
+import org.junit.jupiter.api.Test;
+import render.FractalRenderer;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Экспорт анимации с кодером, который записывает кадры вместо кодирования: параллельный
+ * рендеринг, суперсэмплинг и ускоренные режимы сравниваются попиксельно.
+ */
+class AnimationServiceTest {
+
+    private static final int FPS = 10;
+    /** Два сегмента по 8 кадров: зум к границе множества и сдвиг. */
+    private static final List<Keyframe> TOUR = List.of(
+            keyframe(new Viewport(-2.0, 1.0, -1.125, 1.125)),
+            keyframe(new Viewport(-0.95, -0.55, 0.05, 0.35)),
+            keyframe(new Viewport(-0.85, -0.45, 0.0, 0.3)));
+    /** Один сегмент чистого зума (центр общий) в 8 раз. */
+    private static final List<Keyframe> ZOOM = List.of(
+            keyframe(new Viewport(-1.2, 0.0, -0.3, 0.6)),
+            keyframe(new Viewport(-0.675, -0.525, 0.13125, 0.24375)));
+
+    @Test
+    void producesFramesOfEverySegment() throws Exception {
+        List<int[]> frames = export(TOUR, ExportProfile.of(160, 120, 1, 1));
+        assertEquals(2 * 8, frames.size());
+        for (int[] frame : frames) {
+            assertEquals(160 * 120, frame.length);
+        }
+        assertFalse(Arrays.equals(frames.get(0), frames.get(frames.size() - 1)));
+    }
+
+    @Test
+    void parallelExportMatchesSequential() throws Exception {
+        ExportProfile sequential = new ExportProfile(160, 120, 1, 16, 1, 1);
+        ExportProfile parallel = new ExportProfile(160, 120, 1, 16, 4, 3);
+        assertFramesEqual(export(TOUR, sequential), export(TOUR, parallel));
+        assertFramesEqual(export(TOUR, sequential.withSupersampling(2)), export(TOUR, parallel.withSupersampling(2)));
+        assertFramesEqual(export(TOUR, sequential.withTemporalReuse(0.25, 2.0)),
+                          export(TOUR, parallel.withTemporalReuse(0.25, 2.0)));
+        assertFramesEqual(export(ZOOM, sequential.withZoomMovie()), export(ZOOM, parallel.withZoomMovie()));
+    }
+
+    @Test
+    void supersamplingIsBoxDownsampleOfDenseFrame() throws Exception {
+        List<int[]> dense = export(TOUR, ExportProfile.of(320, 240, 1, 2));
+        List<int[]> supersampled = export(TOUR, ExportProfile.of(160, 120, 2, 2));
+        assertEquals(dense.size(), supersampled.size());
+        for (int i = 0; i < dense.size(); i++) {
+            assertArrayEquals(boxDownsample(dense.get(i), 320, 240, 2), supersampled.get(i), "кадр " + i);
+        }
+    }
+
+    @Test
+    void temporalReuseWithoutToleranceMatchesPlainExport() throws Exception {
+        // Переносятся только точки, попавшие точно в центр пикселя того же размера, - кадры не меняются
+        ExportProfile profile = ExportProfile.of(160, 120, 1, 1);
+        assertFramesEqual(export(TOUR, profile), export(TOUR, profile.withTemporalReuse(0.0, 1.0)));
+    }
+
+    @Test
+    void zoomMovieStaysCloseToPerFrameRender() throws Exception {
+        ExportProfile profile = ExportProfile.of(160, 120, 1, 1);
+        List<int[]> plain = export(ZOOM, profile);
+        List<int[]> composed = export(ZOOM, profile.withZoomMovie());
+        assertEquals(plain.size(), composed.size());
+        for (int i = 0; i < plain.size(); i++) {
+            // Слои сглажены (в 2 раза плотнее видео), поэтому кадры отличаются на границах;
+            // средняя разница каналов мала по сравнению с диапазоном 0..255
+            assertTrue(meanChannelDifference(plain.get(i), composed.get(i)) < 24.0, "кадр " + i);
+        }
+    }
+
+    @Test
+    void interpolationKeepsDeepCenterAndLogarithmicWidth() {
+        // Ширины глубже 1e-9 и центр с большим числом знаков, чем в double
+        BigDecimal centerX = new BigDecimal("-1.74908126902375588716629335");
+        BigDecimal centerY = new BigDecimal("0.00000000000000000000000000123");
+        FractalState from = keyframe(new Viewport(centerX, centerY, 1e-3, 0.75e-3)).getState();
+        FractalState to = keyframe(new Viewport(centerX, centerY, 1e-25, 0.75e-25)).getState();
+        List<FractalState> frames = new AnimationService().interpolateStates(from, to, 23, 4.0 / 3.0);
+        assertEquals(23, frames.size());
+        for (int i = 0; i < frames.size(); i++) {
+            Viewport viewport = frames.get(i).getViewport();
+            assertEquals(0, centerX.compareTo(viewport.getCenterX()), "центр X кадра " + i);
+            assertEquals(0, centerY.compareTo(viewport.getCenterY()), "центр Y кадра " + i);
+            assertEquals(-3.0 - i, viewport.getLog10Width(), 1e-9, "ширина кадра " + i);
+            assertEquals(4.0 / 3.0, viewport.getAspectRatio(), 1e-12);
+        }
+    }
+
+    @Test
+    void interpolationMovesDeepCenterLinearly() {
+        // Сдвиг в 100 ширин области: в double центры кадров совпали бы
+        BigDecimal startX = new BigDecimal("-1.74908126902375588716629335");
+        BigDecimal shift = new BigDecimal("1E-18");
+        BigDecimal centerY = new BigDecimal("0.1");
+        FractalState from = keyframe(new Viewport(startX, centerY, 1e-20, 0.75e-20)).getState();
+        FractalState to = keyframe(new Viewport(startX.add(shift), centerY, 1e-20, 0.75e-20)).getState();
+        List<FractalState> frames = new AnimationService().interpolateStates(from, to, 5, 4.0 / 3.0);
+        for (int i = 0; i < frames.size(); i++) {
+            BigDecimal expected = startX.add(shift.multiply(BigDecimal.valueOf(i)).divide(BigDecimal.valueOf(4)));
+            assertEquals(0, expected.compareTo(frames.get(i).getViewport().getCenterX()), "кадр " + i);
+            assertEquals(1e-20, frames.get(i).getViewport().getWidth(), 1e-32);
+        }
+    }
+
+    @Test
+    void deepZoomFramesMatchRenderer() throws Exception {
+        // Ширина 1e-20 за пределами точности double: кадр считается методом возмущений, как на экране
+        FractalState deep = new FractalState(new Viewport(new BigDecimal("-1.74908126902375588716629335"),
+                                                          new BigDecimal("1E-21"), 1e-20, 0.75e-20),
+                                             1000, new NonlinearRGBScheme(), new MandelbrotFunction());
+        int[] expected = renderOnScreen(deep, 160, 120);
+        assertTrue(Arrays.stream(expected).distinct().count() > 2, "кадр слишком однороден для проверки");
+        List<int[]> frames = export(List.of(new Keyframe(deep), new Keyframe(deep)), ExportProfile.of(160, 120, 1, 1));
+        for (int i = 0; i < frames.size(); i++) {
+            assertArrayEquals(expected, frames.get(i), "кадр " + i);
+        }
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        RecordingAnimationService service = new RecordingAnimationService();
+        // Параметры проверяются до открытия файла
+        File output = new File(System.getProperty("java.io.tmpdir"), "rejected-animation.mp4");
+        assertThrows(IllegalArgumentException.class,
+                     () -> service.createAndSaveAnimation(TOUR.subList(0, 1), FPS, 0.8, output, p -> { }, s -> { }));
+        assertThrows(IllegalArgumentException.class,
+                     () -> service.createAndSaveAnimation(TOUR, 0, 0.8, output, p -> { }, s -> { }));
+        assertThrows(IllegalArgumentException.class,
+                     () -> service.createAndSaveAnimation(TOUR, FPS, 0.0, output, p -> { }, s -> { }));
+        List<Keyframe> degenerate = List.of(TOUR.get(0), keyframe(new Viewport(-0.5, -0.5, 0.0, 0.3)));
+        assertThrows(IllegalArgumentException.class,
+                     () -> service.createAndSaveAnimation(degenerate, FPS, 0.8, output, p -> { }, s -> { }));
+    }
+
+    /** Экспортирует анимацию (0.8 с на сегмент) и возвращает кадры в порядке кодирования. */
+    private List<int[]> export(List<Keyframe> keyframes, ExportProfile profile) throws Exception {
+        RecordingAnimationService service = new RecordingAnimationService();
+        List<Double> progress = Collections.synchronizedList(new ArrayList<>());
+        File output = Files.createTempFile("animation", ".mp4").toFile();
+        try {
+            service.createAndSaveAnimation(keyframes, FPS, 0.8, output, profile, progress::add, status -> { });
+        } finally {
+            Files.deleteIfExists(output.toPath());
+        }
+        assertEquals(1.0, progress.get(progress.size() - 1).doubleValue(), 1e-12);
+        return service.frames;
+    }
+
+    private static void assertFramesEqual(List<int[]> expected, List<int[]> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), "кадр " + i);
+        }
+    }
+
+    /** Среднее значений s x s пикселей по каналам с округлением (как суперсэмплинг экспорта). */
+    private static int[] boxDownsample(int[] pixels, int width, int height, int s) {
+        int outWidth = width / s;
+        int[] result = new int[outWidth * (height / s)];
+        int samples = s * s;
+        for (int i = 0; i < result.length; i++) {
+            int x = i % outWidth;
+            int y = i / outWidth;
+            int rgb = 0;
+            for (int shift = 0; shift <= 16; shift += 8) {
+                int sum = 0;
+                for (int j = 0; j < s; j++) {
+                    for (int k = 0; k < s; k++) {
+                        sum += (pixels[(y * s + j) * width + x * s + k] >> shift) & 0xFF;
+                    }
+                }
+                rgb |= ((sum + samples / 2) / samples) << shift;
+            }
+            result[i] = rgb;
+        }
+        return result;
+    }
+
+    private static double meanChannelDifference(int[] a, int[] b) {
+        long sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            for (int shift = 0; shift <= 16; shift += 8) {
+                sum += Math.abs(((a[i] >> shift) & 0xFF) - ((b[i] >> shift) & 0xFF));
+            }
+        }
+        return (double) sum / (3.0 * a.length);
+    }
+
+    /** Кадр {@link FractalRenderer} того же размера (RGB без альфа-канала). */
+    private static int[] renderOnScreen(FractalState state, int width, int height) throws Exception {
+        FractalRenderer renderer = new FractalRenderer();
+        try {
+            CompletableFuture<BufferedImage> done = new CompletableFuture<>();
+            renderer.render(state, width, height, done::complete,
+                            () -> done.completeExceptionally(new IllegalStateException("кадр отменен")), () -> { });
+            int[] pixels = done.get(60, TimeUnit.SECONDS).getRGB(0, 0, width, height, null, 0, width);
+            for (int i = 0; i < pixels.length; i++) {
+                pixels[i] &= 0xFFFFFF;
+            }
+            return pixels;
+        } finally {
+            renderer.shutdown();
+        }
+    }
+
+    private static Keyframe keyframe(Viewport viewport) {
+        return new Keyframe(new FractalState(viewport, 200, new NonlinearRGBScheme(), new MandelbrotFunction()));
+    }
+
+    /** Сервис, записывающий кадры (RGB без альфа-канала) вместо кодирования в видео. */
+    private static final class RecordingAnimationService extends AnimationService {
+        final List<int[]> frames = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        AWTSequenceEncoder createEncoder(SeekableByteChannel channel, Rational fps) throws IOException {
+            return new AWTSequenceEncoder(channel, fps) {
+                @Override
+                public void encodeImage(BufferedImage image) {
+                    int[] pixels = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+                    for (int i = 0; i < pixels.length; i++) {
+                        pixels[i] &= 0xFFFFFF;
+                    }
+                    frames.add(pixels);
+                }
+
+                @Override
+                public void finish() {
+                    // Кадры не кодировались: заголовки файла не нужны
+                }
+            };
+        }
+    }
+}
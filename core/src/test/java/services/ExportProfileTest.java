@@ -0,0 +1,91 @@
+// File: core/src/test/java/services/ExportProfileTest.java
+package services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Проверка параметров профиля экспорта и его with-методов. */
+class ExportProfileTest {
+
+    @Test
+    void rejectsOddOrNonPositiveResolution() {
+        assertThrows(IllegalArgumentException.class, () -> ExportProfile.of(801, 600, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> ExportProfile.of(800, 601, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> ExportProfile.of(0, 600, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> ExportProfile.of(800, -2, 1, 1));
+    }
+
+    @Test
+    void rejectsInvalidRenderingParameters() {
+        assertThrows(IllegalArgumentException.class, () -> ExportProfile.of(800, 600, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+                     () -> ExportProfile.of(800, 600, ExportProfile.MAX_SUPERSAMPLING + 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> ExportProfile.of(800, 600, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ExportProfile(800, 600, 1, 0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ExportProfile(800, 600, 1, 64, 1, 0));
+        assertDoesNotThrow(() -> ExportProfile.of(800, 600, ExportProfile.MAX_SUPERSAMPLING, 1));
+    }
+
+    @Test
+    void validatesTemporalReuseThresholds() {
+        ExportProfile profile = ExportProfile.of(800, 600, 1, 2);
+        assertThrows(IllegalArgumentException.class, () -> profile.withTemporalReuse(-0.1, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> profile.withTemporalReuse(0.6, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> profile.withTemporalReuse(Double.NaN, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> profile.withTemporalReuse(0.25, 0.5));
+        ExportProfile reuse = profile.withTemporalReuse(0.5, 1.0);
+        assertTrue(reuse.isTemporalReuse());
+        assertEquals(0.5, reuse.getMaxSampleOffset());
+        assertEquals(1.0, reuse.getMaxMagnification());
+        assertFalse(reuse.withoutTemporalReuse().isTemporalReuse());
+    }
+
+    @Test
+    void rejectsIncompatibleModes() {
+        ExportProfile profile = ExportProfile.of(800, 600, 1, 2);
+        // Перенесенные точки - отдельные точки, а не средние по пикселю
+        assertThrows(IllegalArgumentException.class,
+                     () -> profile.withSupersampling(2).withTemporalReuse(0.25, 2.0));
+        assertThrows(IllegalArgumentException.class,
+                     () -> profile.withTemporalReuse(0.25, 2.0).withSupersampling(2));
+        assertThrows(IllegalArgumentException.class,
+                     () -> profile.withZoomMovie().withTemporalReuse(0.25, 2.0));
+        assertThrows(IllegalArgumentException.class,
+                     () -> profile.withTemporalReuse(0.25, 2.0).withZoomMovie());
+        assertDoesNotThrow(() -> profile.withSupersampling(2).withZoomMovie());
+    }
+
+    @Test
+    void defaultsAndCopies() {
+        ExportProfile profile = ExportProfile.defaultProfile();
+        assertEquals(ExportProfile.DEFAULT_WIDTH, profile.getWidth());
+        assertEquals(ExportProfile.DEFAULT_HEIGHT, profile.getHeight());
+        assertEquals(1, profile.getSupersampling());
+        assertFalse(profile.isTemporalReuse());
+        assertFalse(profile.isZoomMovie());
+        assertEquals(ExportProfile.DEFAULT_MAX_SAMPLE_OFFSET, profile.getMaxSampleOffset());
+
+        ExportProfile copy = profile.withResolution(1920, 1080).withSupersampling(3).withTileSize(32)
+                .withRenderThreads(3).withFramesInFlight(2);
+        assertEquals(1920, copy.getWidth());
+        assertEquals(1080, copy.getHeight());
+        assertEquals(3, copy.getSupersampling());
+        assertEquals(32, copy.getTileSize());
+        assertEquals(3, copy.getRenderThreads());
+        assertEquals(2, copy.getFramesInFlight());
+        assertEquals(ExportProfile.DEFAULT_WIDTH, profile.getWidth(), "исходный профиль не меняется");
+    }
+
+    @Test
+    void framesInFlightFitPixelBudget() {
+        // 4K: 8.3 млн пикселей, в бюджет 64 млн помещается 8 кадров
+        assertEquals(8, ExportProfile.of(3840, 2160, 1, 16).getFramesInFlight());
+        assertEquals(4, ExportProfile.of(3840, 2160, 1, 4).getFramesInFlight());
+        assertEquals(1, ExportProfile.of(800, 600, 1, 1).getFramesInFlight());
+    }
+}
@@ -0,0 +1,184 @@
+// File: core/src/test/java/services/TemporalFrameTest.java
+package services;
+
+import math.FractalFunction;
+import math.MandelbrotFunction;
+import model.Viewport;
+import org.junit.jupiter.api.Test;
+import utils.CoordinateMapper;
+
+import java.awt.image.BufferedImage;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Перенос точек предыдущего кадра в следующий ({@link TemporalFrame#reprojectFrom}). */
+class TemporalFrameTest {
+
+    /** Нечетные размеры: центр области - центр пикселя, поэтому при зуме x2 точки попадают в центры пикселей. */
+    private static final int WIDTH = 41;
+    private static final int HEIGHT = 31;
+    private static final Viewport VIEWPORT = new Viewport(-2.0, 1.0, -1.125, 1.125);
+    private static final FractalFunction FUNCTION = new MandelbrotFunction();
+    private static final int MAX_ITERATIONS = 100;
+
+    @Test
+    void sameViewportReusesEveryPixel() {
+        TemporalFrame previous = computedFrame(VIEWPORT, MAX_ITERATIONS);
+        TemporalFrame next = emptyFrame(VIEWPORT, MAX_ITERATIONS);
+        assertEquals(WIDTH * HEIGHT, next.reprojectFrom(previous, 0.0, 1.0));
+        for (int i = 0; i < WIDTH * HEIGHT; i++) {
+            assertEquals(previous.iterations[i], next.iterations[i]);
+            assertEquals(0.0f, next.offsetX[i]);
+            assertEquals(0.0f, next.offsetY[i]);
+        }
+    }
+
+    @Test
+    void integerPanMovesSamples() {
+        CoordinateMapper mapper = new CoordinateMapper(VIEWPORT, WIDTH, HEIGHT);
+        TemporalFrame previous = computedFrame(VIEWPORT, MAX_ITERATIONS);
+        // Кадр сдвинут на 3 пикселя вправо и 2 вверх: пиксель (x, y) - бывший (x + 3, y - 2)
+        Viewport moved = VIEWPORT.pan(3 * mapper.getPixelSpacingX(), 2 * mapper.getPixelSpacingY());
+        TemporalFrame next = emptyFrame(moved, MAX_ITERATIONS);
+        assertEquals((WIDTH - 3) * (HEIGHT - 2), next.reprojectFrom(previous, 0.01, 1.0));
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int value = next.iterations[y * WIDTH + x];
+                if (x + 3 < WIDTH && y - 2 >= 0) {
+                    assertEquals(previous.iterations[(y - 2) * WIDTH + x + 3], value, "пиксель " + x + "," + y);
+                } else {
+                    assertEquals(TemporalFrame.MISSING, value, "открывшийся пиксель " + x + "," + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    void deepPanMovesSamples() {
+        // Ширина 1e-20: сдвиг на несколько пикселей меньше ulp координат центра в double
+        Viewport deep = new Viewport(new BigDecimal("-1.74908126902375588716629335"), new BigDecimal("0.1"),
+                                     1e-20, 0.75e-20);
+        CoordinateMapper mapper = new CoordinateMapper(deep, WIDTH, HEIGHT);
+        TemporalFrame previous = emptyFrame(deep, MAX_ITERATIONS);
+        for (int i = 0; i < WIDTH * HEIGHT; i++) {
+            previous.iterations[i] = i % MAX_ITERATIONS;
+            previous.sampleSpacing[i] = (float) mapper.getPixelSpacingX();
+        }
+        Viewport moved = deep.pan(3 * mapper.getPixelSpacingX(), 2 * mapper.getPixelSpacingY());
+        TemporalFrame next = emptyFrame(moved, MAX_ITERATIONS);
+        assertEquals((WIDTH - 3) * (HEIGHT - 2), next.reprojectFrom(previous, 0.01, 1.0));
+        for (int y = 2; y < HEIGHT; y++) {
+            for (int x = 0; x + 3 < WIDTH; x++) {
+                assertEquals(previous.iterations[(y - 2) * WIDTH + x + 3], next.iterations[y * WIDTH + x],
+                             "пиксель " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void sampleOffsetLimitsReuse() {
+        CoordinateMapper mapper = new CoordinateMapper(VIEWPORT, WIDTH, HEIGHT);
+        TemporalFrame previous = computedFrame(VIEWPORT, MAX_ITERATIONS);
+        Viewport moved = VIEWPORT.pan(0.4 * mapper.getPixelSpacingX(), 0.0);
+        assertEquals(0, emptyFrame(moved, MAX_ITERATIONS).reprojectFrom(previous, 0.25, 2.0));
+        TemporalFrame next = emptyFrame(moved, MAX_ITERATIONS);
+        // Отклонение 0.4 пикселя допустимо: каждая точка остается в своем столбце, левее центра
+        assertEquals(WIDTH * HEIGHT, next.reprojectFrom(previous, 0.5, 2.0));
+        assertEquals(-0.4f, next.offsetX[0], 1e-4f);
+        assertEquals(previous.iterations[5], next.iterations[5]);
+    }
+
+    @Test
+    void magnificationLimitsReuse() {
+        TemporalFrame previous = computedFrame(VIEWPORT, MAX_ITERATIONS);
+        // Зум x2 к центру: точки прошлого кадра попадают в каждый второй пиксель
+        Viewport zoomed = new Viewport(-1.25, 0.25, -0.5625, 0.5625);
+        assertEquals(0, emptyFrame(zoomed, MAX_ITERATIONS).reprojectFrom(previous, 0.25, 1.5));
+        TemporalFrame next = emptyFrame(zoomed, MAX_ITERATIONS);
+        int reused = next.reprojectFrom(previous, 0.25, 2.0);
+        // Старый пиксель (x, y) попадает в (2x - 20, 2y - 15): 21 четный столбец и 15 нечетных строк
+        assertEquals(21 * 15, reused);
+        // Центр остается на месте; перенесенная точка хранит размер пикселя кадра, где она была посчитана
+        int center = (HEIGHT / 2) * WIDTH + WIDTH / 2;
+        assertEquals(previous.iterations[center], next.iterations[center]);
+        double spacing = new CoordinateMapper(zoomed, WIDTH, HEIGHT).getPixelSpacingX();
+        assertEquals(2 * spacing, next.sampleSpacing[center], 1e-6 * spacing);
+        // Следующий зум x2 делает эти точки увеличенными в 4 раза - они больше не переносятся
+        TemporalFrame deeper = emptyFrame(new Viewport(-0.875, -0.125, -0.28125, 0.28125), MAX_ITERATIONS);
+        assertEquals(0, deeper.reprojectFrom(next, 0.25, 2.0));
+    }
+
+    @Test
+    void zoomOutKeepsSampleNearestToPixelCentre() {
+        TemporalFrame previous = computedFrame(VIEWPORT, MAX_ITERATIONS);
+        TemporalFrame next = emptyFrame(new Viewport(-3.5, 2.5, -2.25, 2.25), MAX_ITERATIONS);
+        int reused = next.reprojectFrom(previous, 0.25, 2.0);
+        assertTrue(reused > 0 && reused < WIDTH * HEIGHT / 3, "перенесено " + reused);
+        for (int i = 0; i < WIDTH * HEIGHT; i++) {
+            if (next.iterations[i] != TemporalFrame.MISSING) {
+                assertEquals(0.0f, next.offsetX[i], "при зуме x0.5 точные центры есть у каждого заполненного пикселя");
+                assertEquals(0.0f, next.offsetY[i]);
+            }
+        }
+    }
+
+    @Test
+    void iterationsFollowNewMaxIterations() {
+        TemporalFrame previous = computedFrame(VIEWPORT, MAX_ITERATIONS);
+        int interior = 0;
+        for (int value : previous.iterations) {
+            if (value == MAX_ITERATIONS) {
+                interior++;
+            }
+        }
+        assertTrue(interior > 0);
+
+        // Больше итераций: не убежавшие точки могли бы убежать позже и не переносятся
+        TemporalFrame more = emptyFrame(VIEWPORT, 2 * MAX_ITERATIONS);
+        assertEquals(WIDTH * HEIGHT - interior, more.reprojectFrom(previous, 0.0, 1.0));
+        // Меньше итераций: все точки переносятся, значения ограничиваются новым maxIterations
+        TemporalFrame fewer = emptyFrame(VIEWPORT, 10);
+        assertEquals(WIDTH * HEIGHT, fewer.reprojectFrom(previous, 0.0, 1.0));
+        for (int i = 0; i < WIDTH * HEIGHT; i++) {
+            assertEquals(Math.min(previous.iterations[i], 10), fewer.iterations[i]);
+        }
+    }
+
+    @Test
+    void incompatibleFramesReuseNothing() {
+        TemporalFrame previous = computedFrame(VIEWPORT, MAX_ITERATIONS);
+        TemporalFrame otherFunction = new TemporalFrame(image(), new CoordinateMapper(VIEWPORT, WIDTH, HEIGHT),
+                                                        MAX_ITERATIONS, new MandelbrotFunction(false) {
+                                                            @Override
+                                                            public boolean equals(Object obj) {
+                                                                return obj == this;
+                                                            }
+                                                        });
+        assertEquals(0, otherFunction.reprojectFrom(previous, 0.5, 2.0));
+        assertEquals(0, emptyFrame(VIEWPORT, MAX_ITERATIONS).reprojectFrom(TemporalFrame.withoutSamples(image()), 0.5, 2.0));
+    }
+
+    /** Кадр, все пиксели которого посчитаны (как после рендеринга в AnimationService). */
+    private static TemporalFrame computedFrame(Viewport viewport, int maxIterations) {
+        TemporalFrame frame = emptyFrame(viewport, maxIterations);
+        CoordinateMapper mapper = new CoordinateMapper(viewport, WIDTH, HEIGHT);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int i = y * WIDTH + x;
+                frame.iterations[i] = FUNCTION.calculateIterations(0.0, 0.0, mapper.re(x), mapper.im(y), maxIterations);
+                frame.sampleSpacing[i] = (float) mapper.getPixelSpacingX();
+            }
+        }
+        return frame;
+    }
+
+    private static TemporalFrame emptyFrame(Viewport viewport, int maxIterations) {
+        return new TemporalFrame(image(), new CoordinateMapper(viewport, WIDTH, HEIGHT), maxIterations, FUNCTION);
+    }
+
+    private static BufferedImage image() {
+        return new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+    }
+}
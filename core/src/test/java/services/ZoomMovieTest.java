@@ -0,0 +1,288 @@
+// File: core/src/test/java/services/ZoomMovieTest.java
+package services;
+
+import math.MandelbrotFunction;
+import model.FractalState;
+import model.NonlinearRGBScheme;
+import model.Viewport;
+import org.junit.jupiter.api.Test;
+import render.Tile;
+import utils.CoordinateMapper;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Слои зум-видео: выбор пары слоев, сборка кадра и ограничения сегмента. */
+class ZoomMovieTest {
+
+    private static final int WIDTH = 80;
+    private static final int HEIGHT = 60;
+    private static final double CENTER_RE = -0.5;
+    private static final double CENTER_IM = 0.1;
+    /** Центр глубоких состояний: знаков больше, чем в double. */
+    private static final BigDecimal DEEP_CENTER_RE = new BigDecimal("-1.74908126902375588716629335");
+    private static final BigDecimal DEEP_CENTER_IM = new BigDecimal("0.00000000000000000000000123");
+    /** Поле цвета для слоев с центром (CENTER_RE, CENTER_IM). */
+    private static final Field FIELD = new Field(new BigDecimal(CENTER_RE), new BigDecimal(CENTER_IM), 1.0);
+    /** Синий канал внутреннего слоя в {@link #innerWeightsAreBlended}: по нему виден вес слоя. */
+    private static final int INNER_BLUE = 200;
+
+    private final ExportProfile profile = ExportProfile.of(WIDTH, HEIGHT, 1, 1).withZoomMovie();
+
+    @Test
+    void detectsPureZoomSegments() {
+        assertTrue(ZoomMovie.isPureZoom(state(4.0), state(0.01), WIDTH));
+        assertTrue(ZoomMovie.isPureZoom(state(0.01), state(4.0), WIDTH));
+        // Те же ширины - не зум
+        assertFalse(ZoomMovie.isPureZoom(state(4.0), state(4.0), WIDTH));
+        // Центр сдвинут на пиксель видео на глубоком кадре
+        FractalState shifted = state(0.01).withViewport(state(0.01).getViewport().pan(0.01 / WIDTH, 0.0));
+        assertFalse(ZoomMovie.isPureZoom(state(4.0), shifted, WIDTH));
+        FractalState nearlyCentred = state(0.01).withViewport(state(0.01).getViewport().pan(0.2 * 0.01 / WIDTH, 0.0));
+        assertTrue(ZoomMovie.isPureZoom(state(4.0), nearlyCentred, WIDTH));
+    }
+
+    @Test
+    void detectsPureZoomSegmentsAtDeepZoom() {
+        assertTrue(ZoomMovie.isPureZoom(deepState(1e-12), deepState(1e-25), WIDTH));
+        // Сдвиг на пиксель видео меньше ulp центра в double, но виден в BigDecimal
+        FractalState shifted = deepState(1e-25).withViewport(deepState(1e-25).getViewport().pan(1e-25 / WIDTH, 0.0));
+        assertFalse(ZoomMovie.isPureZoom(deepState(1e-12), shifted, WIDTH));
+        FractalState nearlyCentred = deepState(1e-25).withViewport(
+                deepState(1e-25).getViewport().pan(0.0, 0.2 * 1e-25 / WIDTH));
+        assertTrue(ZoomMovie.isPureZoom(deepState(1e-12), nearlyCentred, WIDTH));
+    }
+
+    @Test
+    void layerStepsKeepNeighbourRatio() {
+        assertEquals(1, ZoomMovie.layerSteps(state(4.0), state(3.0)));
+        assertEquals(2, ZoomMovie.layerSteps(state(4.0), state(1.0)));
+        assertEquals(3, ZoomMovie.layerSteps(state(4.0), state(0.5)));
+        assertEquals(3, ZoomMovie.layerSteps(state(4.0), state(0.8)));
+        assertEquals(3, ZoomMovie.layerSteps(state(0.5), state(4.0)));
+    }
+
+    @Test
+    void framesInFlightCountLayers() {
+        // Слой в 4 раза больше кадра: в бюджет 64 млн пикселей при 4K помещается только один кадр
+        assertEquals(1, ZoomMovie.framesInFlight(new ExportProfile(3840, 2160, 1, 64, 8, 8)));
+        assertEquals(4, ZoomMovie.framesInFlight(new ExportProfile(1920, 1080, 1, 64, 8, 8)));
+        // Не больше, чем задано в профиле
+        assertEquals(2, ZoomMovie.framesInFlight(new ExportProfile(800, 600, 1, 64, 2, 2)));
+        assertEquals(26, ZoomMovie.framesInFlight(new ExportProfile(800, 600, 1, 64, 32, 32)));
+    }
+
+    @Test
+    void layerBeforeFindsEnclosingPair() {
+        ZoomMovie movie = new ZoomMovie(List.of(state(4.0), state(2.0), state(1.0)), profile);
+        assertEquals(0, movie.layerBefore(state(4.0)));
+        assertEquals(0, movie.layerBefore(state(2.5)));
+        assertEquals(1, movie.layerBefore(state(2.0)));
+        assertEquals(1, movie.layerBefore(state(1.2)));
+        assertEquals(1, movie.layerBefore(state(1.0)));
+        // Зум наружу: слои идут от узкого к широкому
+        ZoomMovie outward = new ZoomMovie(List.of(state(1.0), state(2.0), state(4.0)), profile);
+        assertEquals(0, outward.layerBefore(state(1.5)));
+        assertEquals(1, outward.layerBefore(state(3.0)));
+    }
+
+    @Test
+    void layersAreRenderedOnceUntilReleased() {
+        ZoomMovie movie = new ZoomMovie(List.of(state(4.0), state(2.0), state(1.0)), profile);
+        AtomicInteger renders = new AtomicInteger();
+        Function<FractalState, CompletableFuture<BufferedImage>> render = layerState -> {
+            renders.incrementAndGet();
+            return CompletableFuture.completedFuture(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB));
+        };
+        CompletableFuture<BufferedImage> first = movie.layer(0, render);
+        assertSame(first, movie.layer(0, render));
+        movie.layer(1, render);
+        assertEquals(2, renders.get());
+        movie.retainLayers(1, 2);
+        movie.layer(1, render);
+        assertEquals(2, renders.get());
+        movie.layer(0, render);
+        assertEquals(3, renders.get(), "освобожденный слой рендерится заново");
+        movie.releaseLayers();
+        movie.layer(1, render);
+        assertEquals(4, renders.get());
+        assertEquals(WIDTH * ZoomMovie.LAYER_SCALE, movie.getLayerProfile().getWidth());
+        assertEquals(HEIGHT * ZoomMovie.LAYER_SCALE, movie.getLayerProfile().getHeight());
+    }
+
+    @Test
+    void edgeRampFadesTowardLayerEdge() {
+        assertEquals(0.0, ZoomMovie.edgeRamp(-1.0, 100, 10.0));
+        assertEquals(0.0, ZoomMovie.edgeRamp(100.0, 100, 10.0));
+        assertEquals(0.0, ZoomMovie.edgeRamp(-0.5, 100, 10.0));
+        assertEquals(0.5, ZoomMovie.edgeRamp(4.5, 100, 10.0), 1e-12);
+        assertEquals(0.5, ZoomMovie.edgeRamp(94.5, 100, 10.0), 1e-12);
+        assertEquals(1.0, ZoomMovie.edgeRamp(50.0, 100, 10.0));
+        // Без спада вес постоянен внутри слоя
+        assertEquals(1.0, ZoomMovie.edgeRamp(-0.25, 100, 0.0));
+        assertEquals(0.0, ZoomMovie.edgeRamp(-0.75, 100, 0.0));
+    }
+
+    @Test
+    void composedFramesFollowLayerContent() {
+        // Слои - линейное поле цвета по координатам: собранный кадр должен совпасть с тем же полем
+        assertComposedFieldMatches(FIELD, ZoomMovieTest::state, 1.0);
+    }
+
+    @Test
+    void composedDeepFramesFollowLayerContent() {
+        // Ширины ~1e-20: координаты точек кадра в double неразличимы, сборка идет по смещениям от центров
+        double unit = 1e-20;
+        assertComposedFieldMatches(new Field(DEEP_CENTER_RE, DEEP_CENTER_IM, unit), ZoomMovieTest::deepState, unit);
+    }
+
+    /** Слои шириной 4, 2 и 1 {@code unit}: кадры между ними совпадают с полем цвета. */
+    private void assertComposedFieldMatches(Field field, DoubleFunction<FractalState> state, double unit) {
+        List<FractalState> layers = List.of(state.apply(4.0 * unit), state.apply(2.0 * unit), state.apply(unit));
+        ZoomMovie movie = new ZoomMovie(layers, profile);
+        BufferedImage[] images = new BufferedImage[layers.size()];
+        for (int i = 0; i < images.length; i++) {
+            images[i] = field.image(layers.get(i), 0);
+        }
+        for (double frameWidth : new double[]{4.0, 3.3, 2.0, 1.7, 1.2, 1.0}) {
+            FractalState frame = state.apply(frameWidth * unit);
+            CoordinateMapper mapper = new CoordinateMapper(frame.getViewport(), WIDTH, HEIGHT);
+            int[] pixels = compose(movie, frame, images, mapper);
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int x = 0; x < WIDTH; x++) {
+                    int expected = field.color(mapper, x, y, 0);
+                    int actual = pixels[y * WIDTH + x];
+                    for (int shift = 8; shift <= 16; shift += 8) {
+                        assertEquals((expected >> shift) & 0xFF, (actual >> shift) & 0xFF, 2.0,
+                                     "ширина " + frameWidth + ", пиксель " + x + "," + y);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void innerWeightsAreBlended() {
+        // Синий канал: 0 у внешнего слоя, INNER_BLUE у внутреннего - по нему виден вес внутреннего слоя
+        List<FractalState> layers = List.of(state(4.0), state(2.0));
+        ZoomMovie movie = new ZoomMovie(layers, profile);
+        BufferedImage[] images = {FIELD.image(layers.get(0), 0), FIELD.image(layers.get(1), INNER_BLUE)};
+
+        assertBlue(movie, images, 4.0, 0, 0, "на ширине внешнего слоя");
+        assertBlue(movie, images, 2.0, INNER_BLUE, INNER_BLUE, "на ширине внутреннего слоя");
+
+        // Посередине (в логарифме ширины) вес 0.5 в центре и 0 за краем внутреннего слоя
+        double middle = Math.sqrt(8.0);
+        FractalState frame = state(middle);
+        CoordinateMapper mapper = new CoordinateMapper(frame.getViewport(), WIDTH, HEIGHT);
+        int[] pixels = compose(movie, frame, images, mapper);
+        assertEquals(INNER_BLUE / 2, blue(pixels[(HEIGHT / 2) * WIDTH + WIDTH / 2]), 1.0);
+        assertEquals(0, blue(pixels[0]));
+        assertEquals(0, blue(pixels[HEIGHT * WIDTH - 1]));
+        // Вдоль средней строки вес растет от края слоя плавно, без скачка
+        int row = (HEIGHT / 2) * WIDTH;
+        int ramp = 0;
+        for (int x = 1; x <= WIDTH / 2; x++) {
+            int step = blue(pixels[row + x]) - blue(pixels[row + x - 1]);
+            assertTrue(step >= 0 && step < INNER_BLUE / 4, "скачок веса у столбца " + x + ": " + step);
+            if (blue(pixels[row + x]) > 0 && blue(pixels[row + x]) < INNER_BLUE / 2) {
+                ramp++;
+            }
+        }
+        assertTrue(ramp >= 2, "нет спада веса у края слоя");
+    }
+
+    private static void assertBlue(ZoomMovie movie, BufferedImage[] images, double frameWidth,
+                                   int expectedEdge, int expectedCenter, String message) {
+        FractalState frame = state(frameWidth);
+        CoordinateMapper mapper = new CoordinateMapper(frame.getViewport(), WIDTH, HEIGHT);
+        int[] pixels = compose(movie, frame, images, mapper);
+        assertEquals(expectedEdge, blue(pixels[0]), message);
+        assertEquals(expectedCenter, blue(pixels[(HEIGHT / 2) * WIDTH + WIDTH / 2]), message);
+        for (int pixel : pixels) {
+            assertTrue(blue(pixel) == expectedCenter || blue(pixel) == expectedEdge, message);
+        }
+    }
+
+    /** Собирает кадр по тайлам (как AnimationService). */
+    private static int[] compose(ZoomMovie movie, FractalState frame, BufferedImage[] images, CoordinateMapper mapper) {
+        int index = movie.layerBefore(frame);
+        ZoomMovie.Composition composition = movie.compose(frame, index, images[index], images[index + 1], mapper);
+        int[] pixels = new int[WIDTH * HEIGHT];
+        for (int y = 0; y < HEIGHT; y += 16) {
+            for (int x = 0; x < WIDTH; x += 16) {
+                composition.renderTile(new Tile(x, y, Math.min(16, WIDTH - x), Math.min(16, HEIGHT - y)), pixels);
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Поле цвета: красный и зеленый каналы линейно зависят от смещения точки от опорного центра
+     * (в единицах {@code unit}). Смещение считается от точного центра кадра, поэтому поле
+     * определено и на глубоком зуме.
+     */
+    private static final class Field {
+        private final BigDecimal centerRe;
+        private final BigDecimal centerIm;
+        private final double unit;
+
+        Field(BigDecimal centerRe, BigDecimal centerIm, double unit) {
+            this.centerRe = centerRe;
+            this.centerIm = centerIm;
+            this.unit = unit;
+        }
+
+        /** Изображение слоя: цвет каждого пикселя - {@link #color} в его центре. */
+        BufferedImage image(FractalState layer, int blue) {
+            int width = WIDTH * ZoomMovie.LAYER_SCALE;
+            int height = HEIGHT * ZoomMovie.LAYER_SCALE;
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            CoordinateMapper mapper = new CoordinateMapper(layer.getViewport(), width, height);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    pixels[y * width + x] = color(mapper, x, y, blue);
+                }
+            }
+            return image;
+        }
+
+        int color(CoordinateMapper mapper, int x, int y, int blue) {
+            double re = mapper.getCenterRe().subtract(centerRe).doubleValue() + mapper.deltaRe(x);
+            double im = mapper.getCenterIm().subtract(centerIm).doubleValue() + mapper.deltaIm(y);
+            int red = (int) Math.round(128 + 30 * re / unit);
+            int green = (int) Math.round(128 + 30 * im / unit);
+            return (red << 16) | (green << 8) | blue;
+        }
+    }
+
+    private static int blue(int rgb) {
+        return rgb & 0xFF;
+    }
+
+    /** Состояние с центром (CENTER_RE, CENTER_IM) и соотношением сторон видео. */
+    private static FractalState state(double width) {
+        double height = width * HEIGHT / WIDTH;
+        Viewport viewport = new Viewport(CENTER_RE - width / 2, CENTER_RE + width / 2,
+                                         CENTER_IM - height / 2, CENTER_IM + height / 2);
+        return new FractalState(viewport, 100, new NonlinearRGBScheme(), new MandelbrotFunction());
+    }
+
+    /** Состояние в высокоточной форме с центром (DEEP_CENTER_RE, DEEP_CENTER_IM). */
+    private static FractalState deepState(double width) {
+        Viewport viewport = new Viewport(DEEP_CENTER_RE, DEEP_CENTER_IM, width, width * HEIGHT / WIDTH);
+        return new FractalState(viewport, 100, new NonlinearRGBScheme(), new MandelbrotFunction());
+    }
+}